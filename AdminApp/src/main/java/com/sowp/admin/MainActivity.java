@@ -2,16 +2,20 @@ package com.sowp.admin;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
+import com.google.firebase.firestore.FirebaseFirestore;
+
 import com.sowp.admin.assignmentmanagement.AssignmentManagementActivity;
 import com.sowp.admin.coursemanagement.CoursesManagementActivity;
 import com.sowp.admin.quizmanagement.QuizManagementActivity;
 import com.sowp.admin.topicmanagement.TopicManagementActivity;
 import com.sowp.admin.usermanagement.UserManagementActivity;
+import com.sowp.shared.courses.CourseSummaries;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -69,6 +73,27 @@ public class MainActivity extends AppCompatActivity {
             }
         });
 
+        ensureCourseSummaries();
+    }
+
+    // The user app reads course lists from summaries once every course has one, so any missing
+    // summaries (courses created before they existed) are written as soon as an admin signs in
+    private void ensureCourseSummaries() {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        CourseSummaries.checkComplete(db, complete -> {
+            if (complete) return;
+            CourseSummaries.rebuild(db, new CourseSummaries.RebuildCallback() {
+                @Override
+                public void onComplete(int writtenCount) {
+                    Log.d("MainActivity", "Wrote " + writtenCount + " course summaries");
+                }
+
+                @Override
+                public void onFailure(String message) {
+                    Log.e("MainActivity", "Course summary rebuild failed: " + message);
+                }
+            });
+        });
     }
 
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.chip.Chip;
@@ -19,11 +21,38 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class AssignmentAdapter extends RecyclerView.Adapter<AssignmentAdapter.AssignmentViewHolder> {
 
+    private static final DiffUtil.ItemCallback<Assignment> DIFF_CALLBACK = new DiffUtil.ItemCallback<Assignment>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Assignment oldAssignment, @NonNull Assignment newAssignment) {
+            return oldAssignment.getId() == newAssignment.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Assignment oldAssignment, @NonNull Assignment newAssignment) {
+            return Objects.equals(oldAssignment.getTitle(), newAssignment.getTitle())
+                    && Objects.equals(oldAssignment.getDescription(), newAssignment.getDescription())
+                    && oldAssignment.getScore() == newAssignment.getScore()
+                    && oldAssignment.getPassingScore() == newAssignment.getPassingScore()
+                    && Objects.equals(oldAssignment.getSemester(), newAssignment.getSemester())
+                    && oldAssignment.getCreatedAt() == newAssignment.getCreatedAt()
+                    && imageCount(oldAssignment) == imageCount(newAssignment)
+                    && Objects.equals(oldAssignment.getTags(), newAssignment.getTags())
+                    && Objects.equals(oldAssignment.getCategories(), newAssignment.getCategories());
+        }
+
+        // Rows only show how many images there are, so the Base64 payloads are never compared
+        private int imageCount(Assignment assignment) {
+            return assignment.getBase64Images() == null ? 0 : assignment.getBase64Images().size();
+        }
+    };
+
     private Context context;
-    private List<Assignment> assignments;
+    // Page changes are diffed in the background, so only rows that changed are rebound
+    private final AsyncListDiffer<Assignment> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private OnAssignmentClickListener listener;
     private SimpleDateFormat dateFormat;
 
@@ -33,9 +62,8 @@ public class AssignmentAdapter extends RecyclerView.Adapter<AssignmentAdapter.As
 
     public AssignmentAdapter(Context context, List<Assignment> assignments, OnAssignmentClickListener listener) {
         this.context = context;
-        // Create defensive copy to prevent concurrent modification
-        this.assignments = new ArrayList<>(assignments);
         this.listener = listener;
+        updateAssignments(assignments);
         this.dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
     }
 
@@ -48,6 +76,7 @@ public class AssignmentAdapter extends RecyclerView.Adapter<AssignmentAdapter.As
 
     @Override
     public void onBindViewHolder(@NonNull AssignmentViewHolder holder, int position) {
+        List<Assignment> assignments = differ.getCurrentList();
         if (position >= 0 && position < assignments.size()) {
             Assignment assignment = assignments.get(position);
             holder.bind(assignment, position);
@@ -56,23 +85,14 @@ public class AssignmentAdapter extends RecyclerView.Adapter<AssignmentAdapter.As
 
     @Override
     public int getItemCount() {
-        return assignments.size();
+        return differ.getCurrentList().size();
     }
 
     /**
-     * Thread-safe method to update assignments list
-     * Creates defensive copies to prevent ConcurrentModificationException
+     * Shows {@code newAssignments}; the list is copied, so callers may keep changing theirs.
      */
     public void updateAssignments(List<Assignment> newAssignments) {
-        if (newAssignments == null) {
-            this.assignments.clear();
-        } else {
-            // Create a defensive copy to avoid ConcurrentModificationException
-            List<Assignment> safeCopy = new ArrayList<>(newAssignments);
-            this.assignments.clear();
-            this.assignments.addAll(safeCopy);
-        }
-        notifyDataSetChanged();
+        differ.submitList(newAssignments == null ? new ArrayList<>() : new ArrayList<>(newAssignments));
     }
 
     public class AssignmentViewHolder extends RecyclerView.ViewHolder {
@@ -99,6 +119,7 @@ public class AssignmentAdapter extends RecyclerView.Adapter<AssignmentAdapter.As
 
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
+                List<Assignment> assignments = differ.getCurrentList();
                 if (position != RecyclerView.NO_POSITION && position < assignments.size() && listener != null) {
                     listener.onAssignmentClick(assignments.get(position));
                 }
@@ -1,16 +1,12 @@
 package com.sowp.admin.assignmentmanagement;
 
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
-import android.util.Base64;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -19,15 +15,23 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.WriteBatch;
 import com.sowp.admin.R;
+import com.sowp.shared.images.ImageLoader;
+import com.sowp.shared.images.PerceptualHash;
+import com.sowp.shared.images.SubmissionFingerprints;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -35,15 +39,19 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 
 public class AssignmentDetailsActivity extends AppCompatActivity {
 
     private static final String TAG = "AssignmentDetailsActivity";
+    // Candidate fingerprint documents read per query when looking for copied pages
+    private static final int SIMILAR_CANDIDATE_LIMIT = 50;
 
     // UI Components
     private TextView tvAssignmentTitle, tvStudentEmail, tvSubmissionTime, tvImageCount, tvMaxScore;
-    private LinearLayout imagesContainer;
-    private ProgressBar progressBar, imageLoadingProgress;
+    private TextView tvSimilarSubmissions;
+    private RecyclerView rvSubmittedImages;
+    private ProgressBar progressBar;
     private MaterialCardView detailsCard, imagesCard, gradingCard;
     private Button btnGradeAssignment;
     private TextInputLayout tilScore, tilFeedback;
@@ -85,13 +93,14 @@ public class AssignmentDetailsActivity extends AppCompatActivity {
         tvSubmissionTime = findViewById(R.id.tvSubmissionTime);
         tvImageCount = findViewById(R.id.tvImageCount);
         tvMaxScore = findViewById(R.id.tvMaxScore);
+        tvSimilarSubmissions = findViewById(R.id.tvSimilarSubmissions);
 
-        // Layouts and containers
-        imagesContainer = findViewById(R.id.imagesContainer);
+        // Submitted images
+        rvSubmittedImages = findViewById(R.id.rvSubmittedImages);
+        rvSubmittedImages.setLayoutManager(new LinearLayoutManager(this));
 
-        // Progress bars
+        // Progress bar
         progressBar = findViewById(R.id.progressBar);
-        imageLoadingProgress = findViewById(R.id.imageLoadingProgress);
 
         // Cards
         detailsCard = findViewById(R.id.detailsCard);
@@ -132,6 +141,7 @@ public class AssignmentDetailsActivity extends AppCompatActivity {
                         showLoading(false);
                         populateDetails();
                         loadSubmittedImages();
+                        findSimilarSubmissions();
                     } else {
                         showLoading(false);
                         showError("Assignment attempt not found");
@@ -197,101 +207,87 @@ public class AssignmentDetailsActivity extends AppCompatActivity {
             return;
         }
 
-        imageLoadingProgress.setVisibility(View.VISIBLE);
-        imagesContainer.removeAllViews();
-
-        // Load each image in background thread
-        new Thread(() -> {
-            for (int i = 0; i < imagesList.size(); i++) {
-                final int imageIndex = i + 1;
-                final Object imageObj = imagesList.get(i);
-                final boolean isLast = i == imagesList.size() - 1;
-
-                if (imageObj instanceof String) {
-                    String base64Image = (String) imageObj;
-                    if (!base64Image.trim().isEmpty()) {
-                        loadSingleImage(base64Image, imageIndex, isLast);
-                    } else {
-                        runOnUiThread(() -> {
-                            addErrorImageView("Invalid image data for Image " + imageIndex);
-                            if (isLast) imageLoadingProgress.setVisibility(View.GONE);
-                        });
-                    }
-                } else {
-                    runOnUiThread(() -> {
-                        addErrorImageView("Invalid image format for Image " + imageIndex);
-                        if (isLast) imageLoadingProgress.setVisibility(View.GONE);
-                    });
-                }
-            }
-        }).start();
+        // Rows decode their own thumbnails in the background as they are bound
+        rvSubmittedImages.setAdapter(new SubmittedImageAdapter(imagesList, this::showFullScreenImage));
     }
 
-    private void loadSingleImage(String base64Image, int imageIndex, boolean isLast) {
-        try {
-            // Convert Base64 to Bitmap
-            byte[] decodedBytes = Base64.decode(base64Image, Base64.DEFAULT);
-            Bitmap bitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-
-            runOnUiThread(() -> {
-                if (bitmap != null) {
-                    addImageView(bitmap, imageIndex);
-                } else {
-                    addErrorImageView("Failed to load Image " + imageIndex);
-                }
-
-                if (isLast) {
-                    imageLoadingProgress.setVisibility(View.GONE);
-                }
-            });
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading image " + imageIndex, e);
-            runOnUiThread(() -> {
-                addErrorImageView("Error loading Image " + imageIndex);
-                if (isLast) imageLoadingProgress.setVisibility(View.GONE);
-            });
+    /**
+     * Flags pages that closely match a page of another student's submission. Each page's perceptual
+     * hash bands find candidates among all students' {@link SubmissionFingerprints} documents, which
+     * are then checked bit by bit. Candidates are read a page at a time until one matches or none
+     * are left, since common bands (blank pages, say) can fill a page with the student's own
+     * documents or with ones that share a band without being close.
+     */
+    private void findSimilarSubmissions() {
+        List<?> fingerprints = (List<?>) assignmentData.get("submittedImageFingerprints");
+        if (fingerprints == null || fingerprints.isEmpty()) {
+            // Submitted before fingerprints were recorded
+            return;
         }
-    }
-
-    private void addImageView(Bitmap bitmap, int imageIndex) {
-        View imageItemView = LayoutInflater.from(this).inflate(R.layout.item_submitted_image, imagesContainer, false);
-
-        ImageView imageView = imageItemView.findViewById(R.id.ivSubmittedImage);
-        TextView tvImageTitle = imageItemView.findViewById(R.id.tvImageTitle);
-        TextView tvImageSize = imageItemView.findViewById(R.id.tvImageSize);
-
-        // Set image
-        imageView.setImageBitmap(bitmap);
 
-        // Set title
-        tvImageTitle.setText("Image " + imageIndex);
-
-        // Calculate and display image size
-        long sizeInBytes = bitmap.getByteCount();
-        String sizeText = formatFileSize(sizeInBytes);
-        tvImageSize.setText(bitmap.getWidth() + " × " + bitmap.getHeight() + " • " + sizeText);
-
-        // Add click listener for full screen view
-        imageView.setOnClickListener(v -> showFullScreenImage(bitmap, "Image " + imageIndex));
+        // Attempts and fingerprints both live under User/{email}, so the student's own are skipped
+        DocumentReference student = db.document(assignmentAttemptRefPath).getParent().getParent();
+        String studentId = student != null ? student.getId() : null;
+
+        Map<Integer, String> matches = new TreeMap<>();
+        for (int i = 0; i < fingerprints.size(); i++) {
+            if (!(fingerprints.get(i) instanceof String)) continue;
+            final int pageIndex = i + 1;
+            final String fingerprint = (String) fingerprints.get(i);
+
+            Query candidates = db.collectionGroup(SubmissionFingerprints.COLLECTION)
+                    .whereArrayContainsAny(SubmissionFingerprints.FIELD_BANDS, PerceptualHash.bands(fingerprint))
+                    .orderBy(FieldPath.documentId())
+                    .limit(SIMILAR_CANDIDATE_LIMIT);
+            findSimilarPage(candidates, null, fingerprint, pageIndex, studentId, matches);
+        }
+    }
 
-        imagesContainer.addView(imageItemView);
+    private void findSimilarPage(Query candidates, DocumentSnapshot lastCandidate, String fingerprint,
+                                 int pageIndex, String studentId, Map<Integer, String> matches) {
+        Query page = lastCandidate != null ? candidates.startAfter(lastCandidate) : candidates;
+        page.get()
+                .addOnSuccessListener(snapshot -> {
+                    if (isDestroyed()) return;
+
+                    List<DocumentSnapshot> documents = snapshot.getDocuments();
+                    for (DocumentSnapshot candidate : documents) {
+                        DocumentReference user = candidate.getReference().getParent().getParent();
+                        if (user == null || user.getId().equals(studentId)) continue;
+                        if (!containsNearDuplicate(candidate.get(SubmissionFingerprints.FIELD_FINGERPRINTS), fingerprint)) continue;
+
+                        matches.put(pageIndex, user.getId());
+                        showSimilarSubmissions(matches);
+                        return;
+                    }
+                    if (documents.size() == SIMILAR_CANDIDATE_LIMIT) {
+                        findSimilarPage(candidates, documents.get(documents.size() - 1), fingerprint,
+                                pageIndex, studentId, matches);
+                    }
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Failed to look up similar submissions", e));
     }
 
-    private void addErrorImageView(String errorMessage) {
-        View errorView = LayoutInflater.from(this).inflate(R.layout.item_image_error, imagesContainer, false);
-        TextView tvErrorMessage = errorView.findViewById(R.id.tvErrorMessage);
-        tvErrorMessage.setText(errorMessage);
-        imagesContainer.addView(errorView);
+    private static boolean containsNearDuplicate(Object fingerprints, String fingerprint) {
+        if (!(fingerprints instanceof List)) return false;
+        for (Object other : (List<?>) fingerprints) {
+            if (other instanceof String && PerceptualHash.isNearDuplicate(fingerprint, (String) other)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private String formatFileSize(long bytes) {
-        if (bytes < 1024) return bytes + " B";
-        int exp = (int) (Math.log(bytes) / Math.log(1024));
-        String pre = "KMGTPE".charAt(exp - 1) + "";
-        return String.format(Locale.getDefault(), "%.1f %sB", bytes / Math.pow(1024, exp), pre);
+    private void showSimilarSubmissions(Map<Integer, String> matches) {
+        StringBuilder text = new StringBuilder("Possible copied pages:");
+        for (Map.Entry<Integer, String> match : matches.entrySet()) {
+            text.append("\nImage ").append(match.getKey()).append(" closely matches a submission by ").append(match.getValue());
+        }
+        tvSimilarSubmissions.setText(text);
+        tvSimilarSubmissions.setVisibility(View.VISIBLE);
     }
 
-    private void showFullScreenImage(Bitmap bitmap, String title) {
+    private void showFullScreenImage(String base64Image, String title) {
         AlertDialog.Builder builder = new AlertDialog.Builder(this, android.R.style.Theme_Black_NoTitleBar_Fullscreen);
         View dialogView = LayoutInflater.from(this).inflate(R.layout.dialog_fullscreen_image_assignment, null);
 
@@ -299,13 +295,15 @@ public class AssignmentDetailsActivity extends AppCompatActivity {
         TextView tvFullImageTitle = dialogView.findViewById(R.id.tvFullImageTitle);
         ImageView btnClose = dialogView.findViewById(R.id.btnCloseFullscreen);
 
-        fullImageView.setImageBitmap(bitmap);
+        // Only the opened page is decoded at full-screen size, and dropped again on dismiss
+        ImageLoader.load(fullImageView, base64Image, R.drawable.ic_image);
         tvFullImageTitle.setText(title);
 
         builder.setView(dialogView);
         AlertDialog dialog = builder.create();
 
         btnClose.setOnClickListener(v -> dialog.dismiss());
+        dialog.setOnDismissListener(d -> ImageLoader.clear(fullImageView));
         dialog.show();
 
         if (dialog.getWindow() != null) {
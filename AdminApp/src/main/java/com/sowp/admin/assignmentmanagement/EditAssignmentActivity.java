@@ -5,7 +5,6 @@ import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Bundle;
-import android.provider.MediaStore;
 import android.util.Base64;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -26,8 +25,9 @@ import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.sowp.admin.R;
 import com.sowp.admin.coursemanagement.Course;
+import com.sowp.shared.images.ImageEncoder;
+import com.sowp.shared.images.ImageRole;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -307,11 +307,10 @@ public class EditAssignmentActivity extends AppCompatActivity {
 
     private void convertImageToBase64(Uri imageUri) {
         try {
-            Bitmap bitmap = MediaStore.Images.Media.getBitmap(this.getContentResolver(), imageUri);
-            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-            bitmap.compress(Bitmap.CompressFormat.JPEG, 80, byteArrayOutputStream);
-            byte[] byteArray = byteArrayOutputStream.toByteArray();
-            String base64String = Base64.encodeToString(byteArray, Base64.DEFAULT);
+            Bitmap bitmap = ImageEncoder.decodeUpright(getContentResolver(), imageUri,
+                    ImageRole.ASSIGNMENT_PAGE.maxDimension);
+            String base64String = Base64.encodeToString(
+                    ImageEncoder.encode(bitmap, ImageRole.ASSIGNMENT_PAGE), Base64.DEFAULT);
 
             base64Images.add(base64String);
             addImagePreview(bitmap);
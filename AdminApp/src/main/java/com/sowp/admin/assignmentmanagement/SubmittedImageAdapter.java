@@ -0,0 +1,118 @@
+package com.sowp.admin.assignmentmanagement;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.sowp.admin.R;
+import com.sowp.shared.images.ImageLoader;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rows of a submission's pages. Thumbnails are decoded by {@link ImageLoader} in the background at
+ * the 80dp thumbnail size, so a row never holds a full-resolution page; entries that are not
+ * Base64 images show an error row instead.
+ */
+public class SubmittedImageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    private static final int VIEW_TYPE_IMAGE = 0;
+    private static final int VIEW_TYPE_ERROR = 1;
+
+    private final List<?> images;
+    private final OnImageClickListener listener;
+
+    public interface OnImageClickListener {
+        void onImageClick(String base64Image, String title);
+    }
+
+    public SubmittedImageAdapter(List<?> images, OnImageClickListener listener) {
+        this.images = images;
+        this.listener = listener;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        Object image = images.get(position);
+        if (image instanceof String && !((String) image).trim().isEmpty()) {
+            return VIEW_TYPE_IMAGE;
+        }
+        return VIEW_TYPE_ERROR;
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        if (viewType == VIEW_TYPE_ERROR) {
+            return new ErrorViewHolder(inflater.inflate(R.layout.item_image_error, parent, false));
+        }
+        return new ImageViewHolder(inflater.inflate(R.layout.item_submitted_image, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        String title = "Image " + (position + 1);
+        if (holder instanceof ImageViewHolder) {
+            ((ImageViewHolder) holder).bind((String) images.get(position), title, listener);
+        } else {
+            ((ErrorViewHolder) holder).tvErrorMessage.setText("Invalid image data for " + title);
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
+        super.onViewRecycled(holder);
+        if (holder instanceof ImageViewHolder) {
+            ImageLoader.clear(((ImageViewHolder) holder).ivSubmittedImage);
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return images.size();
+    }
+
+    static class ImageViewHolder extends RecyclerView.ViewHolder {
+        final ImageView ivSubmittedImage;
+        final TextView tvImageTitle;
+        final TextView tvImageSize;
+
+        ImageViewHolder(@NonNull View itemView) {
+            super(itemView);
+            ivSubmittedImage = itemView.findViewById(R.id.ivSubmittedImage);
+            tvImageTitle = itemView.findViewById(R.id.tvImageTitle);
+            tvImageSize = itemView.findViewById(R.id.tvImageSize);
+        }
+
+        void bind(String base64Image, String title, OnImageClickListener listener) {
+            ImageLoader.load(ivSubmittedImage, base64Image, R.drawable.ic_image);
+            tvImageTitle.setText(title);
+            // The encoded size is known without decoding: Base64 carries 3 bytes in 4 characters
+            tvImageSize.setText(formatFileSize(base64Image.length() * 3L / 4));
+            itemView.setOnClickListener(v -> listener.onImageClick(base64Image, title));
+        }
+    }
+
+    static class ErrorViewHolder extends RecyclerView.ViewHolder {
+        final TextView tvErrorMessage;
+
+        ErrorViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvErrorMessage = itemView.findViewById(R.id.tvErrorMessage);
+        }
+    }
+
+    private static String formatFileSize(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        int exp = (int) (Math.log(bytes) / Math.log(1024));
+        String pre = "KMGTPE".charAt(exp - 1) + "";
+        return String.format(Locale.getDefault(), "%.1f %sB", bytes / Math.pow(1024, exp), pre);
+    }
+}
@@ -1,13 +1,10 @@
 package com.sowp.admin.assignmentmanagement;
 
 import android.content.Intent;
-import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Bundle;
-import android.provider.MediaStore;
 import android.text.Editable;
 import android.text.TextWatcher;
-import android.util.Base64;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -32,9 +29,10 @@ import com.google.firebase.firestore.QuerySnapshot;
 import com.sowp.admin.NotificationHelper;
 import com.sowp.admin.R;
 import com.sowp.admin.coursemanagement.Course;
+import com.sowp.shared.images.ImageLoader;
+import com.sowp.shared.images.ImagePreparer;
+import com.sowp.shared.images.ImageRole;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -60,6 +58,10 @@ public class UploadAssignmentActivity extends AppCompatActivity {
     private List<String> selectedCategories;
     private List<String> selectedTags;
     private List<String> base64Images;
+    // Content hash of each entry in base64Images, used to skip images that were already added
+    private List<String> imageHashes;
+    private ImagePreparer imagePreparer;
+    private CharSequence addImageText;
     private FirebaseFirestore firestore;
 
     @Override
@@ -81,6 +83,30 @@ public class UploadAssignmentActivity extends AppCompatActivity {
         selectedCategories = new ArrayList<>();
         selectedTags = new ArrayList<>();
         base64Images = new ArrayList<>();
+        imageHashes = new ArrayList<>();
+        imagePreparer = new ImagePreparer(getContentResolver(), ImageRole.ASSIGNMENT_PAGE, new ImagePreparer.Listener() {
+            @Override
+            public void onImagePrepared(ImagePreparer.PreparedImage image) {
+                base64Images.add(image.base64);
+                imageHashes.add(image.contentHash);
+                addImagePreview(image.base64);
+            }
+
+            @Override
+            public void onDuplicateImage(Uri uri) {
+                showToast("Image already added");
+            }
+
+            @Override
+            public void onImageFailed(Uri uri, String message) {
+                showToast("Failed to process image: " + message);
+            }
+
+            @Override
+            public void onProgress(int finished, int total) {
+                showImageProgress(finished, total);
+            }
+        });
 
         // Initialize views
         btnBack = findViewById(R.id.btnBack);
@@ -298,51 +324,46 @@ public class UploadAssignmentActivity extends AppCompatActivity {
     }
 
     private void handleImageSelection(Intent data) {
+        List<Uri> imageUris = new ArrayList<>();
         if (data.getClipData() != null) {
             // Multiple images selected
             int count = data.getClipData().getItemCount();
             for (int i = 0; i < count; i++) {
-                Uri imageUri = data.getClipData().getItemAt(i).getUri();
-                processSelectedImage(imageUri);
+                imageUris.add(data.getClipData().getItemAt(i).getUri());
             }
         } else if (data.getData() != null) {
             // Single image selected
-            Uri imageUri = data.getData();
-            processSelectedImage(imageUri);
+            imageUris.add(data.getData());
         }
-    }
-
-    private void processSelectedImage(Uri imageUri) {
-        try {
-            Bitmap bitmap = MediaStore.Images.Media.getBitmap(getContentResolver(), imageUri);
-            String base64String = convertBitmapToBase64(bitmap);
-
-            base64Images.add(base64String);
-            addImagePreview(bitmap);
 
-            showToast("Image added successfully");
+        // Decoded and compressed on the preparer's worker pool, several images at a time
+        imagePreparer.prepare(imageUris);
+    }
 
-        } catch (IOException e) {
-            Log.e(TAG, "Failed to process image", e);
-            showToast("Failed to process image: " + e.getMessage());
+    private void showImageProgress(int finished, int total) {
+        if (addImageText == null) {
+            addImageText = btnAddImage.getText();
         }
-    }
 
-    private String convertBitmapToBase64(Bitmap bitmap) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, 80, outputStream);
-        byte[] byteArray = outputStream.toByteArray();
-        return Base64.encodeToString(byteArray, Base64.DEFAULT);
+        if (finished < total) {
+            btnAddImage.setEnabled(false);
+            btnUploadAssignment.setEnabled(false);
+            btnAddImage.setText("Processing images (" + finished + "/" + total + ")");
+        } else {
+            btnAddImage.setEnabled(true);
+            btnUploadAssignment.setEnabled(true);
+            btnAddImage.setText(addImageText);
+        }
     }
 
-    private void addImagePreview(Bitmap bitmap) {
+    private void addImagePreview(String base64Image) {
         View previewView = LayoutInflater.from(this)
                 .inflate(R.layout.item_image_preview, imagesContainer, false);
 
         ImageView imgPreview = previewView.findViewById(R.id.imgPreview);
         Button btnRemove = previewView.findViewById(R.id.btnRemoveImage);
 
-        imgPreview.setImageBitmap(bitmap);
+        ImageLoader.load(imgPreview, base64Image, android.R.drawable.ic_menu_gallery);
         btnRemove.setOnClickListener(v -> removeImagePreview(previewView));
 
         imagesContainer.addView(previewView);
@@ -352,6 +373,7 @@ public class UploadAssignmentActivity extends AppCompatActivity {
         int index = imagesContainer.indexOfChild(previewView);
         if (index >= 0 && index < base64Images.size()) {
             base64Images.remove(index);
+            imagePreparer.remove(imageHashes.remove(index));
             imagesContainer.removeView(previewView);
             showToast("Image removed");
         }
@@ -566,6 +588,12 @@ public class UploadAssignmentActivity extends AppCompatActivity {
         return data;
     }
 
+    @Override
+    protected void onDestroy() {
+        imagePreparer.cancel();
+        super.onDestroy();
+    }
+
     private void showToast(String message) {
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
@@ -2,8 +2,6 @@ package com.sowp.admin.assignmentmanagement;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.text.Editable;
-import android.text.TextWatcher;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
@@ -27,6 +25,7 @@ import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.sowp.admin.R;
 import com.sowp.admin.coursemanagement.Course;
+import com.sowp.shared.search.SearchPipeline;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -49,6 +48,7 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
     private AssignmentAdapter assignmentAdapter;
     private List<Assignment> assignments;
     private List<Assignment> filteredAssignments;
+    private SearchPipeline<Assignment> searchPipeline;
     private Course currentCourse;
     private String courseId;
 
@@ -61,7 +61,6 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
     // Filter options
     private String[] filterOptions = {"All Assignments", "High Score (90+)", "Medium Score (70-89)", "Low Score (<70)", "With Images", "No Images"};
     private String currentFilter = "All Assignments";
-    private String searchQuery = "";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -109,6 +108,7 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
         firestore = FirebaseFirestore.getInstance();
         assignments = new ArrayList<>();
         filteredAssignments = new ArrayList<>();
+        searchPipeline = new SearchPipeline<>(this::assignmentMatcher, this::showFilteredAssignments);
     }
 
     private void setupRecyclerView() {
@@ -127,7 +127,7 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 currentFilter = filterOptions[position];
-                applyFilters();
+                searchPipeline.refresh();
             }
 
             @Override
@@ -150,19 +150,7 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
 
         // Search functionality
         if (etSearch != null) {
-            etSearch.addTextChangedListener(new TextWatcher() {
-                @Override
-                public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-
-                @Override
-                public void onTextChanged(CharSequence s, int start, int before, int count) {
-                    searchQuery = s.toString().trim();
-                    applyFilters();
-                }
-
-                @Override
-                public void afterTextChanged(Editable s) {}
-            });
+            etSearch.addTextChangedListener(searchPipeline.textWatcher());
         }
 
         // Pagination buttons
@@ -231,12 +219,10 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
                             }
                         }
 
-                        // Thread-safe update of the main assignments list
                         assignments.clear();
                         assignments.addAll(newAssignments);
 
-                        applyFilters();
-                        updateAssignmentCount();
+                        searchPipeline.setItems(assignments);
                     } else {
                         Toast.makeText(this, "Failed to load assignments: " +
                                         (task.getException() != null ? task.getException().getMessage() : "Unknown error"),
@@ -246,59 +232,57 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
                 });
     }
 
-    private void applyFilters() {
-        // Create a temporary list to avoid modifying filteredAssignments during iteration
-        List<Assignment> tempFilteredAssignments = new ArrayList<>();
-
-        // Use a defensive copy of the original assignments list to prevent concurrent modification
-        List<Assignment> assignmentsCopy;
-        synchronized (assignments) {
-            assignmentsCopy = new ArrayList<>(assignments);
-        }
-
-        for (Assignment assignment : assignmentsCopy) {
-            if (assignment == null) continue;
-
-            // Add null checks for safety
-            String title = assignment.getTitle() != null ? assignment.getTitle() : "";
-            String description = assignment.getDescription() != null ? assignment.getDescription() : "";
-
-            boolean matchesSearch = searchQuery.isEmpty() ||
-                    title.toLowerCase().contains(searchQuery.toLowerCase()) ||
-                    description.toLowerCase().contains(searchQuery.toLowerCase());
-
-            boolean matchesFilter = true;
-            switch (currentFilter) {
-                case "All Assignments":
-                    matchesFilter = true;
-                    break;
-                case "High Score (90+)":
-                    matchesFilter = assignment.getScore() >= 90;
-                    break;
-                case "Medium Score (70-89)":
-                    matchesFilter = assignment.getScore() >= 70 && assignment.getScore() < 90;
-                    break;
-                case "Low Score (<70)":
-                    matchesFilter = assignment.getScore() < 70;
-                    break;
-                case "With Images":
-                    matchesFilter = assignment.getBase64Images() != null && !assignment.getBase64Images().isEmpty();
-                    break;
-                case "No Images":
-                    matchesFilter = assignment.getBase64Images() == null || assignment.getBase64Images().isEmpty();
-                    break;
-            }
+    // Runs on the main thread; the returned matcher runs on the search worker
+    private SearchPipeline.Matcher<Assignment> assignmentMatcher(String query) {
+        String search = query.toLowerCase();
+        String filter = currentFilter;
+
+        return items -> {
+            List<Assignment> matches = new ArrayList<>();
+            for (Assignment assignment : items) {
+                if (assignment == null) continue;
+
+                // Add null checks for safety
+                String title = assignment.getTitle() != null ? assignment.getTitle() : "";
+                String description = assignment.getDescription() != null ? assignment.getDescription() : "";
+
+                boolean matchesSearch = search.isEmpty() ||
+                        title.toLowerCase().contains(search) ||
+                        description.toLowerCase().contains(search);
+
+                boolean matchesFilter = true;
+                switch (filter) {
+                    case "All Assignments":
+                        matchesFilter = true;
+                        break;
+                    case "High Score (90+)":
+                        matchesFilter = assignment.getScore() >= 90;
+                        break;
+                    case "Medium Score (70-89)":
+                        matchesFilter = assignment.getScore() >= 70 && assignment.getScore() < 90;
+                        break;
+                    case "Low Score (<70)":
+                        matchesFilter = assignment.getScore() < 70;
+                        break;
+                    case "With Images":
+                        matchesFilter = assignment.getBase64Images() != null && !assignment.getBase64Images().isEmpty();
+                        break;
+                    case "No Images":
+                        matchesFilter = assignment.getBase64Images() == null || assignment.getBase64Images().isEmpty();
+                        break;
+                }
 
-            if (matchesSearch && matchesFilter) {
-                tempFilteredAssignments.add(assignment);
+                if (matchesSearch && matchesFilter) {
+                    matches.add(assignment);
+                }
             }
-        }
+            return matches;
+        };
+    }
 
-        // Now safely update the filteredAssignments list
-        synchronized (filteredAssignments) {
-            filteredAssignments.clear();
-            filteredAssignments.addAll(tempFilteredAssignments);
-        }
+    private void showFilteredAssignments(List<Assignment> matches) {
+        filteredAssignments.clear();
+        filteredAssignments.addAll(matches);
 
         calculatePagination();
         currentPage = 1; // Reset to first page when filter changes
@@ -313,17 +297,10 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
 
         List<Assignment> paginatedAssignments = new ArrayList<>();
 
-        // Thread-safe access to filteredAssignments
-        synchronized (filteredAssignments) {
-            if (startIndex < filteredAssignments.size()) {
-                // Create a safe copy instead of using subList directly
-                for (int i = startIndex; i < endIndex && i < filteredAssignments.size(); i++) {
-                    paginatedAssignments.add(filteredAssignments.get(i));
-                }
-            }
+        if (startIndex < filteredAssignments.size()) {
+            paginatedAssignments.addAll(filteredAssignments.subList(startIndex, endIndex));
         }
 
-        // Update adapter with the safe copy
         assignmentAdapter.updateAssignments(paginatedAssignments);
 
         if (paginatedAssignments.isEmpty() && filteredAssignments.isEmpty()) {
@@ -334,10 +311,7 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
     }
 
     private void updateAssignmentCount() {
-        int count;
-        synchronized (filteredAssignments) {
-            count = filteredAssignments.size();
-        }
+        int count = filteredAssignments.size();
 
         String countText;
         if (count == 0) {
@@ -411,6 +385,14 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
         startActivity(intent);
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (searchPipeline != null) {
+            searchPipeline.cancel();
+        }
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -2,12 +2,12 @@ package com.sowp.admin.coursemanagement;
 
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.provider.MediaStore;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.view.View;
 import android.widget.ArrayAdapter;
 import android.widget.AutoCompleteTextView;
@@ -23,17 +23,25 @@ import com.google.android.material.button.MaterialButton;
 import com.google.android.material.switchmaterial.SwitchMaterial;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
 import com.sowp.admin.NotificationHelper;
 import com.sowp.admin.R;
+import com.sowp.shared.courses.CourseSummaries;
+import com.sowp.shared.images.ImageEncoder;
+import com.sowp.shared.images.ImageRef;
+import com.sowp.shared.images.ImageStore;
+import com.sowp.shared.images.ImageStores;
+import com.sowp.shared.images.ImageVariant;
+import com.sowp.shared.images.ImageVariants;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 public class AddCourseActivity extends AppCompatActivity {
@@ -71,7 +79,12 @@ public class AddCourseActivity extends AppCompatActivity {
     private String[] languageOptions = {"English", "Urdu"};
 
     private FirebaseFirestore db;
-    private String base64Image = "";
+    private ImageStore imageStore;
+    private Bitmap selectedImage;
+    // The bitmap ImageVariants is encoding; it is recycled only once the upload reports back
+    private Bitmap uploadingImage;
+    private final ExecutorService imageDecoder = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     // Activity result launcher for image selection
     private ActivityResultLauncher<Intent> imagePickerLauncher;
@@ -83,6 +96,7 @@ public class AddCourseActivity extends AppCompatActivity {
 
         // Initialize Firestore
         db = FirebaseFirestore.getInstance();
+        imageStore = ImageStores.get(this);
 
         // Initialize image picker launcher
         initImagePickerLauncher();
@@ -106,68 +120,54 @@ public class AddCourseActivity extends AppCompatActivity {
                     if (result.getResultCode() == RESULT_OK && result.getData() != null) {
                         Uri imageUri = result.getData().getData();
                         if (imageUri != null) {
-                            try {
-                                // Display selected image
-                                ivCourseImage.setImageURI(imageUri);
-                                ivCourseImage.setVisibility(View.VISIBLE);
-
-                                // Convert to base64
-                                convertImageToBase64(imageUri);
-
-                            } catch (Exception e) {
-                                Toast.makeText(this, "Error loading image: " + e.getMessage(),
-                                        Toast.LENGTH_SHORT).show();
-                            }
+                            loadSelectedImage(imageUri);
                         }
                     }
                 }
         );
     }
 
-    private void convertImageToBase64(Uri imageUri) {
-        try {
-            InputStream inputStream = getContentResolver().openInputStream(imageUri);
-            Bitmap bitmap = BitmapFactory.decodeStream(inputStream);
-
-            // Resize bitmap to reduce size (optional)
-            bitmap = resizeBitmap(bitmap, 800, 600);
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            bitmap.compress(Bitmap.CompressFormat.JPEG, 80, outputStream);
-            byte[] imageBytes = outputStream.toByteArray();
-            base64Image = Base64.encodeToString(imageBytes, Base64.DEFAULT);
-
-            assert inputStream != null;
-            inputStream.close();
-            outputStream.close();
-
-            Toast.makeText(this, "Image selected successfully", Toast.LENGTH_SHORT).show();
-
-        } catch (IOException e) {
-            Toast.makeText(this, "Error converting image: " + e.getMessage(),
-                    Toast.LENGTH_SHORT).show();
-        }
+    private void loadSelectedImage(Uri imageUri) {
+        imageDecoder.execute(() -> {
+            try {
+                // Decoded upright and subsampled to the largest variant's size; variants are encoded on upload
+                Bitmap bitmap = ImageEncoder.decodeUpright(getContentResolver(), imageUri,
+                        ImageVariant.FULL.maxDimension);
+                mainHandler.post(() -> {
+                    if (isDestroyed()) {
+                        bitmap.recycle();
+                        return;
+                    }
+                    releaseSelectedImage();
+                    selectedImage = bitmap;
+                    ivCourseImage.setImageBitmap(bitmap);
+                    ivCourseImage.setVisibility(View.VISIBLE);
+                    Toast.makeText(this, "Image selected successfully", Toast.LENGTH_SHORT).show();
+                });
+            } catch (IOException | OutOfMemoryError e) {
+                mainHandler.post(() -> {
+                    if (isDestroyed()) return;
+                    Toast.makeText(this, "Error loading image: " + e.getMessage(),
+                            Toast.LENGTH_SHORT).show();
+                });
+            }
+        });
     }
 
-    private Bitmap resizeBitmap(Bitmap bitmap, int maxWidth, int maxHeight) {
-        int width = bitmap.getWidth();
-        int height = bitmap.getHeight();
-
-        if (width <= maxWidth && height <= maxHeight) {
-            return bitmap;
+    private void releaseSelectedImage() {
+        if (selectedImage != null && selectedImage != uploadingImage) {
+            selectedImage.recycle();
         }
+        selectedImage = null;
+    }
 
-        float aspectRatio = (float) width / height;
-
-        if (width > height) {
-            width = maxWidth;
-            height = Math.round(width / aspectRatio);
-        } else {
-            height = maxHeight;
-            width = Math.round(height * aspectRatio);
+    // Recycles the uploaded bitmap if it was replaced or released while it was being encoded
+    private void finishImageUpload() {
+        Bitmap uploaded = uploadingImage;
+        uploadingImage = null;
+        if (uploaded != null && uploaded != selectedImage) {
+            uploaded.recycle();
         }
-
-        return Bitmap.createScaledBitmap(bitmap, width, height, true);
     }
 
     private void selectImageFromGallery() {
@@ -335,7 +335,6 @@ public class AddCourseActivity extends AppCompatActivity {
         course.put("courseCode", getTextFromEditText(etCourseCode));
         course.put("instructor", getTextFromEditText(etInstructor));
         course.put("duration", getTextFromEditText(etDuration));
-        course.put("illustration", base64Image);
         course.put("semester", etSemester.getText().toString());
         course.put("creditHours", getIntegerFromEditText(etCreditHours));
         course.put("level", etLevelDropdown.getText().toString());
@@ -369,9 +368,32 @@ public class AddCourseActivity extends AppCompatActivity {
         course.put("updatedAt", now);
 
 
-        db.collection("Course")
-                .document(docId)
-                .set(course)
+        // The image variants go to the shared image store first; the course keeps only their reference
+        uploadingImage = selectedImage;
+        ImageVariants.upload(imageStore, selectedImage, new ImageStore.PutCallback() {
+            @Override
+            public void onSuccess(ImageRef ref) {
+                finishImageUpload();
+                course.put("illustrationRef", ref.toMap());
+                writeCourse(docId, course);
+            }
+
+            @Override
+            public void onFailure(String message) {
+                finishImageUpload();
+                showProgressBar(false);
+                Toast.makeText(AddCourseActivity.this, "Error uploading image: " + message,
+                        Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    private void writeCourse(String docId, Map<String, Object> course) {
+        // The course and its list-card summary are written together
+        WriteBatch batch = db.batch();
+        batch.set(db.collection("Course").document(docId), course);
+        batch.set(CourseSummaries.document(db, docId), CourseSummaries.project(course));
+        batch.commit()
                 .addOnCompleteListener(task -> {
                     showProgressBar(false);
                     if (task.isSuccessful()) {
@@ -466,7 +488,7 @@ public class AddCourseActivity extends AppCompatActivity {
             return false;
         }
 
-        if (TextUtils.isEmpty(base64Image)) {
+        if (selectedImage == null) {
             Toast.makeText(this, "Please select a course image", Toast.LENGTH_SHORT).show();
             return false;
         }
@@ -657,6 +679,13 @@ public class AddCourseActivity extends AppCompatActivity {
         // Clear image
         ivCourseImage.setImageDrawable(null);
         ivCourseImage.setVisibility(View.GONE);
-        base64Image = "";
+        releaseSelectedImage();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        imageDecoder.shutdownNow();
+        releaseSelectedImage();
     }
 }
\ No newline at end of file
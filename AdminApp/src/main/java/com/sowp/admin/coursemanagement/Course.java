@@ -1,11 +1,14 @@
 package com.sowp.admin.coursemanagement;
 
+import com.sowp.shared.images.ImageRef;
+
 import java.util.List;
 
 public class Course {
 
     private int id;
     private String illustration;
+    private ImageRef illustrationRef; // Replaces illustration once the image is in the image store
     private String title;
     private String shortTitle;
     private String courseCode;
@@ -122,6 +125,14 @@ public class Course {
         this.illustration = illustration;
     }
 
+    public ImageRef getIllustrationRef() {
+        return illustrationRef;
+    }
+
+    public void setIllustrationRef(ImageRef illustrationRef) {
+        this.illustrationRef = illustrationRef;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -1,10 +1,6 @@
 package com.sowp.admin.coursemanagement;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.text.TextUtils;
-import android.util.Base64;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -12,18 +8,45 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 import com.sowp.admin.R;
+import com.sowp.shared.images.ImageLoader;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class CourseAdapter extends RecyclerView.Adapter<CourseAdapter.CourseViewHolder> {
 
-    private List<Course> courseList;
+    private static final DiffUtil.ItemCallback<Course> DIFF_CALLBACK = new DiffUtil.ItemCallback<Course>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Course oldCourse, @NonNull Course newCourse) {
+            return oldCourse.getId() == newCourse.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Course oldCourse, @NonNull Course newCourse) {
+            return Objects.equals(oldCourse.getTitle(), newCourse.getTitle())
+                    && Objects.equals(oldCourse.getCourseCode(), newCourse.getCourseCode())
+                    && Objects.equals(oldCourse.getInstructor(), newCourse.getInstructor())
+                    && Objects.equals(oldCourse.getSemester(), newCourse.getSemester())
+                    && Objects.equals(oldCourse.getLevel(), newCourse.getLevel())
+                    && oldCourse.isLab() == newCourse.isLab()
+                    && oldCourse.isPaid() == newCourse.isPaid()
+                    && oldCourse.isPublic() == newCourse.isPublic()
+                    && Objects.equals(oldCourse.getIllustrationRef(), newCourse.getIllustrationRef())
+                    && Objects.equals(oldCourse.getIllustration(), newCourse.getIllustration());
+        }
+    };
+
+    // List changes are diffed in the background, so only rows that changed are rebound
+    private final AsyncListDiffer<Course> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private Context context;
     private OnCourseClickListener listener;
 
@@ -32,8 +55,12 @@ public class CourseAdapter extends RecyclerView.Adapter<CourseAdapter.CourseView
     }
 
     public CourseAdapter(List<Course> courseList, OnCourseClickListener listener) {
-        this.courseList = courseList;
         this.listener = listener;
+        submitCourses(courseList);
+    }
+
+    public void submitCourses(List<Course> courses) {
+        differ.submitList(new ArrayList<>(courses));
     }
 
     @NonNull
@@ -46,7 +73,7 @@ public class CourseAdapter extends RecyclerView.Adapter<CourseAdapter.CourseView
 
     @Override
     public void onBindViewHolder(@NonNull CourseViewHolder holder, int position) {
-        Course course = courseList.get(position);
+        Course course = differ.getCurrentList().get(position);
 
         // Basic information
         holder.tvTitle.setText(course.getTitle());
@@ -75,7 +102,7 @@ public class CourseAdapter extends RecyclerView.Adapter<CourseAdapter.CourseView
         }
 
         // Course image
-        loadCourseImage(holder.ivCourseImage, course.getIllustration());
+        loadCourseImage(holder.ivCourseImage, course);
 
         // Click listeners
         holder.itemView.setOnClickListener(v -> {
@@ -101,27 +128,20 @@ public class CourseAdapter extends RecyclerView.Adapter<CourseAdapter.CourseView
         chipGroup.addView(chip);
     }
 
-    private void loadCourseImage(ImageView imageView, String base64Image) {
-        if (!TextUtils.isEmpty(base64Image)) {
-            try {
-                byte[] decodedString = Base64.decode(base64Image, Base64.DEFAULT);
-                Bitmap decodedByte = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                if (decodedByte != null) {
-                    imageView.setImageBitmap(decodedByte);
-                } else {
-                    imageView.setImageResource(R.drawable.placeholder_course);
-                }
-            } catch (Exception e) {
-                imageView.setImageResource(R.drawable.placeholder_course);
-            }
-        } else {
-            imageView.setImageResource(R.drawable.placeholder_course);
-        }
+    // Migrated courses reference the image store; older ones still carry the image inline
+    private void loadCourseImage(ImageView imageView, Course course) {
+        ImageLoader.load(imageView, course.getIllustrationRef(), course.getIllustration(), R.drawable.placeholder_course);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull CourseViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.clear(holder.ivCourseImage);
     }
 
     @Override
     public int getItemCount() {
-        return courseList.size();
+        return differ.getCurrentList().size();
     }
 
     public static class CourseViewHolder extends RecyclerView.ViewHolder {
@@ -8,15 +8,19 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.sowp.admin.R;
+import com.sowp.shared.courses.CourseSummaries;
+import com.sowp.shared.images.ImageMigrator;
+import com.sowp.shared.images.ImageStores;
 
 public class CoursesManagementActivity extends AppCompatActivity {
     TextView tvTotalCourses;
     TextView tvActiveCourses;
     CardView cardViewCourses, cardAddCourse;
-    CardView cardManage, cardAnalytics, cardSetting;
+    CardView cardManage, cardAnalytics, cardSetting, cardMigrateImages;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -41,6 +45,7 @@ public class CoursesManagementActivity extends AppCompatActivity {
         cardManage = findViewById(R.id.cardManageCategories);
         cardAnalytics = findViewById(R.id.cardCourseAnalytics); // Fixed: was using cardManageCategories ID
         cardSetting = findViewById(R.id.cardCourseSettings);
+        cardMigrateImages = findViewById(R.id.cardMigrateCourseImages);
     }
 
     private void setupClickListeners() {
@@ -69,6 +74,58 @@ public class CoursesManagementActivity extends AppCompatActivity {
             Toast.makeText(CoursesManagementActivity.this, "Settings", Toast.LENGTH_SHORT).show();
             // TODO: Implement settings activity
         });
+
+        cardMigrateImages.setOnClickListener(v -> showImageMigrationDialog());
+    }
+
+    // Copies illustrations of courses created before the image store into it
+    private void showImageMigrationDialog() {
+        new MaterialAlertDialogBuilder(this)
+                .setTitle("Migrate Course Images")
+                .setMessage("Copy inline course images to the image store and rebuild the course summaries "
+                        + "that lists read? Course lists will load faster. "
+                        + "This can be run again safely if it is interrupted.")
+                .setPositiveButton("Migrate", (dialog, which) -> migrateCourseImages())
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void migrateCourseImages() {
+        Toast.makeText(this, "Migrating course images...", Toast.LENGTH_SHORT).show();
+
+        ImageMigrator migrator = new ImageMigrator(FirebaseFirestore.getInstance(), ImageStores.get(this));
+        migrator.migrateField("Course", "illustration", "illustrationRef", new ImageMigrator.MigrationCallback() {
+            @Override
+            public void onComplete(int migratedCount, int failedCount) {
+                String message = "Migrated " + migratedCount + " course images";
+                if (failedCount > 0) message += ", " + failedCount + " failed";
+                Toast.makeText(CoursesManagementActivity.this, message, Toast.LENGTH_LONG).show();
+                // Summaries copy the new image references, so they are rebuilt afterwards
+                rebuildCourseSummaries();
+            }
+
+            @Override
+            public void onFailure(String message) {
+                Toast.makeText(CoursesManagementActivity.this, "Migration failed: " + message,
+                        Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    private void rebuildCourseSummaries() {
+        CourseSummaries.rebuild(FirebaseFirestore.getInstance(), new CourseSummaries.RebuildCallback() {
+            @Override
+            public void onComplete(int writtenCount) {
+                Toast.makeText(CoursesManagementActivity.this, "Rebuilt " + writtenCount + " course summaries",
+                        Toast.LENGTH_LONG).show();
+            }
+
+            @Override
+            public void onFailure(String message) {
+                Toast.makeText(CoursesManagementActivity.this, "Summary rebuild failed: " + message,
+                        Toast.LENGTH_LONG).show();
+            }
+        });
     }
 
     private void loadStatistics() {
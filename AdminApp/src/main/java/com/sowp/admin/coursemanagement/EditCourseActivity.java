@@ -2,12 +2,10 @@ package com.sowp.admin.coursemanagement;
 
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.MediaStore;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.view.View;
 import android.widget.ArrayAdapter;
 import android.widget.AutoCompleteTextView;
@@ -26,12 +24,21 @@ import com.google.android.material.switchmaterial.SwitchMaterial;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
 import com.sowp.admin.R;
+import com.sowp.shared.courses.CourseSummaries;
+import com.sowp.shared.images.ImageEncoder;
+import com.sowp.shared.images.ImageLoader;
+import com.sowp.shared.images.ImageRef;
+import com.sowp.shared.images.ImageStore;
+import com.sowp.shared.images.ImageStores;
+import com.sowp.shared.images.ImageVariant;
+import com.sowp.shared.images.ImageVariants;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -73,7 +80,10 @@ public class EditCourseActivity extends AppCompatActivity {
     // Data
     private FirebaseFirestore db;
     private String courseId;
-    private String base64Image = "";
+    private ImageStore imageStore;
+    // The course as loaded, so a save can write its complete summary
+    private Map<String, Object> loadedCourseData = new HashMap<>();
+    private Bitmap selectedImage;
     private boolean isEditMode = false;
     private boolean imageChanged = false;
 
@@ -100,6 +110,7 @@ public class EditCourseActivity extends AppCompatActivity {
 
         // Initialize Firebase
         db = FirebaseFirestore.getInstance();
+        imageStore = ImageStores.get(this);
 
         // Initialize image picker launcher
         initImagePickerLauncher();
@@ -125,8 +136,9 @@ public class EditCourseActivity extends AppCompatActivity {
                         Uri imageUri = result.getData().getData();
                         if (imageUri != null) {
                             try {
+                                ImageLoader.clear(ivCourseImage);
                                 ivCourseImage.setImageURI(imageUri);
-                                convertImageToBase64(imageUri);
+                                loadSelectedImage(imageUri);
                                 imageChanged = true;
                             } catch (Exception e) {
                                 Toast.makeText(this, "Error loading image: " + e.getMessage(),
@@ -266,6 +278,9 @@ public class EditCourseActivity extends AppCompatActivity {
 
                     if (task.isSuccessful() && task.getResult().exists()) {
                         DocumentSnapshot document = task.getResult();
+                        if (document.getData() != null) {
+                            loadedCourseData = new HashMap<>(document.getData());
+                        }
                         populateFields(document);
                     } else {
                         Toast.makeText(this, "Course not found", Toast.LENGTH_SHORT).show();
@@ -368,15 +383,9 @@ public class EditCourseActivity extends AppCompatActivity {
             switchIsComputer.setChecked(getBooleanSafely(document, "isComputer", false));
             switchIsPaid.setChecked(getBooleanSafely(document, "isPaid", false));
 
-            // Load base64 image with proper error handling
-            String illustration = document.getString("illustration");
-            if (!TextUtils.isEmpty(illustration)) {
-                base64Image = illustration;
-                loadBase64Image(illustration);
-            } else {
-                // Set default placeholder image if no illustration exists
-                ivCourseImage.setImageResource(R.drawable.placeholder_course);
-            }
+            // Migrated courses reference the image store; older ones still carry Base64 inline
+            ImageLoader.load(ivCourseImage, ImageRef.fromMap(document.get("illustrationRef")),
+                    document.getString("illustration"), R.drawable.placeholder_course);
 
         } catch (Exception e) {
             android.util.Log.e("EditCourse", "Error populating fields", e);
@@ -410,68 +419,21 @@ public class EditCourseActivity extends AppCompatActivity {
         return value != null ? value : defaultValue;
     }
 
-    private void loadBase64Image(String base64String) {
-        try {
-            // Remove data URL prefix if present (e.g., "data:image/jpeg;base64,")
-            String cleanBase64 = base64String;
-            if (base64String.contains(",")) {
-                cleanBase64 = base64String.substring(base64String.indexOf(",") + 1);
-            }
-
-            byte[] decodedString = Base64.decode(cleanBase64, Base64.DEFAULT);
-            Bitmap decodedByte = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-
-            if (decodedByte != null) {
-                ivCourseImage.setImageBitmap(decodedByte);
-            } else {
-                android.util.Log.w("EditCourse", "Failed to decode base64 image");
-                ivCourseImage.setImageResource(R.drawable.placeholder_course);
-            }
-        } catch (IllegalArgumentException e) {
-            android.util.Log.e("EditCourse", "Invalid base64 image format", e);
-            ivCourseImage.setImageResource(R.drawable.placeholder_course);
-        } catch (Exception e) {
-            android.util.Log.e("EditCourse", "Error loading base64 image", e);
-            ivCourseImage.setImageResource(R.drawable.placeholder_course);
-        }
-    }
-
     private void selectImageFromGallery() {
         Intent intent = new Intent(Intent.ACTION_PICK, MediaStore.Images.Media.EXTERNAL_CONTENT_URI);
         intent.setType("image/*");
         imagePickerLauncher.launch(intent);
     }
 
-    private void convertImageToBase64(Uri imageUri) {
+    private void loadSelectedImage(Uri imageUri) {
         try {
-            InputStream inputStream = getContentResolver().openInputStream(imageUri);
-            if (inputStream == null) {
-                Toast.makeText(this, "Unable to read image file", Toast.LENGTH_SHORT).show();
-                return;
-            }
-
-            Bitmap bitmap = BitmapFactory.decodeStream(inputStream);
-            if (bitmap == null) {
-                Toast.makeText(this, "Invalid image format", Toast.LENGTH_SHORT).show();
-                inputStream.close();
-                return;
-            }
-
-            // Resize bitmap to reasonable size
-            bitmap = resizeBitmap(bitmap, 800, 600);
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            bitmap.compress(Bitmap.CompressFormat.JPEG, 80, outputStream);
-            byte[] imageBytes = outputStream.toByteArray();
-            base64Image = Base64.encodeToString(imageBytes, Base64.DEFAULT);
-
-            inputStream.close();
-            outputStream.close();
+            // Decoded upright and subsampled to the largest variant's size; the variants are encoded on upload
+            selectedImage = ImageEncoder.decodeUpright(getContentResolver(), imageUri, ImageVariant.FULL.maxDimension);
 
             Toast.makeText(this, "Image updated successfully", Toast.LENGTH_SHORT).show();
 
         } catch (IOException e) {
-            android.util.Log.e("EditCourse", "Error converting image to base64", e);
+            android.util.Log.e("EditCourse", "Error loading selected image", e);
             Toast.makeText(this, "Error processing image: " + e.getMessage(),
                     Toast.LENGTH_SHORT).show();
         } catch (OutOfMemoryError e) {
@@ -481,27 +443,6 @@ public class EditCourseActivity extends AppCompatActivity {
         }
     }
 
-    private Bitmap resizeBitmap(Bitmap bitmap, int maxWidth, int maxHeight) {
-        int width = bitmap.getWidth();
-        int height = bitmap.getHeight();
-
-        if (width <= maxWidth && height <= maxHeight) {
-            return bitmap;
-        }
-
-        float aspectRatio = (float) width / height;
-
-        if (width > height) {
-            width = maxWidth;
-            height = Math.round(width / aspectRatio);
-        } else {
-            height = maxHeight;
-            width = Math.round(height * aspectRatio);
-        }
-
-        return Bitmap.createScaledBitmap(bitmap, width, height, true);
-    }
-
     private void setEditMode(boolean editMode) {
         isEditMode = editMode;
 
@@ -690,23 +631,49 @@ public class EditCourseActivity extends AppCompatActivity {
         updates.put("isComputer", switchIsComputer.isChecked());
         updates.put("isPaid", switchIsPaid.isChecked());
 
-        // Image - only update if changed
-        if (imageChanged && !TextUtils.isEmpty(base64Image)) {
-            updates.put("illustration", base64Image);
-        }
-
         // Update timestamp
         updates.put("updatedAt", System.currentTimeMillis());
 
-        // Perform the update
-        db.collection("Course")
-                .document(courseId)
-                .update(updates)
+        // Image - only upload if changed; the course then references it and drops any inline copy
+        if (imageChanged && selectedImage != null) {
+            ImageVariants.upload(imageStore, selectedImage, new ImageStore.PutCallback() {
+                @Override
+                public void onSuccess(ImageRef ref) {
+                    updates.put("illustrationRef", ref.toMap());
+                    updates.put("illustration", FieldValue.delete());
+                    updateCourseDocument(updates);
+                }
+
+                @Override
+                public void onFailure(String message) {
+                    showProgressBar(false);
+                    Toast.makeText(EditCourseActivity.this, "Error uploading image: " + message,
+                            Toast.LENGTH_LONG).show();
+                }
+            });
+        } else {
+            updateCourseDocument(updates);
+        }
+    }
+
+    private void updateCourseDocument(Map<String, Object> updates) {
+        // The summary is merged rather than replaced so ratings users wrote meanwhile are kept
+        Map<String, Object> summary = CourseSummaries.project(loadedCourseData);
+        summary.remove("averageRating");
+        summary.remove("ratingCount");
+        summary.putAll(CourseSummaries.project(updates));
+
+        WriteBatch batch = db.batch();
+        batch.update(db.collection("Course").document(courseId), updates);
+        batch.set(CourseSummaries.document(db, courseId), summary, SetOptions.merge());
+        batch.commit()
                 .addOnSuccessListener(aVoid -> {
+                    loadedCourseData.putAll(updates);
                     showProgressBar(false);
                     Toast.makeText(this, "Course updated successfully!", Toast.LENGTH_LONG).show();
                     setEditMode(false);
                     imageChanged = false; // Reset image changed flag
+                    selectedImage = null;
                 })
                 .addOnFailureListener(e -> {
                     showProgressBar(false);
@@ -735,9 +702,10 @@ public class EditCourseActivity extends AppCompatActivity {
     private void deleteCourse() {
         showProgressBar(true);
 
-        db.collection("Course")
-                .document(courseId)
-                .delete()
+        WriteBatch batch = db.batch();
+        batch.delete(db.collection("Course").document(courseId));
+        batch.delete(CourseSummaries.document(db, courseId));
+        batch.commit()
                 .addOnSuccessListener(aVoid -> {
                     showProgressBar(false);
                     Toast.makeText(this, "Course deleted successfully!", Toast.LENGTH_LONG).show();
@@ -2,8 +2,6 @@ package com.sowp.admin.coursemanagement;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.text.Editable;
-import android.text.TextWatcher;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
@@ -23,6 +21,8 @@ import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.sowp.admin.R;
+import com.sowp.shared.images.ImageRef;
+import com.sowp.shared.search.SearchPipeline;
 import com.sowp.admin.assignmentmanagement.ViewAssignmentsActivity;
 import com.sowp.admin.quizmanagement.ViewQuizzesActivity;
 import com.sowp.admin.topicmanagement.ViewTopicsActivity;
@@ -46,6 +46,7 @@ public class ViewCoursesActivity extends AppCompatActivity implements CourseAdap
     // Data
     private List<Course> courseList;
     private List<Course> filteredCourseList;
+    private SearchPipeline<Course> searchPipeline;
     private FirebaseFirestore db;
 
     // Pagination
@@ -124,28 +125,8 @@ public class ViewCoursesActivity extends AppCompatActivity implements CourseAdap
     }
 
     private void setupSearch() {
-        etSearch.addTextChangedListener(new TextWatcher() {
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {}
-
-            @Override
-            public void afterTextChanged(Editable s) {
-                currentSearchQuery = s.toString().trim();
-                if (currentSearchQuery.isEmpty()) {
-                    // Show all courses
-                    filteredCourseList.clear();
-                    filteredCourseList.addAll(courseList);
-                    adapter.notifyDataSetChanged();
-                    updateUI();
-                } else {
-                    // Filter courses
-                    filterCourses(currentSearchQuery);
-                }
-            }
-        });
+        searchPipeline = new SearchPipeline<>(this::courseMatcher, this::showFilteredCourses);
+        etSearch.addTextChangedListener(searchPipeline.textWatcher());
     }
 
     private void setupSwipeRefresh() {
@@ -220,16 +201,8 @@ public class ViewCoursesActivity extends AppCompatActivity implements CourseAdap
                                 lastVisible = documents.get(documents.size() - 1);
                             }
 
-                            if (isPagination) {
-                                int startPosition = courseList.size();
-                                courseList.addAll(newCourses);
-                                filteredCourseList.addAll(newCourses);
-                                adapter.notifyItemRangeInserted(startPosition, newCourses.size());
-                            } else {
-                                courseList.addAll(newCourses);
-                                filteredCourseList.addAll(newCourses);
-                                adapter.notifyDataSetChanged();
-                            }
+                            courseList.addAll(newCourses);
+                            searchPipeline.setItems(courseList);
                         }
 
                         updateUI();
@@ -272,6 +245,7 @@ public class ViewCoursesActivity extends AppCompatActivity implements CourseAdap
             course.setCourseCode(document.getString("courseCode"));
             course.setDescription(document.getString("description"));
             course.setIllustration(document.getString("illustration"));
+            course.setIllustrationRef(ImageRef.fromMap(document.get("illustrationRef")));
             course.setInstructor(document.getString("instructor"));
             course.setDuration(document.getString("duration"));
             course.setLanguage(document.getString("language"));
@@ -346,25 +320,33 @@ public class ViewCoursesActivity extends AppCompatActivity implements CourseAdap
         }
     }
 
-    private void filterCourses(String query) {
-        filteredCourseList.clear();
+    // Runs on the main thread; the returned matcher runs on the search worker
+    private SearchPipeline.Matcher<Course> courseMatcher(String query) {
+        currentSearchQuery = query;
+        String lowerQuery = query.toLowerCase();
 
-        if (query.isEmpty()) {
-            filteredCourseList.addAll(courseList);
-        } else {
-            String lowerQuery = query.toLowerCase();
-            for (Course course : courseList) {
+        return courses -> {
+            if (lowerQuery.isEmpty()) {
+                return new ArrayList<>(courses);
+            }
+            List<Course> matches = new ArrayList<>();
+            for (Course course : courses) {
                 if (matchesSearchQuery(course, lowerQuery)) {
-                    filteredCourseList.add(course);
+                    matches.add(course);
                 }
             }
-        }
+            return matches;
+        };
+    }
 
-        adapter.notifyDataSetChanged();
+    private void showFilteredCourses(List<Course> courses) {
+        filteredCourseList.clear();
+        filteredCourseList.addAll(courses);
+        adapter.submitCourses(courses);
         updateUI();
     }
 
-    private boolean matchesSearchQuery(Course course, String query) {
+    private static boolean matchesSearchQuery(Course course, String query) {
         return (course.getTitle() != null && course.getTitle().toLowerCase().contains(query)) ||
                 (course.getCourseCode() != null && course.getCourseCode().toLowerCase().contains(query)) ||
                 (course.getInstructor() != null && course.getInstructor().toLowerCase().contains(query)) ||
@@ -419,6 +401,12 @@ public class ViewCoursesActivity extends AppCompatActivity implements CourseAdap
         }
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        searchPipeline.cancel();
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -9,6 +9,8 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.sowp.admin.R;
@@ -18,11 +20,31 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder> {
 
+    private static final DiffUtil.ItemCallback<Quiz> DIFF_CALLBACK = new DiffUtil.ItemCallback<Quiz>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Quiz oldQuiz, @NonNull Quiz newQuiz) {
+            return oldQuiz.getQuizId() == newQuiz.getQuizId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Quiz oldQuiz, @NonNull Quiz newQuiz) {
+            return Objects.equals(oldQuiz.getTitle(), newQuiz.getTitle())
+                    && Objects.equals(oldQuiz.getDescription(), newQuiz.getDescription())
+                    && oldQuiz.isActive() == newQuiz.isActive()
+                    && oldQuiz.getTotalQuestions() == newQuiz.getTotalQuestions()
+                    && oldQuiz.getPassingScore() == newQuiz.getPassingScore()
+                    && Objects.equals(oldQuiz.getLevel(), newQuiz.getLevel())
+                    && oldQuiz.getCreatedAt() == newQuiz.getCreatedAt();
+        }
+    };
+
     private Context context;
-    private List<Quiz> quizzes;
+    // Page changes are diffed in the background, so only rows that changed are rebound
+    private final AsyncListDiffer<Quiz> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private OnQuizClickListener listener;
     private SimpleDateFormat dateFormat;
 
@@ -32,9 +54,8 @@ public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder
 
     public QuizAdapter(Context context, List<Quiz> quizzes, OnQuizClickListener listener) {
         this.context = context;
-        // Create defensive copy to prevent concurrent modification
-        this.quizzes = new ArrayList<>(quizzes);
         this.listener = listener;
+        updateQuizzes(quizzes);
         this.dateFormat = new SimpleDateFormat("MMM dd", Locale.getDefault());
     }
 
@@ -47,6 +68,7 @@ public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull QuizViewHolder holder, int position) {
+        List<Quiz> quizzes = differ.getCurrentList();
         if (position >= 0 && position < quizzes.size()) {
             Quiz quiz = quizzes.get(position);
             holder.bind(quiz, position);
@@ -55,23 +77,14 @@ public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder
 
     @Override
     public int getItemCount() {
-        return quizzes.size();
+        return differ.getCurrentList().size();
     }
 
     /**
-     * Thread-safe method to update quizzes list
-     * Creates defensive copies to prevent ConcurrentModificationException
+     * Shows {@code newQuizzes}; the list is copied, so callers may keep changing theirs.
      */
     public void updateQuizzes(List<Quiz> newQuizzes) {
-        if (newQuizzes == null) {
-            this.quizzes.clear();
-        } else {
-            // Create a defensive copy to avoid ConcurrentModificationException
-            List<Quiz> safeCopy = new ArrayList<>(newQuizzes);
-            this.quizzes.clear();
-            this.quizzes.addAll(safeCopy);
-        }
-        notifyDataSetChanged();
+        differ.submitList(newQuizzes == null ? new ArrayList<>() : new ArrayList<>(newQuizzes));
     }
 
     public class QuizViewHolder extends RecyclerView.ViewHolder {
@@ -93,6 +106,7 @@ public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder
 
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
+                List<Quiz> quizzes = differ.getCurrentList();
                 if (position != RecyclerView.NO_POSITION && position < quizzes.size() && listener != null) {
                     listener.onQuizClick(quizzes.get(position));
                 }
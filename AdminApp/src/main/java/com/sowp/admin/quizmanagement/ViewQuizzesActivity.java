@@ -2,8 +2,6 @@ package com.sowp.admin.quizmanagement;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.text.Editable;
-import android.text.TextWatcher;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
@@ -26,6 +24,7 @@ import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.sowp.admin.R;
 import com.sowp.admin.coursemanagement.Course;
+import com.sowp.shared.search.SearchPipeline;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -49,6 +48,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
     private QuizAdapter quizAdapter;
     private List<Quiz> quizzes;
     private List<Quiz> filteredQuizzes;
+    private SearchPipeline<Quiz> searchPipeline;
     private Course currentCourse;
     private String courseId;
 
@@ -61,7 +61,6 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
     // Filter options
     private String[] filterOptions = {"All Quizzes", "Active", "Inactive", "Beginner", "Intermediate", "Advanced"};
     private String currentFilter = "All Quizzes";
-    private String searchQuery = "";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -109,6 +108,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
         firestore = FirebaseFirestore.getInstance();
         quizzes = new ArrayList<>();
         filteredQuizzes = new ArrayList<>();
+        searchPipeline = new SearchPipeline<>(this::quizMatcher, this::showFilteredQuizzes);
     }
 
     private void setupRecyclerView() {
@@ -127,7 +127,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 currentFilter = filterOptions[position];
-                applyFilters();
+                searchPipeline.refresh();
             }
 
             @Override
@@ -145,19 +145,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
         });
 
         // Search functionality
-        etSearch.addTextChangedListener(new TextWatcher() {
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {
-                searchQuery = s.toString().trim();
-                applyFilters();
-            }
-
-            @Override
-            public void afterTextChanged(Editable s) {}
-        });
+        etSearch.addTextChangedListener(searchPipeline.textWatcher());
 
         // Pagination buttons
         btnPrevious.setOnClickListener(v -> {
@@ -223,12 +211,10 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
                             }
                         }
 
-                        // Thread-safe update of the main quizzes list
                         quizzes.clear();
                         quizzes.addAll(newQuizzes);
 
-                        applyFilters();
-                        updateQuizCount();
+                        searchPipeline.setItems(quizzes);
                     } else {
                         Toast.makeText(this, "Failed to load quizzes: " +
                                         (task.getException() != null ? task.getException().getMessage() : "Unknown error"),
@@ -238,43 +224,41 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
                 });
     }
 
-    private void applyFilters() {
-        // Create a temporary list to avoid modifying filteredQuizzes during iteration
-        List<Quiz> tempFilteredQuizzes = new ArrayList<>();
+    // Runs on the main thread; the returned matcher runs on the search worker
+    private SearchPipeline.Matcher<Quiz> quizMatcher(String query) {
+        String search = query.toLowerCase();
+        String filter = currentFilter;
 
-        // Use a defensive copy of the original quizzes list to prevent concurrent modification
-        List<Quiz> quizzesCopy;
-        synchronized (quizzes) {
-            quizzesCopy = new ArrayList<>(quizzes);
-        }
+        return items -> {
+            List<Quiz> matches = new ArrayList<>();
+            for (Quiz quiz : items) {
+                if (quiz == null) continue;
 
-        for (Quiz quiz : quizzesCopy) {
-            if (quiz == null) continue;
+                // Add null checks for safety
+                String title = quiz.getTitle() != null ? quiz.getTitle() : "";
+                String description = quiz.getDescription() != null ? quiz.getDescription() : "";
+                String level = quiz.getLevel() != null ? quiz.getLevel() : "";
 
-            // Add null checks for safety
-            String title = quiz.getTitle() != null ? quiz.getTitle() : "";
-            String description = quiz.getDescription() != null ? quiz.getDescription() : "";
-            String level = quiz.getLevel() != null ? quiz.getLevel() : "";
+                boolean matchesSearch = search.isEmpty() ||
+                        title.toLowerCase().contains(search) ||
+                        description.toLowerCase().contains(search);
 
-            boolean matchesSearch = searchQuery.isEmpty() ||
-                    title.toLowerCase().contains(searchQuery.toLowerCase()) ||
-                    description.toLowerCase().contains(searchQuery.toLowerCase());
+                boolean matchesFilter = filter.equals("All Quizzes") ||
+                        (filter.equals("Active") && quiz.isActive()) ||
+                        (filter.equals("Inactive") && !quiz.isActive()) ||
+                        filter.equals(level);
 
-            boolean matchesFilter = currentFilter.equals("All Quizzes") ||
-                    (currentFilter.equals("Active") && quiz.isActive()) ||
-                    (currentFilter.equals("Inactive") && !quiz.isActive()) ||
-                    currentFilter.equals(level);
-
-            if (matchesSearch && matchesFilter) {
-                tempFilteredQuizzes.add(quiz);
+                if (matchesSearch && matchesFilter) {
+                    matches.add(quiz);
+                }
             }
-        }
+            return matches;
+        };
+    }
 
-        // Now safely update the filteredQuizzes list
-        synchronized (filteredQuizzes) {
-            filteredQuizzes.clear();
-            filteredQuizzes.addAll(tempFilteredQuizzes);
-        }
+    private void showFilteredQuizzes(List<Quiz> matches) {
+        filteredQuizzes.clear();
+        filteredQuizzes.addAll(matches);
 
         calculatePagination();
         currentPage = 1; // Reset to first page when filter changes
@@ -289,17 +273,10 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
 
         List<Quiz> paginatedQuizzes = new ArrayList<>();
 
-        // Thread-safe access to filteredQuizzes
-        synchronized (filteredQuizzes) {
-            if (startIndex < filteredQuizzes.size()) {
-                // Create a safe copy instead of using subList directly
-                for (int i = startIndex; i < endIndex && i < filteredQuizzes.size(); i++) {
-                    paginatedQuizzes.add(filteredQuizzes.get(i));
-                }
-            }
+        if (startIndex < filteredQuizzes.size()) {
+            paginatedQuizzes.addAll(filteredQuizzes.subList(startIndex, endIndex));
         }
 
-        // Update adapter with the safe copy
         quizAdapter.updateQuizzes(paginatedQuizzes);
 
         if (paginatedQuizzes.isEmpty() && filteredQuizzes.isEmpty()) {
@@ -310,10 +287,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
     }
 
     private void updateQuizCount() {
-        int count;
-        synchronized (filteredQuizzes) {
-            count = filteredQuizzes.size();
-        }
+        int count = filteredQuizzes.size();
 
         String countText;
         if (count == 0) {
@@ -367,6 +341,14 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
         startActivity(intent);
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (searchPipeline != null) {
+            searchPipeline.cancel();
+        }
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -23,6 +23,7 @@ import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.sowp.admin.NotificationHelper;
 import com.sowp.admin.R;
 import com.sowp.admin.coursemanagement.Course;
+import com.sowp.shared.courses.CourseSummaries;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -171,10 +172,17 @@ public class AddTopicActivity extends AppCompatActivity {
     }
 
     private void incrementLecturesCount() {
+        String courseId = String.valueOf(selectedCourse.getId());
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("lectures", FieldValue.increment(1));
+        // updatedAt lets the user app's catalog sync pick up the new count
+        updates.put("updatedAt", System.currentTimeMillis());
+
         db.collection("Course")
-                .document(String.valueOf(selectedCourse.getId()))
-                .update("lectures", FieldValue.increment(1))
+                .document(courseId)
+                .update(updates)
                 .addOnSuccessListener(aVoid -> {
+                    CourseSummaries.mirrorUpdate(db, courseId, updates);
                     showProgressBar(false);
                     Toast.makeText(this, "Topic added successfully!", Toast.LENGTH_LONG).show();
                     clearForm();
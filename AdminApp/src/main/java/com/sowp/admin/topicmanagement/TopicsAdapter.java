@@ -8,6 +8,8 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.sowp.admin.R;
@@ -17,10 +19,30 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class TopicsAdapter extends RecyclerView.Adapter<TopicsAdapter.TopicViewHolder> {
 
-    private List<Topic> topics;
+    private static final DiffUtil.ItemCallback<Topic> DIFF_CALLBACK = new DiffUtil.ItemCallback<Topic>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Topic oldTopic, @NonNull Topic newTopic) {
+            return oldTopic.getOrderIndex() == newTopic.getOrderIndex();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Topic oldTopic, @NonNull Topic newTopic) {
+            return Objects.equals(oldTopic.getName(), newTopic.getName())
+                    && Objects.equals(oldTopic.getDescription(), newTopic.getDescription())
+                    && oldTopic.getViews() == newTopic.getViews()
+                    && oldTopic.getCreatedAt() == newTopic.getCreatedAt()
+                    && oldTopic.isPublic() == newTopic.isPublic()
+                    && Objects.equals(oldTopic.getVideoID(), newTopic.getVideoID())
+                    && Objects.equals(oldTopic.getTags(), newTopic.getTags());
+        }
+    };
+
+    // Page changes are diffed in the background, so only rows that changed are rebound
+    private final AsyncListDiffer<Topic> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private Context context;
     private OnTopicClickListener onTopicClickListener;
     private SimpleDateFormat dateFormat;
@@ -31,7 +53,6 @@ public class TopicsAdapter extends RecyclerView.Adapter<TopicsAdapter.TopicViewH
 
     public TopicsAdapter(Context context, OnTopicClickListener listener) {
         this.context = context;
-        this.topics = new ArrayList<>();
         this.onTopicClickListener = listener;
         this.dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
     }
@@ -45,34 +66,29 @@ public class TopicsAdapter extends RecyclerView.Adapter<TopicsAdapter.TopicViewH
 
     @Override
     public void onBindViewHolder(@NonNull TopicViewHolder holder, int position) {
-        Topic topic = topics.get(position);
+        Topic topic = differ.getCurrentList().get(position);
         holder.bind(topic, position);
     }
 
     @Override
     public int getItemCount() {
-        return topics.size();
+        return differ.getCurrentList().size();
     }
 
     public void setTopics(List<Topic> topics) {
-        this.topics.clear();
-        if (topics != null) {
-            this.topics.addAll(topics);
-        }
-        notifyDataSetChanged();
+        differ.submitList(topics == null ? new ArrayList<>() : new ArrayList<>(topics));
     }
 
     public void addTopics(List<Topic> newTopics) {
         if (newTopics != null) {
-            int startPosition = this.topics.size();
-            this.topics.addAll(newTopics);
-            notifyItemRangeInserted(startPosition, newTopics.size());
+            List<Topic> topics = new ArrayList<>(differ.getCurrentList());
+            topics.addAll(newTopics);
+            differ.submitList(topics);
         }
     }
 
     public void clearTopics() {
-        this.topics.clear();
-        notifyDataSetChanged();
+        differ.submitList(null);
     }
 
     public class TopicViewHolder extends RecyclerView.ViewHolder {
@@ -102,7 +118,7 @@ public class TopicsAdapter extends RecyclerView.Adapter<TopicsAdapter.TopicViewH
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && onTopicClickListener != null) {
-                    onTopicClickListener.onTopicClick(topics.get(position), position);
+                    onTopicClickListener.onTopicClick(differ.getCurrentList().get(position), position);
                 }
             });
         }
@@ -2,8 +2,6 @@ package com.sowp.admin.topicmanagement;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.text.Editable;
-import android.text.TextWatcher;
 import android.util.Log;
 import android.view.View;
 import android.widget.ProgressBar;
@@ -21,6 +19,7 @@ import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.sowp.admin.R;
+import com.sowp.shared.search.SearchPipeline;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -49,12 +48,12 @@ public class ViewTopicsActivity extends AppCompatActivity implements TopicsAdapt
     private int currentPage = 0;
     private int totalPages = 0;
     private int totalItems = 0;
-    private String currentSearchQuery = "";
     private boolean isLoading = false;
 
     // Data storage
     private List<Topic> allTopics = new ArrayList<>();
     private List<Topic> filteredTopics = new ArrayList<>();
+    private SearchPipeline<Topic> searchPipeline;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -140,22 +139,8 @@ public class ViewTopicsActivity extends AppCompatActivity implements TopicsAdapt
     }
 
     private void setupSearch() {
-        searchEditText.addTextChangedListener(new TextWatcher() {
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {}
-
-            @Override
-            public void afterTextChanged(Editable s) {
-                String newQuery = s.toString().trim();
-                if (!newQuery.equals(currentSearchQuery)) {
-                    currentSearchQuery = newQuery;
-                    performSearch();
-                }
-            }
-        });
+        searchPipeline = new SearchPipeline<>(this::topicMatcher, this::showFilteredTopics);
+        searchEditText.addTextChangedListener(searchPipeline.textWatcher());
     }
 
     private void setupFAB() {
@@ -200,8 +185,8 @@ public class ViewTopicsActivity extends AppCompatActivity implements TopicsAdapt
                     Log.d(TAG, "Successfully loaded " + allTopics.size() + " topics");
 
                     // Apply current search and display
-                    performSearch();
                     setLoadingState(false);
+                    searchPipeline.setItems(allTopics);
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error loading topics", e);
@@ -211,21 +196,30 @@ public class ViewTopicsActivity extends AppCompatActivity implements TopicsAdapt
                 });
     }
 
-    private void performSearch() {
-        filteredTopics.clear();
+    // Runs on the main thread; the returned matcher runs on the search worker
+    private SearchPipeline.Matcher<Topic> topicMatcher(String query) {
+        String searchLower = query.toLowerCase();
+
+        return items -> {
+            if (searchLower.isEmpty()) {
+                // No search query - show all topics
+                return items;
+            }
 
-        if (currentSearchQuery.isEmpty()) {
-            // No search query - show all topics
-            filteredTopics.addAll(allTopics);
-        } else {
             // Filter topics based on search query
-            String searchLower = currentSearchQuery.toLowerCase();
-            for (Topic topic : allTopics) {
+            List<Topic> matches = new ArrayList<>();
+            for (Topic topic : items) {
                 if (topicMatchesSearch(topic, searchLower)) {
-                    filteredTopics.add(topic);
+                    matches.add(topic);
                 }
             }
-        }
+            return matches;
+        };
+    }
+
+    private void showFilteredTopics(List<Topic> matches) {
+        filteredTopics.clear();
+        filteredTopics.addAll(matches);
 
         // Reset to first page and recalculate pagination
         currentPage = 0;
@@ -233,7 +227,7 @@ public class ViewTopicsActivity extends AppCompatActivity implements TopicsAdapt
         displayCurrentPage();
     }
 
-    private boolean topicMatchesSearch(Topic topic, String searchQuery) {
+    private static boolean topicMatchesSearch(Topic topic, String searchQuery) {
         if (topic == null || searchQuery == null || searchQuery.isEmpty()) {
             return false;
         }
@@ -438,6 +432,9 @@ public class ViewTopicsActivity extends AppCompatActivity implements TopicsAdapt
     protected void onDestroy() {
         super.onDestroy();
         // Clean up resources if needed
+        if (searchPipeline != null) {
+            searchPipeline.cancel();
+        }
         if (topicsAdapter != null) {
             topicsAdapter.clearTopics();
         }
@@ -451,7 +448,8 @@ public class ViewTopicsActivity extends AppCompatActivity implements TopicsAdapt
     // Method to clear search and show all topics
     public void clearSearch() {
         searchEditText.setText("");
-        currentSearchQuery = "";
-        performSearch();
+        searchPipeline.setQuery("");
+        // Show all topics now rather than after the typing pause
+        searchPipeline.refresh();
     }
 }
\ No newline at end of file
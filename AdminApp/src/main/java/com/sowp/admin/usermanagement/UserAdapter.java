@@ -1,9 +1,6 @@
 package com.sowp.admin.usermanagement;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -11,15 +8,36 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.sowp.admin.R;
+import com.sowp.shared.images.ImageLoader;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder> {
 
-    private List<User> userList;
+    private static final DiffUtil.ItemCallback<User> DIFF_CALLBACK = new DiffUtil.ItemCallback<User>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull User oldUser, @NonNull User newUser) {
+            return Objects.equals(oldUser.getEmail(), newUser.getEmail());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull User oldUser, @NonNull User newUser) {
+            return Objects.equals(oldUser.getDisplayName(), newUser.getDisplayName())
+                    && Objects.equals(oldUser.getRole(), newUser.getRole())
+                    && oldUser.getIsVerified() == newUser.getIsVerified()
+                    && Objects.equals(oldUser.getPhoto(), newUser.getPhoto());
+        }
+    };
+
+    // Page changes are diffed in the background, so only rows that changed are rebound
+    private final AsyncListDiffer<User> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private Context context;
     private OnItemClickListener onItemClickListener;
 
@@ -28,8 +46,8 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
     }
 
     public UserAdapter(List<User> userList, Context context) {
-        this.userList = userList;
         this.context = context;
+        updateUsers(userList);
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
@@ -37,8 +55,7 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
     }
 
     public void updateUsers(List<User> newUserList) {
-        this.userList = newUserList;
-        notifyDataSetChanged();
+        differ.submitList(new ArrayList<>(newUserList));
     }
 
     @NonNull
@@ -50,13 +67,19 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull UserViewHolder holder, int position) {
-        User user = userList.get(position);
+        User user = differ.getCurrentList().get(position);
         holder.bind(user);
     }
 
     @Override
     public int getItemCount() {
-        return userList.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull UserViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.clear(holder.ivProfile);
     }
 
     public class UserViewHolder extends RecyclerView.ViewHolder {
@@ -74,7 +97,7 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
 
             itemView.setOnClickListener(v -> {
                 if (onItemClickListener != null && getAdapterPosition() != RecyclerView.NO_POSITION) {
-                    onItemClickListener.onItemClick(userList.get(getAdapterPosition()));
+                    onItemClickListener.onItemClick(differ.getCurrentList().get(getAdapterPosition()));
                 }
             });
         }
@@ -120,29 +143,7 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
         }
 
         private void setProfileImage(String base64Image) {
-            if (base64Image != null && !base64Image.isEmpty()) {
-                try {
-                    // Remove data:image prefix if present
-                    String cleanBase64 = base64Image;
-                    if (base64Image.contains(",")) {
-                        cleanBase64 = base64Image.substring(base64Image.indexOf(",") + 1);
-                    }
-
-                    byte[] decodedBytes = Base64.decode(cleanBase64, Base64.DEFAULT);
-                    Bitmap bitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-
-                    if (bitmap != null) {
-                        ivProfile.setImageBitmap(bitmap);
-                    } else {
-                        ivProfile.setImageResource(R.drawable.ic_person);
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    ivProfile.setImageResource(R.drawable.ic_person);
-                }
-            } else {
-                ivProfile.setImageResource(R.drawable.ic_person);
-            }
+            ImageLoader.loadAvatar(ivProfile, base64Image, R.drawable.ic_person);
         }
     }
 }
\ No newline at end of file
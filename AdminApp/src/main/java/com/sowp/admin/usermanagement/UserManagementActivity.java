@@ -2,8 +2,6 @@ package com.sowp.admin.usermanagement;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.text.Editable;
-import android.text.TextWatcher;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
@@ -27,6 +25,7 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.sowp.admin.R;
+import com.sowp.shared.search.SearchPipeline;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -50,6 +49,7 @@ public class UserManagementActivity extends AppCompatActivity {
     // Data
     private List<User> userList;
     private List<User> filteredUserList;
+    private SearchPipeline<User> searchPipeline;
     private int currentPage = 1;
     private static final int USERS_PER_PAGE = 10;
     private int totalUsers = 0;
@@ -58,7 +58,7 @@ public class UserManagementActivity extends AppCompatActivity {
     // Filters
     private String currentVerificationFilter = "All";
     private String currentSortBy = "Name";
-    private String currentSearchQuery = "";
+    private String shownSearchQuery = "";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -71,6 +71,7 @@ public class UserManagementActivity extends AppCompatActivity {
         setupFirebase();
         setupSpinners();
         setupRecyclerView();
+        setupSearch();
         setupListeners();
         loadUsers();
     }
@@ -141,22 +142,14 @@ public class UserManagementActivity extends AppCompatActivity {
         });
     }
 
+    private void setupSearch() {
+        // Filtering and sorting thousands of users runs off the main thread
+        searchPipeline = new SearchPipeline<>(this::userMatcher, this::showFilteredUsers);
+    }
+
     private void setupListeners() {
         // Search functionality
-        etSearch.addTextChangedListener(new TextWatcher() {
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {
-                currentSearchQuery = s.toString().toLowerCase().trim();
-                currentPage = 1;
-                applyFiltersAndSort();
-            }
-
-            @Override
-            public void afterTextChanged(Editable s) {}
-        });
+        etSearch.addTextChangedListener(searchPipeline.textWatcher());
 
         // Verification filter
         spinnerVerification.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
@@ -164,7 +157,7 @@ public class UserManagementActivity extends AppCompatActivity {
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 currentVerificationFilter = parent.getItemAtPosition(position).toString();
                 currentPage = 1;
-                applyFiltersAndSort();
+                searchPipeline.refresh();
             }
 
             @Override
@@ -177,7 +170,7 @@ public class UserManagementActivity extends AppCompatActivity {
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 currentSortBy = parent.getItemAtPosition(position).toString();
                 currentPage = 1;
-                applyFiltersAndSort();
+                searchPipeline.refresh();
             }
 
             @Override
@@ -218,7 +211,7 @@ public class UserManagementActivity extends AppCompatActivity {
                     progressLoading.setVisibility(View.GONE);
                     recyclerViewUsers.setVisibility(View.VISIBLE);
 
-                    applyFiltersAndSort();
+                    searchPipeline.setItems(userList);
                 })
                 .addOnFailureListener(e -> {
                     progressLoading.setVisibility(View.GONE);
@@ -228,48 +221,65 @@ public class UserManagementActivity extends AppCompatActivity {
                 });
     }
 
-    private void applyFiltersAndSort() {
-        filteredUserList.clear();
+    // Runs on the main thread; the returned matcher filters and sorts on the search worker
+    private SearchPipeline.Matcher<User> userMatcher(String query) {
+        String search = query.toLowerCase();
+        String verificationFilter = currentVerificationFilter;
+        String sortBy = currentSortBy;
+        if (!query.equals(shownSearchQuery)) {
+            shownSearchQuery = query;
+            currentPage = 1;
+        }
 
-        for (User user : userList) {
-            boolean matchesSearch = currentSearchQuery.isEmpty() ||
-                    user.getFullName().toLowerCase().contains(currentSearchQuery) ||
-                    user.getEmail().toLowerCase().contains(currentSearchQuery);
+        return users -> {
+            List<User> matches = new ArrayList<>();
+            for (User user : users) {
+                boolean matchesSearch = search.isEmpty() ||
+                        user.getFullName().toLowerCase().contains(search) ||
+                        user.getEmail().toLowerCase().contains(search);
 
-            boolean matchesVerification = currentVerificationFilter.equals("All") ||
-                    (currentVerificationFilter.equals("Verified") && !user.getIsVerified()) ||
-                    (currentVerificationFilter.equals("Unverified") && user.getIsVerified());
+                boolean matchesVerification = verificationFilter.equals("All") ||
+                        (verificationFilter.equals("Verified") && !user.getIsVerified()) ||
+                        (verificationFilter.equals("Unverified") && user.getIsVerified());
 
-            if (matchesSearch && matchesVerification) {
-                filteredUserList.add(user);
+                if (matchesSearch && matchesVerification) {
+                    matches.add(user);
+                }
             }
-        }
 
-        // Sort the filtered list
-        switch (currentSortBy) {
-            case "Name":
-                filteredUserList.sort((u1, u2) -> u1.getFullName().compareToIgnoreCase(u2.getFullName()));
-                break;
-            case "Email":
-                filteredUserList.sort((u1, u2) -> u1.getEmail().compareToIgnoreCase(u2.getEmail()));
-                break;
-            case "Semester":
-                filteredUserList.sort((u1, u2) -> u1.getDisplaySemester().compareToIgnoreCase(u2.getDisplaySemester()));
-                break;
-            case "Gender":
-                filteredUserList.sort((u1, u2) -> u1.getGender().compareToIgnoreCase(u2.getGender()));
-                break;
-            case "Degree":
-                filteredUserList.sort((u1, u2) -> u1.getDegree().compareToIgnoreCase(u2.getDegree()));
-                break;
-            case "Date Created":
-                filteredUserList.sort((u1, u2) -> Long.compare(u2.getCreatedAt(), u1.getCreatedAt()));
-                break;
-        }
+            // Sort the filtered list
+            switch (sortBy) {
+                case "Name":
+                    matches.sort((u1, u2) -> u1.getFullName().compareToIgnoreCase(u2.getFullName()));
+                    break;
+                case "Email":
+                    matches.sort((u1, u2) -> u1.getEmail().compareToIgnoreCase(u2.getEmail()));
+                    break;
+                case "Semester":
+                    matches.sort((u1, u2) -> u1.getDisplaySemester().compareToIgnoreCase(u2.getDisplaySemester()));
+                    break;
+                case "Gender":
+                    matches.sort((u1, u2) -> u1.getGender().compareToIgnoreCase(u2.getGender()));
+                    break;
+                case "Degree":
+                    matches.sort((u1, u2) -> u1.getDegree().compareToIgnoreCase(u2.getDegree()));
+                    break;
+                case "Date Created":
+                    matches.sort((u1, u2) -> Long.compare(u2.getCreatedAt(), u1.getCreatedAt()));
+                    break;
+            }
+            return matches;
+        };
+    }
+
+    private void showFilteredUsers(List<User> users) {
+        filteredUserList.clear();
+        filteredUserList.addAll(users);
 
         totalUsers = filteredUserList.size();
         totalPages = (int) Math.ceil((double) totalUsers / USERS_PER_PAGE);
         if (totalPages == 0) totalPages = 1;
+        currentPage = Math.min(currentPage, totalPages);
 
         updatePaginatedList();
         updateUI();
@@ -302,6 +312,12 @@ public class UserManagementActivity extends AppCompatActivity {
         btnNext.setAlpha(currentPage < totalPages ? 1.0f : 0.5f);
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        searchPipeline.cancel();
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -3,7 +3,6 @@ package com.sowp.admin.usermanagement;
 import android.app.DatePickerDialog;
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.MediaStore;
@@ -28,8 +27,10 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.sowp.admin.R;
+import com.sowp.shared.images.ImageEncoder;
+import com.sowp.shared.images.ImageLoader;
+import com.sowp.shared.images.ImageRole;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
@@ -127,9 +128,9 @@ public class UserProfileActivity extends AppCompatActivity {
                         Uri imageUri = result.getData().getData();
                         if (imageUri != null) {
                             try {
-                                Bitmap bitmap = MediaStore.Images.Media.getBitmap(getContentResolver(), imageUri);
-                                // Resize bitmap if too large
-                                bitmap = resizeBitmap(bitmap, 300, 300);
+                                // Decoded upright and no larger than an avatar needs
+                                Bitmap bitmap = ImageEncoder.decodeUpright(getContentResolver(), imageUri,
+                                        ImageRole.AVATAR.maxDimension);
                                 selectedImageBase64 = bitmapToBase64(bitmap);
                                 ivProfileLarge.setImageBitmap(bitmap);
                             } catch (IOException e) {
@@ -215,17 +216,7 @@ public class UserProfileActivity extends AppCompatActivity {
 
         // Set the same image as profile
         if (selectedImageBase64 != null && !selectedImageBase64.isEmpty()) {
-            try {
-                String cleanBase64 = selectedImageBase64;
-                if (selectedImageBase64.contains(",")) {
-                    cleanBase64 = selectedImageBase64.substring(selectedImageBase64.indexOf(",") + 1);
-                }
-                byte[] decodedBytes = Base64.decode(cleanBase64, Base64.DEFAULT);
-                Bitmap bitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-                fullScreenImage.setImageBitmap(bitmap);
-            } catch (Exception e) {
-                fullScreenImage.setImageResource(R.drawable.ic_person);
-            }
+            setProfileImageFromBase64(fullScreenImage, selectedImageBase64);
         } else if (currentUser != null && currentUser.getPhoto() != null && !currentUser.getPhoto().isEmpty()) {
             setProfileImageFromBase64(fullScreenImage, currentUser.getPhoto());
         } else {
@@ -434,28 +425,7 @@ public class UserProfileActivity extends AppCompatActivity {
     }
 
     private void setProfileImageFromBase64(ImageView imageView, String base64Image) {
-        if (base64Image != null && !base64Image.isEmpty()) {
-            try {
-                String cleanBase64 = base64Image;
-                if (base64Image.contains(",")) {
-                    cleanBase64 = base64Image.substring(base64Image.indexOf(",") + 1);
-                }
-
-                byte[] decodedBytes = Base64.decode(cleanBase64, Base64.DEFAULT);
-                Bitmap bitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-
-                if (bitmap != null) {
-                    imageView.setImageBitmap(bitmap);
-                } else {
-                    imageView.setImageResource(R.drawable.ic_person);
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-                imageView.setImageResource(R.drawable.ic_person);
-            }
-        } else {
-            imageView.setImageResource(R.drawable.ic_person);
-        }
+        ImageLoader.loadAvatar(imageView, base64Image, R.drawable.ic_person);
     }
 
     private void showDeleteConfirmation() {
@@ -632,27 +602,7 @@ public class UserProfileActivity extends AppCompatActivity {
     }
 
     private String bitmapToBase64(Bitmap bitmap) {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, 80, byteArrayOutputStream);
-        byte[] byteArray = byteArrayOutputStream.toByteArray();
-        return Base64.encodeToString(byteArray, Base64.DEFAULT);
-    }
-
-    private Bitmap resizeBitmap(Bitmap original, int maxWidth, int maxHeight) {
-        int width = original.getWidth();
-        int height = original.getHeight();
-
-        float aspectRatio = (float) width / height;
-
-        if (width > height) {
-            width = maxWidth;
-            height = (int) (width / aspectRatio);
-        } else {
-            height = maxHeight;
-            width = (int) (height * aspectRatio);
-        }
-
-        return Bitmap.createScaledBitmap(original, width, height, true);
+        return Base64.encodeToString(ImageEncoder.encode(bitmap, ImageRole.AVATAR), Base64.DEFAULT);
     }
 
     private void showError(String message) {
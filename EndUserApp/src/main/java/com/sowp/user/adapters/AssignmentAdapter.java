@@ -8,6 +8,8 @@ import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.card.MaterialCardView;
@@ -15,14 +17,42 @@ import com.sowp.user.R;
 import com.sowp.user.models.Assignment;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class AssignmentAdapter extends RecyclerView.Adapter<AssignmentAdapter.AssignmentViewHolder> {
 
+    private static final DiffUtil.ItemCallback<Assignment> DIFF_CALLBACK = new DiffUtil.ItemCallback<Assignment>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Assignment oldAssignment, @NonNull Assignment newAssignment) {
+            return oldAssignment.getCourseId() == newAssignment.getCourseId()
+                    && oldAssignment.getId() == newAssignment.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Assignment oldAssignment, @NonNull Assignment newAssignment) {
+            return oldAssignment.getOrderIndex() == newAssignment.getOrderIndex()
+                    && Objects.equals(oldAssignment.getTitle(), newAssignment.getTitle())
+                    && Objects.equals(oldAssignment.getSemester(), newAssignment.getSemester())
+                    && Objects.equals(oldAssignment.getDescription(), newAssignment.getDescription())
+                    && oldAssignment.getScore() == newAssignment.getScore()
+                    && oldAssignment.getPassingScore() == newAssignment.getPassingScore()
+                    && oldAssignment.getCreatedAt() == newAssignment.getCreatedAt()
+                    && imageCount(oldAssignment) == imageCount(newAssignment);
+        }
+
+        // Rows only show how many images there are, so the Base64 payloads are never compared
+        private int imageCount(Assignment assignment) {
+            return assignment.getBase64Images() == null ? 0 : assignment.getBase64Images().size();
+        }
+    };
+
     private Context context;
-    private List<Assignment> assignmentList;
+    // List changes are diffed in the background, so only rows that changed are rebound
+    private final AsyncListDiffer<Assignment> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private OnAssignmentClickListener listener;
 
     public interface OnAssignmentClickListener {
@@ -31,8 +61,8 @@ public class AssignmentAdapter extends RecyclerView.Adapter<AssignmentAdapter.As
 
     public AssignmentAdapter(Context context, List<Assignment> assignmentList, OnAssignmentClickListener listener) {
         this.context = context;
-        this.assignmentList = assignmentList;
         this.listener = listener;
+        updateData(assignmentList);
     }
 
     @NonNull
@@ -44,19 +74,18 @@ public class AssignmentAdapter extends RecyclerView.Adapter<AssignmentAdapter.As
 
     @Override
     public void onBindViewHolder(@NonNull AssignmentViewHolder holder, int position) {
-        Assignment assignment = assignmentList.get(position);
+        Assignment assignment = differ.getCurrentList().get(position);
         holder.bind(assignment, listener);
     }
 
     @Override
     public int getItemCount() {
-        return assignmentList != null ? assignmentList.size() : 0;
+        return differ.getCurrentList().size();
     }
 
+    /** Shows {@code newAssignmentList}; the list is copied, so callers may keep changing theirs. */
     public void updateData(List<Assignment> newAssignmentList) {
-        this.assignmentList.clear();
-        this.assignmentList.addAll(newAssignmentList);
-        notifyDataSetChanged();
+        differ.submitList(newAssignmentList == null ? new ArrayList<>() : new ArrayList<>(newAssignmentList));
     }
 
     public static class AssignmentViewHolder extends RecyclerView.ViewHolder {
@@ -5,7 +5,10 @@ import android.content.ClipboardManager;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.SpannableString;
+import android.util.LruCache;
 import android.text.method.LinkMovementMethod;
 import android.view.ContextMenu;
 import android.view.LayoutInflater;
@@ -22,18 +25,20 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.sowp.user.models.ChatMessage;
 import com.sowp.user.models.User;
 import com.sowp.user.R;
-import com.sowp.user.services.ImageService;
+import com.sowp.user.services.AvatarBitmapCache;
 import com.sowp.user.services.MessageFormatter;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder> {
     private static final int VIEW_TYPE_CURRENT_USER = 1;
     private static final int VIEW_TYPE_OTHER_USER = 2;
     private static final int MAX_CACHED_MESSAGES = 100;
-    private static final int MAX_CACHED_IMAGES = 20;
     private static final int MAX_IMAGE_SIZE = 100;
     private static final int MAX_BASE64_SIZE = 1024 * 1024;
 
@@ -47,8 +52,12 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
     private OnUserProfileClickListener profileClickListener;
 
     private final Map<String, User> userCache = new HashMap<>();
-    private final Map<String, Bitmap> profileImageCache = new HashMap<>();
-    private final Map<String, SpannableString> formattedMessageCache = new HashMap<>();
+    private final AvatarBitmapCache avatarCache;
+    // Keyed by message id and content hash, so an edited message never reuses stale spans
+    private final LruCache<String, SpannableString> formattedMessageCache = new LruCache<>(MAX_CACHED_MESSAGES);
+    private final ExecutorService formattingExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile boolean released = false;
 
     public interface OnMessageActionListener {
         void onDeleteMessage(ChatMessage message, int position);
@@ -71,6 +80,7 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
         this.formatter = new MessageFormatter();
         this.currentUserEmail = currentUserEmail;
         this.inflater = LayoutInflater.from(context);
+        this.avatarCache = AvatarBitmapCache.getInstance(context);
     }
 
     public void setOnMessageActionListener(OnMessageActionListener listener) {
@@ -89,19 +99,10 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
         if (email != null && userData != null) {
             userCache.put(email, userData);
 
-            if (userData.getPhoto() != null && !userData.getPhoto().isEmpty()) {
-                try {
-                    Bitmap bitmap = ImageService.base64ToBitmap(userData.getPhoto());
-                    if (bitmap != null) {
-                        if (bitmap.getWidth() > MAX_IMAGE_SIZE || bitmap.getHeight() > MAX_IMAGE_SIZE) {
-                            bitmap = Bitmap.createScaledBitmap(bitmap, MAX_IMAGE_SIZE, MAX_IMAGE_SIZE, true);
-                        }
-                        profileImageCache.put(email, bitmap);
-                    }
-                } catch (OutOfMemoryError e) {
-                    clearOldestProfileImages();
-                } catch (Exception e) {
-                }
+            // Warm the avatar cache in the background; nothing is decoded on the caller's thread
+            String photo = userData.getPhoto();
+            if (photo != null && !photo.isEmpty() && photo.length() <= MAX_BASE64_SIZE) {
+                avatarCache.load(AvatarBitmapCache.keyFor(email, photo), photo, MAX_IMAGE_SIZE, null);
             }
         }
     }
@@ -123,11 +124,10 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
     @Override
     public void onBindViewHolder(@NonNull ChatViewHolder holder, int position) {
         ChatMessage chatMessage = chatMessages.get(position);
-        String messageText = chatMessage.getMessage();
         String messageEmail = chatMessage.getEmail();
         boolean isCurrentUser = getItemViewType(position) == VIEW_TYPE_CURRENT_USER;
 
-        SpannableString formattedMessage = getFormattedMessage(messageText, chatMessage.getId());
+        SpannableString formattedMessage = getFormattedMessage(chatMessage);
 
         if (isCurrentUser) {
             setupCurrentUserMessage(holder, chatMessage, formattedMessage, position);
@@ -136,21 +136,53 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
         }
     }
 
-    private SpannableString getFormattedMessage(String messageText, String messageId) {
-        String cacheKey = messageText + "_" + messageId;
+    // Normally a pure cache lookup: messages are formatted by prefetchFormatting before they are
+    // inserted. Formatting inline only happens for rows whose spans were evicted.
+    private SpannableString getFormattedMessage(ChatMessage chatMessage) {
+        String cacheKey = formattingKey(chatMessage);
+        SpannableString formattedMessage = formattedMessageCache.get(cacheKey);
 
-        if (formattedMessageCache.containsKey(cacheKey)) {
-            return formattedMessageCache.get(cacheKey);
-        }
+        if (formattedMessage != null) return formattedMessage;
 
-        SpannableString formattedMessage = formatter.formatComplete(messageText, context);
+        formattedMessage = formatter.formatComplete(chatMessage.getMessage(), context);
         formattedMessageCache.put(cacheKey, formattedMessage);
+        return formattedMessage;
+    }
+
+    /**
+     * Formats the given messages on a background thread, then runs {@code onReady} on the main
+     * thread. Work is queued in order, so callers can route every list update through here and
+     * apply them in the order they arrived.
+     */
+    public void prefetchFormatting(List<ChatMessage> messages, Runnable onReady) {
+        if (released) return;
+
+        List<ChatMessage> pending = new ArrayList<>(messages);
+        formattingExecutor.execute(() -> {
+            for (ChatMessage chatMessage : pending) {
+                if (released) return;
+
+                String cacheKey = formattingKey(chatMessage);
+                if (formattedMessageCache.get(cacheKey) == null) {
+                    formattedMessageCache.put(cacheKey, formatter.formatComplete(chatMessage.getMessage(), context));
+                }
+            }
 
-        if (formattedMessageCache.size() > MAX_CACHED_MESSAGES) {
-            clearOldestFormattedMessages();
+            mainHandler.post(() -> {
+                if (!released && onReady != null) onReady.run();
+            });
+        });
+    }
+
+    public void invalidateFormatting(ChatMessage chatMessage) {
+        if (chatMessage != null) {
+            formattedMessageCache.remove(formattingKey(chatMessage));
         }
+    }
 
-        return formattedMessage;
+    private static String formattingKey(ChatMessage chatMessage) {
+        String message = chatMessage.getMessage();
+        return chatMessage.getId() + ":" + (message != null ? message.hashCode() : 0);
     }
 
     private void setupCurrentUserMessage(ChatViewHolder holder, ChatMessage chatMessage,
@@ -230,16 +262,8 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
     private void setupProfileImage(ImageView profileImageView, String userEmail) {
         if (profileImageView == null) return;
 
-        if (profileImageCache.containsKey(userEmail)) {
-            Bitmap cachedBitmap = profileImageCache.get(userEmail);
-            if (cachedBitmap != null && !cachedBitmap.isRecycled()) {
-                try {
-                    profileImageView.setImageBitmap(cachedBitmap);
-                    return;
-                } catch (Exception e) {
-                }
-            }
-        }
+        // Recycled rows may still have an avatar decode in flight for their previous sender
+        profileImageView.setTag(userEmail);
 
         if (userCache.containsKey(userEmail)) {
             User userData = userCache.get(userEmail);
@@ -264,36 +288,34 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
     }
 
     private void loadProfileImageFromUserData(ImageView profileImageView, String userEmail, User userData) {
-        if (profileImageView == null) return;
+        if (profileImageView == null || !userEmail.equals(profileImageView.getTag())) return;
 
-        if (userData != null && userData.getPhoto() != null && !userData.getPhoto().isEmpty()) {
-            try {
-                String base64Image = userData.getPhoto();
-                if (base64Image.length() > MAX_BASE64_SIZE) {
-                    setDefaultProfileImage(profileImageView);
-                    return;
-                }
+        String base64Image = userData != null ? userData.getPhoto() : null;
+        if (base64Image == null || base64Image.isEmpty() || base64Image.length() > MAX_BASE64_SIZE) {
+            setDefaultProfileImage(profileImageView);
+            return;
+        }
 
-                Bitmap bitmap = ImageService.base64ToBitmap(base64Image);
-                if (bitmap != null) {
-                    if (bitmap.getWidth() > MAX_IMAGE_SIZE || bitmap.getHeight() > MAX_IMAGE_SIZE) {
-                        bitmap = Bitmap.createScaledBitmap(bitmap, MAX_IMAGE_SIZE, MAX_IMAGE_SIZE, true);
-                    }
+        String key = AvatarBitmapCache.keyFor(userEmail, base64Image);
+        Bitmap cachedBitmap = avatarCache.get(key);
+        if (cachedBitmap != null) {
+            profileImageView.setImageBitmap(cachedBitmap);
+            return;
+        }
 
+        setDefaultProfileImage(profileImageView);
+        avatarCache.load(key, base64Image, MAX_IMAGE_SIZE, new AvatarBitmapCache.AvatarCallback() {
+            @Override
+            public void onAvatarLoaded(Bitmap bitmap) {
+                if (userEmail.equals(profileImageView.getTag())) {
                     profileImageView.setImageBitmap(bitmap);
-                    profileImageCache.put(userEmail, bitmap);
-                } else {
-                    setDefaultProfileImage(profileImageView);
                 }
-            } catch (OutOfMemoryError e) {
-                setDefaultProfileImage(profileImageView);
-                clearOldestProfileImages();
-            } catch (Exception e) {
-                setDefaultProfileImage(profileImageView);
             }
-        } else {
-            setDefaultProfileImage(profileImageView);
-        }
+
+            @Override
+            public void onAvatarFailed() {
+            }
+        });
     }
 
     private void setDefaultProfileImage(ImageView profileImageView) {
@@ -358,49 +380,22 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
         }
     }
 
+    // Avatars live in the shared AvatarBitmapCache, which evicts by its own byte budget
     public void clearCaches() {
         userCache.clear();
-
-        for (Bitmap bitmap : profileImageCache.values()) {
-            if (bitmap != null && !bitmap.isRecycled()) {
-                try {
-                    bitmap.recycle();
-                } catch (Exception e) {
-                }
-            }
-        }
-        profileImageCache.clear();
-        formattedMessageCache.clear();
+        formattedMessageCache.evictAll();
     }
 
     public void clearFormattedMessageCache() {
-        formattedMessageCache.clear();
-    }
-
-    private void clearOldestFormattedMessages() {
-        if (formattedMessageCache.size() > 50) {
-            int toRemove = formattedMessageCache.size() - 40;
-            var iterator = formattedMessageCache.entrySet().iterator();
-            for (int i = 0; i < toRemove && iterator.hasNext(); i++) {
-                iterator.next();
-                iterator.remove();
-            }
-        }
+        formattedMessageCache.evictAll();
     }
 
-    private void clearOldestProfileImages() {
-        if (profileImageCache.size() > MAX_CACHED_IMAGES) {
-            int toRemove = profileImageCache.size() - 15;
-            var iterator = profileImageCache.entrySet().iterator();
-            for (int i = 0; i < toRemove && iterator.hasNext(); i++) {
-                var entry = iterator.next();
-                Bitmap bitmap = entry.getValue();
-                if (bitmap != null && !bitmap.isRecycled()) {
-                    bitmap.recycle();
-                }
-                iterator.remove();
-            }
-        }
+    // Stops background formatting; queued updates are dropped once the chat screen goes away
+    public void release() {
+        released = true;
+        formattingExecutor.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
+        clearCaches();
     }
 
     @Override
@@ -501,12 +496,12 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
                         return true;
                     case 2:
                         if (actionListener != null) {
-                            actionListener.onDeleteMessage(currentMessage, currentPosition);
+                            actionListener.onDeleteMessage(currentMessage, resolvePosition());
                         }
                         return true;
                     case 3:
                         if (actionListener != null) {
-                            actionListener.onDeleteForEveryone(currentMessage, currentPosition);
+                            actionListener.onDeleteForEveryone(currentMessage, resolvePosition());
                         }
                         return true;
                     default:
@@ -517,6 +512,13 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
             }
         }
 
+        // Item-level inserts and removals shift rows without rebinding them, so the position
+        // captured at bind time can be stale by the time the context menu is used.
+        private int resolvePosition() {
+            int position = getBindingAdapterPosition();
+            return position != RecyclerView.NO_POSITION ? position : currentPosition;
+        }
+
         private void copyMessageToClipboard() {
             try {
                 ClipboardManager clipboard = (ClipboardManager) context.getSystemService(Context.CLIPBOARD_SERVICE);
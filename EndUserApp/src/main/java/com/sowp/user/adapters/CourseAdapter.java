@@ -1,10 +1,6 @@
 package com.sowp.user.adapters;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -16,6 +12,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.sowp.user.R;
 import com.sowp.user.models.Course;
+import com.sowp.shared.images.ImageLoader;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -61,6 +58,12 @@ public class CourseAdapter extends RecyclerView.Adapter<CourseAdapter.CourseView
         notifyDataSetChanged();
     }
 
+    @Override
+    public void onViewRecycled(@NonNull CourseViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.clear(holder.courseImageView);
+    }
+
     public List<Course> getCourses() {
         return courses;
     }
@@ -98,7 +101,7 @@ public class CourseAdapter extends RecyclerView.Adapter<CourseAdapter.CourseView
         void bind(Course course, OnCourseClickListener listener) {
             if (course == null) return;
 
-            loadBase64Image(course.getIllustration(), courseImageView);
+            loadCourseImage(course, courseImageView);
             courseTitleTextView.setText(course.getTitle() != null ? course.getTitle() : "Untitled");
             categoryTextView.setText(formatCategories(course));
             descriptionTextView.setText(course.getDescription());
@@ -126,28 +129,9 @@ public class CourseAdapter extends RecyclerView.Adapter<CourseAdapter.CourseView
             });
         }
 
-        private void loadBase64Image(String base64String, ImageView imageView) {
-            try {
-                if (base64String != null && !base64String.isEmpty()) {
-                    String cleanBase64 = base64String.startsWith("data:image")
-                            ? base64String.substring(base64String.indexOf(",") + 1)
-                            : base64String;
-
-                    byte[] decodedBytes = Base64.decode(cleanBase64, Base64.DEFAULT);
-                    Bitmap bitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-
-                    if (bitmap != null) {
-                        imageView.setImageBitmap(bitmap);
-                    } else {
-                        imageView.setImageResource(R.drawable.course_placeholder);
-                    }
-                } else {
-                    imageView.setImageResource(R.drawable.course_placeholder);
-                }
-            } catch (Exception e) {
-                Log.e("CourseAdapter", "Error loading base64 image: " + e.getMessage());
-                imageView.setImageResource(R.drawable.course_placeholder);
-            }
+        // Migrated courses reference the image store; older ones still carry the image inline
+        private void loadCourseImage(Course course, ImageView imageView) {
+            ImageLoader.load(imageView, course.getIllustrationRef(), course.getIllustration(), R.drawable.course_placeholder);
         }
 
         private String formatCategories(Course course) {
@@ -181,7 +181,7 @@ public class CourseProgressAdapter extends RecyclerView.Adapter<CourseProgressAd
                 updateProgressUI(progress, totalLectures);
             } else {
                 // Load from repository
-                courseRepository.getCourse(courseId, new CourseRepository.Callback() {
+                courseRepository.getCourseSummary(courseId, new CourseRepository.Callback() {
                     @Override
                     public void onSuccess(List<com.sowp.user.models.Course> courses) {
                         if (!courses.isEmpty()) {
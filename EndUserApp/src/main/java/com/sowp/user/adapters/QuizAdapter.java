@@ -7,6 +7,8 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.button.MaterialButton;
@@ -14,12 +16,31 @@ import com.google.android.material.card.MaterialCardView;
 import com.sowp.user.R;
 import com.sowp.user.models.Quiz;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder> {
 
+    private static final DiffUtil.ItemCallback<Quiz> DIFF_CALLBACK = new DiffUtil.ItemCallback<Quiz>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Quiz oldQuiz, @NonNull Quiz newQuiz) {
+            return oldQuiz.getCourseId() == newQuiz.getCourseId() && oldQuiz.getQuizId() == newQuiz.getQuizId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Quiz oldQuiz, @NonNull Quiz newQuiz) {
+            return Objects.equals(oldQuiz.getTitle(), newQuiz.getTitle())
+                    && Objects.equals(oldQuiz.getDescription(), newQuiz.getDescription())
+                    && oldQuiz.getTotalQuestions() == newQuiz.getTotalQuestions()
+                    && oldQuiz.getPassingScore() == newQuiz.getPassingScore()
+                    && Objects.equals(oldQuiz.getLevel(), newQuiz.getLevel());
+        }
+    };
+
     private Context context;
-    private List<Quiz> quizList;
+    // List changes are diffed in the background, so only rows that changed are rebound
+    private final AsyncListDiffer<Quiz> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private OnQuizClickListener listener;
 
     public interface OnQuizClickListener {
@@ -28,8 +49,8 @@ public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder
 
     public QuizAdapter(Context context, List<Quiz> quizList, OnQuizClickListener listener) {
         this.context = context;
-        this.quizList = quizList;
         this.listener = listener;
+        updateData(quizList);
     }
 
     @NonNull
@@ -41,19 +62,18 @@ public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull QuizViewHolder holder, int position) {
-        Quiz quiz = quizList.get(position);
+        Quiz quiz = differ.getCurrentList().get(position);
         holder.bind(quiz, listener);
     }
 
     @Override
     public int getItemCount() {
-        return quizList != null ? quizList.size() : 0;
+        return differ.getCurrentList().size();
     }
 
+    /** Shows {@code newQuizList}; the list is copied, so callers may keep changing theirs. */
     public void updateData(List<Quiz> newQuizList) {
-        this.quizList.clear();
-        this.quizList.addAll(newQuizList);
-        notifyDataSetChanged();
+        differ.submitList(newQuizList == null ? new ArrayList<>() : new ArrayList<>(newQuizList));
     }
 
     public static class QuizViewHolder extends RecyclerView.ViewHolder {
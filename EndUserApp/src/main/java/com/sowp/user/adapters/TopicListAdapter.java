@@ -8,6 +8,8 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.sowp.user.R;
@@ -22,10 +24,29 @@ import java.util.Date;
 import java.util.Locale;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class TopicListAdapter extends RecyclerView.Adapter<TopicListAdapter.TopicViewHolder> {
+    private static final DiffUtil.ItemCallback<Topic> DIFF_CALLBACK = new DiffUtil.ItemCallback<Topic>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Topic oldTopic, @NonNull Topic newTopic) {
+            return oldTopic.getCourseId() == newTopic.getCourseId()
+                    && oldTopic.getOrderIndex() == newTopic.getOrderIndex();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Topic oldTopic, @NonNull Topic newTopic) {
+            return Objects.equals(oldTopic.getName(), newTopic.getName())
+                    && Objects.equals(oldTopic.getDescription(), newTopic.getDescription())
+                    && oldTopic.getCreatedAt() == newTopic.getCreatedAt()
+                    && oldTopic.getViews() == newTopic.getViews()
+                    && Objects.equals(oldTopic.getVideoID(), newTopic.getVideoID());
+        }
+    };
+
     private final Context context;
-    private final List<Topic> topics;
+    // Page changes are diffed in the background, so only rows that changed are rebound
+    private final AsyncListDiffer<Topic> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private final UserRepository userRepository;
     private OnTopicClickListener onTopicClickListener;
 
@@ -35,8 +56,8 @@ public class TopicListAdapter extends RecyclerView.Adapter<TopicListAdapter.Topi
 
     public TopicListAdapter(Context context, List<Topic> topics) {
         this.context = context;
-        this.topics = new ArrayList<>(topics != null ? topics : new ArrayList<>());
         this.userRepository = new UserRepository(context);
+        updateTopics(topics);
     }
 
     public void setOnTopicClickListener(OnTopicClickListener listener) {
@@ -52,26 +73,21 @@ public class TopicListAdapter extends RecyclerView.Adapter<TopicListAdapter.Topi
 
     @Override
     public void onBindViewHolder(@NonNull TopicViewHolder holder, int position) {
-        Topic topic = topics.get(position);
+        Topic topic = differ.getCurrentList().get(position);
         holder.bind(topic, context, userRepository, onTopicClickListener);
     }
 
     @Override
     public int getItemCount() {
-        return topics.size();
+        return differ.getCurrentList().size();
     }
 
     public void updateTopics(List<Topic> newTopics) {
-        this.topics.clear();
-        if (newTopics != null) {
-            this.topics.addAll(newTopics);
-        }
-        notifyDataSetChanged();
+        differ.submitList(newTopics == null ? new ArrayList<>() : new ArrayList<>(newTopics));
     }
 
     public void clearTopics() {
-        this.topics.clear();
-        notifyDataSetChanged();
+        differ.submitList(null);
     }
 
     static class TopicViewHolder extends RecyclerView.ViewHolder {
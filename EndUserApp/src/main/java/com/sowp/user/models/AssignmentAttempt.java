@@ -37,6 +37,12 @@ public class AssignmentAttempt {
     @PropertyName("submittedImages")
     private List<String> submittedImages; // Base64 encoded images
 
+    @PropertyName("submittedImageHashes")
+    private List<String> submittedImageHashes; // SHA-256 of each image, in the same order
+
+    @PropertyName("submittedImageFingerprints")
+    private List<String> submittedImageFingerprints; // Perceptual hash of each image, in the same order
+
     @PropertyName("feedback")
     private String feedback;             // Added for instructor feedback
 
@@ -115,6 +121,16 @@ public class AssignmentAttempt {
         return submittedImages;
     }
 
+    @PropertyName("submittedImageHashes")
+    public List<String> getSubmittedImageHashes() {
+        return submittedImageHashes;
+    }
+
+    @PropertyName("submittedImageFingerprints")
+    public List<String> getSubmittedImageFingerprints() {
+        return submittedImageFingerprints;
+    }
+
     @PropertyName("feedback")
     public String getFeedback() {
         return feedback;
@@ -166,6 +182,14 @@ public class AssignmentAttempt {
         this.submittedImages = submittedImages;
     }
 
+    public void setSubmittedImageHashes(List<String> submittedImageHashes) {
+        this.submittedImageHashes = submittedImageHashes;
+    }
+
+    public void setSubmittedImageFingerprints(List<String> submittedImageFingerprints) {
+        this.submittedImageFingerprints = submittedImageFingerprints;
+    }
+
     public void setFeedback(String feedback) {
         this.feedback = feedback;
     }
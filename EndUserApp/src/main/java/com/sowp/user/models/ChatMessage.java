@@ -2,15 +2,25 @@ package com.sowp.user.models;
 
 import androidx.annotation.Keep;
 import com.google.firebase.firestore.PropertyName;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.Set;
 
 @Keep
 public class ChatMessage {
 
+    // Hex digits of the SHA-256 of an email kept in a user key
+    private static final int USER_KEY_LENGTH = 16;
+
+    // The current user is checked against every message, so the last key computed is reused
+    private static String lastKeyedEmail;
+    private static String lastUserKey;
+
     @Keep
     @PropertyName("id")
     private String id;
@@ -27,20 +37,17 @@ public class ChatMessage {
     @PropertyName("timestamp")
     private long timestamp;
 
-    @Keep
-    @PropertyName("deletedForUsers")
-    private List<String> deletedForUsers;
+    // Hashed keys (see userKeyFor) of the users who deleted this message for themselves
+    private final Set<String> deletedForUserKeys = new HashSet<>();
 
     // Default constructor required for Firebase
     public ChatMessage() {
-        this.deletedForUsers = new ArrayList<>();
     }
 
     public ChatMessage(String email, String message, long timestamp) {
         this.email = email;
         this.message = message;
         this.timestamp = timestamp;
-        this.deletedForUsers = new ArrayList<>();
     }
 
     // --- Getters & Setters ---
@@ -73,28 +80,39 @@ public class ChatMessage {
     @PropertyName("timestamp")
     public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
 
-    @Keep
-    @PropertyName("deletedForUsers")
-    public List<String> getDeletedForUsers() {
-        return deletedForUsers != null ? deletedForUsers : new ArrayList<>();
-    }
-    @Keep
-    @PropertyName("deletedForUsers")
-    public void setDeletedForUsers(List<String> deletedForUsers) {
-        this.deletedForUsers = deletedForUsers != null ? deletedForUsers : new ArrayList<>();
-    }
-
     // --- Helper methods (not stored in DB, no annotations needed) ---
     public boolean isDeletedForUser(String userEmail) {
-        return getDeletedForUsers().contains(userEmail);
+        return !deletedForUserKeys.isEmpty() && deletedForUserKeys.contains(userKeyFor(userEmail));
     }
 
     public void addDeletedForUser(String userEmail) {
-        if (deletedForUsers == null) {
-            deletedForUsers = new ArrayList<>();
-        }
-        if (!deletedForUsers.contains(userEmail)) {
-            deletedForUsers.add(userEmail);
+        deletedForUserKeys.add(userKeyFor(userEmail));
+    }
+
+    public void addDeletedForUserKey(String userKey) {
+        deletedForUserKeys.add(userKey);
+    }
+
+    /**
+     * Stable key for a user in a message's deleted-for map. Emails cannot be database keys
+     * because they contain '.', and the hash also keeps addresses out of the chat node.
+     */
+    public static synchronized String userKeyFor(String userEmail) {
+        if (userEmail.equals(lastKeyedEmail)) return lastUserKey;
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(userEmail.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(USER_KEY_LENGTH);
+            for (int i = 0; i < USER_KEY_LENGTH / 2; i++) {
+                key.append(String.format(Locale.ROOT, "%02x", digest[i]));
+            }
+            lastKeyedEmail = userEmail;
+            lastUserKey = key.toString();
+            return lastUserKey;
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform ships SHA-256
+            throw new IllegalStateException(e);
         }
     }
 
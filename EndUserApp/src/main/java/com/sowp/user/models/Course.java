@@ -1,6 +1,7 @@
 package com.sowp.user.models;
 
 import com.google.firebase.database.PropertyName;
+import com.sowp.shared.images.ImageRef;
 
 import java.util.List;
 
@@ -13,6 +14,10 @@ public class Course {
     @PropertyName("illustration")
     private String illustration;
 
+    // Replaces the inline illustration once the image is in the shared image store
+    @PropertyName("illustrationRef")
+    private ImageRef illustrationRef;
+
     @PropertyName("title")
     private String title;
 
@@ -183,6 +188,15 @@ public class Course {
         this.illustration = illustration;
     }
 
+    @PropertyName("illustrationRef")
+    public ImageRef getIllustrationRef() {
+        return illustrationRef;
+    }
+
+    public void setIllustrationRef(ImageRef illustrationRef) {
+        this.illustrationRef = illustrationRef;
+    }
+
     @PropertyName("title")
     public String getTitle() {
         return title;
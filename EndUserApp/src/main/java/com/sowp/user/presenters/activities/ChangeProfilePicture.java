@@ -1,6 +1,5 @@
 package com.sowp.user.presenters.activities;
 
-import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.os.Bundle;
 import android.util.Base64;
@@ -15,6 +14,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.core.content.ContextCompat;
 
+import com.sowp.shared.images.ImageLoader;
 import com.sowp.user.R;
 import com.sowp.user.services.ImageService;
 import com.google.android.material.button.MaterialButton;
@@ -99,37 +99,12 @@ public class ChangeProfilePicture extends AppCompatActivity implements ImageServ
     // ImageService.ImageCallback implementation
     @Override
     public void onImageSelected(String base64String) {
-        showLoading(true);
-        statusText.setText("Processing image...");
-
-        new Thread(() -> {
-            try {
-                // Convert base64 to bitmap for display
-                Bitmap bitmap = ImageService.base64ToBitmap(base64String);
-
-                if (bitmap != null) {
-                    runOnUiThread(() -> {
-                        profileImage.startAnimation(AnimationUtils.loadAnimation(this, android.R.anim.fade_in));
-                        profileImage.setImageBitmap(bitmap);
-
-                        profileImageBase64 = base64String;
-                        imageChanged = true;
-                        showLoading(false);
-                        updateUIAfterImageSelection();
-                    });
-                } else {
-                    runOnUiThread(() -> {
-                        showLoading(false);
-                        showError("Failed to process image");
-                    });
-                }
-            } catch (Exception e) {
-                runOnUiThread(() -> {
-                    showLoading(false);
-                    showError("Error processing image");
-                });
-            }
-        }).start();
+        profileImage.startAnimation(AnimationUtils.loadAnimation(this, android.R.anim.fade_in));
+        ImageLoader.loadAvatar(profileImage, base64String, R.drawable.ic_profile);
+
+        profileImageBase64 = base64String;
+        imageChanged = true;
+        updateUIAfterImageSelection();
     }
 
     @Override
@@ -209,16 +184,7 @@ public class ChangeProfilePicture extends AppCompatActivity implements ImageServ
     }
 
     private void resetToOriginalImage() {
-        if (!originalImageBase64.isEmpty()) {
-            Bitmap bitmap = ImageService.base64ToBitmap(originalImageBase64);
-            if (bitmap != null) {
-                profileImage.setImageBitmap(bitmap);
-            } else {
-                profileImage.setImageResource(R.drawable.ic_profile);
-            }
-        } else {
-            profileImage.setImageResource(R.drawable.ic_profile);
-        }
+        ImageLoader.loadAvatar(profileImage, originalImageBase64, R.drawable.ic_profile);
 
         profileImageBase64 = originalImageBase64;
         imageChanged = false;
@@ -246,11 +212,7 @@ public class ChangeProfilePicture extends AppCompatActivity implements ImageServ
                         if (photoBase64 != null && !photoBase64.isEmpty()) {
                             originalImageBase64 = photoBase64;
                             profileImageBase64 = photoBase64;
-
-                            Bitmap bitmap = ImageService.base64ToBitmap(photoBase64);
-                            if (bitmap != null) {
-                                profileImage.setImageBitmap(bitmap);
-                            }
+                            ImageLoader.loadAvatar(profileImage, photoBase64, R.drawable.ic_profile);
                             statusText.setText("Tap the camera icon to change your photo");
                         } else {
                             statusText.setText("Tap the camera icon to change your photo");
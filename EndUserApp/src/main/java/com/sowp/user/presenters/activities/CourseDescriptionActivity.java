@@ -1,8 +1,6 @@
 package com.sowp.user.presenters.activities;
 
 import android.content.Intent;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
 import android.util.Base64;
 import android.view.View;
@@ -24,7 +22,7 @@ import com.sowp.user.R;
 import com.sowp.user.models.Course;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
-import com.sowp.user.services.ImageService;
+import com.sowp.shared.images.ImageLoader;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -305,25 +303,11 @@ public class CourseDescriptionActivity extends AppCompatActivity {
             tvCourseOutline.setText(course.getOutline());
         }
 
-        loadBase64Image(course.getIllustration());
-    }
-
-    private void loadBase64Image(String base64Image) {
-        if (base64Image != null && !base64Image.isEmpty() && ivCourseIllustration != null) {
-            // Use ImageService's base64ToBitmap method instead of manual decoding
-            Bitmap decodedBitmap = ImageService.base64ToBitmap(base64Image);
-
-            if (decodedBitmap != null) {
-                ivCourseIllustration.setImageBitmap(decodedBitmap);
-            } else {
-                // Fallback to default image if conversion fails
-                ivCourseIllustration.setImageResource(R.drawable.ic_course);
-            }
-        } else if (ivCourseIllustration != null) {
-            // Set default image if no base64 data
-            ivCourseIllustration.setImageResource(R.drawable.ic_course);
+        if (ivCourseIllustration != null) {
+            ImageLoader.load(ivCourseIllustration, course.getIllustrationRef(), course.getIllustration(), R.drawable.ic_course);
         }
     }
+
     private void enrollInCourse() {
         courseRepository.updateEnrollmentCount(courseId, new CourseRepository.Callback() {
             @Override
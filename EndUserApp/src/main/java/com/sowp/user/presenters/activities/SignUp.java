@@ -2,7 +2,6 @@ package com.sowp.user.presenters.activities;
 
 import android.app.DatePickerDialog;
 import android.content.Intent;
-import android.graphics.Bitmap;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.util.Patterns;
@@ -19,6 +18,7 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
+import com.sowp.shared.images.ImageLoader;
 import com.sowp.user.R;
 import com.sowp.user.models.User;
 import com.sowp.user.repositories.UserRepository;
@@ -102,12 +102,8 @@ public class SignUp extends AppCompatActivity {
             public void onImageSelected(String base64String) {
                 profileImageBase64 = base64String;
 
-                // Convert base64 to bitmap and display
-                Bitmap bitmap = ImageService.base64ToBitmap(base64String);
-                if (bitmap != null) {
-                    profilePicture.setImageBitmap(bitmap);
-                    profilePicture.setScaleType(ImageView.ScaleType.CENTER_CROP);
-                }
+                profilePicture.setScaleType(ImageView.ScaleType.CENTER_CROP);
+                ImageLoader.loadAvatar(profilePicture, base64String, R.drawable.ic_profile);
             }
 
             @Override
@@ -1,7 +1,6 @@
 package com.sowp.user.presenters.activities;
 
 import android.content.Intent;
-import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.MediaStore;
@@ -20,6 +19,9 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.sowp.shared.images.ImageLoader;
+import com.sowp.shared.images.ImagePreparer;
+import com.sowp.shared.images.ImageRole;
 import com.sowp.user.R;
 import com.sowp.user.models.Assignment;
 import com.sowp.user.models.AssignmentAttempt;
@@ -56,6 +58,9 @@ public class SubmitAssignmentActivity extends AppCompatActivity implements Image
     private int assignmentId;
     private Assignment assignment;
     private List<String> selectedImageBase64List = new ArrayList<>();
+    // Content and perceptual hash of each selected image, in the same order
+    private List<String> selectedImageHashes = new ArrayList<>();
+    private List<String> selectedImageFingerprints = new ArrayList<>();
     private SelectedImagesAdapter selectedImagesAdapter;
 
     private AssignmentRepository assignmentRepository;
@@ -101,7 +106,8 @@ public class SubmitAssignmentActivity extends AppCompatActivity implements Image
     }
 
     private void initializeImageService() {
-        imageService = new ImageService(this, this);
+        // Submissions are read by graders, so pages keep full resolution; several can be picked at once
+        imageService = new ImageService(this, this, ImageRole.ASSIGNMENT_PAGE, true);
     }
 
     private void getAssignmentDataFromIntent() {
@@ -131,13 +137,25 @@ public class SubmitAssignmentActivity extends AppCompatActivity implements Image
     // ImageService.ImageCallback implementation
     @Override
     public void onImageSelected(String base64String) {
-        if (!selectedImageBase64List.contains(base64String)) {
-            selectedImageBase64List.add(base64String);
-            selectedImagesAdapter.notifyDataSetChanged();
-            updateUIState();
-            Toast.makeText(this, "Image added successfully", Toast.LENGTH_SHORT).show();
-        } else {
-            Toast.makeText(this, "Image already selected", Toast.LENGTH_SHORT).show();
+        // Images arrive through onImagePrepared, which also carries the content hash
+    }
+
+    @Override
+    public void onImagePrepared(ImagePreparer.PreparedImage image) {
+        selectedImageBase64List.add(image.base64);
+        selectedImageHashes.add(image.contentHash);
+        selectedImageFingerprints.add(image.perceptualHash);
+        selectedImagesAdapter.notifyItemInserted(selectedImageBase64List.size() - 1);
+        updateUIState();
+    }
+
+    @Override
+    public void onImageProgress(int finished, int total) {
+        boolean preparing = finished < total;
+        progressBar.setVisibility(preparing ? View.VISIBLE : View.GONE);
+        submitButton.setEnabled(!preparing && !selectedImageBase64List.isEmpty());
+        if (!preparing) {
+            Toast.makeText(this, total == 1 ? "Image processed" : total + " images processed", Toast.LENGTH_SHORT).show();
         }
     }
 
@@ -229,26 +247,17 @@ public class SubmitAssignmentActivity extends AppCompatActivity implements Image
         assignmentImagesContainer.removeAllViews();
 
         for (String base64Image : assignment.getBase64Images()) {
-            try {
-                // Use ImageService for consistent base64 to bitmap conversion
-                Bitmap bitmap = ImageService.base64ToBitmap(base64Image);
-
-                if (bitmap != null) {
-                    ImageView imageView = new ImageView(this);
-                    LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
-                            LinearLayout.LayoutParams.MATCH_PARENT,
-                            400
-                    );
-                    params.setMargins(0, 0, 0, 16);
-                    imageView.setLayoutParams(params);
-                    imageView.setScaleType(ImageView.ScaleType.CENTER_CROP);
-                    imageView.setImageBitmap(bitmap);
-
-                    assignmentImagesContainer.addView(imageView);
-                }
-            } catch (Exception e) {
-                // Silent error handling
-            }
+            ImageView imageView = new ImageView(this);
+            LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
+                    LinearLayout.LayoutParams.MATCH_PARENT,
+                    400
+            );
+            params.setMargins(0, 0, 0, 16);
+            imageView.setLayoutParams(params);
+            imageView.setScaleType(ImageView.ScaleType.CENTER_CROP);
+            ImageLoader.load(imageView, base64Image, android.R.drawable.ic_menu_gallery);
+
+            assignmentImagesContainer.addView(imageView);
         }
     }
 
@@ -316,6 +325,8 @@ public class SubmitAssignmentActivity extends AppCompatActivity implements Image
         attempt.setStatus("Submitted");
         attempt.setSubmissionTimestamp(currentTime);
         attempt.setSubmittedImages(base64Images);
+        attempt.setSubmittedImageHashes(new ArrayList<>(selectedImageHashes));
+        attempt.setSubmittedImageFingerprints(new ArrayList<>(selectedImageFingerprints));
         attempt.setFeedback("");
         attempt.setGradedAt(0);
 
@@ -374,6 +385,12 @@ public class SubmitAssignmentActivity extends AppCompatActivity implements Image
             return selectedImageBase64List.size();
         }
 
+        @Override
+        public void onViewRecycled(@NonNull ImageViewHolder holder) {
+            super.onViewRecycled(holder);
+            ImageLoader.clear(holder.imageView);
+        }
+
         class ImageViewHolder extends RecyclerView.ViewHolder {
             private ImageView imageView;
             private ImageView removeButton;
@@ -390,22 +407,14 @@ public class SubmitAssignmentActivity extends AppCompatActivity implements Image
             }
 
             private void loadImageIntoView(String base64Image) {
-                try {
-                    // Use ImageService for consistent base64 to bitmap conversion
-                    Bitmap bitmap = ImageService.base64ToBitmap(base64Image);
-                    if (bitmap != null) {
-                        imageView.setImageBitmap(bitmap);
-                    } else {
-                        imageView.setImageResource(android.R.drawable.ic_menu_gallery);
-                    }
-                } catch (Exception e) {
-                    imageView.setImageResource(android.R.drawable.ic_menu_gallery);
-                }
+                ImageLoader.load(imageView, base64Image, android.R.drawable.ic_menu_gallery);
             }
 
             private void setupRemoveButton(int position) {
                 removeButton.setOnClickListener(v -> {
                     selectedImageBase64List.remove(position);
+                    imageService.removePreparedImage(selectedImageHashes.remove(position));
+                    selectedImageFingerprints.remove(position);
                     notifyItemRemoved(position);
                     notifyItemRangeChanged(position, selectedImageBase64List.size());
                     updateUIState();
@@ -1,8 +1,6 @@
 package com.sowp.user.presenters.activities;
 
 import android.os.Bundle;
-import android.text.Editable;
-import android.text.TextWatcher;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
@@ -18,11 +16,13 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.sowp.shared.search.SearchPipeline;
 import com.sowp.user.R;
 import com.sowp.user.repositories.TopicRepository;
 import com.sowp.user.repositories.UserRepository;
 import com.sowp.user.adapters.TopicListAdapter;
 import com.sowp.user.models.Topic;
+import com.sowp.user.services.ContentSearch;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -50,6 +50,7 @@ public class TopicList extends AppCompatActivity {
     // Topic lists
     private List<Topic> allTopics = new ArrayList<>();
     private List<Topic> filteredTopics = new ArrayList<>();
+    private SearchPipeline<Topic> searchPipeline;
 
     // Pagination
     private int currentPage = 0;
@@ -58,7 +59,6 @@ public class TopicList extends AppCompatActivity {
     private boolean isLoading = false;
 
     // Filter states
-    private String currentSearchQuery = "";
     private String selectedCategory = "All Categories";
 
     @Override
@@ -148,22 +148,8 @@ public class TopicList extends AppCompatActivity {
     }
 
     private void setupSearch() {
-        searchEditText.addTextChangedListener(new TextWatcher() {
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {}
-
-            @Override
-            public void afterTextChanged(Editable s) {
-                String query = s.toString().trim();
-                if (!query.equals(currentSearchQuery)) {
-                    currentSearchQuery = query;
-                    applyFiltersAndSearch();
-                }
-            }
-        });
+        searchPipeline = new SearchPipeline<>(this::topicMatcher, this::showFilteredTopics);
+        searchEditText.addTextChangedListener(searchPipeline.textWatcher());
     }
 
 
@@ -180,7 +166,7 @@ public class TopicList extends AppCompatActivity {
                 String newCategory = categories.get(position);
                 if (!newCategory.equals(selectedCategory)) {
                     selectedCategory = newCategory;
-                    applyFiltersAndSearch();
+                    searchPipeline.refresh();
                 }
             }
 
@@ -224,8 +210,8 @@ public class TopicList extends AppCompatActivity {
     private void handleTopicsLoadSuccess(List<Topic> topics) {
         allTopics.clear();
         allTopics.addAll(topics);
-        applyFiltersAndSearch();
         setLoadingState(false);
+        searchPipeline.setItems(allTopics);
     }
 
     private void handleTopicsLoadFailure() {
@@ -234,38 +220,36 @@ public class TopicList extends AppCompatActivity {
     }
 
 
-    private void applyFiltersAndSearch() {
-        filteredTopics.clear();
+    // Runs on the main thread; the returned matcher runs on the search worker
+    private SearchPipeline.Matcher<Topic> topicMatcher(String query) {
+        String category = selectedCategory;
 
-        for (Topic topic : allTopics) {
-            if (topicMatchesAllFilters(topic)) {
-                filteredTopics.add(topic);
+        return items -> {
+            // TopicRepository indexed these topics when it loaded them; matches come back best first
+            List<Topic> candidates = query.isEmpty()
+                    ? items
+                    : ContentSearch.getInstance().searchTopics(courseId, query);
+            List<Topic> matches = new ArrayList<>();
+            for (Topic topic : candidates) {
+                if (matchesCategoryFilter(topic, category)) {
+                    matches.add(topic);
+                }
             }
-        }
-
-        resetPaginationAndDisplay();
+            return matches;
+        };
     }
 
-    private boolean topicMatchesAllFilters(Topic topic) {
-        return matchesSearchQuery(topic) &&
-                matchesCategoryFilter(topic);
-    }
-
-    private boolean matchesSearchQuery(Topic topic) {
-        if (currentSearchQuery.isEmpty()) return true;
-
-        String query = currentSearchQuery.toLowerCase();
-        return (topic.getName() != null && topic.getName().toLowerCase().contains(query)) ||
-                (topic.getDescription() != null && topic.getDescription().toLowerCase().contains(query)) ||
-                (topic.getTags() != null && topic.getTags().toLowerCase().contains(query)) ||
-                (topic.getCategories() != null && topic.getCategories().toLowerCase().contains(query));
+    private void showFilteredTopics(List<Topic> matches) {
+        filteredTopics.clear();
+        filteredTopics.addAll(matches);
+        resetPaginationAndDisplay();
     }
 
-    private boolean matchesCategoryFilter(Topic topic) {
-        if (selectedCategory.equals("All Categories")) return true;
+    private static boolean matchesCategoryFilter(Topic topic, String category) {
+        if (category.equals("All Categories")) return true;
 
         return topic.getCategories() != null &&
-                topic.getCategories().toLowerCase().contains(selectedCategory.toLowerCase());
+                topic.getCategories().toLowerCase().contains(category.toLowerCase());
     }
 
 
@@ -407,9 +391,9 @@ public class TopicList extends AppCompatActivity {
     public void clearFilters() {
         searchEditText.setText("");
         categorySpinner.setSelection(0);
-        currentSearchQuery = "";
         selectedCategory = "All Categories";
-        applyFiltersAndSearch();
+        searchPipeline.setQuery("");
+        searchPipeline.refresh();
     }
 
     @Override
@@ -429,6 +413,6 @@ public class TopicList extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // Cleanup if needed
+        searchPipeline.cancel();
     }
 }
\ No newline at end of file
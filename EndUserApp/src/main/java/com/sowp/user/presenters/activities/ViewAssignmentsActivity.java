@@ -2,8 +2,6 @@ package com.sowp.user.presenters.activities;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.text.Editable;
-import android.text.TextWatcher;
 import android.view.View;
 import android.widget.ArrayAdapter;
 import android.widget.AutoCompleteTextView;
@@ -21,10 +19,14 @@ import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
+import com.sowp.shared.search.SearchPipeline;
 import com.sowp.user.R;
 import com.sowp.user.adapters.AssignmentAdapter;
 import com.sowp.user.models.Assignment;
+import com.sowp.user.models.Course;
 import com.sowp.user.presenters.activities.SubmitAssignmentActivity;
+import com.sowp.user.repositories.CourseRepository;
+import com.sowp.user.services.ContentSearch;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -44,6 +46,7 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
     private AssignmentAdapter assignmentAdapter;
     private List<Assignment> allAssignments;
     private List<Assignment> filteredAssignments;
+    private SearchPipeline<Assignment> searchPipeline;
     private int courseId;
     private String courseTitle = "";
     private String courseCode = "";
@@ -55,7 +58,6 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
 
     private String[] filterOptions = {"All Assignments", "High Score (90+)", "Medium Score (70-89)", "Low Score (<70)", "With Images", "No Images", "Recent First", "Oldest First"};
     private String currentFilter = "All Assignments";
-    private String searchQuery = "";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -98,6 +100,7 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
         firestore = FirebaseFirestore.getInstance();
         allAssignments = new ArrayList<>();
         filteredAssignments = new ArrayList<>();
+        searchPipeline = new SearchPipeline<>(this::assignmentMatcher, this::showFilteredAssignments);
     }
 
     private void setupRecyclerView() {
@@ -114,7 +117,7 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
 
         spinnerFilter.setOnItemClickListener((parent, view, position, id) -> {
             currentFilter = filterOptions[position];
-            applyFiltersAndPagination();
+            searchPipeline.refresh();
         });
     }
 
@@ -124,19 +127,7 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
         }
 
         if (etSearch != null) {
-            etSearch.addTextChangedListener(new TextWatcher() {
-                @Override
-                public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-
-                @Override
-                public void onTextChanged(CharSequence s, int start, int before, int count) {
-                    searchQuery = s.toString().trim();
-                    applyFiltersAndPagination();
-                }
-
-                @Override
-                public void afterTextChanged(Editable s) {}
-            });
+            etSearch.addTextChangedListener(searchPipeline.textWatcher());
         }
 
         if (btnPrevious != null) {
@@ -161,23 +152,25 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
     }
 
     private void loadCourseDetails() {
-        firestore.collection("Course")
-                .document(String.valueOf(courseId))
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        courseTitle = documentSnapshot.getString("title");
-                        courseCode = documentSnapshot.getString("courseCode");
+        // Reads the course's summary, or the full course while it has none
+        new CourseRepository(this).getCourseSummary(courseId, new CourseRepository.Callback() {
+            @Override
+            public void onSuccess(List<Course> courses) {
+                if (courses.isEmpty()) return;
+                courseTitle = courses.get(0).getTitle();
+                courseCode = courses.get(0).getCourseCode();
+
+                if (courseTitle != null) {
+                    tvCourseTitle.setText(courseTitle);
+                }
+                if (courseCode != null) {
+                    tvCourseCode.setText(courseCode);
+                }
+            }
 
-                        if (courseTitle != null) {
-                            tvCourseTitle.setText(courseTitle);
-                        }
-                        if (courseCode != null) {
-                            tvCourseCode.setText(courseCode);
-                        }
-                    }
-                })
-                .addOnFailureListener(e -> {});
+            @Override
+            public void onFailure(String message) {}
+        });
     }
 
     private void loadAssignments() {
@@ -213,76 +206,82 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
 
                         allAssignments.clear();
                         allAssignments.addAll(newAssignments);
+                        ContentSearch.getInstance().indexAssignments(courseId, newAssignments);
 
-                        applyFiltersAndPagination();
+                        searchPipeline.setItems(allAssignments);
                     } else {
                         showEmptyState();
                     }
                 });
     }
 
-    private void applyFiltersAndPagination() {
-        List<Assignment> tempFilteredAssignments = new ArrayList<>();
-
-        for (Assignment assignment : allAssignments) {
-            if (assignment == null) continue;
-
-            boolean matchesSearch = true;
-            if (!searchQuery.isEmpty()) {
-                String title = assignment.getTitle() != null ? assignment.getTitle().toLowerCase() : "";
-                String description = assignment.getDescription() != null ? assignment.getDescription().toLowerCase() : "";
-                String semester = assignment.getSemester() != null ? assignment.getSemester().toLowerCase() : "";
+    // Runs on the main thread; the returned matcher runs on the search worker
+    private SearchPipeline.Matcher<Assignment> assignmentMatcher(String query) {
+        String filter = currentFilter;
+
+        return items -> {
+            List<Assignment> matches = new ArrayList<>();
+
+            // Indexed in loadAssignments; matches come back best first
+            List<Assignment> candidates = query.isEmpty()
+                    ? items
+                    : ContentSearch.getInstance().searchAssignments(courseId, query);
+            for (Assignment assignment : candidates) {
+                if (assignment == null) continue;
+
+                boolean matchesFilter = true;
+                switch (filter) {
+                    case "All Assignments":
+                        matchesFilter = true;
+                        break;
+                    case "High Score (90+)":
+                        matchesFilter = assignment.getScore() >= 90;
+                        break;
+                    case "Medium Score (70-89)":
+                        matchesFilter = assignment.getScore() >= 70 && assignment.getScore() < 90;
+                        break;
+                    case "Low Score (<70)":
+                        matchesFilter = assignment.getScore() < 70;
+                        break;
+                    case "With Images":
+                        matchesFilter = assignment.getBase64Images() != null && !assignment.getBase64Images().isEmpty();
+                        break;
+                    case "No Images":
+                        matchesFilter = assignment.getBase64Images() == null || assignment.getBase64Images().isEmpty();
+                        break;
+                    case "Recent First":
+                    case "Oldest First":
+                        matchesFilter = true;
+                        break;
+                }
 
-                matchesSearch = title.contains(searchQuery.toLowerCase()) ||
-                        description.contains(searchQuery.toLowerCase()) ||
-                        semester.contains(searchQuery.toLowerCase());
+                if (matchesFilter) {
+                    matches.add(assignment);
+                }
             }
 
-            boolean matchesFilter = true;
-            switch (currentFilter) {
-                case "All Assignments":
-                    matchesFilter = true;
-                    break;
-                case "High Score (90+)":
-                    matchesFilter = assignment.getScore() >= 90;
-                    break;
-                case "Medium Score (70-89)":
-                    matchesFilter = assignment.getScore() >= 70 && assignment.getScore() < 90;
-                    break;
-                case "Low Score (<70)":
-                    matchesFilter = assignment.getScore() < 70;
-                    break;
-                case "With Images":
-                    matchesFilter = assignment.getBase64Images() != null && !assignment.getBase64Images().isEmpty();
-                    break;
-                case "No Images":
-                    matchesFilter = assignment.getBase64Images() == null || assignment.getBase64Images().isEmpty();
-                    break;
+            switch (filter) {
                 case "Recent First":
+                    matches.sort((a1, a2) -> Long.compare(a2.getCreatedAt(), a1.getCreatedAt()));
+                    break;
                 case "Oldest First":
-                    matchesFilter = true;
+                    matches.sort((a1, a2) -> Long.compare(a1.getCreatedAt(), a2.getCreatedAt()));
+                    break;
+                default:
+                    // A search keeps its ranking
+                    if (query.isEmpty()) {
+                        matches.sort((a1, a2) -> Integer.compare(a1.getOrderIndex(), a2.getOrderIndex()));
+                    }
                     break;
             }
 
-            if (matchesSearch && matchesFilter) {
-                tempFilteredAssignments.add(assignment);
-            }
-        }
-
-        switch (currentFilter) {
-            case "Recent First":
-                tempFilteredAssignments.sort((a1, a2) -> Long.compare(a2.getCreatedAt(), a1.getCreatedAt()));
-                break;
-            case "Oldest First":
-                tempFilteredAssignments.sort((a1, a2) -> Long.compare(a1.getCreatedAt(), a2.getCreatedAt()));
-                break;
-            default:
-                tempFilteredAssignments.sort((a1, a2) -> Integer.compare(a1.getOrderIndex(), a2.getOrderIndex()));
-                break;
-        }
+            return matches;
+        };
+    }
 
+    private void showFilteredAssignments(List<Assignment> matches) {
         filteredAssignments.clear();
-        filteredAssignments.addAll(tempFilteredAssignments);
+        filteredAssignments.addAll(matches);
 
         calculatePagination();
         currentPage = 1;
@@ -383,6 +382,14 @@ public class ViewAssignmentsActivity extends AppCompatActivity implements Assign
         startActivity(intent);
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (searchPipeline != null) {
+            searchPipeline.cancel();
+        }
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
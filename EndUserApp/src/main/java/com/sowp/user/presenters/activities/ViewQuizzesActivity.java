@@ -2,8 +2,6 @@ package com.sowp.user.presenters.activities;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.text.Editable;
-import android.text.TextWatcher;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
@@ -20,12 +18,14 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.sowp.shared.search.SearchPipeline;
 import com.sowp.user.R;
 import com.sowp.user.adapters.QuizAdapter;
 import com.sowp.user.models.Course;
 import com.sowp.user.models.Quiz;
 import com.sowp.user.repositories.CourseRepository;
 import com.sowp.user.repositories.QuizRepository;
+import com.sowp.user.services.ContentSearch;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -47,6 +47,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
     private QuizAdapter quizAdapter;
     private List<Quiz> quizzes;
     private List<Quiz> filteredQuizzes;
+    private SearchPipeline<Quiz> searchPipeline;
     private Course currentCourse;
     private int courseId;
 
@@ -57,7 +58,6 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
 
     private String[] filterOptions = {"All Quizzes", "Active", "Inactive", "Beginner", "Intermediate", "Advanced"};
     private String currentFilter = "All Quizzes";
-    private String searchQuery = "";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -102,6 +102,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
         courseRepository = new CourseRepository(this);
         quizzes = new ArrayList<>();
         filteredQuizzes = new ArrayList<>();
+        searchPipeline = new SearchPipeline<>(this::quizMatcher, this::showFilteredQuizzes);
     }
 
     private void setupRecyclerView() {
@@ -120,7 +121,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 currentFilter = filterOptions[position];
-                applyFilters();
+                searchPipeline.refresh();
             }
 
             @Override
@@ -131,19 +132,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
     private void setupClickListeners() {
         btnBack.setOnClickListener(v -> onBackPressed());
 
-        etSearch.addTextChangedListener(new TextWatcher() {
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {
-                searchQuery = s.toString().trim();
-                applyFilters();
-            }
-
-            @Override
-            public void afterTextChanged(Editable s) {}
-        });
+        etSearch.addTextChangedListener(searchPipeline.textWatcher());
 
         btnPrevious.setOnClickListener(v -> {
             if (currentPage > 1) {
@@ -163,7 +152,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
     }
 
     private void loadCourseDetails() {
-        courseRepository.getCourse(courseId, new CourseRepository.Callback() {
+        courseRepository.getCourseSummary(courseId, new CourseRepository.Callback() {
             @Override
             public void onSuccess(List<Course> courses) {
                 if (!courses.isEmpty()) {
@@ -198,8 +187,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
                 quizzes.clear();
                 quizzes.addAll(newQuizzes);
 
-                applyFilters();
-                updateQuizCount();
+                searchPipeline.setItems(quizzes);
             }
 
             @Override
@@ -211,39 +199,38 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
         });
     }
 
-    private void applyFilters() {
-        List<Quiz> tempFilteredQuizzes = new ArrayList<>();
+    // Runs on the main thread; the returned matcher runs on the search worker
+    private SearchPipeline.Matcher<Quiz> quizMatcher(String query) {
+        String filter = currentFilter;
 
-        List<Quiz> quizzesCopy;
-        synchronized (quizzes) {
-            quizzesCopy = new ArrayList<>(quizzes);
-        }
+        return items -> {
+            // QuizRepository indexed these quizzes when it loaded them; matches come back best first
+            List<Quiz> candidates = query.isEmpty()
+                    ? items
+                    : ContentSearch.getInstance().searchQuizzes(courseId, query);
 
-        for (Quiz quiz : quizzesCopy) {
-            if (quiz == null) continue;
+            List<Quiz> matches = new ArrayList<>();
+            for (Quiz quiz : candidates) {
+                if (quiz == null) continue;
 
-            String title = quiz.getTitle() != null ? quiz.getTitle() : "";
-            String description = quiz.getDescription() != null ? quiz.getDescription() : "";
-            String level = quiz.getLevel() != null ? quiz.getLevel() : "";
+                String level = quiz.getLevel() != null ? quiz.getLevel() : "";
 
-            boolean matchesSearch = searchQuery.isEmpty() ||
-                    title.toLowerCase().contains(searchQuery.toLowerCase()) ||
-                    description.toLowerCase().contains(searchQuery.toLowerCase());
+                boolean matchesFilter = filter.equals("All Quizzes") ||
+                        (filter.equals("Active") && quiz.isActive()) ||
+                        (filter.equals("Inactive") && !quiz.isActive()) ||
+                        filter.equals(level);
 
-            boolean matchesFilter = currentFilter.equals("All Quizzes") ||
-                    (currentFilter.equals("Active") && quiz.isActive()) ||
-                    (currentFilter.equals("Inactive") && !quiz.isActive()) ||
-                    currentFilter.equals(level);
-
-            if (matchesSearch && matchesFilter) {
-                tempFilteredQuizzes.add(quiz);
+                if (matchesFilter) {
+                    matches.add(quiz);
+                }
             }
-        }
+            return matches;
+        };
+    }
 
-        synchronized (filteredQuizzes) {
-            filteredQuizzes.clear();
-            filteredQuizzes.addAll(tempFilteredQuizzes);
-        }
+    private void showFilteredQuizzes(List<Quiz> matches) {
+        filteredQuizzes.clear();
+        filteredQuizzes.addAll(matches);
 
         calculatePagination();
         currentPage = 1;
@@ -258,12 +245,8 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
 
         List<Quiz> paginatedQuizzes = new ArrayList<>();
 
-        synchronized (filteredQuizzes) {
-            if (startIndex < filteredQuizzes.size()) {
-                for (int i = startIndex; i < endIndex && i < filteredQuizzes.size(); i++) {
-                    paginatedQuizzes.add(filteredQuizzes.get(i));
-                }
-            }
+        if (startIndex < filteredQuizzes.size()) {
+            paginatedQuizzes.addAll(filteredQuizzes.subList(startIndex, endIndex));
         }
 
         quizAdapter.updateData(paginatedQuizzes);
@@ -276,10 +259,7 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
     }
 
     private void updateQuizCount() {
-        int count;
-        synchronized (filteredQuizzes) {
-            count = filteredQuizzes.size();
-        }
+        int count = filteredQuizzes.size();
 
         String countText;
         if (count == 0) {
@@ -331,6 +311,14 @@ public class ViewQuizzesActivity extends AppCompatActivity implements QuizAdapte
         startActivity(intent);
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (searchPipeline != null) {
+            searchPipeline.cancel();
+        }
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -21,12 +21,15 @@ import com.sowp.user.adapters.ChatAdapter;
 import com.sowp.user.models.User;
 import com.sowp.user.presenters.activities.Main;
 import com.sowp.user.repositories.MessageRepository;
+import com.sowp.user.repositories.UserProfileResolver;
 import com.sowp.user.repositories.UserRepository;
+import com.sowp.user.services.AvatarBitmapCache;
 import com.sowp.user.services.ProfanityFilter;
 import com.sowp.user.services.UserProfilePopup;
+import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.ValueEventListener;
-import com.google.firebase.firestore.FirebaseFirestore;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class ChatFragment extends Fragment implements
@@ -34,6 +37,8 @@ public class ChatFragment extends Fragment implements
         ChatAdapter.OnUserProfileClickListener,
         DefaultLifecycleObserver {
 
+    private static final int OLDER_MESSAGES_PREFETCH_THRESHOLD = 5;
+
     private RecyclerView chatRecyclerView;
     private EditText messageInput;
     private ImageButton sendButton;
@@ -42,13 +47,13 @@ public class ChatFragment extends Fragment implements
     private String currentUserEmail;
     private LinearLayoutManager layoutManager;
     private ValueEventListener modeListener;
-    private ValueEventListener messagesListener;
+    private ChildEventListener messagesListener;
     private String userRole = "User";
 
     private MessageRepository messageRepository;
     private UserRepository userRepository;
     private UserProfilePopup userProfilePopup;
-    private FirebaseFirestore firestore;
+    private UserProfileResolver profileResolver;
 
     private boolean isUserScrolling = false;
     private boolean shouldAutoScroll = true;
@@ -66,7 +71,7 @@ public class ChatFragment extends Fragment implements
 
         messageRepository = new MessageRepository();
         userRepository = new UserRepository(getContext());
-        firestore = FirebaseFirestore.getInstance();
+        profileResolver = UserProfileResolver.getInstance();
         userProfilePopup = new UserProfilePopup(requireContext());
 
         userRepository.loadUserData(new UserRepository.UserCallback() {
@@ -165,6 +170,7 @@ public class ChatFragment extends Fragment implements
                 super.onScrolled(recyclerView, dx, dy);
                 if (dy < -50) shouldAutoScroll = false;
                 checkIfAtBottom();
+                if (dy < 0) checkIfNearTop();
             }
         });
 
@@ -200,6 +206,17 @@ public class ChatFragment extends Fragment implements
         }
     }
 
+    private void checkIfNearTop() {
+        if (layoutManager == null || messageRepository == null) return;
+
+        int firstVisiblePosition = layoutManager.findFirstVisibleItemPosition();
+        if (firstVisiblePosition != RecyclerView.NO_POSITION
+                && firstVisiblePosition <= OLDER_MESSAGES_PREFETCH_THRESHOLD
+                && messageRepository.hasOlderMessages()) {
+            messageRepository.loadOlderMessages();
+        }
+    }
+
     private void scrollToBottom(boolean smooth) {
         if (chatRecyclerView != null && chatMessages.size() > 0) {
             try {
@@ -260,25 +277,48 @@ public class ChatFragment extends Fragment implements
         });
     }
 
+    // Every delta goes through the adapter's formatting queue, which formats new text off the
+    // main thread and then applies the deltas in arrival order, so binding is a cache lookup.
     private void loadMessages() {
-        messagesListener = messageRepository.loadMessages(currentUserEmail, new MessageRepository.MessageCallback() {
+        messagesListener = messageRepository.listenToMessages(currentUserEmail, new MessageRepository.MessageChangeCallback() {
             @Override
-            public void onSuccess(List<ChatMessage> newMessages) {
-                boolean isFirstLoad = chatMessages.isEmpty();
-                boolean hasNewMessages = newMessages.size() > chatMessages.size();
+            public void onMessageAdded(ChatMessage message, int position) {
+                if (chatAdapter == null) return;
+                profileResolver.prefetchSenders(Collections.singletonList(message));
+                chatAdapter.prefetchFormatting(Collections.singletonList(message),
+                        () -> insertMessages(Collections.singletonList(message), position));
+            }
 
-                chatMessages.clear();
-                chatMessages.addAll(newMessages);
-                chatAdapter.notifyDataSetChanged();
+            @Override
+            public void onMessageChanged(ChatMessage message, int position) {
+                if (chatAdapter == null) return;
+                chatAdapter.prefetchFormatting(Collections.singletonList(message), () -> {
+                    if (chatAdapter == null || position >= chatMessages.size()) return;
+
+                    chatAdapter.invalidateFormatting(chatMessages.get(position));
+                    chatMessages.set(position, message);
+                    chatAdapter.notifyItemChanged(position);
+                });
+            }
 
-                if (isFirstLoad) {
-                    scrollToBottom(false);
-                    shouldAutoScroll = true;
-                } else if (hasNewMessages && shouldAutoScroll) {
-                    scrollToBottom(true);
-                }
+            @Override
+            public void onMessageRemoved(String messageId, int position) {
+                if (chatAdapter == null) return;
+                chatAdapter.prefetchFormatting(Collections.emptyList(), () -> {
+                    if (chatAdapter == null || position >= chatMessages.size()) return;
+
+                    chatAdapter.invalidateFormatting(chatMessages.remove(position));
+                    chatAdapter.notifyItemRemoved(position);
+                    lastMessageCount = chatMessages.size();
+                });
+            }
 
-                lastMessageCount = chatMessages.size();
+            @Override
+            public void onMessagesInserted(List<ChatMessage> messages, int position) {
+                if (chatAdapter == null) return;
+                // Senders of a whole page are fetched in a few batched reads before the rows bind
+                profileResolver.prefetchSenders(messages);
+                chatAdapter.prefetchFormatting(messages, () -> insertMessages(messages, position));
             }
 
             @Override
@@ -286,6 +326,25 @@ public class ChatFragment extends Fragment implements
         });
     }
 
+    private void insertMessages(List<ChatMessage> messages, int position) {
+        if (chatAdapter == null || position > chatMessages.size()) return;
+
+        boolean isFirstLoad = chatMessages.isEmpty();
+        chatMessages.addAll(position, messages);
+        if (messages.size() == 1) {
+            chatAdapter.notifyItemInserted(position);
+        } else {
+            chatAdapter.notifyItemRangeInserted(position, messages.size());
+        }
+
+        if (isFirstLoad) {
+            scrollToBottom(false);
+            shouldAutoScroll = true;
+        }
+
+        lastMessageCount = chatMessages.size();
+    }
+
     private void performMessageCleanup() {
         messageRepository.checkOldMessages(new MessageRepository.CleanupCallback() {
             @Override
@@ -341,34 +400,20 @@ public class ChatFragment extends Fragment implements
 
     @Override
     public void loadUserData(String userEmail, ChatAdapter.UserDataCallback callback) {
-        if (userEmail == null || userEmail.isEmpty()) {
-            callback.onUserDataLoadFailed("Invalid user email");
-            return;
-        }
+        profileResolver.resolve(userEmail, new UserProfileResolver.ProfileCallback() {
+            @Override
+            public void onSuccess(User user) {
+                if (chatAdapter != null) {
+                    chatAdapter.cacheUserData(userEmail, user);
+                }
+                callback.onUserDataLoaded(user);
+            }
 
-        firestore.collection("User")
-                .document(userEmail)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        try {
-                            User user = documentSnapshot.toObject(User.class);
-                            if (user != null) {
-                                chatAdapter.cacheUserData(user.getEmail(), user);
-                                callback.onUserDataLoaded(user);
-                            } else {
-                                callback.onUserDataLoadFailed("Failed to parse user data");
-                            }
-                        } catch (Exception e) {
-                            callback.onUserDataLoadFailed("Error parsing user data: " + e.getMessage());
-                        }
-                    } else {
-                        callback.onUserDataLoadFailed("User not found");
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    callback.onUserDataLoadFailed("Failed to load user data: " + e.getMessage());
-                });
+            @Override
+            public void onFailure(String message) {
+                callback.onUserDataLoadFailed(message);
+            }
+        });
     }
 
     private void showDeleteConfirmation(ChatMessage message, int position, boolean forEveryone) {
@@ -435,7 +480,7 @@ public class ChatFragment extends Fragment implements
         lastMessageCount = 0;
 
         if (chatAdapter != null) {
-            chatAdapter.clearCaches();
+            chatAdapter.release();
             chatAdapter = null;
         }
 
@@ -457,13 +502,20 @@ public class ChatFragment extends Fragment implements
         }
 
         userRepository = null;
-        firestore = null;
 
         if (chatMessages != null) {
             chatMessages.clear();
         }
     }
 
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        if (getContext() != null) {
+            AvatarBitmapCache.getInstance(getContext()).trimMemory();
+        }
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
@@ -3,8 +3,11 @@ package com.sowp.user.presenters.fragments;
 import android.animation.ValueAnimator;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.util.TypedValue;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -22,34 +25,43 @@ import android.widget.TextView;
 import androidx.activity.OnBackPressedCallback;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.DefaultLifecycleObserver;
 import androidx.lifecycle.LifecycleOwner;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.sowp.shared.search.SearchPipeline;
 import com.sowp.user.adapters.CourseAdapter;
 import com.sowp.user.R;
 import com.sowp.user.models.Course;
 import com.sowp.user.presenters.activities.CourseDescriptionActivity;
 import com.sowp.user.presenters.activities.Main;
+import com.sowp.user.presenters.activities.TopicList;
+import com.sowp.user.presenters.activities.ViewAssignmentsActivity;
+import com.sowp.user.presenters.activities.ViewQuizzesActivity;
+import com.sowp.user.repositories.CourseCatalog;
 import com.sowp.user.repositories.CourseRepository;
+import com.sowp.user.services.ContentSearch;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseClickListener, DefaultLifecycleObserver {
 
     private static final int PAGE_SIZE = 10;
+    private static final int CONTENT_MATCH_LIMIT = 5;
 
     private EditText searchEditText;
     private ImageButton filterToggleButton;
     private LinearLayout filtersContainer;
+    private LinearLayout contentMatchesContainer;
     private Spinner categorySpinner;
     private Spinner semesterSpinner;
     private Spinner levelSpinner;
+    private Spinner departmentSpinner;
     private ImageButton clearFiltersButton;
     private ImageButton applyFiltersButton;
     private ProgressBar progressBar;
@@ -62,8 +74,6 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
 
     private CourseAdapter courseAdapter;
     private CourseRepository courseRepository;
-    private List<Course> allCourses = new ArrayList<>();
-    private List<Course> filteredCourses = new ArrayList<>();
     private List<Course> displayedCourses = new ArrayList<>();
     private boolean isLoading = false;
 
@@ -71,17 +81,32 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
     private String selectedCategory = "All";
     private String selectedSemester = "All";
     private String selectedLevel = "All";
+    private String selectedDepartment = "All";
 
     // Filter state management
     private String tempSelectedCategory = "All";
     private String tempSelectedSemester = "All";
     private String tempSelectedLevel = "All";
+    private String tempSelectedDepartment = "All";
     private boolean isFiltersVisible = false;
 
     // Pagination
     private int currentPage = 1;
     private int totalPages = 1;
 
+    // Typing is debounced; a page that arrives after a newer query was started is dropped
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable searchRunnable = () -> {
+        applyFiltersAndSearch();
+        showContentMatches();
+    };
+    private int queryGeneration;
+
+    // Until the first sync fills the catalog, pages come from Firestore and are walked by cursor;
+    // pageCursors.get(i) is where page i + 2 starts
+    private final List<DocumentSnapshot> pageCursors = new ArrayList<>();
+    private boolean pagingRemotely = false;
+
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -154,9 +179,11 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
         searchEditText = view.findViewById(R.id.searchEditText);
         filterToggleButton = view.findViewById(R.id.filterToggleButton);
         filtersContainer = view.findViewById(R.id.filtersContainer);
+        contentMatchesContainer = view.findViewById(R.id.contentMatchesContainer);
         categorySpinner = view.findViewById(R.id.categorySpinner);
         semesterSpinner = view.findViewById(R.id.semesterSpinner);
         levelSpinner = view.findViewById(R.id.levelSpinner);
+        departmentSpinner = view.findViewById(R.id.departmentSpinner);
         clearFiltersButton = view.findViewById(R.id.clearFiltersButton);
         applyFiltersButton = view.findViewById(R.id.applyFiltersButton);
         progressBar = view.findViewById(R.id.progressBar);
@@ -198,6 +225,16 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
                 android.R.layout.simple_spinner_item, levels);
         levelAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         levelSpinner.setAdapter(levelAdapter);
+
+        // Department Spinner (the departments courses are assigned to in the admin app)
+        String[] departments = {
+                "All", "Computer Science", "Software Engineering", "Information Technology",
+                "Artificial Intelligence", "Cyber Security"
+        };
+        ArrayAdapter<String> departmentAdapter = new ArrayAdapter<>(getContext(),
+                android.R.layout.simple_spinner_item, departments);
+        departmentAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        departmentSpinner.setAdapter(departmentAdapter);
     }
 
     private void setupRecyclerView() {
@@ -207,7 +244,7 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
     }
 
     private void setupSearchAndFilters() {
-        // Search functionality (immediate search)
+        // Search functionality (runs once typing pauses)
         searchEditText.addTextChangedListener(new TextWatcher() {
             @Override
             public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
@@ -215,7 +252,8 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 currentSearchQuery = s.toString().trim();
-                applyFiltersAndSearch();
+                searchHandler.removeCallbacks(searchRunnable);
+                searchHandler.postDelayed(searchRunnable, SearchPipeline.DEFAULT_DEBOUNCE_MS);
             }
 
             @Override
@@ -256,6 +294,16 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
             public void onNothingSelected(AdapterView<?> parent) {}
         });
 
+        departmentSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                tempSelectedDepartment = parent.getItemAtPosition(position).toString();
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {}
+        });
+
         // Filter action buttons
         clearFiltersButton.setOnClickListener(v -> clearTempFilters());
         applyFiltersButton.setOnClickListener(v -> applyTempFilters());
@@ -265,14 +313,14 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
         btnPrevious.setOnClickListener(v -> {
             if (currentPage > 1) {
                 currentPage--;
-                updateDisplayedCourses();
+                queryCatalog();
             }
         });
 
         btnNext.setOnClickListener(v -> {
             if (currentPage < totalPages) {
                 currentPage++;
-                updateDisplayedCourses();
+                queryCatalog();
             }
         });
     }
@@ -294,11 +342,13 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
         setSpinnerSelection(categorySpinner, selectedCategory);
         setSpinnerSelection(semesterSpinner, selectedSemester);
         setSpinnerSelection(levelSpinner, selectedLevel);
+        setSpinnerSelection(departmentSpinner, selectedDepartment);
 
         // Update temp values
         tempSelectedCategory = selectedCategory;
         tempSelectedSemester = selectedSemester;
         tempSelectedLevel = selectedLevel;
+        tempSelectedDepartment = selectedDepartment;
     }
 
     private void hideFilters() {
@@ -310,6 +360,7 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
         tempSelectedCategory = selectedCategory;
         tempSelectedSemester = selectedSemester;
         tempSelectedLevel = selectedLevel;
+        tempSelectedDepartment = selectedDepartment;
     }
 
     private void setSpinnerSelection(Spinner spinner, String value) {
@@ -324,15 +375,18 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
         categorySpinner.setSelection(0);
         semesterSpinner.setSelection(0);
         levelSpinner.setSelection(0);
+        departmentSpinner.setSelection(0);
         tempSelectedCategory = "All";
         tempSelectedSemester = "All";
         tempSelectedLevel = "All";
+        tempSelectedDepartment = "All";
     }
 
     private void applyTempFilters() {
         selectedCategory = tempSelectedCategory;
         selectedSemester = tempSelectedSemester;
         selectedLevel = tempSelectedLevel;
+        selectedDepartment = tempSelectedDepartment;
 
         applyFiltersAndSearch();
         hideFilters();
@@ -343,153 +397,167 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
             return;
         }
 
-        setLoadingState(true);
+        isLoading = true;
+        setLoadingState(displayedCourses.isEmpty());
 
-        courseRepository.loadCourses(new CourseRepository.Callback() {
+        // Whatever the local catalog holds shows right away; the sync then fetches what changed
+        queryCatalog();
+        courseRepository.syncCatalog(new CourseRepository.SyncCallback() {
             @Override
-            public void onSuccess(List<Course> courses) {
-                if (getActivity() != null && isAdded()) {
-                    getActivity().runOnUiThread(() -> {
-                        handleCoursesLoaded(courses);
-                    });
+            public void onSuccess(int changedCount) {
+                isLoading = false;
+                if (!isAdded() || courseRepository == null) return;
+                if (changedCount > 0) {
+                    queryCatalog();
+                } else {
+                    setLoadingState(false);
+                    updateUI();
                 }
             }
 
             @Override
             public void onFailure(String message) {
-                if (getActivity() != null && isAdded()) {
-                    getActivity().runOnUiThread(() -> {
-                        handleLoadFailure();
-                    });
-                }
+                isLoading = false;
+                if (!isAdded() || courseRepository == null) return;
+                handleLoadFailure();
             }
         });
     }
 
-    private void handleCoursesLoaded(List<Course> courses) {
-        allCourses.clear();
-        allCourses.addAll(courses);
-        applyFiltersAndSearch();
-        setLoadingState(false);
-    }
-
-    private void handleLoadFailure() {
-        setLoadingState(false);
-    }
-
-    private void applyFiltersAndSearch() {
-        if (allCourses.isEmpty()) {
-            updateUI();
+    private void queryCatalog() {
+        int generation = ++queryGeneration;
+        CourseCatalog.Filter filter = new CourseCatalog.Filter(
+                currentSearchQuery, selectedCategory, selectedSemester, selectedLevel, selectedDepartment);
+        if (!courseRepository.isCatalogPopulated()) {
+            queryRemotePage(filter, generation);
             return;
         }
 
-        filteredCourses = getFilteredCourses();
-        currentPage = 1;
-        calculatePagination();
-        updateDisplayedCourses();
-        updateUI();
-    }
-
-    private List<Course> getFilteredCourses() {
-        return allCourses.stream()
-                .filter(this::courseMatchesFilters)
-                .collect(Collectors.toList());
-    }
-
-    private boolean courseMatchesFilters(Course course) {
-        if (course == null) return false;
-
-        boolean matchesSearch = currentSearchQuery.isEmpty() ||
-                courseMatchesSearchQuery(course, currentSearchQuery);
-
-        boolean matchesCategory = selectedCategory.equals("All") ||
-                courseMatchesCategory(course, selectedCategory);
-
-        boolean matchesSemester = selectedSemester.equals("All") ||
-                (course.getSemester() != null && selectedSemester.equals(course.getSemester()));
-
-        boolean matchesLevel = selectedLevel.equals("All") ||
-                (course.getLevel() != null && selectedLevel.equals(course.getLevel()));
+        courseRepository.loadCatalogPage(filter, (currentPage - 1) * PAGE_SIZE, PAGE_SIZE,
+                new CourseRepository.CatalogPageCallback() {
+                    @Override
+                    public void onSuccess(List<Course> courses, int totalCount) {
+                        if (!isAdded() || courseAdapter == null || generation != queryGeneration) return;
+                        handleCoursesLoaded(courses, totalCount);
+                    }
 
-        return matchesSearch && matchesCategory && matchesSemester && matchesLevel;
+                    @Override
+                    public void onFailure(String message) {
+                        if (!isAdded() || courseAdapter == null || generation != queryGeneration) return;
+                        handleLoadFailure();
+                    }
+                });
     }
 
-    private boolean courseMatchesSearchQuery(Course course, String query) {
-        String lowerQuery = query.toLowerCase();
-
-        // Search in title
-        if (course.getTitle() != null && course.getTitle().toLowerCase().contains(lowerQuery)) {
-            return true;
-        }
-
-        // Search in short title
-        if (course.getShortTitle() != null && course.getShortTitle().toLowerCase().contains(lowerQuery)) {
-            return true;
-        }
-
-        // Search in description
-        if (course.getDescription() != null && course.getDescription().toLowerCase().contains(lowerQuery)) {
-            return true;
-        }
-
-        // Search in instructor
-        if (course.getInstructor() != null && course.getInstructor().toLowerCase().contains(lowerQuery)) {
-            return true;
+    private void queryRemotePage(CourseCatalog.Filter filter, int generation) {
+        if (currentPage - 2 >= pageCursors.size()) {
+            // No cursor reaches this page, e.g. after switching back from the catalog
+            currentPage = 1;
         }
+        DocumentSnapshot startAfter = currentPage > 1 ? pageCursors.get(currentPage - 2) : null;
 
-        // Search in course code
-        if (course.getCourseCode() != null && course.getCourseCode().toLowerCase().contains(lowerQuery)) {
-            return true;
-        }
+        courseRepository.loadRemotePage(filter, startAfter, PAGE_SIZE, new CourseRepository.RemotePageCallback() {
+            @Override
+            public void onSuccess(List<Course> courses, DocumentSnapshot nextCursor) {
+                if (!isAdded() || courseAdapter == null || generation != queryGeneration) return;
 
-        // Search in tags
-        if (course.getTags() != null) {
-            for (String tag : course.getTags()) {
-                if (tag != null && tag.toLowerCase().contains(lowerQuery)) {
-                    return true;
+                // Cursors past this page were taken from an earlier result
+                while (pageCursors.size() >= currentPage) {
+                    pageCursors.remove(pageCursors.size() - 1);
                 }
-            }
-        }
-
-        // Search in category array
-        if (course.getCategoryArray() != null) {
-            for (String category : course.getCategoryArray()) {
-                if (category != null && category.toLowerCase().contains(lowerQuery)) {
-                    return true;
+                if (nextCursor != null) {
+                    pageCursors.add(nextCursor);
                 }
+
+                pagingRemotely = true;
+                totalPages = nextCursor != null ? currentPage + 1 : currentPage;
+                showCourses(courses);
             }
-        }
 
-        return false;
+            @Override
+            public void onFailure(String message) {
+                if (!isAdded() || courseAdapter == null || generation != queryGeneration) return;
+                handleLoadFailure();
+            }
+        });
     }
 
-    private boolean courseMatchesCategory(Course course, String selectedCategory) {
-        if (course.getCategoryArray() != null && !course.getCategoryArray().isEmpty()) {
-            return course.getCategoryArray().contains(selectedCategory);
+    private void handleCoursesLoaded(List<Course> courses, int totalCount) {
+        pagingRemotely = false;
+        totalPages = Math.max(1, (int) Math.ceil((double) totalCount / PAGE_SIZE));
+        if (currentPage > totalPages) {
+            // The catalog shrank under the current page
+            currentPage = totalPages;
+            queryCatalog();
+            return;
         }
-        return false;
+        showCourses(courses);
     }
 
-    private void calculatePagination() {
-        totalPages = (int) Math.ceil((double) filteredCourses.size() / PAGE_SIZE);
-        if (totalPages == 0) totalPages = 1;
-    }
-
-    private void updateDisplayedCourses() {
+    private void showCourses(List<Course> courses) {
         displayedCourses.clear();
+        displayedCourses.addAll(courses);
+        courseAdapter.notifyDataSetChanged();
+        updatePaginationControls();
 
-        int startIndex = (currentPage - 1) * PAGE_SIZE;
-        int endIndex = Math.min(startIndex + PAGE_SIZE, filteredCourses.size());
-
-        if (startIndex < filteredCourses.size()) {
-            displayedCourses.addAll(filteredCourses.subList(startIndex, endIndex));
+        // Keep the spinner up while the first sync is still filling an empty catalog
+        boolean waitingForSync = !pagingRemotely && isLoading && displayedCourses.isEmpty();
+        setLoadingState(waitingForSync);
+        if (!waitingForSync) {
+            updateUI();
         }
+    }
 
-        if (courseAdapter != null) {
-            courseAdapter.notifyDataSetChanged();
-        }
+    private void handleLoadFailure() {
+        setLoadingState(false);
+        updateUI();
+    }
 
-        updatePaginationControls();
+    private void applyFiltersAndSearch() {
+        currentPage = 1;
+        queryCatalog();
+    }
+
+    // Topics, quizzes and assignments of courses opened earlier that match the search
+    private void showContentMatches() {
+        if (contentMatchesContainer == null) return;
+
+        // The first child is the section header
+        contentMatchesContainer.removeViews(1, contentMatchesContainer.getChildCount() - 1);
+        List<ContentSearch.Hit> hits = currentSearchQuery.isEmpty()
+                ? new ArrayList<>()
+                : ContentSearch.getInstance().searchAll(currentSearchQuery, CONTENT_MATCH_LIMIT);
+
+        int padding = (int) (6 * getResources().getDisplayMetrics().density);
+        for (ContentSearch.Hit hit : hits) {
+            TextView row = new TextView(requireContext());
+            row.setText(hit.kind.label + " · " + hit.title);
+            row.setTextSize(TypedValue.COMPLEX_UNIT_SP, 14);
+            row.setTextColor(ContextCompat.getColor(requireContext(), R.color.text_primary));
+            row.setPadding(0, padding, 0, padding);
+            row.setOnClickListener(v -> openContentMatch(hit));
+            contentMatchesContainer.addView(row);
+        }
+        contentMatchesContainer.setVisibility(hits.isEmpty() ? View.GONE : View.VISIBLE);
+    }
+
+    private void openContentMatch(ContentSearch.Hit hit) {
+        Intent intent;
+        switch (hit.kind) {
+            case TOPIC:
+                intent = new Intent(getContext(), TopicList.class);
+                intent.putExtra("courseID", hit.courseId);
+                break;
+            case QUIZ:
+                intent = new Intent(getContext(), ViewQuizzesActivity.class);
+                intent.putExtra("COURSE_ID", hit.courseId);
+                break;
+            default:
+                intent = new Intent(getContext(), ViewAssignmentsActivity.class);
+                intent.putExtra("COURSE_ID", hit.courseId);
+                break;
+        }
+        startActivity(intent);
     }
 
     private void updatePaginationControls() {
@@ -499,7 +567,10 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
             btnPrevious.setEnabled(currentPage > 1);
             btnNext.setEnabled(currentPage < totalPages);
 
-            pageInfo.setText(String.format("Page %d of %d", currentPage, totalPages));
+            // Firestore pages carry no total, only whether another page follows
+            pageInfo.setText(pagingRemotely
+                    ? String.format("Page %d", currentPage)
+                    : String.format("Page %d of %d", currentPage, totalPages));
         } else {
             paginationLayout.setVisibility(View.GONE);
         }
@@ -526,23 +597,24 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
         categorySpinner.setSelection(0);
         semesterSpinner.setSelection(0);
         levelSpinner.setSelection(0);
+        departmentSpinner.setSelection(0);
 
         currentSearchQuery = "";
         selectedCategory = "All";
         selectedSemester = "All";
         selectedLevel = "All";
+        selectedDepartment = "All";
 
         tempSelectedCategory = "All";
         tempSelectedSemester = "All";
         tempSelectedLevel = "All";
+        tempSelectedDepartment = "All";
 
         applyFiltersAndSearch();
         hideFilters();
     }
 
     private void setLoadingState(boolean loading) {
-        isLoading = loading;
-
         if (progressBar != null) {
             progressBar.setVisibility(loading ? View.VISIBLE : View.GONE);
         }
@@ -576,12 +648,6 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
     private void cleanup() {
         isLoading = false;
 
-        if (allCourses != null) {
-            allCourses.clear();
-        }
-        if (filteredCourses != null) {
-            filteredCourses.clear();
-        }
         if (displayedCourses != null) {
             displayedCourses.clear();
         }
@@ -590,13 +656,16 @@ public class CoursesFragment extends Fragment implements CourseAdapter.OnCourseC
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        searchHandler.removeCallbacks(searchRunnable);
 
         searchEditText = null;
         filterToggleButton = null;
         filtersContainer = null;
+        contentMatchesContainer = null;
         categorySpinner = null;
         semesterSpinner = null;
         levelSpinner = null;
+        departmentSpinner = null;
         clearFiltersButton = null;
         applyFiltersButton = null;
         progressBar = null;
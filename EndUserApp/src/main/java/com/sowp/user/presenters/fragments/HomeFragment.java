@@ -2,7 +2,6 @@ package com.sowp.user.presenters.fragments;
 
 import android.app.AlertDialog;
 import android.content.Intent;
-import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.os.Bundle;
 import android.os.Handler;
@@ -23,6 +22,7 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import android.widget.TextView;
 import android.widget.ImageView;
 
+import com.sowp.shared.images.ImageLoader;
 import com.sowp.user.R;
 import com.sowp.user.adapters.CourseAdapter;
 import com.sowp.user.adapters.QuizAdapter;
@@ -42,7 +42,6 @@ import com.sowp.user.repositories.AssignmentRepository;
 import com.sowp.user.repositories.CourseRepository;
 import com.sowp.user.repositories.QuizRepository;
 import com.sowp.user.repositories.UserRepository;
-import com.sowp.user.services.ImageService;
 import com.sowp.user.services.UserAuthenticationUtils;
 import com.google.firebase.auth.FirebaseAuth;
 
@@ -377,15 +376,7 @@ public class HomeFragment extends Fragment implements SwipeRefreshLayout.OnRefre
         userDegree.setText( !user.getDegree().isEmpty() ? user.getDegree() : "No Degree Assigned");
         userEmail.setText( !user.getEmail().isEmpty() ? user.getEmail() : "No Email Assigned");
 
-        if (user.getPhoto() != null && !user.getPhoto().isEmpty()) {
-            try {
-                profileImage.setImageBitmap(ImageService.base64ToBitmap(user.getPhoto()));
-            } catch (Exception e) {
-                profileImage.setImageResource(R.drawable.ic_profile);
-            }
-        } else {
-            profileImage.setImageResource(R.drawable.ic_profile);
-        }
+        ImageLoader.loadAvatar(profileImage, user.getPhoto(), R.drawable.ic_profile);
     }
 
     private void updateDashboardStatsUI(User user) {
@@ -1,7 +1,6 @@
 package com.sowp.user.presenters.fragments;
 
 import android.content.Intent;
-import android.graphics.Bitmap;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -18,6 +17,7 @@ import androidx.lifecycle.DefaultLifecycleObserver;
 import androidx.lifecycle.LifecycleOwner;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
+import com.sowp.shared.images.ImageLoader;
 import com.sowp.user.R;
 import com.sowp.user.models.User;
 import com.sowp.user.presenters.activities.AssignmentHistoryActivity;
@@ -25,7 +25,6 @@ import com.sowp.user.presenters.activities.Login;
 import com.sowp.user.presenters.activities.Main;
 import com.sowp.user.presenters.activities.QuizHistoryActivity;
 import com.sowp.user.repositories.UserRepository;
-import com.sowp.user.services.ImageService;
 import com.sowp.user.services.UserAuthenticationUtils;
 import com.google.android.material.button.MaterialButton;
 
@@ -245,17 +244,7 @@ public class ProfileFragment extends Fragment implements DefaultLifecycleObserve
     }
 
     private void updateUIWithUserData() {
-        // Use ImageService method to convert base64 to bitmap
-        if (user.getPhoto() != null && !user.getPhoto().isEmpty()) {
-            Bitmap profileBitmap = ImageService.base64ToBitmap(user.getPhoto());
-            if (profileBitmap != null) {
-                profileImageView.setImageBitmap(profileBitmap);
-            } else {
-                profileImageView.setImageResource(R.drawable.ic_profile);
-            }
-        } else {
-            profileImageView.setImageResource(R.drawable.ic_profile);
-        }
+        ImageLoader.loadAvatar(profileImageView, user.getPhoto(), R.drawable.ic_profile);
 
         txtFullName.setText(user.getFullName() != null ? user.getFullName() : "Not specified");
         txtEmail.setText(user.getEmail() != null ? user.getEmail() : "Not specified");
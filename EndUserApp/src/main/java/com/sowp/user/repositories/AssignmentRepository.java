@@ -3,7 +3,9 @@ package com.sowp.user.repositories;
 import android.content.Context;
 import android.util.Log;
 
+import com.sowp.shared.courses.CourseSummaries;
 import com.sowp.user.models.Assignment;
+import com.sowp.user.services.ContentSearch;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
@@ -27,8 +29,8 @@ public class AssignmentRepository {
     }
 
     public void loadRecentAssignments(Callback callback) {
-        // First get all courses to then fetch their assignments
-        db.collection("Course")
+        // First get some course ids, from the summaries once complete, then fetch their assignments
+        CourseSummaries.listCollection(db, collection -> db.collection(collection)
                 .limit(5) // Limit courses to search through
                 .get()
                 .addOnSuccessListener(courseSnapshots -> {
@@ -86,7 +88,7 @@ public class AssignmentRepository {
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error loading courses", e);
                     callback.onFailure("Error loading assignments");
-                });
+                }));
     }
 
     public void loadAssignmentsForCourse(int courseId, Callback callback) {
@@ -112,6 +114,7 @@ public class AssignmentRepository {
                             assignments.add(assignment);
                         }
                     }
+                    ContentSearch.getInstance().indexAssignments(courseId, assignments);
                     callback.onSuccess(assignments);
                 })
                 .addOnFailureListener(e -> {
@@ -0,0 +1,322 @@
+package com.sowp.user.repositories;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.sowp.shared.images.ImageRef;
+import com.sowp.user.models.Course;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * On-device copy of the course catalog, holding only what list screens show, filter and search
+ * on: no outline, and the image reference rather than the inline illustration, which is kept only
+ * for courses whose image has not been moved to the image store yet. Queries are answered
+ * locally, so opening the Courses tab does not wait on the network; {@link CourseRepository}
+ * keeps the copy current by fetching courses changed since the newest {@code updatedAt} stored.
+ * Apart from {@link #isPopulated()}, all methods block and must be called off the main thread.
+ */
+public class CourseCatalog {
+    private static final String DATABASE_NAME = "course_catalog.db";
+    private static final int DATABASE_VERSION = 3;
+    private static final String TABLE = "course";
+    private static final String PREFS_NAME = "course_catalog";
+    // Versioned so that a schema upgrade, which empties the table, also forgets the last full sync
+    private static final String KEY_LAST_FULL_SYNC = "lastFullSyncAt." + DATABASE_VERSION;
+    // Separates list entries; never typed by users, so a category match cannot span two entries
+    private static final String LIST_SEPARATOR = "\u001f";
+    // Larger inline illustrations are left out, so that no row comes near a cursor window's size
+    private static final int MAX_INLINE_ILLUSTRATION_LENGTH = 512 * 1024;
+
+    private static CourseCatalog instance;
+
+    private final Helper helper;
+    private final SharedPreferences preferences;
+
+    /** What the Courses tab filters by; "All", null or an empty query means no restriction. */
+    public static class Filter {
+        public final String searchQuery;
+        public final String category;
+        public final String semester;
+        public final String level;
+        public final String department;
+
+        public Filter(String searchQuery, String category, String semester, String level) {
+            this(searchQuery, category, semester, level, null);
+        }
+
+        public Filter(String searchQuery, String category, String semester, String level, String department) {
+            this.searchQuery = searchQuery;
+            this.category = category;
+            this.semester = semester;
+            this.level = level;
+            this.department = department;
+        }
+    }
+
+    public static class Page {
+        public final List<Course> courses;
+        public final int totalCount;
+
+        Page(List<Course> courses, int totalCount) {
+            this.courses = courses;
+            this.totalCount = totalCount;
+        }
+    }
+
+    public static synchronized CourseCatalog getInstance(Context context) {
+        if (instance == null) {
+            instance = new CourseCatalog(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private CourseCatalog(Context context) {
+        this.helper = new Helper(context);
+        this.preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /** The newest {@code updatedAt} stored, or 0 when the catalog is empty. */
+    public long getWatermark() {
+        try (Cursor cursor = helper.getReadableDatabase().rawQuery("SELECT MAX(updatedAt) FROM " + TABLE, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    public long getLastFullSyncAt() {
+        return preferences.getLong(KEY_LAST_FULL_SYNC, 0);
+    }
+
+    /** Whether a full sync has filled the catalog, so that it holds every course. */
+    public boolean isPopulated() {
+        return getLastFullSyncAt() > 0;
+    }
+
+    /** Replaces the whole catalog, which also drops courses deleted since the last full sync. */
+    public void replaceAll(List<Course> courses, long syncedAt) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE, null, null);
+            for (Course course : courses) {
+                db.insertWithOnConflict(TABLE, null, toValues(course), SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        preferences.edit().putLong(KEY_LAST_FULL_SYNC, syncedAt).apply();
+    }
+
+    public void upsert(List<Course> courses) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (Course course : courses) {
+                db.insertWithOnConflict(TABLE, null, toValues(course), SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Applies this user's own enrollment change, which does not move the course's {@code updatedAt}. */
+    public void adjustMembers(int courseId, int delta) {
+        helper.getWritableDatabase().execSQL("UPDATE " + TABLE + " SET members = MAX(0, members + ?) WHERE id = ?",
+                new Object[]{delta, courseId});
+    }
+
+    /** One page of the courses matching {@code filter}, in id order, with the total match count. */
+    public Page query(Filter filter, int offset, int limit) {
+        StringBuilder where = new StringBuilder("1");
+        List<String> args = new ArrayList<>();
+
+        if (filter.searchQuery != null && !filter.searchQuery.isEmpty()) {
+            where.append(" AND searchText LIKE ? ESCAPE '\\'");
+            args.add("%" + escapeLike(filter.searchQuery.toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (isRestricted(filter.category)) {
+            where.append(" AND categories LIKE ? ESCAPE '\\'");
+            args.add("%" + LIST_SEPARATOR + escapeLike(filter.category) + LIST_SEPARATOR + "%");
+        }
+        if (isRestricted(filter.department)) {
+            where.append(" AND departments LIKE ? ESCAPE '\\'");
+            args.add("%" + LIST_SEPARATOR + escapeLike(filter.department) + LIST_SEPARATOR + "%");
+        }
+        if (isRestricted(filter.semester)) {
+            where.append(" AND semester = ?");
+            args.add(filter.semester);
+        }
+        if (isRestricted(filter.level)) {
+            where.append(" AND level = ?");
+            args.add(filter.level);
+        }
+
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String[] selectionArgs = args.toArray(new String[0]);
+
+        int totalCount;
+        try (Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE + " WHERE " + where, selectionArgs)) {
+            totalCount = cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+
+        List<Course> courses = new ArrayList<>();
+        try (Cursor cursor = db.query(TABLE, null, where.toString(), selectionArgs, null, null,
+                "id ASC", offset + "," + limit)) {
+            while (cursor.moveToNext()) {
+                courses.add(fromCursor(cursor));
+            }
+        }
+        return new Page(courses, totalCount);
+    }
+
+    static boolean isRestricted(String value) {
+        return value != null && !value.isEmpty() && !value.equals("All");
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static ContentValues toValues(Course course) {
+        ContentValues values = new ContentValues();
+        values.put("id", course.getId());
+        values.put("title", course.getTitle());
+        values.put("shortTitle", course.getShortTitle());
+        values.put("courseCode", course.getCourseCode());
+        values.put("instructor", course.getInstructor());
+        values.put("description", course.getDescription());
+        values.put("duration", course.getDuration());
+        values.put("semester", course.getSemester());
+        values.put("level", course.getLevel());
+        values.put("lectures", course.getLectures());
+        values.put("members", course.getMembers());
+        values.put("averageRating", course.getAverageRating());
+        values.put("createdAt", course.getCreatedAt());
+        values.put("updatedAt", course.getUpdatedAt());
+        values.put("categories", joinList(course.getCategoryArray()));
+        values.put("departments", joinList(course.getDepartmentArray()));
+        values.put("tags", joinList(course.getTags()));
+        values.put("searchText", searchText(course));
+
+        ImageRef ref = course.getIllustrationRef();
+        if (ImageRef.isValid(ref)) {
+            values.put("imageHash", ref.getHash());
+            values.put("imageWidth", ref.getWidth());
+            values.put("imageHeight", ref.getHeight());
+            values.put("imageBlurHash", ref.getBlurHash());
+            values.put("imageThumbnailHash", ref.getThumbnailHash());
+            values.put("imageMediumHash", ref.getMediumHash());
+        } else if (course.getIllustration() != null
+                && course.getIllustration().length() <= MAX_INLINE_ILLUSTRATION_LENGTH) {
+            values.put("illustration", course.getIllustration());
+        }
+        return values;
+    }
+
+    private static Course fromCursor(Cursor cursor) {
+        Course course = new Course();
+        course.setId(cursor.getInt(cursor.getColumnIndexOrThrow("id")));
+        course.setTitle(getString(cursor, "title"));
+        course.setShortTitle(getString(cursor, "shortTitle"));
+        course.setCourseCode(getString(cursor, "courseCode"));
+        course.setInstructor(getString(cursor, "instructor"));
+        course.setDescription(getString(cursor, "description"));
+        course.setDuration(getString(cursor, "duration"));
+        course.setSemester(getString(cursor, "semester"));
+        course.setLevel(getString(cursor, "level"));
+        course.setLectures(cursor.getInt(cursor.getColumnIndexOrThrow("lectures")));
+        course.setMembers(cursor.getInt(cursor.getColumnIndexOrThrow("members")));
+        course.setAverageRating(cursor.getDouble(cursor.getColumnIndexOrThrow("averageRating")));
+        course.setCreatedAt(cursor.getLong(cursor.getColumnIndexOrThrow("createdAt")));
+        course.setUpdatedAt(cursor.getLong(cursor.getColumnIndexOrThrow("updatedAt")));
+        course.setCategoryArray(splitList(getString(cursor, "categories")));
+        course.setDepartmentArray(splitList(getString(cursor, "departments")));
+        course.setTags(splitList(getString(cursor, "tags")));
+
+        String imageHash = getString(cursor, "imageHash");
+        if (imageHash != null) {
+            ImageRef ref = new ImageRef(imageHash, cursor.getInt(cursor.getColumnIndexOrThrow("imageWidth")),
+                    cursor.getInt(cursor.getColumnIndexOrThrow("imageHeight")), getString(cursor, "imageBlurHash"));
+            ref.setThumbnailHash(getString(cursor, "imageThumbnailHash"));
+            ref.setMediumHash(getString(cursor, "imageMediumHash"));
+            course.setIllustrationRef(ref);
+        } else {
+            course.setIllustration(getString(cursor, "illustration"));
+        }
+        return course;
+    }
+
+    private static String getString(Cursor cursor, String column) {
+        int index = cursor.getColumnIndexOrThrow(column);
+        return cursor.isNull(index) ? null : cursor.getString(index);
+    }
+
+    // Stored with a separator on both ends so one entry can be matched exactly with LIKE
+    private static String joinList(List<String> values) {
+        if (values == null || values.isEmpty()) return null;
+        return LIST_SEPARATOR + String.join(LIST_SEPARATOR, values) + LIST_SEPARATOR;
+    }
+
+    private static List<String> splitList(String joined) {
+        if (joined == null || joined.length() < 2) return new ArrayList<>();
+        return new ArrayList<>(Arrays.asList(joined.substring(1, joined.length() - 1).split(LIST_SEPARATOR)));
+    }
+
+    // Everything the search box matches against, lowercased once at write time
+    static String searchText(Course course) {
+        StringBuilder text = new StringBuilder();
+        for (String field : new String[]{course.getTitle(), course.getShortTitle(), course.getDescription(),
+                course.getInstructor(), course.getCourseCode()}) {
+            if (field != null) text.append(field).append('\n');
+        }
+        if (course.getTags() != null) {
+            for (String tag : course.getTags()) {
+                if (tag != null) text.append(tag).append('\n');
+            }
+        }
+        if (course.getCategoryArray() != null) {
+            for (String category : course.getCategoryArray()) {
+                if (category != null) text.append(category).append('\n');
+            }
+        }
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Helper extends SQLiteOpenHelper {
+
+        Helper(Context context) {
+            super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE + " ("
+                    + "id INTEGER PRIMARY KEY, "
+                    + "title TEXT, shortTitle TEXT, courseCode TEXT, instructor TEXT, description TEXT, "
+                    + "duration TEXT, semester TEXT, level TEXT, "
+                    + "lectures INTEGER NOT NULL DEFAULT 0, members INTEGER NOT NULL DEFAULT 0, "
+                    + "averageRating REAL NOT NULL DEFAULT 0, "
+                    + "createdAt INTEGER NOT NULL DEFAULT 0, updatedAt INTEGER NOT NULL DEFAULT 0, "
+                    + "categories TEXT, departments TEXT, tags TEXT, searchText TEXT, "
+                    + "imageHash TEXT, imageWidth INTEGER NOT NULL DEFAULT 0, imageHeight INTEGER NOT NULL DEFAULT 0, "
+                    + "imageBlurHash TEXT, imageThumbnailHash TEXT, imageMediumHash TEXT, illustration TEXT)");
+            db.execSQL("CREATE INDEX course_updated_at ON " + TABLE + " (updatedAt)");
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            // The catalog is only a cache of Firestore; rebuild it and let the next sync refill it
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+            onCreate(db);
+        }
+    }
+}
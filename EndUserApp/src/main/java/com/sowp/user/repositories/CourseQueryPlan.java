@@ -0,0 +1,91 @@
+package com.sowp.user.repositories;
+
+import com.sowp.user.models.Course;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How a {@link CourseCatalog.Filter} is split between Firestore and the device when courses are
+ * paged straight from the server. Level and semester become equality filters and the category
+ * (or, failing that, the department) an array-contains filter, ordered by id so a page can
+ * continue after the last document of the one before. Firestore allows one array-contains per
+ * query and has no substring match, so a department next to a category and the search text are
+ * checked on the device, against the fetched documents only.
+ */
+public class CourseQueryPlan {
+    static final String ORDER_FIELD = "id";
+    static final String CATEGORY_FIELD = "categoryArray";
+    static final String DEPARTMENT_FIELD = "departmentArray";
+    static final String LEVEL_FIELD = "level";
+    static final String SEMESTER_FIELD = "semester";
+
+    private final List<Constraint> serverConstraints;
+    private final String pageSearchQuery;
+    private final String pageDepartment;
+
+    /** One filter Firestore applies; {@code arrayContains} picks whereArrayContains over whereEqualTo. */
+    public static class Constraint {
+        public final String field;
+        public final String value;
+        public final boolean arrayContains;
+
+        Constraint(String field, String value, boolean arrayContains) {
+            this.field = field;
+            this.value = value;
+            this.arrayContains = arrayContains;
+        }
+    }
+
+    private CourseQueryPlan(List<Constraint> serverConstraints, String pageSearchQuery, String pageDepartment) {
+        this.serverConstraints = serverConstraints;
+        this.pageSearchQuery = pageSearchQuery;
+        this.pageDepartment = pageDepartment;
+    }
+
+    public static CourseQueryPlan forFilter(CourseCatalog.Filter filter) {
+        List<Constraint> constraints = new ArrayList<>();
+        String pageDepartment = null;
+
+        if (CourseCatalog.isRestricted(filter.category)) {
+            constraints.add(new Constraint(CATEGORY_FIELD, filter.category, true));
+            if (CourseCatalog.isRestricted(filter.department)) {
+                pageDepartment = filter.department;
+            }
+        } else if (CourseCatalog.isRestricted(filter.department)) {
+            constraints.add(new Constraint(DEPARTMENT_FIELD, filter.department, true));
+        }
+        if (CourseCatalog.isRestricted(filter.level)) {
+            constraints.add(new Constraint(LEVEL_FIELD, filter.level, false));
+        }
+        if (CourseCatalog.isRestricted(filter.semester)) {
+            constraints.add(new Constraint(SEMESTER_FIELD, filter.semester, false));
+        }
+
+        String pageSearchQuery = filter.searchQuery == null || filter.searchQuery.trim().isEmpty()
+                ? null
+                : filter.searchQuery.trim().toLowerCase(Locale.ROOT);
+        return new CourseQueryPlan(Collections.unmodifiableList(constraints), pageSearchQuery, pageDepartment);
+    }
+
+    public List<Constraint> getServerConstraints() {
+        return serverConstraints;
+    }
+
+    /** Whether some of the filter is left to {@link #matchesPage}, so pages may come back short. */
+    public boolean filtersPages() {
+        return pageSearchQuery != null || pageDepartment != null;
+    }
+
+    /** Applies the part of the filter Firestore could not express to one fetched course. */
+    public boolean matchesPage(Course course) {
+        if (course == null) return false;
+        if (pageDepartment != null
+                && (course.getDepartmentArray() == null || !course.getDepartmentArray().contains(pageDepartment))) {
+            return false;
+        }
+        return pageSearchQuery == null || CourseCatalog.searchText(course).contains(pageSearchQuery);
+    }
+}
@@ -1,26 +1,48 @@
 package com.sowp.user.repositories;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 
+import com.google.android.gms.tasks.Task;
+import com.sowp.shared.courses.CourseSummaries;
 import com.sowp.user.models.Course;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class CourseRepository {
+    private static final String TAG = "CourseRepository";
+    // Deltas cannot see deleted courses or counter-only writes, so the catalog is rebuilt this often
+    private static final long FULL_SYNC_INTERVAL_MS = TimeUnit.HOURS.toMillis(24);
+    // Batches read for one remote page, so a rare search term cannot walk the whole collection
+    private static final int MAX_BATCHES_PER_PAGE = 3;
+
     FirebaseFirestore db;
     Context context;
     ExecutorService executor;
+    CourseCatalog catalog;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     public CourseRepository(Context context) {
         this.db = FirebaseFirestore.getInstance();
         this.context = context;
         executor = Executors.newSingleThreadExecutor();
+        catalog = CourseCatalog.getInstance(context);
     }
 
     public interface Callback {
@@ -34,9 +56,154 @@ public class CourseRepository {
         void onFailure(String message);
     }
 
-    public void loadCourses(Callback callback) {
+    public interface CatalogPageCallback {
+        void onSuccess(List<Course> courses, int totalCount);
+        void onFailure(String message);
+    }
 
-        db.collection("Course")
+    public interface RemotePageCallback {
+        /** {@code nextCursor} continues after this page, or is null when there is nothing after it. */
+        void onSuccess(List<Course> courses, DocumentSnapshot nextCursor);
+        void onFailure(String message);
+    }
+
+    public interface SyncCallback {
+        /** {@code changedCount} is 0 when the local catalog was already current. */
+        void onSuccess(int changedCount);
+        void onFailure(String message);
+    }
+
+    /** Reads one page of the local course catalog; results arrive on the main thread. */
+    public void loadCatalogPage(CourseCatalog.Filter filter, int offset, int limit, CatalogPageCallback callback) {
+        executor.execute(() -> {
+            try {
+                CourseCatalog.Page page = catalog.query(filter, offset, limit);
+                mainHandler.post(() -> callback.onSuccess(page.courses, page.totalCount));
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Failed to query course catalog", e);
+                mainHandler.post(() -> callback.onFailure("Error loading courses"));
+            }
+        });
+    }
+
+    public boolean isCatalogPopulated() {
+        return catalog.isPopulated();
+    }
+
+    /**
+     * Pages the courses matching {@code filter} straight from Firestore, for when the local catalog
+     * has not been filled yet. Pass the previous page's {@code nextCursor} as {@code startAfter} to
+     * continue, or null for the first page. See {@link CourseQueryPlan} for which filters Firestore
+     * applies; the rest is checked on the device, over at most {@link #MAX_BATCHES_PER_PAGE} batches
+     * of {@code limit} documents, so a page can hold fewer courses, even none, and still have a
+     * {@code nextCursor}. Results arrive on the main thread.
+     */
+    public void loadRemotePage(CourseCatalog.Filter filter, DocumentSnapshot startAfter, int limit,
+                               RemotePageCallback callback) {
+        if (startAfter != null) {
+            // Later pages continue in the collection the first page came from
+            queryRemotePage(startAfter.getReference().getParent().getId(), filter, startAfter, limit, callback);
+            return;
+        }
+        CourseSummaries.listCollection(db, collection -> queryRemotePage(collection, filter, null, limit, callback));
+    }
+
+    private void queryRemotePage(String collection, CourseCatalog.Filter filter, DocumentSnapshot startAfter,
+                                 int limit, RemotePageCallback callback) {
+        CourseQueryPlan plan = CourseQueryPlan.forFilter(filter);
+        Query query = db.collection(collection);
+        for (CourseQueryPlan.Constraint constraint : plan.getServerConstraints()) {
+            query = constraint.arrayContains
+                    ? query.whereArrayContains(constraint.field, constraint.value)
+                    : query.whereEqualTo(constraint.field, constraint.value);
+        }
+        query = query.orderBy(CourseQueryPlan.ORDER_FIELD);
+        fillRemotePage(query, plan, startAfter, limit, MAX_BATCHES_PER_PAGE, new ArrayList<>(), callback);
+    }
+
+    // Checks on the device can leave a batch short or empty, so further batches are read until the
+    // page is full, Firestore has nothing left or the batch budget is spent; the cursor is the last
+    // document the page used
+    private void fillRemotePage(Query query, CourseQueryPlan plan, DocumentSnapshot startAfter, int limit,
+                                int batchesLeft, List<Course> courses, RemotePageCallback callback) {
+        Query batch = startAfter != null ? query.startAfter(startAfter) : query;
+        batch.limit(limit)
+                .get()
+                .addOnSuccessListener(executor, queryDocumentSnapshots -> {
+                    List<DocumentSnapshot> documents = queryDocumentSnapshots.getDocuments();
+                    for (int i = 0; i < documents.size(); i++) {
+                        Course course = documents.get(i).toObject(Course.class);
+                        if (plan.matchesPage(course)) {
+                            courses.add(course);
+                        }
+                        if (courses.size() == limit) {
+                            DocumentSnapshot nextCursor = documents.get(i);
+                            mainHandler.post(() -> callback.onSuccess(courses, nextCursor));
+                            return;
+                        }
+                    }
+                    // A short batch means Firestore has nothing after it
+                    if (documents.size() < limit) {
+                        mainHandler.post(() -> callback.onSuccess(courses, null));
+                        return;
+                    }
+                    DocumentSnapshot lastDocument = documents.get(documents.size() - 1);
+                    if (batchesLeft <= 1) {
+                        mainHandler.post(() -> callback.onSuccess(courses, lastDocument));
+                        return;
+                    }
+                    fillRemotePage(query, plan, lastDocument, limit, batchesLeft - 1, courses, callback);
+                })
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Failed to query courses", e);
+                    mainHandler.post(() -> callback.onFailure("Error loading courses"));
+                });
+    }
+
+    /**
+     * Brings the local catalog up to date from the course summaries, or the full course documents
+     * while some course has no summary: courses whose {@code updatedAt} is newer than the newest
+     * one stored are fetched and merged, and the whole catalog is refetched when it is empty or its
+     * last full sync is older than {@link #FULL_SYNC_INTERVAL_MS}.
+     */
+    public void syncCatalog(SyncCallback callback) {
+        CourseSummaries.listCollection(db, collection -> executor.execute(() -> {
+            long watermark = catalog.getWatermark();
+            long now = System.currentTimeMillis();
+            if (watermark == 0 || now - catalog.getLastFullSyncAt() > FULL_SYNC_INTERVAL_MS) {
+                db.collection(collection)
+                        .get()
+                        .addOnSuccessListener(executor, queryDocumentSnapshots -> {
+                            catalog.replaceAll(toCourses(queryDocumentSnapshots), now);
+                            // A rebuild may only have dropped rows, so it always counts as a change
+                            int changedCount = Math.max(queryDocumentSnapshots.size(), 1);
+                            mainHandler.post(() -> callback.onSuccess(changedCount));
+                        })
+                        .addOnFailureListener(executor, e -> mainHandler.post(() -> callback.onFailure(e.getMessage())));
+            } else {
+                db.collection(collection)
+                        .whereGreaterThan("updatedAt", watermark)
+                        .get()
+                        .addOnSuccessListener(executor, queryDocumentSnapshots -> {
+                            catalog.upsert(toCourses(queryDocumentSnapshots));
+                            int changedCount = queryDocumentSnapshots.size();
+                            mainHandler.post(() -> callback.onSuccess(changedCount));
+                        })
+                        .addOnFailureListener(executor, e -> mainHandler.post(() -> callback.onFailure(e.getMessage())));
+            }
+        }));
+    }
+
+    private static List<Course> toCourses(Iterable<QueryDocumentSnapshot> snapshots) {
+        List<Course> courses = new ArrayList<>();
+        for (QueryDocumentSnapshot documentSnapshot : snapshots) {
+            courses.add(documentSnapshot.toObject(Course.class));
+        }
+        return courses;
+    }
+
+    public void loadCourses(Callback callback) {
+        CourseSummaries.listCollection(db, collection -> db.collection(collection)
                 .get()
                 .addOnSuccessListener(
                         queryDocumentSnapshots -> {
@@ -52,11 +219,11 @@ public class CourseRepository {
                         e -> {
                             callback.onFailure(e.getMessage());
                         }
-                );
+                ));
     }
 
     public void loadPopularCourses(Callback callback) {
-        db.collection("Course")
+        CourseSummaries.listCollection(db, collection -> db.collection(collection)
                 .limit(2)
                 .whereGreaterThan("members", 100)
                 .get()
@@ -70,7 +237,7 @@ public class CourseRepository {
                 })
                 .addOnFailureListener(e -> {
                     callback.onFailure("Error loading popular courses");
-                });
+                }));
     }
     public void getCourse(int courseId, Callback callback) {
         db.collection("Course").document(String.valueOf(courseId))
@@ -87,12 +254,31 @@ public class CourseRepository {
                     callback.onFailure("Error loading course");
                 });
     }
+    /**
+     * Loads a course's list-card fields only, for screens that show a course without opening it;
+     * courses that have no summary yet are read in full.
+     */
+    public void getCourseSummary(int courseId, Callback callback) {
+        CourseSummaries.document(db, String.valueOf(courseId))
+                .get()
+                .addOnSuccessListener(documentSnapshot -> {
+                    if (documentSnapshot.exists()) {
+                        Course course = documentSnapshot.toObject(Course.class);
+                        callback.onSuccess(List.of(course));
+                    } else {
+                        getCourse(courseId, callback);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    callback.onFailure("Error loading course");
+                });
+    }
+
     public  void updateEnrollmentCount(int courseId, Callback callback) {
-        db.collection("Course")
-                .document(String.valueOf(courseId))
-                .update("members", FieldValue.increment(1))
+        updateCourseAndSummary(courseId, fieldUpdate("members", FieldValue.increment(1)))
                 .addOnSuccessListener(
                         aVoid -> {
+                            executor.execute(() -> catalog.adjustMembers(courseId, 1));
                             callback.onSuccess(null);
                         }
                 ).addOnFailureListener(
@@ -103,10 +289,9 @@ public class CourseRepository {
 
     }
     public void decrementEnrollmentCount(int courseId, Callback callback) {
-        db.collection("Course")
-                .document(String.valueOf(courseId))
-                .update("members", FieldValue.increment(-1))
+        updateCourseAndSummary(courseId, fieldUpdate("members", FieldValue.increment(-1)))
                 .addOnSuccessListener(aVoid -> {
+                    executor.execute(() -> catalog.adjustMembers(courseId, -1));
                     callback.onSuccess(null);
                 })
                 .addOnFailureListener(e -> {
@@ -172,13 +357,37 @@ public class CourseRepository {
     }
 
     private void updateCourseRatingFields(int courseId, float averageRating, int ratingCount, Callback callback) {
-        db.collection("Course")
-                .document(String.valueOf(courseId))
-                .update(
-                        "averageRating", averageRating,
-                        "ratingCount", ratingCount
-                )
-                .addOnSuccessListener(aVoid -> callback.onSuccess(null))
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("averageRating", averageRating);
+        updates.put("ratingCount", ratingCount);
+        updateCourseAndSummary(courseId, updates)
+                .addOnSuccessListener(aVoid -> {
+                    callback.onSuccess(null);
+                })
                 .addOnFailureListener(e -> callback.onFailure("Failed to update course rating: " + e.getMessage()));
     }
+
+    // Writes the course and its summary in one batch; a course that has no summary yet fails the
+    // batch with NOT_FOUND, so it is updated alone and its summary left to CourseSummaries.rebuild
+    private Task<Void> updateCourseAndSummary(int courseId, Map<String, Object> updates) {
+        String docId = String.valueOf(courseId);
+        DocumentReference courseDocument = db.collection("Course").document(docId);
+        WriteBatch batch = db.batch();
+        batch.update(courseDocument, updates);
+        CourseSummaries.addUpdate(batch, db, docId, updates);
+        return batch.commit().continueWithTask(task -> {
+            Exception e = task.getException();
+            if (e instanceof FirebaseFirestoreException
+                    && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.NOT_FOUND) {
+                return courseDocument.update(updates);
+            }
+            return task;
+        });
+    }
+
+    private static Map<String, Object> fieldUpdate(String field, Object value) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(field, value);
+        return updates;
+    }
 }
\ No newline at end of file
@@ -2,11 +2,16 @@ package com.sowp.user.repositories;
 
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import com.sowp.user.models.ChatMessage;
+import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.Transaction;
 import com.google.firebase.database.ValueEventListener;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -17,18 +22,58 @@ import java.util.concurrent.TimeUnit;
 public class MessageRepository {
     private static final String TAG = "MessageRepository";
     private static final long SEVEN_DAYS_IN_MILLIS = TimeUnit.DAYS.toMillis(7);
-    private static final int BATCH_SIZE = 50;
+    private static final int BATCH_SIZE = 200;
     private static final long CLEANUP_INTERVAL_HOURS = 24;
+    private static final int PAGE_SIZE = 30;
+
+    // Message schema. Version 2 writes short keys and a map of hashed user keys for per-user
+    // deletes; version 1 messages have no version field, full keys and a list of emails. Both
+    // are read, and any message may carry either kind of delete since old clients still write
+    // the list. The timestamp keeps its name because every query orders by it.
+    private static final int SCHEMA_VERSION = 2;
+    private static final String KEY_VERSION = "v";
+    private static final String KEY_EMAIL = "e";
+    private static final String KEY_MESSAGE = "m";
+    private static final String KEY_TIMESTAMP = "timestamp";
+    private static final String KEY_DELETED_FOR = "d";
+    private static final String LEGACY_KEY_EMAIL = "email";
+    private static final String LEGACY_KEY_MESSAGE = "message";
+    private static final String LEGACY_KEY_DELETED_FOR = "deletedForUsers";
+
+    // While app versions that only read version 1 are installed, group_chat/legacy_clients is true
+    // (or absent) and new messages and per-user deletes are written in both forms. Once those
+    // versions are gone it is set to false, so messages are written compact only; after that has
+    // been released, the flag and the legacy writes can be removed. Reading both forms stays.
+    private volatile boolean writeLegacyFields = true;
 
     private final DatabaseReference chatDatabaseReference;
     private final DatabaseReference modeDatabaseReference;
     private final DatabaseReference lastCleanupReference;
+    private final DatabaseReference legacyClientsReference;
+
+    // Paging state for listenToMessages/loadOlderMessages
+    private final List<ChatMessage> visibleMessages = new ArrayList<>();
+    private ChildEventListener activeMessagesListener;
+    private MessageChangeCallback activeMessageCallback;
+    private String activeUserEmail;
+    private Long oldestLoadedTimestamp;
+    private String oldestLoadedKey;
+    private boolean hasOlderMessages = false;
+    private boolean isLoadingOlderMessages = false;
 
     public MessageRepository() {
         FirebaseDatabase database = FirebaseDatabase.getInstance();
         chatDatabaseReference = database.getReference("group_chat/messages");
         modeDatabaseReference = database.getReference("group_chat/mode");
         lastCleanupReference = database.getReference("group_chat/last_cleanup");
+        legacyClientsReference = database.getReference("group_chat/legacy_clients");
+
+        legacyClientsReference.get()
+                .addOnSuccessListener(snapshot -> {
+                    Boolean legacyClients = snapshot.getValue(Boolean.class);
+                    writeLegacyFields = legacyClients == null || legacyClients;
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Failed to read legacy client flag", e));
     }
 
     public interface MessageCallback {
@@ -36,6 +81,14 @@ public class MessageRepository {
         void onFailure(String error);
     }
 
+    public interface MessageChangeCallback {
+        void onMessageAdded(ChatMessage message, int position);
+        void onMessageChanged(ChatMessage message, int position);
+        void onMessageRemoved(String messageId, int position);
+        void onMessagesInserted(List<ChatMessage> messages, int position);
+        void onFailure(String error);
+    }
+
     public interface SendMessageCallback {
         void onSuccess();
         void onFailure(String error);
@@ -65,10 +118,14 @@ public class MessageRepository {
         }
 
         Map<String, Object> chatMessage = new HashMap<>();
-        chatMessage.put("email", userEmail);
-        chatMessage.put("message", message.trim());
-        chatMessage.put("timestamp", System.currentTimeMillis());
-        chatMessage.put("deletedForUsers", new ArrayList<String>());
+        chatMessage.put(KEY_VERSION, SCHEMA_VERSION);
+        chatMessage.put(KEY_EMAIL, userEmail);
+        chatMessage.put(KEY_MESSAGE, message.trim());
+        chatMessage.put(KEY_TIMESTAMP, System.currentTimeMillis());
+        if (writeLegacyFields) {
+            chatMessage.put(LEGACY_KEY_EMAIL, userEmail);
+            chatMessage.put(LEGACY_KEY_MESSAGE, message.trim());
+        }
 
         String messageId = chatDatabaseReference.push().getKey();
         if (messageId != null) {
@@ -92,21 +149,9 @@ public class MessageRepository {
                 List<ChatMessage> messages = new ArrayList<>();
 
                 for (DataSnapshot dataSnapshot : snapshot.getChildren()) {
-                    try {
-                        ChatMessage chatMessage = dataSnapshot.getValue(ChatMessage.class);
-                        if (chatMessage != null) {
-                            chatMessage.setId(dataSnapshot.getKey());
-
-                            if (chatMessage.getDeletedForUsers() == null) {
-                                chatMessage.setDeletedForUsers(new ArrayList<>());
-                            }
-
-                            if (currentUserEmail == null || !chatMessage.isDeletedForUser(currentUserEmail)) {
-                                messages.add(chatMessage);
-                            }
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error parsing message", e);
+                    ChatMessage chatMessage = parseMessage(dataSnapshot);
+                    if (chatMessage != null && isVisibleTo(chatMessage, currentUserEmail)) {
+                        messages.add(chatMessage);
                     }
                 }
 
@@ -119,48 +164,320 @@ public class MessageRepository {
             }
         };
 
-        chatDatabaseReference.orderByChild("timestamp").addValueEventListener(messagesListener);
+        chatDatabaseReference.orderByChild(KEY_TIMESTAMP).addValueEventListener(messagesListener);
+        return messagesListener;
+    }
+
+    /**
+     * Incremental, windowed alternative to {@link #loadMessages}. Only the newest {@link #PAGE_SIZE}
+     * messages are fetched up front and delivered through {@code onMessagesInserted}; a child
+     * listener starting after the newest of them then reports live added, changed and removed
+     * deltas against the list of messages visible to the current user, ordered by timestamp. The
+     * first page, like older history fetched on demand with {@link #loadOlderMessages()}, is not
+     * live, so it is downloaded only once.
+     */
+    public ChildEventListener listenToMessages(String currentUserEmail, MessageChangeCallback callback) {
+        visibleMessages.clear();
+        oldestLoadedTimestamp = null;
+        oldestLoadedKey = null;
+        hasOlderMessages = false;
+        isLoadingOlderMessages = false;
+
+        ChildEventListener messagesListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                ChatMessage chatMessage = parseMessage(snapshot);
+                if (chatMessage == null || !isVisibleTo(chatMessage, currentUserEmail)) return;
+
+                int position = findInsertPosition(visibleMessages, chatMessage);
+                visibleMessages.add(position, chatMessage);
+                if (callback != null) callback.onMessageAdded(chatMessage, position);
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                ChatMessage chatMessage = parseMessage(snapshot);
+                int position = indexOfMessage(visibleMessages, snapshot.getKey());
+                boolean visible = chatMessage != null && isVisibleTo(chatMessage, currentUserEmail);
+
+                if (position < 0) {
+                    if (visible) {
+                        int insertPosition = findInsertPosition(visibleMessages, chatMessage);
+                        visibleMessages.add(insertPosition, chatMessage);
+                        if (callback != null) callback.onMessageAdded(chatMessage, insertPosition);
+                    }
+                } else if (!visible) {
+                    visibleMessages.remove(position);
+                    if (callback != null) callback.onMessageRemoved(snapshot.getKey(), position);
+                } else {
+                    visibleMessages.set(position, chatMessage);
+                    if (callback != null) callback.onMessageChanged(chatMessage, position);
+                }
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                int position = indexOfMessage(visibleMessages, snapshot.getKey());
+                if (position < 0) return;
+
+                visibleMessages.remove(position);
+                if (callback != null) callback.onMessageRemoved(snapshot.getKey(), position);
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // Timestamps are written once on send, so messages never move within the ordering.
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                if (callback != null) callback.onFailure("Failed to load messages: " + error.getMessage());
+            }
+        };
+
+        activeMessagesListener = messagesListener;
+        activeMessageCallback = callback;
+        activeUserEmail = currentUserEmail;
+
+        chatDatabaseReference.orderByChild(KEY_TIMESTAMP).limitToLast(PAGE_SIZE).get()
+                .addOnSuccessListener(snapshot -> {
+                    if (activeMessagesListener != messagesListener) return;
+
+                    List<ChatMessage> page = parsePage(snapshot, currentUserEmail);
+                    hasOlderMessages = snapshot.getChildrenCount() >= PAGE_SIZE;
+                    visibleMessages.addAll(0, page);
+                    if (callback != null && !page.isEmpty()) callback.onMessagesInserted(page, 0);
+
+                    // Start live updates after the newest loaded message, so the listener's initial
+                    // sync does not download the first page again and new messages never evict one
+                    DataSnapshot newest = null;
+                    for (DataSnapshot child : snapshot.getChildren()) newest = child;
+                    Query byTimestamp = chatDatabaseReference.orderByChild(KEY_TIMESTAMP);
+                    if (newest == null) {
+                        byTimestamp.addChildEventListener(messagesListener);
+                    } else {
+                        Long newestTimestamp = newest.child(KEY_TIMESTAMP).getValue(Long.class);
+                        // Messages without a timestamp sort first, by key, so the key alone is their cursor
+                        (newestTimestamp != null
+                                ? byTimestamp.startAfter(newestTimestamp, newest.getKey())
+                                : byTimestamp.startAfter((String) null, newest.getKey()))
+                                .addChildEventListener(messagesListener);
+                    }
+                    // An empty screen cannot be scrolled to ask for older messages
+                    if (page.isEmpty()) loadOlderMessages();
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to load latest messages", e);
+                    if (callback != null) callback.onFailure("Failed to load messages: " + e.getMessage());
+                });
+
         return messagesListener;
     }
 
+    /**
+     * Fetches the page of messages preceding the oldest one loaded so far and delivers it through
+     * {@code onMessagesInserted} at position 0. A page holding only messages hidden from the user
+     * is skipped and the one before it fetched. Older pages are not live; edits to them show up the
+     * next time the chat is opened, except deletes made from this device. Returns false when a page
+     * is already in flight or the start of the history has been reached.
+     */
+    public boolean loadOlderMessages() {
+        if (activeMessagesListener == null || isLoadingOlderMessages || !hasOlderMessages
+                || oldestLoadedKey == null) {
+            return false;
+        }
+
+        isLoadingOlderMessages = true;
+        ChildEventListener requestListener = activeMessagesListener;
+        MessageChangeCallback callback = activeMessageCallback;
+        String currentUserEmail = activeUserEmail;
+
+        Query byTimestamp = chatDatabaseReference.orderByChild(KEY_TIMESTAMP);
+        (oldestLoadedTimestamp != null
+                ? byTimestamp.endBefore(oldestLoadedTimestamp, oldestLoadedKey)
+                : byTimestamp.endBefore((String) null, oldestLoadedKey))
+                .limitToLast(PAGE_SIZE)
+                .get()
+                .addOnSuccessListener(snapshot -> {
+                    if (activeMessagesListener != requestListener) return;
+                    isLoadingOlderMessages = false;
+
+                    List<ChatMessage> page = parsePage(snapshot, currentUserEmail);
+                    hasOlderMessages = snapshot.getChildrenCount() >= PAGE_SIZE;
+                    if (page.isEmpty()) {
+                        // Nothing was inserted, so no scroll will ask for the next page
+                        loadOlderMessages();
+                        return;
+                    }
+                    visibleMessages.addAll(0, page);
+                    if (callback != null) callback.onMessagesInserted(page, 0);
+                })
+                .addOnFailureListener(e -> {
+                    if (activeMessagesListener != requestListener) return;
+                    isLoadingOlderMessages = false;
+                    Log.e(TAG, "Failed to load older messages", e);
+                    if (callback != null) callback.onFailure("Failed to load older messages: " + e.getMessage());
+                });
+        return true;
+    }
+
+    public boolean hasOlderMessages() {
+        return hasOlderMessages;
+    }
+
+    // Parses a page in timestamp order and moves the paging cursor to its oldest entry, including
+    // entries hidden from the current user so the next page does not fetch them again. An entry
+    // without a timestamp sorts before all others by key, so its cursor is the key alone.
+    private List<ChatMessage> parsePage(DataSnapshot snapshot, String currentUserEmail) {
+        List<ChatMessage> page = new ArrayList<>();
+        boolean isFirstChild = true;
+
+        for (DataSnapshot dataSnapshot : snapshot.getChildren()) {
+            if (isFirstChild) {
+                oldestLoadedTimestamp = dataSnapshot.child(KEY_TIMESTAMP).getValue(Long.class);
+                oldestLoadedKey = dataSnapshot.getKey();
+                isFirstChild = false;
+            }
+
+            ChatMessage chatMessage = parseMessage(dataSnapshot);
+            if (chatMessage != null && isVisibleTo(chatMessage, currentUserEmail)) {
+                page.add(chatMessage);
+            }
+        }
+        return page;
+    }
+
+    @Nullable
+    private ChatMessage parseMessage(DataSnapshot dataSnapshot) {
+        try {
+            Integer version = dataSnapshot.child(KEY_VERSION).getValue(Integer.class);
+            boolean compact = version != null && version >= 2;
+
+            ChatMessage chatMessage = new ChatMessage();
+            chatMessage.setId(dataSnapshot.getKey());
+            chatMessage.setEmail(readString(dataSnapshot, compact, KEY_EMAIL, LEGACY_KEY_EMAIL));
+            chatMessage.setMessage(readString(dataSnapshot, compact, KEY_MESSAGE, LEGACY_KEY_MESSAGE));
+
+            Long timestamp = dataSnapshot.child(KEY_TIMESTAMP).getValue(Long.class);
+            chatMessage.setTimestamp(timestamp != null ? timestamp : 0);
+
+            // Deletes from new clients are keys in the map, those from old clients emails in the list
+            for (DataSnapshot deletedFor : dataSnapshot.child(KEY_DELETED_FOR).getChildren()) {
+                chatMessage.addDeletedForUserKey(deletedFor.getKey());
+            }
+            for (DataSnapshot deletedFor : dataSnapshot.child(LEGACY_KEY_DELETED_FOR).getChildren()) {
+                String email = deletedFor.getValue(String.class);
+                if (email != null) chatMessage.addDeletedForUser(email);
+            }
+            return chatMessage;
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing message", e);
+            return null;
+        }
+    }
+
+    // Reads the key of the message's own version first and the other version's key if it is absent
+    @Nullable
+    private static String readString(DataSnapshot dataSnapshot, boolean compact, String key, String legacyKey) {
+        String value = dataSnapshot.child(compact ? key : legacyKey).getValue(String.class);
+        return value != null ? value : dataSnapshot.child(compact ? legacyKey : key).getValue(String.class);
+    }
+
+    private static boolean isVisibleTo(ChatMessage chatMessage, String currentUserEmail) {
+        return currentUserEmail == null || !chatMessage.isDeletedForUser(currentUserEmail);
+    }
+
+    // Mirrors the server ordering of orderByChild(KEY_TIMESTAMP): timestamp first, then key.
+    private static int findInsertPosition(List<ChatMessage> messages, ChatMessage chatMessage) {
+        int low = 0;
+        int high = messages.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareMessages(messages.get(mid), chatMessage) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compareMessages(ChatMessage first, ChatMessage second) {
+        int byTimestamp = Long.compare(first.getTimestamp(), second.getTimestamp());
+        if (byTimestamp != 0) return byTimestamp;
+        String firstId = first.getId() != null ? first.getId() : "";
+        String secondId = second.getId() != null ? second.getId() : "";
+        return firstId.compareTo(secondId);
+    }
+
+    // Searches from the end because edits and deletes overwhelmingly target recent messages.
+    private static int indexOfMessage(List<ChatMessage> messages, String messageId) {
+        if (messageId == null) return -1;
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messageId.equals(messages.get(i).getId())) return i;
+        }
+        return -1;
+    }
+
     public void deleteMessageForUser(String messageId, String userEmail, DeleteMessageCallback callback) {
         if (messageId == null || userEmail == null) {
             if (callback != null) callback.onFailure("Invalid message ID or user email");
             return;
         }
 
+        // Setting a single map entry needs no read and cannot overwrite another user's delete
         DatabaseReference messageRef = chatDatabaseReference.child(messageId);
-        messageRef.child("deletedForUsers").get()
-                .addOnSuccessListener(dataSnapshot -> {
-                    List<String> deletedForUsers = new ArrayList<>();
-
-                    if (dataSnapshot.exists()) {
-                        for (DataSnapshot userSnapshot : dataSnapshot.getChildren()) {
-                            String email = userSnapshot.getValue(String.class);
-                            if (email != null) deletedForUsers.add(email);
-                        }
-                    }
-
-                    if (!deletedForUsers.contains(userEmail)) {
-                        deletedForUsers.add(userEmail);
-                        messageRef.child("deletedForUsers").setValue(deletedForUsers)
-                                .addOnSuccessListener(aVoid -> {
-                                    if (callback != null) callback.onSuccess();
-                                })
-                                .addOnFailureListener(e -> {
-                                    Log.e(TAG, "Failed to delete message for user", e);
-                                    if (callback != null) callback.onFailure("Failed to delete message: " + e.getMessage());
-                                });
-                    } else {
+        messageRef.child(KEY_DELETED_FOR)
+                .child(ChatMessage.userKeyFor(userEmail))
+                .setValue(true)
+                .addOnSuccessListener(aVoid -> {
+                    if (!writeLegacyFields) {
+                        removeVisibleMessage(messageId);
                         if (callback != null) callback.onSuccess();
+                        return;
                     }
+                    addToLegacyDeletedList(messageRef, userEmail, messageId, callback);
                 })
                 .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to get deletedForUsers data", e);
+                    Log.e(TAG, "Failed to delete message for user", e);
                     if (callback != null) callback.onFailure("Failed to delete message: " + e.getMessage());
                 });
     }
 
+    // Old clients only read the list of emails; a transaction keeps concurrent deletes from
+    // overwriting each other, which the read-then-set they use themselves does not.
+    private void addToLegacyDeletedList(DatabaseReference messageRef, String userEmail, String messageId,
+                                        DeleteMessageCallback callback) {
+        messageRef.child(LEGACY_KEY_DELETED_FOR).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                List<String> deletedForUsers = new ArrayList<>();
+                for (MutableData child : currentData.getChildren()) {
+                    String email = child.getValue(String.class);
+                    if (email != null) deletedForUsers.add(email);
+                }
+                if (deletedForUsers.contains(userEmail)) return Transaction.abort();
+
+                deletedForUsers.add(userEmail);
+                currentData.setValue(deletedForUsers);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed,
+                                   @Nullable DataSnapshot currentData) {
+                if (error != null) {
+                    Log.e(TAG, "Failed to delete message for user", error.toException());
+                    if (callback != null) callback.onFailure("Failed to delete message: " + error.getMessage());
+                    return;
+                }
+                removeVisibleMessage(messageId);
+                if (callback != null) callback.onSuccess();
+            }
+        });
+    }
+
     public void deleteMessageForEveryone(String messageId, DeleteMessageCallback callback) {
         if (messageId == null) {
             if (callback != null) callback.onFailure("Invalid message ID");
@@ -169,6 +486,7 @@ public class MessageRepository {
 
         chatDatabaseReference.child(messageId).removeValue()
                 .addOnSuccessListener(aVoid -> {
+                    removeVisibleMessage(messageId);
                     if (callback != null) callback.onSuccess();
                 })
                 .addOnFailureListener(e -> {
@@ -177,6 +495,16 @@ public class MessageRepository {
                 });
     }
 
+    // Loaded pages are outside the live listener's window, so a delete made here is applied to the
+    // list directly; if the listener reports it as well, the message is already gone.
+    private void removeVisibleMessage(String messageId) {
+        int position = indexOfMessage(visibleMessages, messageId);
+        if (position < 0) return;
+
+        visibleMessages.remove(position);
+        if (activeMessageCallback != null) activeMessageCallback.onMessageRemoved(messageId, position);
+    }
+
     public ValueEventListener listenToModeChanges(ModeCallback callback) {
         ValueEventListener modeListener = new ValueEventListener() {
             @Override
@@ -223,102 +551,92 @@ public class MessageRepository {
         performCleanup(System.currentTimeMillis(), callback);
     }
 
+    // Old messages are found with a range query on the timestamp index and removed a page at a
+    // time, so cleanup never downloads messages that are going to stay.
     private void performCleanup(long currentTime, CleanupCallback callback) {
-        chatDatabaseReference.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                List<String> messagesToDelete = new ArrayList<>();
-                long cutoffTime = currentTime - SEVEN_DAYS_IN_MILLIS;
+        long cutoffTime = currentTime - SEVEN_DAYS_IN_MILLIS;
+        deleteOldMessagePage(cutoffTime, 0, () -> lastCleanupReference.setValue(currentTime), callback);
+    }
 
-                for (DataSnapshot messageSnapshot : snapshot.getChildren()) {
-                    Long timestamp = messageSnapshot.child("timestamp").getValue(Long.class);
-                    if (timestamp != null && timestamp < cutoffTime) {
+    private void deleteOldMessagePage(long cutoffTime, int deletedSoFar, Runnable onFinished,
+                                      CleanupCallback callback) {
+        oldMessagesQuery(cutoffTime).limitToFirst(BATCH_SIZE).get()
+                .addOnSuccessListener(snapshot -> {
+                    // A null value at each path deletes every message in one atomic write
+                    Map<String, Object> deletions = new HashMap<>();
+                    for (DataSnapshot messageSnapshot : snapshot.getChildren()) {
                         String messageId = messageSnapshot.getKey();
-                        if (messageId != null) messagesToDelete.add(messageId);
+                        if (messageId != null) deletions.put(messageId, null);
                     }
-                }
-
-                if (!messagesToDelete.isEmpty()) {
-                    Log.d(TAG, "Deleting " + messagesToDelete.size() + " old messages");
-                    deleteMessagesInBatches(messagesToDelete, callback);
-                    lastCleanupReference.setValue(currentTime);
-                } else {
-                    Log.d(TAG, "No old messages found to delete");
-                    if (callback != null) callback.onCleanupComplete(0);
-                }
-            }
-
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                if (callback != null) callback.onCleanupFailed("Failed to fetch messages for cleanup: " + error.getMessage());
-            }
-        });
-    }
 
-    private void deleteMessagesInBatches(List<String> messageIds, CleanupCallback callback) {
-        int totalBatches = (int) Math.ceil((double) messageIds.size() / BATCH_SIZE);
-        int[] completedBatches = {0};
-        int[] deletedCount = {0};
-        boolean[] hasError = {false};
-
-        for (int i = 0; i < totalBatches; i++) {
-            int start = i * BATCH_SIZE;
-            int end = Math.min(start + BATCH_SIZE, messageIds.size());
-            List<String> batch = messageIds.subList(start, end);
-
-            for (String messageId : batch) {
-                chatDatabaseReference.child(messageId).removeValue()
-                        .addOnSuccessListener(aVoid -> deletedCount[0]++)
-                        .addOnFailureListener(e -> {
-                            hasError[0] = true;
-                            Log.e(TAG, "Failed to delete message " + messageId, e);
-                        });
-            }
-
-            completedBatches[0]++;
-            Log.d(TAG, "Processed batch " + (i + 1) + "/" + totalBatches + " (" + batch.size() + " messages)");
+                    if (deletions.isEmpty()) {
+                        Log.d(TAG, "Cleanup finished, deleted " + deletedSoFar + " old messages");
+                        onFinished.run();
+                        if (callback != null) callback.onCleanupComplete(deletedSoFar);
+                        return;
+                    }
 
-            if (i + 1 == totalBatches) {
-                new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() -> {
+                    chatDatabaseReference.updateChildren(deletions)
+                            .addOnSuccessListener(aVoid -> {
+                                int deletedCount = deletedSoFar + deletions.size();
+                                Log.d(TAG, "Deleted " + deletions.size() + " old messages");
+
+                                if (deletions.size() < BATCH_SIZE) {
+                                    Log.d(TAG, "Cleanup finished, deleted " + deletedCount + " old messages");
+                                    onFinished.run();
+                                    if (callback != null) callback.onCleanupComplete(deletedCount);
+                                } else {
+                                    deleteOldMessagePage(cutoffTime, deletedCount, onFinished, callback);
+                                }
+                            })
+                            .addOnFailureListener(e -> {
+                                Log.e(TAG, "Failed to delete old messages", e);
+                                if (callback != null) {
+                                    callback.onCleanupFailed("Some messages failed to delete. Deleted: " + deletedSoFar);
+                                }
+                            });
+                })
+                .addOnFailureListener(e -> {
                     if (callback != null) {
-                        if (hasError[0]) {
-                            callback.onCleanupFailed("Some messages failed to delete. Deleted: " + deletedCount[0]);
-                        } else {
-                            callback.onCleanupComplete(deletedCount[0]);
-                        }
+                        callback.onCleanupFailed("Failed to fetch messages for cleanup: " + e.getMessage());
                     }
-                }, 2000);
-            }
-        }
+                });
     }
 
+    // Reports how many messages are older than the retention window, counting at most one page
     public void checkOldMessages(CleanupCallback callback) {
         long cutoffTime = System.currentTimeMillis() - SEVEN_DAYS_IN_MILLIS;
 
-        chatDatabaseReference.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                int oldMessageCount = 0;
-                for (DataSnapshot messageSnapshot : snapshot.getChildren()) {
-                    Long timestamp = messageSnapshot.child("timestamp").getValue(Long.class);
-                    if (timestamp != null && timestamp < cutoffTime) {
-                        oldMessageCount++;
-                    }
-                }
-                if (callback != null) callback.onCheckComplete(oldMessageCount);
-            }
+        oldMessagesQuery(cutoffTime).limitToFirst(BATCH_SIZE).get()
+                .addOnSuccessListener(snapshot -> {
+                    if (callback != null) callback.onCheckComplete((int) snapshot.getChildrenCount());
+                })
+                .addOnFailureListener(e -> {
+                    if (callback != null) callback.onCheckFailed(e.getMessage());
+                });
+    }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                if (callback != null) callback.onCheckFailed(error.getMessage());
-            }
-        });
+    // startAt(0) skips messages without a timestamp, which sort before every number
+    private Query oldMessagesQuery(long cutoffTime) {
+        return chatDatabaseReference.orderByChild(KEY_TIMESTAMP)
+                .startAt(0)
+                .endBefore(cutoffTime);
     }
 
     public void removeMessageListener(ValueEventListener listener) {
         if (listener != null) chatDatabaseReference.removeEventListener(listener);
     }
 
+    public void removeMessageListener(ChildEventListener listener) {
+        if (listener == null) return;
+        if (listener == activeMessagesListener) {
+            activeMessagesListener = null;
+            activeMessageCallback = null;
+            visibleMessages.clear();
+        }
+        chatDatabaseReference.removeEventListener(listener);
+    }
+
     public void removeModeListener(ValueEventListener listener) {
         if (listener != null) modeDatabaseReference.removeEventListener(listener);
     }
@@ -3,7 +3,9 @@ package com.sowp.user.repositories;
 import android.content.Context;
 import android.util.Log;
 
+import com.sowp.shared.courses.CourseSummaries;
 import com.sowp.user.models.Quiz;
+import com.sowp.user.services.ContentSearch;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 
@@ -26,8 +28,8 @@ public class QuizRepository {
     }
 
     public void loadRecentQuizzes(Callback callback) {
-        // First get all courses to then fetch their quizzes
-        db.collection("Course")
+        // First get some course ids, from the summaries once complete, then fetch their quizzes
+        CourseSummaries.listCollection(db, collection -> db.collection(collection)
                 .limit(5) // Limit courses to search through
                 .get()
                 .addOnSuccessListener(courseSnapshots -> {
@@ -85,7 +87,7 @@ public class QuizRepository {
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error loading courses", e);
                     callback.onFailure("Error loading quizzes");
-                });
+                }));
     }
 
     public void loadQuizzesForCourse(int courseId, Callback callback) {
@@ -106,6 +108,7 @@ public class QuizRepository {
                             Log.e(TAG, "Error parsing quiz ID: " + document.getId(), e);
                         }
                     }
+                    ContentSearch.getInstance().indexQuizzes(courseId, quizzes);
                     callback.onSuccess(quizzes);
                 })
                 .addOnFailureListener(e -> {
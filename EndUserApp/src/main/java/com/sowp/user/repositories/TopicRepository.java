@@ -1,6 +1,7 @@
 package com.sowp.user.repositories;
 
 import com.sowp.user.models.Topic;
+import com.sowp.user.services.ContentSearch;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
@@ -52,6 +53,7 @@ public class TopicRepository {
                         }
                     }
 
+                    ContentSearch.getInstance().indexTopics(courseId, topics);
                     callback.onSuccess(new ArrayList<>(topics));
                 })
                 .addOnFailureListener(e -> {
@@ -73,18 +75,36 @@ public class TopicRepository {
 
         query.get()
                 .addOnSuccessListener(queryDocumentSnapshots -> {
-                    List<Topic> filteredTopics = new ArrayList<>();
+                    List<Topic> loadedTopics = new ArrayList<>();
 
                     for (DocumentSnapshot doc : queryDocumentSnapshots) {
                         try {
                             Topic topic = doc.toObject(Topic.class);
-                            if (topic != null && matchesClientSideFilters(topic, searchQuery, categoryFilter)) {
-                                filteredTopics.add(topic);
+                            if (topic != null) {
+                                loadedTopics.add(topic);
                             }
                         } catch (Exception e) {
                         }
                     }
 
+                    List<Topic> matchingTopics = loadedTopics;
+                    if (semesterFilter == null || semesterFilter.equals("All Semesters")) {
+                        // Only a full load is a complete copy of the course's topics
+                        ContentSearch.getInstance().indexTopics(courseId, loadedTopics);
+                        if (searchQuery != null && !searchQuery.trim().isEmpty()) {
+                            matchingTopics = ContentSearch.getInstance().searchTopics(courseId, searchQuery);
+                        }
+                    } else if (searchQuery != null && !searchQuery.trim().isEmpty()) {
+                        matchingTopics = ContentSearch.searchTopics(loadedTopics, searchQuery);
+                    }
+
+                    List<Topic> filteredTopics = new ArrayList<>();
+                    for (Topic topic : matchingTopics) {
+                        if (matchesCategoryFilter(topic, categoryFilter)) {
+                            filteredTopics.add(topic);
+                        }
+                    }
+
                     callback.onSuccess(filteredTopics);
                 })
                 .addOnFailureListener(e -> {
@@ -92,33 +112,11 @@ public class TopicRepository {
                 });
     }
 
-    private boolean matchesClientSideFilters(Topic topic, String searchQuery, String categoryFilter) {
-        if (searchQuery != null && !searchQuery.trim().isEmpty()) {
-            String search = searchQuery.toLowerCase();
-            boolean matchesSearch = false;
-
-            if (topic.getName() != null && topic.getName().toLowerCase().contains(search)) {
-                matchesSearch = true;
-            } else if (topic.getDescription() != null && topic.getDescription().toLowerCase().contains(search)) {
-                matchesSearch = true;
-            } else if (topic.getTags() != null && topic.getTags().toLowerCase().contains(search)) {
-                matchesSearch = true;
-            } else if (topic.getCategories() != null && topic.getCategories().toLowerCase().contains(search)) {
-                matchesSearch = true;
-            }
-
-            if (!matchesSearch) {
-                return false;
-            }
-        }
-
+    private boolean matchesCategoryFilter(Topic topic, String categoryFilter) {
         if (categoryFilter != null && !categoryFilter.equals("All Categories")) {
-            if (topic.getCategories() == null ||
-                    !topic.getCategories().toLowerCase().contains(categoryFilter.toLowerCase())) {
-                return false;
-            }
+            return topic.getCategories() != null &&
+                    topic.getCategories().toLowerCase().contains(categoryFilter.toLowerCase());
         }
-
         return true;
     }
 
@@ -0,0 +1,199 @@
+package com.sowp.user.repositories;
+
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.sowp.user.models.ChatMessage;
+import com.sowp.user.models.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves chat senders' {@link User} profiles in batches. Unseen emails are fetched with
+ * {@code whereIn} queries on the document id, up to {@link #MAX_EMAILS_PER_QUERY} per read, and
+ * kept in a process-wide cache of the {@link #MAX_CACHED_PROFILES} most recently used for
+ * {@link #CACHE_TTL_MILLIS}. Requests for an email whose fetch is
+ * already running wait for that fetch instead of starting another one.
+ *
+ * Must be used from the main thread, where Firestore delivers its results.
+ */
+public class UserProfileResolver {
+    private static final String TAG = "UserProfileResolver";
+
+    // Firestore's limit on the number of values in a whereIn filter
+    private static final int MAX_EMAILS_PER_QUERY = 30;
+    private static final long CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    // Profiles and "not found" entries kept at once; a busy chat shows far fewer senders
+    private static final int MAX_CACHED_PROFILES = 200;
+
+    private static UserProfileResolver instance;
+
+    private final FirebaseFirestore firestore;
+    private final LruCache<String, CachedProfile> profileCache = new LruCache<>(MAX_CACHED_PROFILES);
+    // Callbacks waiting on a fetch that is already running, by email
+    private final Map<String, List<ProfileCallback>> pendingRequests = new HashMap<>();
+
+    public interface ProfileCallback {
+        void onSuccess(User user);
+        void onFailure(String message);
+    }
+
+    // A null user records that the document does not exist, so it is not queried again
+    private static class CachedProfile {
+        final User user;
+        final long expiresAt;
+
+        CachedProfile(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static synchronized UserProfileResolver getInstance() {
+        if (instance == null) {
+            instance = new UserProfileResolver(FirebaseFirestore.getInstance());
+        }
+        return instance;
+    }
+
+    private UserProfileResolver(FirebaseFirestore firestore) {
+        this.firestore = firestore;
+    }
+
+    /** Returns the cached profile for {@code email}, or null when it is unknown or expired. */
+    public User getCached(String email) {
+        CachedProfile cached = getFresh(email);
+        return cached != null ? cached.user : null;
+    }
+
+    /** Fetches every email in {@code emails} that is neither cached nor already being fetched. */
+    public void prefetch(Collection<String> emails) {
+        List<String> unseen = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        for (String email : emails) {
+            if (email == null || email.isEmpty() || !seen.add(email)) continue;
+            if (getFresh(email) != null || pendingRequests.containsKey(email)) continue;
+
+            pendingRequests.put(email, new ArrayList<>());
+            unseen.add(email);
+        }
+
+        for (int start = 0; start < unseen.size(); start += MAX_EMAILS_PER_QUERY) {
+            int end = Math.min(start + MAX_EMAILS_PER_QUERY, unseen.size());
+            fetchChunk(new ArrayList<>(unseen.subList(start, end)));
+        }
+    }
+
+    public void prefetchSenders(List<ChatMessage> messages) {
+        List<String> emails = new ArrayList<>(messages.size());
+        for (ChatMessage message : messages) {
+            emails.add(message.getEmail());
+        }
+        prefetch(emails);
+    }
+
+    /**
+     * Delivers the profile for {@code email}, from the cache when possible, otherwise once the
+     * batch that contains it has been fetched.
+     */
+    public void resolve(String email, ProfileCallback callback) {
+        if (email == null || email.isEmpty()) {
+            callback.onFailure("Invalid user email");
+            return;
+        }
+
+        CachedProfile cached = getFresh(email);
+        if (cached != null) {
+            if (cached.user != null) {
+                callback.onSuccess(cached.user);
+            } else {
+                callback.onFailure("User not found");
+            }
+            return;
+        }
+
+        List<ProfileCallback> waiting = pendingRequests.get(email);
+        if (waiting == null) {
+            prefetch(Collections.singletonList(email));
+            waiting = pendingRequests.get(email);
+        }
+        waiting.add(callback);
+    }
+
+    public void clearCache() {
+        profileCache.evictAll();
+    }
+
+    private void fetchChunk(List<String> emails) {
+        firestore.collection("User")
+                .whereIn(FieldPath.documentId(), emails)
+                .get()
+                .addOnSuccessListener(querySnapshot -> {
+                    long expiresAt = SystemClock.elapsedRealtime() + CACHE_TTL_MILLIS;
+                    Set<String> found = new HashSet<>();
+
+                    for (DocumentSnapshot document : querySnapshot.getDocuments()) {
+                        String email = document.getId();
+                        User user;
+                        try {
+                            user = document.toObject(User.class);
+                        } catch (Exception e) {
+                            Log.e(TAG, "Error parsing user data for " + email, e);
+                            continue;
+                        }
+                        if (user == null) continue;
+
+                        found.add(email);
+                        profileCache.put(email, new CachedProfile(user, expiresAt));
+                        for (ProfileCallback callback : takePending(email)) {
+                            callback.onSuccess(user);
+                        }
+                    }
+
+                    for (String email : emails) {
+                        if (found.contains(email)) continue;
+                        profileCache.put(email, new CachedProfile(null, expiresAt));
+                        for (ProfileCallback callback : takePending(email)) {
+                            callback.onFailure("User not found");
+                        }
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    // Failures are not cached, so the next request retries
+                    for (String email : emails) {
+                        for (ProfileCallback callback : takePending(email)) {
+                            callback.onFailure("Failed to load user data: " + e.getMessage());
+                        }
+                    }
+                });
+    }
+
+    private CachedProfile getFresh(String email) {
+        CachedProfile cached = profileCache.get(email);
+        if (cached == null) return null;
+
+        if (cached.expiresAt <= SystemClock.elapsedRealtime()) {
+            profileCache.remove(email);
+            return null;
+        }
+        return cached;
+    }
+
+    private List<ProfileCallback> takePending(String email) {
+        List<ProfileCallback> callbacks = pendingRequests.remove(email);
+        return callbacks != null ? callbacks : new ArrayList<>();
+    }
+}
@@ -1,9 +1,6 @@
 package com.sowp.user.repositories;
 
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
-import android.util.Base64;
 import android.util.Log;
 
 import com.google.firebase.auth.FirebaseUser;
@@ -12,25 +9,21 @@ import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import com.sowp.shared.images.SubmissionFingerprints;
 import com.sowp.user.models.AssignmentAttempt;
 import com.sowp.user.models.Course;
 import com.sowp.user.models.CourseProgress;
 import com.sowp.user.models.QuizAttempt;
 import com.sowp.user.models.User;
+import com.sowp.user.services.GoogleAvatarImporter;
 import com.sowp.user.services.UserAuthenticationUtils;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import okhttp3.Call;
-import okhttp3.Callback;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
-
 public class UserRepository {
     private static final String TAG = "UserRepository";
 
@@ -162,48 +155,7 @@ public class UserRepository {
         String email = firebaseUser.getEmail() != null ? firebaseUser.getEmail() : "";
         String photoUrl = firebaseUser.getPhotoUrl() != null ? firebaseUser.getPhotoUrl().toString() : "";
 
-        if (!photoUrl.isEmpty()) {
-            downloadAndConvertPhoto(photoUrl, userId, fullName, email, callback);
-        } else {
-            createUserWithPhoto(userId, fullName, email, "", callback);
-        }
-    }
-
-    private void downloadAndConvertPhoto(String photoUrl, String userId, String fullName,
-                                         String email, GoogleSignInCallback callback) {
-        OkHttpClient client = new OkHttpClient();
-        Request request = new Request.Builder().url(photoUrl).build();
-
-        client.newCall(request).enqueue(new Callback() {
-            @Override
-            public void onFailure(Call call, IOException e) {
-                createUserWithPhoto(userId, fullName, email, "", callback);
-            }
-
-            @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                if (response.isSuccessful() && response.body() != null) {
-                    try {
-                        byte[] photoBytes = response.body().bytes();
-                        String base64Photo = Base64.encodeToString(photoBytes, Base64.NO_WRAP);
-                        new Handler(Looper.getMainLooper()).post(() ->
-                                createUserWithPhoto(userId, fullName, email, base64Photo, callback));
-                    } catch (Exception e) {
-                        new Handler(Looper.getMainLooper()).post(() ->
-                                createUserWithPhoto(userId, fullName, email, "", callback));
-                    }
-                } else {
-                    new Handler(Looper.getMainLooper()).post(() ->
-                            createUserWithPhoto(userId, fullName, email, "", callback));
-                }
-                response.close();
-            }
-        });
-    }
-
-    private void createUserWithPhoto(String userId, String fullName, String email,
-                                     String base64Photo, GoogleSignInCallback callback) {
-        User newUser = new User(userId, fullName, base64Photo, email, "", "", "", "", "", "User",
+        User newUser = new User(userId, fullName, "", email, "", "", "", "", "", "User",
                 true, System.currentTimeMillis(), true);
 
         firestore.collection("User")
@@ -212,6 +164,8 @@ public class UserRepository {
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
                         user = newUser;
+                        // The Google photo is fetched afterwards, so sign-in does not wait on it
+                        GoogleAvatarImporter.getInstance(context).importPhoto(email, photoUrl);
                         callback.onSuccess(newUser);
                     } else {
                         String error = task.getException() != null ?
@@ -896,11 +850,18 @@ public class UserRepository {
             return;
         }
 
-        firestore.collection("User")
-                .document(email)
-                .collection("AssignmentProgress")
-                .document(attemptData.getAttemptId())
-                .set(attemptData)
+        DocumentReference userRef = firestore.collection("User").document(email);
+        WriteBatch batch = firestore.batch();
+        batch.set(userRef.collection("AssignmentProgress").document(attemptData.getAttemptId()), attemptData);
+
+        // Graders search these small documents for copied pages instead of the attempts themselves
+        List<String> fingerprints = attemptData.getSubmittedImageFingerprints();
+        if (fingerprints != null && !fingerprints.isEmpty()) {
+            batch.set(userRef.collection(SubmissionFingerprints.COLLECTION).document(attemptData.getAttemptId()),
+                    SubmissionFingerprints.document(fingerprints, attemptData.getSubmissionTimestamp()));
+        }
+
+        batch.commit()
                 .addOnSuccessListener(aVoid -> addToUncheckedAssignments(attemptData, email, callback))
                 .addOnFailureListener(e -> callback.onFailure("Failed to submit assignment: " + e.getMessage()));
     }
@@ -0,0 +1,169 @@
+package com.sowp.user.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+
+/**
+ * Multi-pattern matcher that finds every occurrence of a fixed set of terms in a single linear
+ * pass. Terms are matched ASCII case-insensitively, the same way {@code Pattern.CASE_INSENSITIVE}
+ * does without {@code UNICODE_CASE}. The automaton is immutable once built and safe to share.
+ */
+final class AhoCorasickMatcher {
+
+    public interface MatchListener {
+        void onMatch(int termIndex, int start, int end);
+    }
+
+    private static final int ROOT = 0;
+    private static final int ASCII_LIMIT = 128;
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    // Maps an ASCII character to its column in the transition table, or -1 when no term uses it
+    private final int[] alphabet = new int[ASCII_LIMIT];
+    private final int[][] transitions;
+    private final int[] termLengths;
+    // Indices of every term that ends at a node, including those reached through failure links
+    private final int[][] outputs;
+
+    AhoCorasickMatcher(List<String> terms) {
+        int alphabetSize = buildAlphabet(terms);
+
+        List<int[]> gotoTable = new ArrayList<>();
+        List<int[]> ownOutputs = new ArrayList<>();
+        gotoTable.add(newRow(alphabetSize));
+        ownOutputs.add(NO_OUTPUTS);
+        termLengths = new int[terms.size()];
+
+        for (int termIndex = 0; termIndex < terms.size(); termIndex++) {
+            String term = terms.get(termIndex);
+            if (term == null || term.isEmpty()) continue;
+
+            String lowerTerm = term.toLowerCase(Locale.ROOT);
+            int state = ROOT;
+            for (int i = 0; i < lowerTerm.length(); i++) {
+                int column = alphabet[lowerTerm.charAt(i)];
+                int next = gotoTable.get(state)[column];
+                if (next < 0) {
+                    next = gotoTable.size();
+                    gotoTable.add(newRow(alphabetSize));
+                    ownOutputs.add(NO_OUTPUTS);
+                    gotoTable.get(state)[column] = next;
+                }
+                state = next;
+            }
+            termLengths[termIndex] = lowerTerm.length();
+            ownOutputs.set(state, appendOutput(ownOutputs.get(state), termIndex));
+        }
+
+        transitions = gotoTable.toArray(new int[0][]);
+        outputs = ownOutputs.toArray(new int[0][]);
+        buildFailureLinks(alphabetSize);
+    }
+
+    /**
+     * Reports every occurrence of every term in {@code text} as its index in the constructor's
+     * list and a half-open range, in order of end position. Overlapping occurrences are all
+     * reported.
+     */
+    void findAll(CharSequence text, MatchListener listener) {
+        int state = ROOT;
+        int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            int column = c < ASCII_LIMIT ? alphabet[toLowerAscii(c)] : -1;
+            state = column < 0 ? ROOT : transitions[state][column];
+
+            for (int termIndex : outputs[state]) {
+                listener.onMatch(termIndex, i + 1 - termLengths[termIndex], i + 1);
+            }
+        }
+    }
+
+    private int buildAlphabet(List<String> terms) {
+        for (int i = 0; i < ASCII_LIMIT; i++) {
+            alphabet[i] = -1;
+        }
+
+        int size = 0;
+        for (String term : terms) {
+            if (term == null) continue;
+            String lowerTerm = term.toLowerCase(Locale.ROOT);
+            for (int i = 0; i < lowerTerm.length(); i++) {
+                char c = lowerTerm.charAt(i);
+                if (c >= ASCII_LIMIT) {
+                    throw new IllegalArgumentException("Only ASCII terms are supported: " + term);
+                }
+                if (alphabet[c] < 0) {
+                    alphabet[c] = size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    // Breadth-first pass that turns the trie into a complete DFA: missing transitions are
+    // redirected along failure links, and each node inherits the outputs of its failure node.
+    private void buildFailureLinks(int alphabetSize) {
+        int[] failure = new int[transitions.length];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        for (int column = 0; column < alphabetSize; column++) {
+            int child = transitions[ROOT][column];
+            if (child < 0) {
+                transitions[ROOT][column] = ROOT;
+            } else {
+                failure[child] = ROOT;
+                queue.add(child);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] inherited = outputs[failure[state]];
+            if (inherited.length > 0) {
+                outputs[state] = mergeOutputs(outputs[state], inherited);
+            }
+
+            for (int column = 0; column < alphabetSize; column++) {
+                int child = transitions[state][column];
+                int fallback = transitions[failure[state]][column];
+                if (child < 0) {
+                    transitions[state][column] = fallback;
+                } else {
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    private static int[] newRow(int size) {
+        int[] row = new int[size];
+        for (int i = 0; i < size; i++) {
+            row[i] = -1;
+        }
+        return row;
+    }
+
+    private static int[] appendOutput(int[] current, int termIndex) {
+        int[] merged = new int[current.length + 1];
+        System.arraycopy(current, 0, merged, 0, current.length);
+        merged[current.length] = termIndex;
+        return merged;
+    }
+
+    private static int[] mergeOutputs(int[] own, int[] inherited) {
+        int[] merged = new int[own.length + inherited.length];
+        System.arraycopy(own, 0, merged, 0, own.length);
+        System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+        return merged;
+    }
+
+    private static char toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,136 @@
+package com.sowp.user.services;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide cache of decoded avatar bitmaps, bounded by bytes rather than entry count so a
+ * group chat with hundreds of participants cannot exhaust the heap. Base64 photos are decoded on
+ * a background executor straight to the requested size.
+ */
+public class AvatarBitmapCache {
+
+    // Share of the app's memory class given to avatars
+    private static final int MEMORY_CLASS_DIVISOR = 8;
+    private static final int DECODE_THREADS = 2;
+
+    private static AvatarBitmapCache instance;
+
+    private final LruCache<String, Bitmap> bitmapCache;
+    private final ExecutorService decodeExecutor = Executors.newFixedThreadPool(DECODE_THREADS);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Callbacks waiting on a decode that is already running, by cache key
+    private final Map<String, List<AvatarCallback>> pendingDecodes = new HashMap<>();
+
+    public interface AvatarCallback {
+        void onAvatarLoaded(Bitmap bitmap);
+        void onAvatarFailed();
+    }
+
+    public static synchronized AvatarBitmapCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new AvatarBitmapCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private AvatarBitmapCache(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        int memoryClassMb = activityManager != null ? activityManager.getMemoryClass() : 32;
+        int budgetKb = memoryClassMb * 1024 / MEMORY_CLASS_DIVISOR;
+
+        bitmapCache = new LruCache<String, Bitmap>(budgetKb) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return Math.max(1, bitmap.getAllocationByteCount() / 1024);
+            }
+        };
+    }
+
+    // Keys include the photo's hash so a changed profile picture is decoded again
+    public static String keyFor(String userEmail, String base64Photo) {
+        return userEmail + ":" + (base64Photo != null ? base64Photo.hashCode() : 0);
+    }
+
+    public Bitmap get(String key) {
+        return bitmapCache.get(key);
+    }
+
+    /**
+     * Delivers the avatar for {@code key} on the main thread, decoding {@code base64Photo} to
+     * {@code sizePx} on a background thread when it is not cached yet. Concurrent requests for the
+     * same key share one decode.
+     */
+    public void load(String key, String base64Photo, int sizePx, AvatarCallback callback) {
+        Bitmap cached = bitmapCache.get(key);
+        if (cached != null) {
+            if (callback != null) callback.onAvatarLoaded(cached);
+            return;
+        }
+
+        synchronized (pendingDecodes) {
+            List<AvatarCallback> waiting = pendingDecodes.get(key);
+            if (waiting != null) {
+                if (callback != null) waiting.add(callback);
+                return;
+            }
+            waiting = new ArrayList<>();
+            if (callback != null) waiting.add(callback);
+            pendingDecodes.put(key, waiting);
+        }
+
+        decodeExecutor.execute(() -> {
+            Bitmap bitmap = decodeAvatar(base64Photo, sizePx);
+            if (bitmap != null) {
+                bitmapCache.put(key, bitmap);
+            }
+
+            List<AvatarCallback> callbacks;
+            synchronized (pendingDecodes) {
+                callbacks = pendingDecodes.remove(key);
+            }
+
+            mainHandler.post(() -> {
+                if (callbacks == null) return;
+                for (AvatarCallback waiting : callbacks) {
+                    if (bitmap != null) {
+                        waiting.onAvatarLoaded(bitmap);
+                    } else {
+                        waiting.onAvatarFailed();
+                    }
+                }
+            });
+        });
+    }
+
+    public void trimMemory() {
+        bitmapCache.evictAll();
+    }
+
+    private static Bitmap decodeAvatar(String base64Photo, int sizePx) {
+        try {
+            Bitmap bitmap = ImageService.base64ToBitmap(base64Photo, sizePx, sizePx);
+            if (bitmap == null) return null;
+
+            if (bitmap.getWidth() > sizePx || bitmap.getHeight() > sizePx) {
+                Bitmap scaled = Bitmap.createScaledBitmap(bitmap, sizePx, sizePx, true);
+                if (scaled != bitmap) bitmap.recycle();
+                return scaled;
+            }
+            return bitmap;
+        } catch (OutOfMemoryError e) {
+            return null;
+        }
+    }
+}
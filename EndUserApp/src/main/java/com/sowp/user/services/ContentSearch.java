@@ -0,0 +1,152 @@
+package com.sowp.user.services;
+
+import com.sowp.user.models.Assignment;
+import com.sowp.user.models.Quiz;
+import com.sowp.user.models.Topic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * App-wide search over the topics, quizzes and assignments loaded so far. Repositories index what
+ * they fetch, replacing a course's earlier copy, so the index grows as the user browses; list
+ * screens search their own course and the Courses tab searches everything at once.
+ */
+public class ContentSearch {
+    private static final int TITLE_WEIGHT = 4;
+    private static final int TAG_WEIGHT = 2;
+    private static final int TEXT_WEIGHT = 1;
+
+    private static ContentSearch instance;
+
+    private final SearchIndex<Hit> index = new SearchIndex<>();
+
+    public enum Kind {
+        TOPIC("Topic"),
+        QUIZ("Quiz"),
+        ASSIGNMENT("Assignment");
+
+        public final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        String keyPrefix(int courseId) {
+            return name().toLowerCase(Locale.ROOT) + ":" + courseId + ":";
+        }
+    }
+
+    /** One match; {@link #item} is the {@link Topic}, {@link Quiz} or {@link Assignment} itself. */
+    public static class Hit {
+        public final Kind kind;
+        public final int courseId;
+        public final String title;
+        public final Object item;
+
+        Hit(Kind kind, int courseId, String title, Object item) {
+            this.kind = kind;
+            this.courseId = courseId;
+            this.title = title;
+            this.item = item;
+        }
+    }
+
+    public static synchronized ContentSearch getInstance() {
+        if (instance == null) {
+            instance = new ContentSearch();
+        }
+        return instance;
+    }
+
+    private ContentSearch() {
+    }
+
+    public void indexTopics(int courseId, List<Topic> topics) {
+        String prefix = Kind.TOPIC.keyPrefix(courseId);
+        index.removeAll(prefix);
+        for (Topic topic : topics) {
+            if (topic == null) continue;
+            index.put(prefix + topic.getOrderIndex(),
+                    new Hit(Kind.TOPIC, courseId, topic.getName(), topic), topicFields(topic));
+        }
+    }
+
+    public void indexQuizzes(int courseId, List<Quiz> quizzes) {
+        String prefix = Kind.QUIZ.keyPrefix(courseId);
+        index.removeAll(prefix);
+        for (Quiz quiz : quizzes) {
+            if (quiz == null) continue;
+            index.put(prefix + quiz.getQuizId(),
+                    new Hit(Kind.QUIZ, courseId, quiz.getTitle(), quiz),
+                    new SearchIndex.Fields()
+                            .add(quiz.getTitle(), TITLE_WEIGHT)
+                            .add(quiz.getTags(), TAG_WEIGHT)
+                            .add(quiz.getCategories(), TAG_WEIGHT)
+                            .add(quiz.getDescription(), TEXT_WEIGHT));
+        }
+    }
+
+    public void indexAssignments(int courseId, List<Assignment> assignments) {
+        String prefix = Kind.ASSIGNMENT.keyPrefix(courseId);
+        index.removeAll(prefix);
+        for (Assignment assignment : assignments) {
+            if (assignment == null) continue;
+            index.put(prefix + assignment.getId(),
+                    new Hit(Kind.ASSIGNMENT, courseId, assignment.getTitle(), assignment),
+                    new SearchIndex.Fields()
+                            .add(assignment.getTitle(), TITLE_WEIGHT)
+                            .addAll(assignment.getTags(), TAG_WEIGHT)
+                            .addAll(assignment.getCategories(), TAG_WEIGHT)
+                            .add(assignment.getDescription(), TEXT_WEIGHT)
+                            .add(assignment.getSemester(), TEXT_WEIGHT));
+        }
+    }
+
+    public List<Topic> searchTopics(int courseId, String query) {
+        List<Topic> topics = new ArrayList<>();
+        for (Hit hit : index.search(query, Kind.TOPIC.keyPrefix(courseId))) {
+            topics.add((Topic) hit.item);
+        }
+        return topics;
+    }
+
+    public List<Quiz> searchQuizzes(int courseId, String query) {
+        List<Quiz> quizzes = new ArrayList<>();
+        for (Hit hit : index.search(query, Kind.QUIZ.keyPrefix(courseId))) {
+            quizzes.add((Quiz) hit.item);
+        }
+        return quizzes;
+    }
+
+    public List<Assignment> searchAssignments(int courseId, String query) {
+        List<Assignment> assignments = new ArrayList<>();
+        for (Hit hit : index.search(query, Kind.ASSIGNMENT.keyPrefix(courseId))) {
+            assignments.add((Assignment) hit.item);
+        }
+        return assignments;
+    }
+
+    /** Searches a list that is not a course's full set of topics, such as one semester's, without indexing it. */
+    public static List<Topic> searchTopics(List<Topic> topics, String query) {
+        SearchIndex<Topic> subset = new SearchIndex<>();
+        for (int i = 0; i < topics.size(); i++) {
+            subset.put(String.valueOf(i), topics.get(i), topicFields(topics.get(i)));
+        }
+        return subset.search(query, "");
+    }
+
+    private static SearchIndex.Fields topicFields(Topic topic) {
+        return new SearchIndex.Fields()
+                .add(topic.getName(), TITLE_WEIGHT)
+                .add(topic.getTags(), TAG_WEIGHT)
+                .add(topic.getCategories(), TAG_WEIGHT)
+                .add(topic.getDescription(), TEXT_WEIGHT);
+    }
+
+    /** The best matches of any kind from any course. */
+    public List<Hit> searchAll(String query, int limit) {
+        return index.search(query, "", limit);
+    }
+}
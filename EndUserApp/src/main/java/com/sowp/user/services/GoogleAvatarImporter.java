@@ -0,0 +1,125 @@
+package com.sowp.user.services;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.util.Base64;
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.sowp.shared.images.ImageEncoder;
+import com.sowp.shared.images.ImageRole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Imports a new Google user's profile photo after their account has been created, so sign-in
+ * never waits on the download. The photo is streamed to a cache file rather than held in memory,
+ * then decoded, downsampled and encoded to the avatar budget like any other profile photo. A photo
+ * the user picked in the meantime is never overwritten.
+ */
+public class GoogleAvatarImporter {
+    private static final String TAG = "GoogleAvatarImporter";
+
+    private static GoogleAvatarImporter instance;
+
+    private final Context context;
+    private final FirebaseFirestore firestore;
+    private final OkHttpClient httpClient = new OkHttpClient();
+    // One import at a time; they are rare and should not compete with the UI for bandwidth
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    public static synchronized GoogleAvatarImporter getInstance(Context context) {
+        if (instance == null) {
+            instance = new GoogleAvatarImporter(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private GoogleAvatarImporter(Context context) {
+        this.context = context;
+        this.firestore = FirebaseFirestore.getInstance();
+    }
+
+    /** Queues the import of {@code photoUrl} into the photo of the user document {@code email}. */
+    public void importPhoto(String email, String photoUrl) {
+        if (email == null || email.isEmpty() || photoUrl == null || photoUrl.isEmpty()) return;
+
+        executor.execute(() -> {
+            String base64Photo = downloadAndEncode(photoUrl);
+            if (base64Photo != null) {
+                savePhotoIfUnset(email, base64Photo);
+            }
+        });
+    }
+
+    private String downloadAndEncode(String photoUrl) {
+        File download = null;
+        try {
+            download = File.createTempFile("google_avatar", null, context.getCacheDir());
+            if (!downloadTo(photoUrl, download)) return null;
+
+            Bitmap bitmap = ImageEncoder.decodeUpright(context.getContentResolver(), Uri.fromFile(download),
+                    ImageRole.AVATAR.maxDimension);
+            try {
+                return Base64.encodeToString(ImageEncoder.encode(bitmap, ImageRole.AVATAR), Base64.DEFAULT);
+            } finally {
+                bitmap.recycle();
+            }
+        } catch (IOException | OutOfMemoryError e) {
+            Log.w(TAG, "Failed to import Google profile photo", e);
+            return null;
+        } finally {
+            // Android processes are killed rather than exited, so deleteOnExit would never run
+            if (download != null && download.exists() && !download.delete()) {
+                Log.w(TAG, "Failed to delete " + download);
+            }
+        }
+    }
+
+    private boolean downloadTo(String photoUrl, File file) throws IOException {
+        Request request = new Request.Builder().url(photoUrl).build();
+        try (Response response = httpClient.newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                Log.w(TAG, "Google profile photo request failed: " + response.code());
+                return false;
+            }
+
+            try (InputStream input = body.byteStream(); OutputStream output = new FileOutputStream(file)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                }
+            }
+            return true;
+        }
+    }
+
+    private void savePhotoIfUnset(String email, String base64Photo) {
+        DocumentReference userRef = firestore.collection("User").document(email);
+        firestore.runTransaction(transaction -> {
+                    DocumentSnapshot snapshot = transaction.get(userRef);
+                    String currentPhoto = snapshot.getString("photo");
+                    if (snapshot.exists() && (currentPhoto == null || currentPhoto.isEmpty())) {
+                        transaction.update(userRef, "photo", base64Photo);
+                    }
+                    return null;
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Failed to save imported profile photo", e));
+    }
+}
@@ -1,10 +1,10 @@
 package com.sowp.user.services;
 
 import android.Manifest;
+import android.content.ClipData;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Build;
 import android.provider.MediaStore;
@@ -15,13 +15,21 @@ import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
 import androidx.core.content.FileProvider;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+
+import com.sowp.shared.images.Base64Images;
+import com.sowp.shared.images.ImageEncoder;
+import com.sowp.shared.images.ImagePreparer;
+import com.sowp.shared.images.ImageRole;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 
 public class ImageService {
@@ -35,16 +43,66 @@ public class ImageService {
     private ActivityResultLauncher<Uri> cameraLauncher;
     private ActivityResultLauncher<String[]> permissionLauncher;
 
+    private final boolean allowMultiple;
+    private final ImagePreparer preparer;
+
     public interface ImageCallback {
         void onImageSelected(String base64String);
         void onError(String error);
         void onPermissionDenied();
+
+        // Screens that let images be removed again override this to keep the content hash
+        default void onImagePrepared(ImagePreparer.PreparedImage image) {
+            onImageSelected(image.base64);
+        }
+
+        default void onImageProgress(int finished, int total) {
+        }
     }
 
+    // Profile photos: one image, encoded to the avatar budget
     public ImageService(AppCompatActivity activity, ImageCallback callback) {
+        this(activity, callback, ImageRole.AVATAR, false);
+    }
+
+    public ImageService(AppCompatActivity activity, ImageCallback callback, ImageRole role, boolean allowMultiple) {
         this.activity = activity;
         this.callback = callback;
+        this.allowMultiple = allowMultiple;
+        this.preparer = new ImagePreparer(activity.getContentResolver(), role, new ImagePreparer.Listener() {
+            @Override
+            public void onImagePrepared(ImagePreparer.PreparedImage image) {
+                callback.onImagePrepared(image);
+            }
+
+            @Override
+            public void onDuplicateImage(Uri uri) {
+                callback.onError("Image already selected");
+            }
+
+            @Override
+            public void onImageFailed(Uri uri, String message) {
+                callback.onError("Failed to process image");
+            }
+
+            @Override
+            public void onProgress(int finished, int total) {
+                callback.onImageProgress(finished, total);
+            }
+        });
         initializeLaunchers();
+
+        // Pending conversions are abandoned with the screen that asked for them
+        activity.getLifecycle().addObserver((LifecycleEventObserver) (source, event) -> {
+            if (event == Lifecycle.Event.ON_DESTROY) {
+                preparer.cancel();
+            }
+        });
+    }
+
+    /** Forgets a removed image, so picking the same image again adds it again. */
+    public void removePreparedImage(String contentHash) {
+        preparer.remove(contentHash);
     }
 
     private void initializeLaunchers() {
@@ -52,10 +110,8 @@ public class ImageService {
         galleryLauncher = activity.registerForActivityResult(
                 new ActivityResultContracts.StartActivityForResult(),
                 result -> {
-                    if (result.getResultCode() == activity.RESULT_OK
-                            && result.getData() != null
-                            && result.getData().getData() != null) {
-                        processImage(result.getData().getData());
+                    if (result.getResultCode() == activity.RESULT_OK && result.getData() != null) {
+                        processImages(selectedUris(result.getData()));
                     }
                 }
         );
@@ -65,7 +121,7 @@ public class ImageService {
                 new ActivityResultContracts.TakePicture(),
                 success -> {
                     if (success && photoUri != null) {
-                        processImage(photoUri);
+                        processImages(Collections.singletonList(photoUri));
                     } else {
                         cleanupTempFile();
                         callback.onError("Failed to capture photo");
@@ -155,11 +211,14 @@ public class ImageService {
                 intent.addCategory(Intent.CATEGORY_OPENABLE);
             }
 
+            intent.putExtra(Intent.EXTRA_ALLOW_MULTIPLE, allowMultiple);
+
             // Fallback if first intent doesn't work
             if (intent.resolveActivity(activity.getPackageManager()) == null) {
                 intent = new Intent(Intent.ACTION_GET_CONTENT);
                 intent.setType("image/*");
                 intent.addCategory(Intent.CATEGORY_OPENABLE);
+                intent.putExtra(Intent.EXTRA_ALLOW_MULTIPLE, allowMultiple);
             }
 
             if (intent.resolveActivity(activity.getPackageManager()) != null) {
@@ -172,67 +231,44 @@ public class ImageService {
         }
     }
 
-    // Convert image to Base64
-    private void processImage(Uri imageUri) {
-        new Thread(() -> {
-            try {
-                InputStream inputStream = activity.getContentResolver().openInputStream(imageUri);
-                if (inputStream == null) {
-                    activity.runOnUiThread(() -> callback.onError("Failed to read image"));
-                    return;
-                }
-
-                Bitmap bitmap = BitmapFactory.decodeStream(inputStream);
-                inputStream.close();
-
-                if (bitmap != null) {
-                    // Resize bitmap if too large
-                    bitmap = resizeBitmap(bitmap, 1024);
-                    String base64 = bitmapToBase64(bitmap);
-
-                    activity.runOnUiThread(() -> {
-                        if (!base64.isEmpty()) {
-                            callback.onImageSelected(base64);
-                        } else {
-                            callback.onError("Failed to convert image");
-                        }
-                    });
-                } else {
-                    activity.runOnUiThread(() -> callback.onError("Failed to load image"));
-                }
-            } catch (Exception e) {
-                activity.runOnUiThread(() -> callback.onError("Error processing image"));
+    private List<Uri> selectedUris(Intent data) {
+        List<Uri> uris = new ArrayList<>();
+        ClipData clipData = data.getClipData();
+        if (clipData != null) {
+            for (int i = 0; i < clipData.getItemCount(); i++) {
+                uris.add(clipData.getItemAt(i).getUri());
             }
-        }).start();
+        } else if (data.getData() != null) {
+            uris.add(data.getData());
+        }
+        return uris;
+    }
+
+    // Convert images to Base64 on the shared worker pool
+    private void processImages(List<Uri> imageUris) {
+        preparer.prepare(imageUris);
     }
 
-    // Convert Bitmap to Base64 string
-    public static String bitmapToBase64(Bitmap bitmap) {
+    // Convert Bitmap to Base64 string, sized and compressed to the role's byte budget
+    public static String bitmapToBase64(Bitmap bitmap, ImageRole role) {
         if (bitmap == null) return "";
 
         try {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            bitmap.compress(Bitmap.CompressFormat.JPEG, 80, outputStream);
-            byte[] byteArray = outputStream.toByteArray();
-            outputStream.close();
-            return Base64.encodeToString(byteArray, Base64.DEFAULT);
+            return Base64.encodeToString(ImageEncoder.encode(bitmap, role), Base64.DEFAULT);
         } catch (Exception e) {
             return "";
         }
     }
 
-    // Convert Base64 string to Bitmap
+    // Convert Base64 string to Bitmap, streaming the decode so the image bytes are never held in full
     public static Bitmap base64ToBitmap(String base64String) {
-        if (base64String == null || base64String.isEmpty()) {
-            return null;
-        }
+        return Base64Images.decode(base64String, 0, 0);
+    }
 
-        try {
-            byte[] decodedBytes = Base64.decode(base64String, Base64.DEFAULT);
-            return BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-        } catch (Exception e) {
-            return null;
-        }
+    // Decode a Base64 image straight to roughly the requested size: bounds are read first and
+    // inSampleSize skips pixels during decoding, so the full-size bitmap is never allocated
+    public static Bitmap base64ToBitmap(String base64String, int reqWidth, int reqHeight) {
+        return Base64Images.decode(base64String, reqWidth, reqHeight);
     }
 
     // Helper methods
@@ -294,21 +330,6 @@ public class ImageService {
         return FileProvider.getUriForFile(activity, authority, currentPhotoFile);
     }
 
-    private Bitmap resizeBitmap(Bitmap bitmap, int maxSize) {
-        int width = bitmap.getWidth();
-        int height = bitmap.getHeight();
-
-        if (width <= maxSize && height <= maxSize) {
-            return bitmap;
-        }
-
-        float ratio = Math.min((float) maxSize / width, (float) maxSize / height);
-        int newWidth = Math.round(width * ratio);
-        int newHeight = Math.round(height * ratio);
-
-        return Bitmap.createScaledBitmap(bitmap, newWidth, newHeight, true);
-    }
-
     private void cleanupTempFile() {
         if (currentPhotoFile != null && currentPhotoFile.exists()) {
             try {
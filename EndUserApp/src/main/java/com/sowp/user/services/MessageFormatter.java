@@ -5,7 +5,6 @@ import android.content.Intent;
 import android.graphics.Color;
 import android.graphics.Typeface;
 import android.text.SpannableString;
-import android.text.SpannableStringBuilder;
 import android.text.Spanned;
 import android.text.TextPaint;
 import android.text.style.ClickableSpan;
@@ -26,9 +25,11 @@ import com.sowp.user.presenters.activities.SubmitAssignmentActivity;
 import com.sowp.user.repositories.TopicRepository;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class MessageFormatter {
@@ -38,9 +39,10 @@ public class MessageFormatter {
     private static final Pattern STRIKETHROUGH_PATTERN = Pattern.compile("~~(.*?)~~");
     private static final Pattern CODE_PATTERN = Pattern.compile("`(.*?)`");
 
-    private static final Pattern TOPIC_PATTERN = Pattern.compile("Course/(\\d+)/Topics/(\\d+)");
-    private static final Pattern QUIZ_PATTERN = Pattern.compile("Course/(\\d+)/Quizzes/(\\d+)");
-    private static final Pattern ASSIGNMENT_PATTERN = Pattern.compile("Course/(\\d+)/Assignments/(\\d+)");
+    private static final String LINK_PREFIX = "Course/";
+    private static final String[] LINK_SECTIONS = {"Topics", "Quizzes", "Assignments"};
+    private static final int LINK_TOPIC = 0;
+    private static final int LINK_QUIZ = 1;
 
     private static final int TOPIC_COLOR = Color.BLACK;
     private static final int QUIZ_COLOR = Color.BLACK;
@@ -54,24 +56,73 @@ public class MessageFormatter {
         put("lol", "😂"); put("LOL", "😂"); put("omg", "😱"); put("OMG", "😱");
     }};
 
-    private static final class FormatConfig {
-        final Pattern pattern;
+    private static final String[] EMOJI_KEYS = EMOJI_MAP.keySet().toArray(new String[0]);
+    // Emoji shortcuts grouped by their first (ASCII) character, longest first, so ":'(" wins over ":("
+    private static final int[][] EMOJI_CANDIDATES = buildEmojiCandidates();
+
+    // Markdown-lite markers, in the order their spans are nested when they share a range
+    private static final int MARKER_BOLD = 0;
+    private static final int MARKER_UNDERLINE = 1;
+    private static final int MARKER_STRIKETHROUGH = 2;
+    private static final int MARKER_CODE = 3;
+    private static final int MARKER_ITALIC = 4;
+    private static final int MARKER_COUNT = 5;
+
+    private static final int TOKEN_TEXT = 0;
+    private static final int TOKEN_EMOJI = 1;
+    private static final int TOKEN_MARKER = 2;
+    private static final int TOKEN_LINK = 3;
+
+    /**
+     * Result of the single scan over a message: text runs, emoji shortcuts, formatting markers and
+     * item links, stored as parallel arrays. Markers are paired while scanning, like the old
+     * non-greedy {@code **(.*?)**} patterns: the next marker of the same kind on the same line
+     * closes the open one.
+     */
+    private static final class Tokens {
+        final int[] kind;
+        final int[] start;
+        final int[] end;
+        // Emoji key index, marker kind or link section, depending on the token kind
+        final int[] value;
+        // Index of the matching marker token, or -1 when a marker is left unpaired
+        final int[] partner;
+        int size;
+
+        Tokens(int capacity) {
+            kind = new int[capacity];
+            start = new int[capacity];
+            end = new int[capacity];
+            value = new int[capacity];
+            partner = new int[capacity];
+        }
+
+        int add(int tokenKind, int tokenStart, int tokenEnd, int tokenValue) {
+            kind[size] = tokenKind;
+            start[size] = tokenStart;
+            end[size] = tokenEnd;
+            value[size] = tokenValue;
+            partner[size] = -1;
+            return size++;
+        }
+    }
+
+    private static final class PendingSpan {
         final Object span;
-        final int markerLength;
+        final int start;
+        final int end;
 
-        FormatConfig(Pattern pattern, Object span, int markerLength) {
-            this.pattern = pattern;
+        PendingSpan(Object span, int start, int end) {
             this.span = span;
-            this.markerLength = markerLength;
+            this.start = start;
+            this.end = end;
         }
     }
 
-    private static final FormatConfig[] FORMAT_CONFIGS = {
-            new FormatConfig(BOLD_PATTERN, new StyleSpan(Typeface.BOLD), 4),
-            new FormatConfig(UNDERLINE_PATTERN, new UnderlineSpan(), 4),
-            new FormatConfig(STRIKETHROUGH_PATTERN, new StrikethroughSpan(), 4),
-            new FormatConfig(CODE_PATTERN, new TypefaceSpan("monospace"), 2)
-    };
+    @FunctionalInterface
+    private interface LinkSpanFactory {
+        Object createSpan(int section, String courseId, String itemId);
+    }
 
     private final TopicRepository repository;
 
@@ -89,13 +140,9 @@ public class MessageFormatter {
         }
 
         try {
-            SpannableString formatted = applyTextFormatting(message);
+            LinkSpanFactory linkFactory = context != null ? createLinkSpanFactory(context) : null;
+            SpannableString formatted = applyTextFormatting(message, linkFactory);
             Linkify.addLinks(formatted, Linkify.WEB_URLS | Linkify.EMAIL_ADDRESSES | Linkify.PHONE_NUMBERS);
-
-            if (context != null) {
-                formatted = addCustomLinks(formatted, context);
-            }
-
             return formatted;
 
         } catch (Exception e) {
@@ -109,7 +156,7 @@ public class MessageFormatter {
         }
 
         try {
-            SpannableString formatted = applyTextFormatting(message);
+            SpannableString formatted = applyTextFormatting(message, null);
             Linkify.addLinks(formatted, Linkify.WEB_URLS | Linkify.EMAIL_ADDRESSES | Linkify.PHONE_NUMBERS);
             return formatted;
         } catch (Exception e) {
@@ -123,121 +170,282 @@ public class MessageFormatter {
         }
 
         try {
-            return applyTextFormatting(message);
+            return applyTextFormatting(message, null);
         } catch (Exception e) {
             return new SpannableString(message);
         }
     }
 
-    private static SpannableString applyTextFormatting(String message) {
-        String processedText = replaceEmojis(message);
-        SpannableStringBuilder builder = new SpannableStringBuilder(processedText);
+    private static SpannableString applyTextFormatting(String message, @Nullable LinkSpanFactory linkFactory) {
+        Tokens tokens = tokenize(message, linkFactory != null);
+        StringBuilder text = new StringBuilder(message.length());
+        List<PendingSpan> spans = new ArrayList<>();
+        int[] outputStart = new int[tokens.size];
+
+        for (int t = 0; t < tokens.size; t++) {
+            int start = tokens.start[t];
+            int end = tokens.end[t];
+
+            switch (tokens.kind[t]) {
+                case TOKEN_EMOJI:
+                    text.append(EMOJI_MAP.get(EMOJI_KEYS[tokens.value[t]]));
+                    break;
+                case TOKEN_MARKER:
+                    int partner = tokens.partner[t];
+                    if (partner < 0) {
+                        text.append(message, start, end);
+                    } else if (partner > t) {
+                        outputStart[t] = text.length();
+                    } else if (outputStart[partner] < text.length()) {
+                        spans.add(new PendingSpan(createMarkerSpan(tokens.value[t]), outputStart[partner], text.length()));
+                    }
+                    break;
+                case TOKEN_LINK:
+                    int linkStart = text.length();
+                    text.append(message, start, end);
+                    String link = message.substring(start, end);
+                    String courseId = link.substring(LINK_PREFIX.length(), link.indexOf('/', LINK_PREFIX.length()));
+                    String itemId = link.substring(link.lastIndexOf('/') + 1);
+                    spans.add(new PendingSpan(linkFactory.createSpan(tokens.value[t], courseId, itemId), linkStart, text.length()));
+                    break;
+                default:
+                    text.append(message, start, end);
+                    break;
+            }
+        }
 
-        for (FormatConfig config : FORMAT_CONFIGS) {
-            applyPatternFormatting(builder, config);
+        SpannableString formatted = new SpannableString(text);
+        for (PendingSpan pending : spans) {
+            formatted.setSpan(pending.span, pending.start, pending.end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
         }
+        return formatted;
+    }
 
-        applyItalicFormatting(builder);
+    // One left-to-right scan. At each position an emoji shortcut wins over a formatting marker,
+    // matching the old order where emojis were replaced before any formatting pass ran.
+    private static Tokens tokenize(String message, boolean withLinks) {
+        int length = message.length();
+        Tokens tokens = new Tokens(length + 1);
+        int[] openMarkers = new int[MARKER_COUNT];
+        Arrays.fill(openMarkers, -1);
+
+        int textStart = 0;
+        int i = 0;
+        while (i < length) {
+            char c = message.charAt(i);
+
+            if (c == '\n' || c == '\r') {
+                // Formatting never spans lines, as "." in the old patterns did not match newlines
+                Arrays.fill(openMarkers, -1);
+                i++;
+                continue;
+            }
 
-        return new SpannableString(builder);
-    }
+            int tokenKind;
+            int tokenValue;
+            int tokenLength;
+
+            int emoji = matchEmoji(message, i);
+            int marker = emoji < 0 ? matchMarker(message, i) : -1;
+            int linkLength = emoji < 0 && marker < 0 && withLinks ? matchLink(message, i) : 0;
+
+            if (emoji >= 0) {
+                tokenKind = TOKEN_EMOJI;
+                tokenValue = emoji;
+                tokenLength = EMOJI_KEYS[emoji].length();
+            } else if (marker >= 0) {
+                tokenKind = TOKEN_MARKER;
+                tokenValue = marker;
+                tokenLength = marker == MARKER_CODE || marker == MARKER_ITALIC ? 1 : 2;
+            } else if (linkLength > 0) {
+                tokenKind = TOKEN_LINK;
+                tokenValue = linkSection(message, i);
+                tokenLength = linkLength;
+            } else {
+                i++;
+                continue;
+            }
 
-    private static String replaceEmojis(String text) {
-        String result = text;
-        for (Map.Entry<String, String> entry : EMOJI_MAP.entrySet()) {
-            result = result.replace(entry.getKey(), entry.getValue());
+            if (textStart < i) {
+                tokens.add(TOKEN_TEXT, textStart, i, 0);
+            }
+            int token = tokens.add(tokenKind, i, i + tokenLength, tokenValue);
+
+            if (tokenKind == TOKEN_MARKER) {
+                int open = openMarkers[tokenValue];
+                if (open >= 0) {
+                    tokens.partner[open] = token;
+                    tokens.partner[token] = open;
+                    openMarkers[tokenValue] = -1;
+                } else {
+                    openMarkers[tokenValue] = token;
+                }
+            }
+
+            i += tokenLength;
+            textStart = i;
         }
-        return result;
+
+        if (textStart < length) {
+            tokens.add(TOKEN_TEXT, textStart, length, 0);
+        }
+        return tokens;
     }
 
-    private static void applyPatternFormatting(SpannableStringBuilder builder, FormatConfig config) {
-        Matcher matcher = config.pattern.matcher(builder.toString());
-        int adjustment = 0;
+    private static int matchEmoji(String text, int index) {
+        char c = text.charAt(index);
+        if (c >= EMOJI_CANDIDATES.length || EMOJI_CANDIDATES[c] == null) {
+            return -1;
+        }
 
-        while (matcher.find()) {
-            int start = matcher.start() - adjustment;
-            int end = matcher.end() - adjustment;
-            String content = matcher.group(1);
+        for (int candidate : EMOJI_CANDIDATES[c]) {
+            String key = EMOJI_KEYS[candidate];
+            if (!text.startsWith(key, index)) continue;
 
-            builder.replace(start, end, content);
-            builder.setSpan(createSpanInstance(config.span), start, start + content.length(),
-                    Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
-            adjustment += config.markerLength;
+            // Word shortcuts such as "lol" only count as whole words, not inside "lollipop"
+            if (Character.isLetter(c)) {
+                int end = index + key.length();
+                boolean letterBefore = index > 0 && Character.isLetterOrDigit(text.charAt(index - 1));
+                boolean letterAfter = end < text.length() && Character.isLetterOrDigit(text.charAt(end));
+                if (letterBefore || letterAfter) continue;
+            }
+            return candidate;
         }
+        return -1;
     }
 
-    private static void applyItalicFormatting(SpannableStringBuilder builder) {
-        Matcher matcher = ITALIC_PATTERN.matcher(builder.toString());
-        int adjustment = 0;
+    private static int matchMarker(String text, int index) {
+        char c = text.charAt(index);
+        boolean doubled = index + 1 < text.length() && text.charAt(index + 1) == c;
+
+        switch (c) {
+            case '*':
+                return doubled ? MARKER_BOLD : MARKER_ITALIC;
+            case '_':
+                return doubled ? MARKER_UNDERLINE : -1;
+            case '~':
+                return doubled ? MARKER_STRIKETHROUGH : -1;
+            case '`':
+                return MARKER_CODE;
+            default:
+                return -1;
+        }
+    }
 
-        while (matcher.find()) {
-            int start = matcher.start() - adjustment;
-            int end = matcher.end() - adjustment;
-            String content = matcher.group(1);
+    // Matches Course/<digits>/(Topics|Quizzes|Assignments)/<digits> and returns its length, or 0
+    private static int matchLink(String text, int index) {
+        if (!text.startsWith(LINK_PREFIX, index)) {
+            return 0;
+        }
 
-            if (isPartOfBoldFormatting(builder, start, end)) {
-                continue;
-            }
+        int position = skipDigits(text, index + LINK_PREFIX.length());
+        if (position == index + LINK_PREFIX.length() || position >= text.length() || text.charAt(position) != '/') {
+            return 0;
+        }
+        position++;
 
-            builder.replace(start, end, content);
-            builder.setSpan(new StyleSpan(Typeface.ITALIC), start, start + content.length(),
-                    Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
-            adjustment += 2;
+        int section = linkSection(text, index);
+        if (section < 0) {
+            return 0;
         }
-    }
+        position += LINK_SECTIONS[section].length();
+        if (position >= text.length() || text.charAt(position) != '/') {
+            return 0;
+        }
+        position++;
 
-    private static boolean isPartOfBoldFormatting(SpannableStringBuilder builder, int start, int end) {
-        return (start > 0 && builder.charAt(start - 1) == '*') ||
-                (end < builder.length() && builder.charAt(end) == '*');
+        int end = skipDigits(text, position);
+        return end > position ? end - index : 0;
     }
 
-    private static Object createSpanInstance(Object template) {
-        if (template instanceof StyleSpan) {
-            return new StyleSpan(((StyleSpan) template).getStyle());
-        } else if (template instanceof UnderlineSpan) {
-            return new UnderlineSpan();
-        } else if (template instanceof StrikethroughSpan) {
-            return new StrikethroughSpan();
-        } else if (template instanceof TypefaceSpan) {
-            return new TypefaceSpan(((TypefaceSpan) template).getFamily());
-        }
-        return template;
+    private static int linkSection(String text, int index) {
+        int position = skipDigits(text, index + LINK_PREFIX.length()) + 1;
+        for (int section = 0; section < LINK_SECTIONS.length; section++) {
+            if (text.startsWith(LINK_SECTIONS[section], position)) {
+                return section;
+            }
+        }
+        return -1;
     }
 
-    private SpannableString addCustomLinks(SpannableString spannable, Context context) {
-        try {
-            WeakReference<Context> contextRef = new WeakReference<>(context);
+    private static int skipDigits(String text, int index) {
+        while (index < text.length() && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
 
-            spannable = addLinksByPattern(spannable, TOPIC_PATTERN, TOPIC_COLOR, contextRef, this::loadAndOpenTopic);
-            spannable = addLinksByPattern(spannable, QUIZ_PATTERN, QUIZ_COLOR, contextRef, this::openQuiz);
-            spannable = addLinksByPattern(spannable, ASSIGNMENT_PATTERN, ASSIGNMENT_COLOR, contextRef, this::openAssignment);
+    private static Object createMarkerSpan(int marker) {
+        switch (marker) {
+            case MARKER_BOLD:
+                return new StyleSpan(Typeface.BOLD);
+            case MARKER_UNDERLINE:
+                return new UnderlineSpan();
+            case MARKER_STRIKETHROUGH:
+                return new StrikethroughSpan();
+            case MARKER_CODE:
+                return new TypefaceSpan("monospace");
+            default:
+                return new StyleSpan(Typeface.ITALIC);
+        }
+    }
 
-            return spannable;
-        } catch (Exception e) {
-            return spannable;
+    private static int[][] buildEmojiCandidates() {
+        int[][] candidates = new int[128][];
+        Integer[] order = new Integer[EMOJI_KEYS.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> EMOJI_KEYS[b].length() - EMOJI_KEYS[a].length());
+
+        for (int index : order) {
+            char first = EMOJI_KEYS[index].charAt(0);
+            int[] current = candidates[first] != null ? candidates[first] : new int[0];
+            int[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = index;
+            candidates[first] = extended;
         }
+        return candidates;
     }
 
-    private SpannableString addLinksByPattern(SpannableString spannable, Pattern pattern, int color,
-                                              WeakReference<Context> contextRef, LinkClickHandler handler) {
-        String text = spannable.toString();
-        Matcher matcher = pattern.matcher(text);
-        SpannableStringBuilder builder = new SpannableStringBuilder(spannable);
+    private static String replaceEmojis(String text) {
+        StringBuilder result = null;
+        int copied = 0;
 
-        while (matcher.find()) {
-            final String courseId = matcher.group(1);
-            final String itemId = matcher.group(2);
-            final String linkText = matcher.group(0);
+        for (int i = 0; i < text.length(); ) {
+            int emoji = matchEmoji(text, i);
+            if (emoji < 0) {
+                i++;
+                continue;
+            }
 
-            ClickableSpan clickableSpan = createClickableSpan(contextRef, courseId, itemId, linkText, color, handler);
-            builder.setSpan(clickableSpan, matcher.start(), matcher.end(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            if (result == null) result = new StringBuilder(text.length());
+            result.append(text, copied, i).append(EMOJI_MAP.get(EMOJI_KEYS[emoji]));
+            i += EMOJI_KEYS[emoji].length();
+            copied = i;
         }
 
-        return new SpannableString(builder);
+        if (result == null) return text;
+        return result.append(text, copied, text.length()).toString();
+    }
+
+    private LinkSpanFactory createLinkSpanFactory(Context context) {
+        WeakReference<Context> contextRef = new WeakReference<>(context);
+
+        return (section, courseId, itemId) -> {
+            switch (section) {
+                case LINK_TOPIC:
+                    return createClickableSpan(contextRef, courseId, itemId, TOPIC_COLOR, this::loadAndOpenTopic);
+                case LINK_QUIZ:
+                    return createClickableSpan(contextRef, courseId, itemId, QUIZ_COLOR, this::openQuiz);
+                default: // Assignments
+                    return createClickableSpan(contextRef, courseId, itemId, ASSIGNMENT_COLOR, this::openAssignment);
+            }
+        };
     }
 
     private ClickableSpan createClickableSpan(WeakReference<Context> contextRef, String courseId,
-                                              String itemId, String linkText, int color, LinkClickHandler handler) {
+                                              String itemId, int color, LinkClickHandler handler) {
         return new ClickableSpan() {
             @Override
             public void onClick(@NonNull View widget) {
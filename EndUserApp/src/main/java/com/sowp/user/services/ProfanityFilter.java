@@ -1,55 +1,64 @@
 package com.sowp.user.services;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class ProfanityFilter {
 
-    private Set<String> profanityList;
+    private static final Set<String> PROFANITY_LIST = initializeProfanityList();
 
-    public ProfanityFilter() {
-        initializeProfanityList();
+    // Canonical form of each listed word, and how many times each of its canonical characters
+    // has to repeat in the message ("ass" is "as" with at least two s, so "as" stays clean)
+    private static final List<String> CANONICAL_TERMS = new ArrayList<>();
+    private static final List<int[]> MIN_RUN_LENGTHS = new ArrayList<>();
+
+    static {
+        for (String word : PROFANITY_LIST) {
+            ProfanityNormalizer.NormalizedText normalized = ProfanityNormalizer.normalize(word);
+            CANONICAL_TERMS.add(normalized.canonical);
+            MIN_RUN_LENGTHS.add(Arrays.copyOf(normalized.runLengths, normalized.canonical.length()));
+        }
     }
 
-    private void initializeProfanityList() {
-        // Add common profanity words (you can expand this list)
-        profanityList = new HashSet<>(Arrays.asList(
-                "damn", "hell", "shit", "fuck", "bitch", "ass", "bastard",
-                "crap", "piss", "dick", "cock", "pussy", "whore", "slut",
-                "dumbass", "jackass", "motherfucker", "asshole", "bullshit",
-                "stupid", "idiot", "moron", "retard", "gay", "fag", "wtf", "fck",
-                "bloody", "bugger", "sod", "prick", "twat", "cunt", "wanker",
-                "bollocks", "tits", "shag", "slag", "git", "tosser", "pillock",
-                "bsdk", "bhosdk", "bhosadi", "madarchod", "mc", "bc", "behenchod",
-                "sisterfucker", "chutiya", "chutiye", "chut", "lund", "lun", "lan",
-                "gaand", "gand", "gandu", "gaandu", "randi", "randwa", "raand",
-                "harami", "haramzada", "kamina", "kamine", "saala", "saali",
-                "kutiya", "kutta", "kutte", "gandoo", "hijra", "chakka",
-                "phuddi", "phudi", "kus", "kuss", "gashti", "gashtee", "pendu",
-                "jhatka", "bhenchod", "penchod", "mundya", "kanjri", "kanjr",
-                "lurha", "bakrichod", "jhant", "jhanta", "bund", "bhund",
-                "lundure", "randiya", "khota", "khotay", "kameena", "kameeni",
-                "bhenchod", "benchod", "maderjaat", "ullu", "gadha", "gadhe",
-                "kutia", "kaminey", "haramkhor", "najayaz", "badmaash",
-                "gobar", "tatti", "haggu", "mut", "mutth", "moot", "peshaab",
-                "sandas", "potty", "suwar", "suar", "kutta", "billa", "bandar",
-                "sex", "boob", "boobs", "breast", "nipple", "vagina", "penis",
-                "orgasm", "masturbate", "porn", "xxx", "nude", "naked",
-                "lingam", "yoni", "kamsutra", "jism", "virya", "dhaat",
-                "stupid", "dumb", "fool", "foolish", "pagal", "mental", "crack",
-                "nuts", "crazy", "bevakoof", "ullu", "buddhu", "nalayak",
-                "saala", "haramzada", "lanat", "kafir", "mlechha",
-                "f*ck", "f**k", "sh*t", "b*tch", "a**hole", "d*mn",
-                "fuk", "fuq", "shyt", "sht", "btch", "azz", "asz",
-                "phuck", "phuk", "shiit", "biatch", "beetch", "daam",
-                "f0ck", "sh1t", "b1tch", "a55", "a55hole", "d4mn",
-                "fvck", "shvt", "bvtch", "cvnt", "dvck", "pvss",
-                "bhosdike", "lavde", "lavda", "teri", "maa", "bahen",
-                "beti", "randi", "chinaal", "tawaif", "pataka", "item",
-                "magi", "maggi", "rand", "bhikhari", "hijde", "kinnar"
+    // Built once per process; every filter instance shares the same immutable automaton
+    private static final AhoCorasickMatcher MATCHER = new AhoCorasickMatcher(CANONICAL_TERMS);
+
+    private static Set<String> initializeProfanityList() {
+        // Add common profanity words (you can expand this list). Only spellings that character
+        // folding cannot reach belong here: ProfanityNormalizer already maps "sh1t", "$hit" and
+        // "shiiit" onto "shit".
+        return new HashSet<>(Arrays.asList(
+                "damn", "hell", "shit", "fuck", "bitch", "ass", "bastard", "crap",
+                "piss", "dick", "cock", "pussy", "whore", "slut", "dumbass",
+                "jackass", "motherfucker", "asshole", "bullshit", "stupid", "idiot",
+                "moron", "retard", "gay", "fag", "wtf", "fck", "bloody", "bugger",
+                "sod", "prick", "twat", "cunt", "wanker", "bollocks", "tits", "shag",
+                "slag", "git", "tosser", "pillock", "bsdk", "bhosdk", "bhosadi",
+                "madarchod", "mc", "bc", "behenchod", "sisterfucker", "chutiya",
+                "chutiye", "chut", "lund", "lun", "lan", "gand", "gandu", "randi",
+                "randwa", "harami", "haramzada", "kamina", "kamine", "saala",
+                "saali", "kutiya", "kutta", "kutte", "gandoo", "hijra", "chakka",
+                "phuddi", "phudi", "kus", "gashti", "gashtee", "pendu", "jhatka",
+                "bhenchod", "penchod", "mundya", "kanjri", "kanjr", "lurha",
+                "bakrichod", "jhant", "jhanta", "bund", "bhund", "lundure",
+                "randiya", "khota", "khotay", "kameena", "kameeni", "benchod",
+                "maderjaat", "ullu", "gadha", "gadhe", "kutia", "kaminey",
+                "haramkhor", "najayaz", "badmaash", "gobar", "tatti", "haggu", "mut",
+                "mutth", "moot", "peshaab", "sandas", "potty", "suwar", "suar",
+                "billa", "bandar", "sex", "boob", "boobs", "breast", "nipple",
+                "vagina", "penis", "orgasm", "masturbate", "porn", "xxx", "nude",
+                "naked", "lingam", "yoni", "kamsutra", "jism", "virya", "dhaat",
+                "dumb", "fool", "foolish", "pagal", "mental", "crack", "nuts",
+                "crazy", "bevakoof", "buddhu", "nalayak", "lanat", "kafir",
+                "mlechha", "f*ck", "f**k", "sh*t", "b*tch", "a**hole", "d*mn", "fuk",
+                "fuq", "shyt", "sht", "btch", "azz", "asz", "phuck", "phuk",
+                "biatch", "beetch", "daam", "f0ck", "fvck", "shvt", "bvtch", "cvnt",
+                "dvck", "pvss", "bhosdike", "lavde", "lavda", "teri", "maa", "bahen",
+                "beti", "chinaal", "tawaif", "pataka", "item", "magi", "maggi",
+                "rand", "bhikhari", "hijde", "kinnar"
         ));
     }
 
@@ -58,36 +67,30 @@ public class ProfanityFilter {
             return message;
         }
 
-        String filteredMessage = message;
+        ProfanityNormalizer.NormalizedText normalized = ProfanityNormalizer.normalize(message);
+        char[] filtered = message.toCharArray();
+        boolean[] changed = {false};
 
-        // Create a case-insensitive pattern for each profanity word
-        for (String profanity : profanityList) {
-            // Create pattern that matches the word with word boundaries
-            // This prevents partial matches (e.g., "ass" in "class")
-            Pattern pattern = Pattern.compile("\\b" + Pattern.quote(profanity) + "\\b",
-                    Pattern.CASE_INSENSITIVE);
-            Matcher matcher = pattern.matcher(filteredMessage);
-
-            // Replace with asterisks of the same length
-            while (matcher.find()) {
-                String replacement = generateAsterisks(matcher.group().length());
-                filteredMessage = filteredMessage.substring(0, matcher.start()) +
-                        replacement +
-                        filteredMessage.substring(matcher.end());
-                // Reset matcher with new string
-                matcher = pattern.matcher(filteredMessage);
+        // A single pass over the canonical text finds every listed word. Matches only count on
+        // word boundaries, which prevents partial matches (e.g., "ass" in "class"), and the
+        // original characters behind them are replaced with asterisks of the same length.
+        MATCHER.findAll(normalized.canonical, (termIndex, start, end) -> {
+            if (normalized.isWordBoundary(start) && normalized.isWordBoundary(end)
+                    && hasRequiredRuns(normalized, termIndex, start)) {
+                Arrays.fill(filtered, normalized.sourceStart[start], normalized.sourceEnd[end - 1], '*');
+                changed[0] = true;
             }
-        }
+        });
 
-        return filteredMessage;
+        return changed[0] ? new String(filtered) : message;
     }
 
-    private String generateAsterisks(int length) {
-        StringBuilder asterisks = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            asterisks.append("*");
+    private static boolean hasRequiredRuns(ProfanityNormalizer.NormalizedText normalized, int termIndex, int start) {
+        int[] minRunLengths = MIN_RUN_LENGTHS.get(termIndex);
+        for (int i = 0; i < minRunLengths.length; i++) {
+            if (normalized.runLengths[start + i] < minRunLengths[i]) return false;
         }
-        return asterisks.toString();
+        return true;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.sowp.user.services;
+
+import java.text.Normalizer;
+
+/**
+ * Folds obfuscated chat text into a canonical form before profanity matching: letters are
+ * lower-cased, look-alike digits, symbols and Unicode confusables become the letter they imitate,
+ * invisible characters are dropped and runs of the same canonical character collapse into one.
+ * Every canonical character remembers the span of original characters it came from, so matches
+ * can be masked in the original message.
+ */
+final class ProfanityNormalizer {
+
+    private static final int TABLE_SIZE = 0x0500;
+
+    // Digits are folded inside words that also have a letter, e.g. "sh1t", "a55hole", so numbers
+    // such as "455" or "8008" stay numbers; 2 and 6 are too ambiguous to fold
+    private static final String DIGIT_FOLDS = "oi2eas6tbg";
+
+    // Symbols that stand in for letters. They are only folded inside a word ("sh!t", "fu(k"), or
+    // at its start for the few that are rarely used as leading punctuation ("$hit", "@ss").
+    private static final String SYMBOLS = "@$!|+(";
+    private static final String SYMBOL_FOLDS = "asiitc";
+    private static final String LEADING_SYMBOLS = "@$";
+
+    // Latin, Greek and Cyrillic look-alikes below U+0500, indexed by code unit; 0 means unchanged
+    private static final char[] CONFUSABLES = buildConfusables();
+
+    private ProfanityNormalizer() {
+    }
+
+    static final class NormalizedText {
+        final String canonical;
+        // How many visible original characters each canonical character stands for
+        final int[] runLengths;
+        // Half-open span of original characters, invisible ones included, behind each character
+        final int[] sourceStart;
+        final int[] sourceEnd;
+
+        NormalizedText(String canonical, int[] runLengths, int[] sourceStart, int[] sourceEnd) {
+            this.canonical = canonical;
+            this.runLengths = runLengths;
+            this.sourceStart = sourceStart;
+            this.sourceEnd = sourceEnd;
+        }
+
+        boolean isWordBoundary(int index) {
+            boolean wordBefore = index > 0 && isWordChar(canonical.charAt(index - 1));
+            boolean wordAfter = index < canonical.length() && isWordChar(canonical.charAt(index));
+            return wordBefore != wordAfter;
+        }
+    }
+
+    static NormalizedText normalize(String text) {
+        int length = text.length();
+        char[] canonical = new char[length];
+        int[] runLengths = new int[length];
+        int[] sourceStart = new int[length];
+        int[] sourceEnd = new int[length];
+        int size = 0;
+
+        boolean[] followedByWord = findSymbolsFollowedByWord(text);
+        boolean[] inWordWithLetter = findWordsWithLetters(text);
+        boolean precededByWord = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (isInvisible(c)) {
+                if (size > 0) sourceEnd[size - 1] = i + 1;
+                continue;
+            }
+
+            char folded;
+            int symbolIndex = SYMBOLS.indexOf(c);
+            if (symbolIndex >= 0) {
+                boolean fold = followedByWord[i] && (precededByWord || LEADING_SYMBOLS.indexOf(c) >= 0);
+                folded = fold ? SYMBOL_FOLDS.charAt(symbolIndex) : c;
+            } else {
+                folded = Character.isDigit(c) && !inWordWithLetter[i] ? c : foldChar(c);
+                precededByWord = Character.isLetterOrDigit(c);
+            }
+
+            if (size > 0 && canonical[size - 1] == folded) {
+                runLengths[size - 1]++;
+                sourceEnd[size - 1] = i + 1;
+            } else {
+                canonical[size] = folded;
+                runLengths[size] = 1;
+                sourceStart[size] = i;
+                sourceEnd[size] = i + 1;
+                size++;
+            }
+        }
+
+        return new NormalizedText(new String(canonical, 0, size), runLengths, sourceStart, sourceEnd);
+    }
+
+    // Backward pass marking symbols whose run of look-alike symbols ends in a letter or digit,
+    // so "sh!!t" folds while the "!!" closing "hell!!" stays punctuation.
+    private static boolean[] findSymbolsFollowedByWord(String text) {
+        boolean[] followedByWord = new boolean[text.length()];
+        boolean nextIsWord = false;
+
+        for (int i = text.length() - 1; i >= 0; i--) {
+            char c = text.charAt(i);
+            if (isInvisible(c)) continue;
+
+            if (SYMBOLS.indexOf(c) >= 0) {
+                followedByWord[i] = nextIsWord;
+            } else {
+                nextIsWord = Character.isLetterOrDigit(c);
+            }
+        }
+        return followedByWord;
+    }
+
+    // Marks the characters of each run of letters and digits that contains at least one letter.
+    // Invisible characters do not end a run, as they are dropped from the canonical text.
+    private static boolean[] findWordsWithLetters(String text) {
+        boolean[] inWordWithLetter = new boolean[text.length()];
+        int runStart = 0;
+        boolean runHasLetter = false;
+
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (i < text.length() && isInvisible(c)) continue;
+
+            if (Character.isLetterOrDigit(c)) {
+                runHasLetter |= Character.isLetter(c);
+            } else {
+                if (runHasLetter) {
+                    for (int j = runStart; j < i; j++) inWordWithLetter[j] = true;
+                }
+                runStart = i + 1;
+                runHasLetter = false;
+            }
+        }
+        return inWordWithLetter;
+    }
+
+    private static char foldChar(char c) {
+        if (c >= 'A' && c <= 'Z') return (char) (c + ('a' - 'A'));
+        if (c >= '0' && c <= '9') return DIGIT_FOLDS.charAt(c - '0');
+        if (c < 0x80) return c;
+
+        // Fullwidth letters and digits
+        if (c >= '\uFF21' && c <= '\uFF3A') return (char) (c - '\uFF21' + 'a');
+        if (c >= '\uFF41' && c <= '\uFF5A') return (char) (c - '\uFF41' + 'a');
+        if (c >= '\uFF10' && c <= '\uFF19') return DIGIT_FOLDS.charAt(c - '\uFF10');
+
+        if (c < TABLE_SIZE && CONFUSABLES[c] != 0) return CONFUSABLES[c];
+        return c;
+    }
+
+    // Soft hyphen, zero-width spaces and joiners, directional marks, word joiner and BOM
+    private static boolean isInvisible(char c) {
+        return c == '\u00AD' || (c >= '\u200B' && c <= '\u200F') || c == '\u2060' || c == '\uFEFF';
+    }
+
+    private static boolean isWordChar(char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    private static char[] buildConfusables() {
+        char[] table = new char[TABLE_SIZE];
+
+        // Accented Latin letters fold to their base letter, e.g. "ü" -> "u"
+        for (char c = '\u00C0'; c < '\u0250'; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            char base = Character.toLowerCase(decomposed.charAt(0));
+            if (base >= 'a' && base <= 'z') table[c] = base;
+        }
+
+        String greek = "αaιiκkνvοoρpτtυu"
+                + "ΑaΒbΕeΖzΗhΙiΚkΜmΝnΟoΡpΤtΥyΧx";
+        String cyrillic = "аaеeкkоoрpсcуyхxѕsіiјj"
+                + "АaВbЕeКkМmНhОoРpСcТtХx";
+        String pairs = greek + cyrillic;
+        for (int i = 0; i < pairs.length(); i += 2) {
+            table[pairs.charAt(i)] = pairs.charAt(i + 1);
+        }
+        return table;
+    }
+}
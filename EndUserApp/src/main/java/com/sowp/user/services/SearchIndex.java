@@ -0,0 +1,196 @@
+package com.sowp.user.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index for search boxes. Text is split into lowercase letter-and-digit tokens,
+ * each mapped to the items containing it, so a query only touches the tokens it names instead of
+ * every field of every item. Every query word must match the start of some word of an item
+ * ("recur" finds "Recursion"); results are ranked by field weight, with whole-word matches counting
+ * double, and ties keep the order items were added in.
+ *
+ * <p>Items are stored under string keys. Keys sharing a prefix form a group that can be searched
+ * or dropped together, e.g. {@code "topic:12:"} for every topic of course 12.
+ */
+public class SearchIndex<T> {
+
+    // Sorted so that all tokens starting with a prefix form one contiguous range
+    private final TreeMap<String, Map<Entry<T>, Integer>> postings = new TreeMap<>();
+    private final TreeMap<String, Entry<T>> entries = new TreeMap<>();
+    private long nextSequence;
+
+    private static class Entry<T> {
+        final String key;
+        final T item;
+        final long sequence;
+        final Set<String> tokens = new HashSet<>();
+
+        Entry(String key, T item, long sequence) {
+            this.key = key;
+            this.item = item;
+            this.sequence = sequence;
+        }
+    }
+
+    /** The searchable text of one item, each piece with the weight of a match in it. */
+    public static class Fields {
+        private final Map<String, Integer> weights = new HashMap<>();
+
+        public Fields add(String text, int weight) {
+            if (text == null) return this;
+            for (String token : tokenize(text)) {
+                Integer current = weights.get(token);
+                if (current == null || current < weight) {
+                    weights.put(token, weight);
+                }
+            }
+            return this;
+        }
+
+        public Fields addAll(Collection<String> texts, int weight) {
+            if (texts == null) return this;
+            for (String text : texts) {
+                add(text, weight);
+            }
+            return this;
+        }
+    }
+
+    /** Adds {@code item} under {@code key}, replacing whatever was stored under it. */
+    public synchronized void put(String key, T item, Fields fields) {
+        remove(key);
+
+        Entry<T> entry = new Entry<>(key, item, nextSequence++);
+        for (Map.Entry<String, Integer> field : fields.weights.entrySet()) {
+            Map<Entry<T>, Integer> posting = postings.get(field.getKey());
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(field.getKey(), posting);
+            }
+            posting.put(entry, field.getValue());
+            entry.tokens.add(field.getKey());
+        }
+        entries.put(key, entry);
+    }
+
+    public synchronized void remove(String key) {
+        Entry<T> entry = entries.remove(key);
+        if (entry == null) return;
+
+        for (String token : entry.tokens) {
+            Map<Entry<T>, Integer> posting = postings.get(token);
+            if (posting == null) continue;
+            posting.remove(entry);
+            if (posting.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    /** Drops every item whose key starts with {@code keyPrefix}. */
+    public synchronized void removeAll(String keyPrefix) {
+        for (String key : new ArrayList<>(keysWithPrefix(keyPrefix))) {
+            remove(key);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Items under {@code keyPrefix} matching every word of {@code query}, best first; at most
+     * {@code limit} of them. A query without words matches nothing.
+     */
+    public synchronized List<T> search(String query, String keyPrefix, int limit) {
+        List<String> queryTokens = tokenize(query);
+        List<T> results = new ArrayList<>();
+        if (queryTokens.isEmpty() || limit <= 0) return results;
+
+        Map<Entry<T>, Integer> scores = null;
+        for (String queryToken : queryTokens) {
+            Map<Entry<T>, Integer> tokenScores = scoreToken(queryToken);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                // Every query word has to match, so keep only items matched by all so far
+                Map<Entry<T>, Integer> combined = new HashMap<>();
+                for (Map.Entry<Entry<T>, Integer> score : scores.entrySet()) {
+                    Integer tokenScore = tokenScores.get(score.getKey());
+                    if (tokenScore != null) {
+                        combined.put(score.getKey(), score.getValue() + tokenScore);
+                    }
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) return results;
+        }
+
+        List<Map.Entry<Entry<T>, Integer>> ranked = new ArrayList<>();
+        for (Map.Entry<Entry<T>, Integer> score : scores.entrySet()) {
+            if (score.getKey().key.startsWith(keyPrefix)) {
+                ranked.add(score);
+            }
+        }
+        ranked.sort((a, b) -> {
+            int byScore = Integer.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(a.getKey().sequence, b.getKey().sequence);
+        });
+
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            results.add(ranked.get(i).getKey().item);
+        }
+        return results;
+    }
+
+    public List<T> search(String query, String keyPrefix) {
+        return search(query, keyPrefix, Integer.MAX_VALUE);
+    }
+
+    // Best score of each item having a token that starts with queryToken
+    private Map<Entry<T>, Integer> scoreToken(String queryToken) {
+        Map<Entry<T>, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Entry<T>, Integer>> posting
+                : postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false).entrySet()) {
+            boolean wholeWord = posting.getKey().equals(queryToken);
+            for (Map.Entry<Entry<T>, Integer> match : posting.getValue().entrySet()) {
+                int score = wholeWord ? match.getValue() * 2 : match.getValue();
+                Integer best = scores.get(match.getKey());
+                if (best == null || best < score) {
+                    scores.put(match.getKey(), score);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private Collection<String> keysWithPrefix(String keyPrefix) {
+        return entries.subMap(keyPrefix, true, keyPrefix + Character.MAX_VALUE, false).keySet();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -2,7 +2,6 @@ package com.sowp.user.services;
 
 import android.app.Dialog;
 import android.content.Context;
-import android.graphics.Bitmap;
 import android.graphics.Color;
 import android.graphics.drawable.ColorDrawable;
 import android.view.LayoutInflater;
@@ -14,6 +13,7 @@ import android.widget.TextView;
 
 import androidx.core.content.ContextCompat;
 
+import com.sowp.shared.images.ImageLoader;
 import com.sowp.user.R;
 import com.sowp.user.models.User;
 
@@ -124,18 +124,7 @@ public class UserProfilePopup {
     }
 
     private void setProfileImage(User userData) {
-        if (userData.getPhoto() != null && !userData.getPhoto().isEmpty()) {
-            Bitmap bitmap = ImageService.base64ToBitmap(userData.getPhoto());
-            if (bitmap != null) {
-                profileImageView.setImageBitmap(bitmap);
-                return;
-            }
-        }
-
-        // Set default profile image
-        profileImageView.setImageDrawable(
-                ContextCompat.getDrawable(context, R.drawable.ic_profile)
-        );
+        ImageLoader.loadAvatar(profileImageView, userData.getPhoto(), R.drawable.ic_profile);
     }
 
     private void setSemesterInfo(User userData) {
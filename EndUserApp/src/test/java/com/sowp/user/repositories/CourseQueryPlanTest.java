@@ -0,0 +1,62 @@
+package com.sowp.user.repositories;
+
+import com.sowp.user.models.Course;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CourseQueryPlanTest {
+
+    @Test
+    public void forFilter_sendsEqualitiesAndOneArrayContainsToFirestore() {
+        CourseQueryPlan plan = CourseQueryPlan.forFilter(
+                new CourseCatalog.Filter("", "Web", "All", "Beginner", "Computing"));
+
+        List<CourseQueryPlan.Constraint> constraints = plan.getServerConstraints();
+        assertEquals(2, constraints.size());
+        assertEquals("categoryArray", constraints.get(0).field);
+        assertTrue(constraints.get(0).arrayContains);
+        assertEquals("level", constraints.get(1).field);
+        assertFalse(constraints.get(1).arrayContains);
+
+        // The department lost the array-contains slot to the category, so pages are checked for it
+        assertTrue(plan.filtersPages());
+        assertTrue(plan.matchesPage(course("HTML basics", "Computing")));
+        assertFalse(plan.matchesPage(course("HTML basics", "Design")));
+    }
+
+    @Test
+    public void forFilter_searchesFetchedPagesOnly() {
+        CourseQueryPlan plan = CourseQueryPlan.forFilter(
+                new CourseCatalog.Filter("  html ", "All", "All", "All", null));
+
+        assertTrue(plan.getServerConstraints().isEmpty());
+        assertTrue(plan.matchesPage(course("Intro to HTML", null)));
+        assertFalse(plan.matchesPage(course("Databases", null)));
+        assertFalse(CourseQueryPlan.forFilter(new CourseCatalog.Filter("", "All", "All", "All")).filtersPages());
+    }
+
+    @Test
+    public void indexFile_matchesGeneratedDefinitions() throws IOException {
+        // Regenerate firestore.indexes.json from FirestoreIndexDefinitions.json() when the plan changes
+        String onDisk = new String(Files.readAllBytes(Paths.get("../firestore.indexes.json")), StandardCharsets.UTF_8);
+        assertEquals(FirestoreIndexDefinitions.json(), onDisk);
+    }
+
+    private static Course course(String title, String department) {
+        Course course = new Course();
+        course.setTitle(title);
+        if (department != null) {
+            course.setDepartmentArray(Arrays.asList(department));
+        }
+        return course;
+    }
+}
@@ -0,0 +1,66 @@
+package com.sowp.user.repositories;
+
+import com.sowp.shared.courses.CourseSummaries;
+import com.sowp.shared.images.SubmissionFingerprints;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates {@code firestore.indexes.json}, read by {@code firebase deploy} and the emulator. It
+ * holds the composite indexes every {@link CourseQueryPlan} can need, on the course summaries and
+ * on the full courses that are paged instead while summaries are incomplete: the array-contains
+ * field, if any, first, then level and semester, then the id ordering. It also carries the other
+ * indexes the apps' queries need, such as the graders' {@link SubmissionFingerprints} search.
+ */
+final class FirestoreIndexDefinitions {
+
+    private FirestoreIndexDefinitions() {
+    }
+
+    static String json() {
+        List<String> indexes = new ArrayList<>();
+        String[] arrayFields = {null, CourseQueryPlan.CATEGORY_FIELD, CourseQueryPlan.DEPARTMENT_FIELD};
+        for (String collection : new String[]{CourseSummaries.COURSE_COLLECTION, CourseSummaries.COLLECTION}) {
+            for (String arrayField : arrayFields) {
+                for (int equalities = 0; equalities < 4; equalities++) {
+                    List<String> fields = new ArrayList<>();
+                    if (arrayField != null) fields.add("        { \"fieldPath\": \"" + arrayField + "\", \"arrayConfig\": \"CONTAINS\" }");
+                    if ((equalities & 1) != 0) fields.add(ascending(CourseQueryPlan.LEVEL_FIELD));
+                    if ((equalities & 2) != 0) fields.add(ascending(CourseQueryPlan.SEMESTER_FIELD));
+                    // Ordering by id alone is served by Firestore's automatic single-field index
+                    if (fields.isEmpty()) continue;
+                    fields.add(ascending(CourseQueryPlan.ORDER_FIELD));
+                    indexes.add(index(collection, fields));
+                }
+            }
+        }
+        return "{\n  \"indexes\": [\n" + String.join(",\n", indexes) + "\n  ],\n  \"fieldOverrides\": [\n"
+                + submissionFingerprintsOverride() + "\n  ]\n}\n";
+    }
+
+    // Lets graders search the bands of all students at once: array-contains at collection-group
+    // scope, next to the default collection scope that an override would otherwise replace
+    private static String submissionFingerprintsOverride() {
+        return "    {\n"
+                + "      \"collectionGroup\": \"" + SubmissionFingerprints.COLLECTION + "\",\n"
+                + "      \"fieldPath\": \"" + SubmissionFingerprints.FIELD_BANDS + "\",\n"
+                + "      \"indexes\": [\n"
+                + "        { \"arrayConfig\": \"CONTAINS\", \"queryScope\": \"COLLECTION\" },\n"
+                + "        { \"arrayConfig\": \"CONTAINS\", \"queryScope\": \"COLLECTION_GROUP\" }\n"
+                + "      ]\n"
+                + "    }";
+    }
+
+    private static String index(String collectionGroup, List<String> fields) {
+        return "    {\n      \"collectionGroup\": \"" + collectionGroup + "\",\n"
+                + "      \"queryScope\": \"COLLECTION\",\n"
+                + "      \"fields\": [\n"
+                + String.join(",\n", fields)
+                + "\n      ]\n    }";
+    }
+
+    private static String ascending(String field) {
+        return "        { \"fieldPath\": \"" + field + "\", \"order\": \"ASCENDING\" }";
+    }
+}
@@ -0,0 +1,65 @@
+package com.sowp.user.services;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares {@link ProfanityFilter} with the previous regex-per-word implementation on chat-sized
+ * messages. Slow and timing-based, so it is left out of the unit-test run; remove the
+ * {@code @Ignore} to run it on the development machine (host) after changing the filter. Timings
+ * are printed, not asserted.
+ */
+@Ignore("Benchmark; run manually")
+public class ProfanityFilterBenchmark {
+
+    private static final int[] MESSAGE_LENGTHS = {20, 80, 300, 1000};
+    private static final int MESSAGES_PER_LENGTH = 200;
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void benchmark_againstLegacyImplementation() {
+        ProfanityFilter filter = new ProfanityFilter();
+        LegacyProfanityFilter legacy = new LegacyProfanityFilter();
+        Random random = new Random(7);
+
+        for (int length : MESSAGE_LENGTHS) {
+            List<String> messages = ProfanityFilterTest.generateMessages(random, length, MESSAGES_PER_LENGTH);
+
+            // Warm up both implementations before timing
+            run(filter, messages);
+            run(legacy, messages);
+
+            long legacyNanos = Long.MAX_VALUE;
+            long filterNanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                legacyNanos = Math.min(legacyNanos, run(legacy, messages));
+                filterNanos = Math.min(filterNanos, run(filter, messages));
+            }
+
+            System.out.printf("length=%4d  legacy=%8.1f us/msg  automaton=%6.2f us/msg  speedup=%.0fx%n",
+                    length,
+                    legacyNanos / 1000.0 / messages.size(),
+                    filterNanos / 1000.0 / messages.size(),
+                    (double) legacyNanos / filterNanos);
+        }
+    }
+
+    private static long run(Object implementation, List<String> messages) {
+        long start = System.nanoTime();
+        int sink = 0;
+        for (String message : messages) {
+            String result = implementation instanceof ProfanityFilter
+                    ? ((ProfanityFilter) implementation).filter(message)
+                    : ((LegacyProfanityFilter) implementation).filter(message);
+            sink += result.length();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(sink > 0);
+        return elapsed;
+    }
+}
@@ -0,0 +1,87 @@
+package com.sowp.user.services;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ProfanityFilterTest {
+
+    // Generated chat messages mix everyday words, profanity and words that only contain it
+    private static final String[] WORDS = {
+            "hello", "everyone", "the", "assignment", "is", "due", "tomorrow", "class", "quiz",
+            "recursion", "pointer", "array", "loop", "compile", "error", "shit", "damn", "bro",
+            "assistant", "passage", "Hell", "FUCK", "kutta", "grassy", "yaar", "f*ck", "sh1t",
+            "idiot", "bhenchod", "mc", "teacher", "lecture", "notes", "please", "share", "thanks",
+            // Spellings the normalizer folds, and numbers it must leave alone
+            "a55hole", "d4mn", "f0ck", "b1tch", "fvck", "455", "8008", "2024"
+    };
+
+    @Test
+    public void filter_masksWholeWordsCaseInsensitively() {
+        ProfanityFilter filter = new ProfanityFilter();
+
+        assertEquals("**** this class", filter.filter("Damn this class"));
+        assertEquals("an assistant, not an ***!", filter.filter("an assistant, not an ass!"));
+        assertEquals("**** and ****", filter.filter("f*ck and FUCK"));
+        assertEquals("nothing to see", filter.filter("nothing to see"));
+        assertNull(filter.filter(null));
+    }
+
+    @Test
+    public void filter_foldsObfuscatedSpellings() {
+        ProfanityFilter filter = new ProfanityFilter();
+
+        assertEquals("****", filter.filter("sh1t"));
+        assertEquals("**** happens", filter.filter("$hit happens"));
+        assertEquals("*******!!", filter.filter("shiiiit!!"));
+        assertEquals("****!!", filter.filter("hell!!"));
+        assertEquals("*******", filter.filter("a55hole"));
+        assertEquals("*****", filter.filter("f\u200Buck"));
+        assertEquals("****", filter.filter("\u0455hit"));
+        assertEquals("****", filter.filter("\uFF46\uFF55\uFF43\uFF4B"));
+        assertEquals("so ****** it", filter.filter("so fuuuck it"));
+        assertEquals("as far as I know, Bob", filter.filter("as far as I know, Bob"));
+        assertEquals("first-class", filter.filter("first-class"));
+    }
+
+    @Test
+    public void filter_leavesNumbersAlone() {
+        ProfanityFilter filter = new ProfanityFilter();
+
+        assertEquals("I scored 455 points", filter.filter("I scored 455 points"));
+        assertEquals("room 8008", filter.filter("room 8008"));
+        assertEquals("call 0800 555 123", filter.filter("call 0800 555 123"));
+        assertEquals("\uFF14\uFF15\uFF15", filter.filter("\uFF14\uFF15\uFF15"));
+        // Digits next to letters still fold
+        assertEquals("room **** and *******", filter.filter("room b00b and a55hole"));
+    }
+
+    @Test
+    public void filter_matchesLegacyImplementation() {
+        ProfanityFilter filter = new ProfanityFilter();
+        LegacyProfanityFilter legacy = new LegacyProfanityFilter();
+
+        for (String message : generateMessages(new Random(42), 120, 500)) {
+            assertEquals(message, legacy.filter(message), filter.filter(message));
+        }
+    }
+
+    static List<String> generateMessages(Random random, int length, int count) {
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder builder = new StringBuilder();
+            while (builder.length() < length) {
+                if (builder.length() > 0) {
+                    builder.append(random.nextInt(8) == 0 ? ", " : " ");
+                }
+                builder.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            messages.add(builder.toString());
+        }
+        return messages;
+    }
+}
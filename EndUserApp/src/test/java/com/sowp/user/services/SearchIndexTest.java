@@ -0,0 +1,54 @@
+package com.sowp.user.services;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SearchIndexTest {
+
+    @Test
+    public void search_matchesWordPrefixesAndRanksTitlesFirst() {
+        SearchIndex<String> index = new SearchIndex<>();
+        index.put("topic:1:1", "Loops", new SearchIndex.Fields()
+                .add("Loops", 4)
+                .add("Iteration often replaces recursion", 1));
+        index.put("topic:1:2", "Recursion", new SearchIndex.Fields()
+                .add("Recursion", 4)
+                .add("Functions that call themselves", 1));
+        index.put("quiz:2:7", "Recursive thinking", new SearchIndex.Fields()
+                .add("Recursive thinking", 4));
+
+        assertEquals(Arrays.asList("Recursion", "Recursive thinking", "Loops"), index.search("RECUR", ""));
+        assertEquals(Arrays.asList("Recursion", "Loops"), index.search("recursion", "topic:1:"));
+        assertTrue(index.search("ursion", "").isEmpty());
+    }
+
+    @Test
+    public void search_requiresEveryQueryWord() {
+        SearchIndex<String> index = new SearchIndex<>();
+        index.put("a", "Binary trees", new SearchIndex.Fields().add("Binary trees", 1));
+        index.put("b", "Binary search", new SearchIndex.Fields().add("Binary search", 1));
+
+        assertEquals(Arrays.asList("Binary search"), index.search("bin sea", ""));
+        assertTrue(index.search("  ,, ", "").isEmpty());
+    }
+
+    @Test
+    public void putAndRemove_keepTheIndexCurrent() {
+        SearchIndex<String> index = new SearchIndex<>();
+        index.put("topic:1:1", "Old", new SearchIndex.Fields().add("Pointers", 1));
+        index.put("topic:1:1", "New", new SearchIndex.Fields().add("References", 1));
+        index.put("topic:12:1", "Other course", new SearchIndex.Fields().add("References", 1));
+
+        assertTrue(index.search("pointers", "").isEmpty());
+        assertEquals(Arrays.asList("New"), index.search("ref", "topic:1:"));
+
+        index.removeAll("topic:1:");
+        List<String> remaining = index.search("ref", "");
+        assertEquals(Arrays.asList("Other course"), remaining);
+        assertEquals(1, index.size());
+    }
+}
@@ -0,0 +1,245 @@
+package com.sowp.shared.courses;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@code Course_summary} collection: one small document per course, under the same id, holding
+ * only what course lists, cards and the catalog show. Outlines, prerequisites and the rest of a
+ * course stay in its {@code Course} document, which is read only when one course is opened; so does
+ * its inline illustration once it has been moved to the image store. The admin app writes a course's
+ * summary alongside every write to the course.
+ *
+ * <p>Summaries of courses created before they existed are written by {@link #rebuild}, which the
+ * admin app runs as soon as it finds one missing. Until every course has a summary, lists read the
+ * full documents instead; see {@link #listCollection}.
+ */
+public class CourseSummaries {
+    private static final String TAG = "CourseSummaries";
+    public static final String COLLECTION = "Course_summary";
+    public static final String COURSE_COLLECTION = "Course";
+    public static final int DESCRIPTION_EXCERPT_LENGTH = 300;
+    // Full documents are read to rebuild summaries, so pages are kept small
+    private static final int PAGE_SIZE = 10;
+
+    // Once every course was seen to have a summary, later admin writes keep it that way
+    private static volatile boolean complete;
+
+    /** The course fields copied into a summary; anything else is left out. */
+    public static final Set<String> FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "id", "title", "shortTitle", "courseCode", "instructor", "description", "duration",
+            "semester", "level", "lectures", "members", "averageRating", "ratingCount",
+            "createdAt", "updatedAt", "isPublic", "categoryArray", "departmentArray", "tags",
+            "illustrationRef")));
+
+    public interface CompletenessCallback {
+        void onResult(boolean complete);
+    }
+
+    public interface CollectionCallback {
+        void onCollection(String collection);
+    }
+
+    public interface RebuildCallback {
+        void onComplete(int writtenCount);
+        void onFailure(String message);
+    }
+
+    private CourseSummaries() {
+    }
+
+    public static DocumentReference document(FirebaseFirestore db, String courseId) {
+        return db.collection(COLLECTION).document(courseId);
+    }
+
+    /**
+     * The summary fields of a course document's data or of an update to it. The description is cut
+     * to {@link #DESCRIPTION_EXCERPT_LENGTH} characters; other values, including field sentinels
+     * such as increments, pass through unchanged. The inline illustration is copied only while the
+     * course has no {@code illustrationRef}, so lists still show images that are not migrated yet.
+     */
+    public static Map<String, Object> project(Map<String, Object> courseData) {
+        Map<String, Object> summary = new HashMap<>();
+        for (Map.Entry<String, Object> entry : courseData.entrySet()) {
+            if (FIELDS.contains(entry.getKey())) {
+                summary.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Object description = summary.get("description");
+        if (description instanceof String) {
+            summary.put("description", excerpt((String) description));
+        }
+        if (courseData.get("illustrationRef") == null && courseData.get("illustration") instanceof String) {
+            summary.put("illustration", courseData.get("illustration"));
+        }
+        return summary;
+    }
+
+    static String excerpt(String text) {
+        if (text.length() <= DESCRIPTION_EXCERPT_LENGTH) return text;
+        int end = DESCRIPTION_EXCERPT_LENGTH;
+        // Don't split a surrogate pair
+        if (Character.isHighSurrogate(text.charAt(end - 1))) end--;
+        return text.substring(0, end).trim() + "\u2026";
+    }
+
+    /**
+     * Checks whether every course has a summary and no summary is left over from a deleted course,
+     * by comparing the two collections' document counts. A failed check counts as incomplete.
+     */
+    public static void checkComplete(FirebaseFirestore db, CompletenessCallback callback) {
+        db.collection(COURSE_COLLECTION)
+                .count()
+                .get(AggregateSource.SERVER)
+                .addOnSuccessListener(courses -> db.collection(COLLECTION)
+                        .count()
+                        .get(AggregateSource.SERVER)
+                        .addOnSuccessListener(summaries -> {
+                            boolean result = courses.getCount() > 0 && summaries.getCount() == courses.getCount();
+                            if (result) complete = true;
+                            callback.onResult(result);
+                        })
+                        .addOnFailureListener(e -> {
+                            Log.w(TAG, "Failed to count course summaries", e);
+                            callback.onResult(false);
+                        }))
+                .addOnFailureListener(e -> {
+                    Log.w(TAG, "Failed to count courses", e);
+                    callback.onResult(false);
+                });
+    }
+
+    /**
+     * Passes the collection course lists should query: {@link #COLLECTION} once every course has a
+     * summary, otherwise {@link #COURSE_COLLECTION}, whose documents hold the same fields and more.
+     */
+    public static void listCollection(FirebaseFirestore db, CollectionCallback callback) {
+        if (complete) {
+            callback.onCollection(COLLECTION);
+            return;
+        }
+        checkComplete(db, result -> callback.onCollection(result ? COLLECTION : COURSE_COLLECTION));
+    }
+
+    /**
+     * Adds the summary side of an update to a course to {@code batch}, so the course and its summary
+     * are committed together. A batched update of a missing document fails the whole batch with
+     * {@code NOT_FOUND}; a course that has no summary yet is then updated alone and left to
+     * {@link #rebuild}.
+     */
+    public static void addUpdate(WriteBatch batch, FirebaseFirestore db, String courseId, Map<String, Object> updates) {
+        Map<String, Object> summaryUpdates = project(updates);
+        if (summaryUpdates.isEmpty()) return;
+        batch.update(document(db, courseId), summaryUpdates);
+    }
+
+    /**
+     * Applies an update already made to a course's counters or ratings to its summary too. Only an
+     * existing summary is updated, so a course without one is left to {@link #rebuild}; failures
+     * are logged, as the course document itself is already written.
+     */
+    public static void mirrorUpdate(FirebaseFirestore db, String courseId, Map<String, Object> updates) {
+        Map<String, Object> summaryUpdates = project(updates);
+        if (summaryUpdates.isEmpty()) return;
+
+        document(db, courseId)
+                .update(summaryUpdates)
+                .addOnFailureListener(e -> Log.w(TAG, "Failed to update summary of course " + courseId, e));
+    }
+
+    /**
+     * Writes the summary of every course from its current document and deletes summaries whose
+     * course no longer exists, for courses created before summaries existed or changed outside the
+     * admin app. Can be run again at any time.
+     */
+    public static void rebuild(FirebaseFirestore db, RebuildCallback callback) {
+        rebuildPage(db, new Rebuild(callback), null);
+    }
+
+    private static class Rebuild {
+        final RebuildCallback callback;
+        final Set<String> courseIds = new HashSet<>();
+        int writtenCount;
+
+        Rebuild(RebuildCallback callback) {
+            this.callback = callback;
+        }
+    }
+
+    private static Query page(FirebaseFirestore db, String collection, DocumentSnapshot lastDocument) {
+        Query query = db.collection(collection)
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+        return lastDocument != null ? query.startAfter(lastDocument) : query;
+    }
+
+    private static void rebuildPage(FirebaseFirestore db, Rebuild rebuild, DocumentSnapshot lastDocument) {
+        page(db, COURSE_COLLECTION, lastDocument).get()
+                .addOnSuccessListener(snapshot -> {
+                    List<DocumentSnapshot> documents = snapshot.getDocuments();
+                    if (documents.isEmpty()) {
+                        prunePage(db, rebuild, null);
+                        return;
+                    }
+
+                    WriteBatch batch = db.batch();
+                    for (DocumentSnapshot document : documents) {
+                        Map<String, Object> data = document.getData();
+                        if (data != null) {
+                            batch.set(document(db, document.getId()), project(data));
+                            rebuild.courseIds.add(document.getId());
+                        }
+                    }
+                    batch.commit()
+                            .addOnSuccessListener(aVoid -> {
+                                rebuild.writtenCount += documents.size();
+                                if (documents.size() < PAGE_SIZE) {
+                                    prunePage(db, rebuild, null);
+                                } else {
+                                    rebuildPage(db, rebuild, documents.get(documents.size() - 1));
+                                }
+                            })
+                            .addOnFailureListener(e -> rebuild.callback.onFailure("Failed to write course summaries: " + e.getMessage()));
+                })
+                .addOnFailureListener(e -> rebuild.callback.onFailure("Failed to read courses: " + e.getMessage()));
+    }
+
+    private static void prunePage(FirebaseFirestore db, Rebuild rebuild, DocumentSnapshot lastDocument) {
+        page(db, COLLECTION, lastDocument).get()
+                .addOnSuccessListener(snapshot -> {
+                    List<DocumentSnapshot> documents = snapshot.getDocuments();
+                    WriteBatch batch = db.batch();
+                    for (DocumentSnapshot document : documents) {
+                        if (!rebuild.courseIds.contains(document.getId())) {
+                            batch.delete(document.getReference());
+                        }
+                    }
+                    batch.commit()
+                            .addOnSuccessListener(aVoid -> {
+                                if (documents.size() < PAGE_SIZE) {
+                                    complete = rebuild.writtenCount > 0;
+                                    rebuild.callback.onComplete(rebuild.writtenCount);
+                                } else {
+                                    prunePage(db, rebuild, documents.get(documents.size() - 1));
+                                }
+                            })
+                            .addOnFailureListener(e -> rebuild.callback.onFailure("Failed to delete course summaries: " + e.getMessage()));
+                })
+                .addOnFailureListener(e -> rebuild.callback.onFailure("Failed to read course summaries: " + e.getMessage()));
+    }
+}
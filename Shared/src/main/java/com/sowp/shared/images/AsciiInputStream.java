@@ -0,0 +1,48 @@
+package com.sowp.shared.images;
+
+import java.io.InputStream;
+
+/**
+ * Reads an ASCII string (such as Base64 text) as bytes without first copying it into a byte
+ * array. Characters outside ASCII are truncated to their low byte.
+ */
+final class AsciiInputStream extends InputStream {
+    private final CharSequence text;
+    private final int end;
+    private int position;
+
+    AsciiInputStream(CharSequence text, int start) {
+        this.text = text;
+        this.end = text.length();
+        this.position = start;
+    }
+
+    @Override
+    public int read() {
+        return position < end ? text.charAt(position++) & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) return 0;
+        if (position >= end) return -1;
+
+        int count = Math.min(length, end - position);
+        for (int i = 0; i < count; i++) {
+            buffer[offset + i] = (byte) text.charAt(position++);
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.max(0, Math.min(n, end - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return end - position;
+    }
+}
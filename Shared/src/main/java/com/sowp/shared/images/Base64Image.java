@@ -0,0 +1,43 @@
+package com.sowp.shared.images;
+
+/**
+ * An inline Base64 image (optionally a data URI) as an {@link ImageLoader} source. Two instances
+ * with the same text are equal, so repeat binds hit the memory cache.
+ */
+public final class Base64Image {
+    private final String payload;
+    private String contentHash;
+
+    public Base64Image(String payload) {
+        this.payload = payload;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    /** Offset of the Base64 data, past any data URI prefix. */
+    int dataStart() {
+        return payload.startsWith("data:image") ? payload.indexOf(',') + 1 : 0;
+    }
+
+    // Hashed lazily on a loader thread, since payloads can be megabytes long
+    synchronized String contentHash() {
+        if (contentHash == null) {
+            contentHash = ContentHash.sha256Hex(payload.subSequence(dataStart(), payload.length()));
+        }
+        return contentHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Base64Image)) return false;
+        return payload.equals(((Base64Image) o).payload);
+    }
+
+    @Override
+    public int hashCode() {
+        return payload.hashCode();
+    }
+}
@@ -0,0 +1,64 @@
+package com.sowp.shared.images;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Base64;
+import android.util.Base64InputStream;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes the inline Base64 images that documents still carry. The Base64 text is streamed
+ * through the decoder, so the decoded bytes are never held as one array; the bounds are read
+ * first and the image is subsampled to the requested size. Views should go through
+ * {@link ImageLoader}, which pools and reuses bitmaps itself; this is for code that needs the
+ * bitmap itself.
+ */
+public final class Base64Images {
+    private static final String TAG = "Base64Images";
+
+    private Base64Images() {
+    }
+
+    /**
+     * Decodes {@code base64Image} (optionally a data URI) at the smallest power-of-two reduction
+     * that still covers {@code reqWidth} x {@code reqHeight}; 0 for either decodes at full size.
+     * Returns null when the text is not a decodable image.
+     */
+    public static Bitmap decode(String base64Image, int reqWidth, int reqHeight) {
+        if (base64Image == null || base64Image.isEmpty()) return null;
+
+        int start = base64Image.startsWith("data:image") ? base64Image.indexOf(',') + 1 : 0;
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        decodeStream(base64Image, start, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) return null;
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+        return decodeStream(base64Image, start, options);
+    }
+
+    private static Bitmap decodeStream(String base64Image, int start, BitmapFactory.Options options) {
+        try (InputStream input = new Base64InputStream(new AsciiInputStream(base64Image, start), Base64.DEFAULT)) {
+            return BitmapFactory.decodeStream(input, null, options);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to read Base64 image", e);
+            return null;
+        }
+    }
+
+    // Largest power of two that keeps both dimensions at or above the requested size
+    static int sampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        if (reqWidth <= 0 || reqHeight <= 0) return inSampleSize;
+
+        while (width / (inSampleSize * 2) >= reqWidth && height / (inSampleSize * 2) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+}
@@ -0,0 +1,90 @@
+package com.sowp.shared.images;
+
+import android.util.Base64;
+import android.util.Base64InputStream;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.signature.ObjectKey;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Lets Glide load {@link Base64Image}s. The Base64 text is streamed through the decoder, and the
+ * disk cache key is the hash of the payload, so the same image stored in several documents is
+ * decoded and cached once.
+ */
+final class Base64ModelLoader implements ModelLoader<Base64Image, InputStream> {
+
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull Base64Image model, int width, int height,
+                                               @NonNull Options options) {
+        return new LoadData<>(new ObjectKey(model.contentHash()), new Fetcher(model));
+    }
+
+    @Override
+    public boolean handles(@NonNull Base64Image model) {
+        return !model.getPayload().isEmpty();
+    }
+
+    private static final class Fetcher implements DataFetcher<InputStream> {
+        private final Base64Image model;
+        private InputStream stream;
+
+        Fetcher(Base64Image model) {
+            this.model = model;
+        }
+
+        @Override
+        public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super InputStream> callback) {
+            stream = new Base64InputStream(new AsciiInputStream(model.getPayload(), model.dataStart()), Base64.DEFAULT);
+            callback.onDataReady(stream);
+        }
+
+        @Override
+        public void cleanup() {
+            if (stream == null) return;
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // Nothing to release for an in-memory source
+            }
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @NonNull
+        @Override
+        public Class<InputStream> getDataClass() {
+            return InputStream.class;
+        }
+
+        @NonNull
+        @Override
+        public DataSource getDataSource() {
+            return DataSource.LOCAL;
+        }
+    }
+
+    static final class Factory implements ModelLoaderFactory<Base64Image, InputStream> {
+        @NonNull
+        @Override
+        public ModelLoader<Base64Image, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new Base64ModelLoader();
+        }
+
+        @Override
+        public void teardown() {
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.sowp.shared.images;
+
+/**
+ * Encoder and decoder for the BlurHash format (https://blurha.sh): a handful of DCT components of
+ * an image packed into a short base-83 string, small enough to store next to an {@link ImageRef}
+ * and decode into a placeholder before the image itself arrives.
+ */
+public final class BlurHash {
+
+    private static final String BASE83_DIGITS =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    private BlurHash() {
+    }
+
+    /**
+     * Encodes {@code width * height} ARGB pixels with {@code componentsX} by {@code componentsY}
+     * components, each between 1 and 9. Callers pass a small thumbnail; the cost is
+     * proportional to pixels times components.
+     */
+    public static String encode(int[] pixels, int width, int height, int componentsX, int componentsY) {
+        if (componentsX < 1 || componentsX > 9 || componentsY < 1 || componentsY > 9) {
+            throw new IllegalArgumentException("Components must be between 1 and 9");
+        }
+        if (width <= 0 || height <= 0 || pixels.length < width * height) {
+            throw new IllegalArgumentException("Pixel array does not match the given size");
+        }
+
+        double[][] factors = new double[componentsX * componentsY][];
+        for (int j = 0; j < componentsY; j++) {
+            for (int i = 0; i < componentsX; i++) {
+                double normalisation = (i == 0 && j == 0) ? 1 : 2;
+                factors[j * componentsX + i] = basisFactor(pixels, width, height, i, j, normalisation);
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+        encode83((componentsX - 1) + (componentsY - 1) * 9, 1, hash);
+
+        double maximumValue;
+        if (factors.length > 1) {
+            double actualMaximum = 0;
+            for (int i = 1; i < factors.length; i++) {
+                for (double component : factors[i]) {
+                    actualMaximum = Math.max(actualMaximum, Math.abs(component));
+                }
+            }
+            int quantisedMaximum = (int) Math.max(0, Math.min(82, Math.floor(actualMaximum * 166 - 0.5)));
+            maximumValue = (quantisedMaximum + 1) / 166.0;
+            encode83(quantisedMaximum, 1, hash);
+        } else {
+            maximumValue = 1;
+            encode83(0, 1, hash);
+        }
+
+        encode83(encodeDc(factors[0]), 4, hash);
+        for (int i = 1; i < factors.length; i++) {
+            encode83(encodeAc(factors[i], maximumValue), 2, hash);
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Decodes a hash into {@code width * height} opaque ARGB pixels, or returns null when the hash
+     * is malformed. A few dozen pixels per side is plenty; the result is meant to be scaled up.
+     */
+    public static int[] decode(String blurHash, int width, int height) {
+        if (blurHash == null || blurHash.length() < 6 || width <= 0 || height <= 0) return null;
+
+        int sizeFlag = decode83(blurHash, 0, 1);
+        int componentsX = sizeFlag % 9 + 1;
+        int componentsY = sizeFlag / 9 + 1;
+        if (sizeFlag < 0 || blurHash.length() != 4 + 2 * componentsX * componentsY) return null;
+
+        int quantisedMaximum = decode83(blurHash, 1, 2);
+        int dc = decode83(blurHash, 2, 6);
+        if (quantisedMaximum < 0 || dc < 0) return null;
+        double maximumValue = (quantisedMaximum + 1) / 166.0;
+
+        double[][] colors = new double[componentsX * componentsY][];
+        colors[0] = new double[]{srgbToLinear(dc >> 16), srgbToLinear((dc >> 8) & 0xFF), srgbToLinear(dc & 0xFF)};
+        for (int i = 1; i < colors.length; i++) {
+            int ac = decode83(blurHash, 4 + i * 2, 6 + i * 2);
+            if (ac < 0) return null;
+            colors[i] = new double[]{
+                    decodeAc(ac / (19 * 19), maximumValue),
+                    decodeAc((ac / 19) % 19, maximumValue),
+                    decodeAc(ac % 19, maximumValue)};
+        }
+
+        // The cosines only depend on one coordinate each, so they are computed once per row and column
+        double[][] cosX = new double[width][componentsX];
+        for (int x = 0; x < width; x++) {
+            for (int i = 0; i < componentsX; i++) {
+                cosX[x][i] = Math.cos(Math.PI * x * i / width);
+            }
+        }
+
+        int[] pixels = new int[width * height];
+        double[] cosY = new double[componentsY];
+        for (int y = 0; y < height; y++) {
+            for (int j = 0; j < componentsY; j++) {
+                cosY[j] = Math.cos(Math.PI * y * j / height);
+            }
+            for (int x = 0; x < width; x++) {
+                double r = 0;
+                double g = 0;
+                double b = 0;
+                for (int j = 0; j < componentsY; j++) {
+                    for (int i = 0; i < componentsX; i++) {
+                        double basis = cosX[x][i] * cosY[j];
+                        double[] color = colors[j * componentsX + i];
+                        r += color[0] * basis;
+                        g += color[1] * basis;
+                        b += color[2] * basis;
+                    }
+                }
+                pixels[y * width + x] = 0xFF000000 | (linearToSrgb(r) << 16) | (linearToSrgb(g) << 8) | linearToSrgb(b);
+            }
+        }
+        return pixels;
+    }
+
+    private static double decodeAc(int quantised, double maximumValue) {
+        double value = (quantised - 9) / 9.0;
+        return Math.copySign(value * value, value) * maximumValue;
+    }
+
+    // Value of the base-83 digits in [start, end), or -1 when one is not a base-83 digit
+    private static int decode83(String hash, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = BASE83_DIGITS.indexOf(hash.charAt(i));
+            if (digit < 0) return -1;
+            value = value * 83 + digit;
+        }
+        return value;
+    }
+
+    private static double[] basisFactor(int[] pixels, int width, int height, int i, int j,
+                                        double normalisation) {
+        double r = 0;
+        double g = 0;
+        double b = 0;
+
+        for (int y = 0; y < height; y++) {
+            double basisY = Math.cos(Math.PI * j * y / height);
+            for (int x = 0; x < width; x++) {
+                double basis = normalisation * Math.cos(Math.PI * i * x / width) * basisY;
+                int pixel = pixels[y * width + x];
+                r += basis * srgbToLinear((pixel >> 16) & 0xFF);
+                g += basis * srgbToLinear((pixel >> 8) & 0xFF);
+                b += basis * srgbToLinear(pixel & 0xFF);
+            }
+        }
+
+        double scale = 1.0 / (width * height);
+        return new double[]{r * scale, g * scale, b * scale};
+    }
+
+    private static int encodeDc(double[] color) {
+        return (linearToSrgb(color[0]) << 16) + (linearToSrgb(color[1]) << 8) + linearToSrgb(color[2]);
+    }
+
+    private static int encodeAc(double[] color, double maximumValue) {
+        int r = quantiseAc(color[0] / maximumValue);
+        int g = quantiseAc(color[1] / maximumValue);
+        int b = quantiseAc(color[2] / maximumValue);
+        return r * 19 * 19 + g * 19 + b;
+    }
+
+    private static int quantiseAc(double value) {
+        double signedRoot = Math.copySign(Math.sqrt(Math.abs(value)), value);
+        return (int) Math.max(0, Math.min(18, Math.floor(signedRoot * 9 + 9.5)));
+    }
+
+    static double srgbToLinear(int value) {
+        double v = value / 255.0;
+        return v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+
+    static int linearToSrgb(double value) {
+        double v = Math.max(0, Math.min(1, value));
+        return v <= 0.0031308
+                ? (int) (v * 12.92 * 255 + 0.5)
+                : (int) ((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255 + 0.5);
+    }
+
+    private static void encode83(int value, int length, StringBuilder out) {
+        for (int i = 1; i <= length; i++) {
+            int digit = (value / (int) Math.pow(83, length - i)) % 83;
+            out.append(BASE83_DIGITS.charAt(digit));
+        }
+    }
+}
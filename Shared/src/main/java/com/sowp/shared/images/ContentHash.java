@@ -0,0 +1,52 @@
+package com.sowp.shared.images;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/** SHA-256 content hashes, used as image keys. */
+public final class ContentHash {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private ContentHash() {
+    }
+
+    public static String sha256Hex(byte[] bytes) {
+        MessageDigest digest = sha256();
+        digest.update(bytes);
+        return toHex(digest.digest());
+    }
+
+    /** Hashes ASCII text such as a Base64 payload a chunk at a time, without copying it to bytes first. */
+    public static String sha256Hex(CharSequence ascii) {
+        MessageDigest digest = sha256();
+        byte[] chunk = new byte[8192];
+        int length = ascii.length();
+        for (int start = 0; start < length; start += chunk.length) {
+            int count = Math.min(chunk.length, length - start);
+            for (int i = 0; i < count; i++) {
+                chunk[i] = (byte) ascii.charAt(start + i);
+            }
+            digest.update(chunk, 0, count);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] digest) {
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0x0F];
+            hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0x0F];
+        }
+        return new String(hex);
+    }
+}
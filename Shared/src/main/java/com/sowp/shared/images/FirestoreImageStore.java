@@ -0,0 +1,201 @@
+package com.sowp.shared.images;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.google.firebase.firestore.Blob;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@link ImageStore} that keeps each image as a Firestore {@link Blob} in its own document of the
+ * {@code ImageBlob} collection, with the content hash as the document id. Documents that list
+ * images only carry the small {@link ImageRef}, so list queries no longer download pixels. A
+ * small {@code ImageIndex} document per hash records what is stored, so uploads of known content
+ * are answered without sending the bytes, and indexes perceptual hash bands for
+ * {@link #findSimilar}.
+ */
+public class FirestoreImageStore implements ImageStore {
+    private static final String TAG = "FirestoreImageStore";
+    private static final String COLLECTION = "ImageBlob";
+    private static final String INDEX_COLLECTION = "ImageIndex";
+    // Near-duplicate candidates read per lookup; each is cheap, holding no pixels
+    private static final int SIMILAR_CANDIDATE_LIMIT = 20;
+
+    // Stays under Firestore's 1 MiB document limit, leaving room for the other fields
+    public static final int MAX_IMAGE_BYTES = 1_000_000;
+    private static final int RECENT_BLOB_CACHE_BYTES = 4 * 1024 * 1024;
+
+    private final CollectionReference blobs;
+    private final CollectionReference index;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Hashes this process has written or read, which are known to exist already
+    private final Set<String> storedHashes = Collections.synchronizedSet(new HashSet<>());
+    private final LruCache<String, byte[]> recentBlobs = new LruCache<String, byte[]>(RECENT_BLOB_CACHE_BYTES) {
+        @Override
+        protected int sizeOf(String key, byte[] value) {
+            return value.length;
+        }
+    };
+
+    public FirestoreImageStore(FirebaseFirestore firestore) {
+        this.blobs = firestore.collection(COLLECTION);
+        this.index = firestore.collection(INDEX_COLLECTION);
+    }
+
+    @Override
+    public void put(byte[] imageBytes, PutCallback callback) {
+        if (imageBytes == null || imageBytes.length == 0) {
+            callback.onFailure("No image data");
+            return;
+        }
+        if (imageBytes.length > MAX_IMAGE_BYTES) {
+            callback.onFailure("Image is too large (" + imageBytes.length / 1024 + " KB)");
+            return;
+        }
+
+        // Hashing and the blurhash decode are too slow for the main thread on large photos
+        executor.execute(() -> {
+            ImageRef ref = ImageRefs.describe(imageBytes);
+            mainHandler.post(() -> {
+                if (ref == null) {
+                    callback.onFailure("The selected file is not a supported image");
+                } else {
+                    store(ref, imageBytes, callback);
+                }
+            });
+        });
+    }
+
+    private void store(ImageRef ref, byte[] imageBytes, PutCallback callback) {
+        if (storedHashes.contains(ref.getHash())) {
+            callback.onSuccess(ref);
+            return;
+        }
+
+        // The index entry is a few bytes, so checking it is far cheaper than re-sending the image
+        index.document(ref.getHash())
+                .get()
+                .addOnSuccessListener(entry -> {
+                    if (entry.exists()) {
+                        storedHashes.add(ref.getHash());
+                        callback.onSuccess(ref);
+                    } else {
+                        upload(ref, imageBytes, callback);
+                    }
+                })
+                .addOnFailureListener(e -> upload(ref, imageBytes, callback));
+    }
+
+    private void upload(ImageRef ref, byte[] imageBytes, PutCallback callback) {
+        Map<String, Object> blob = new HashMap<>();
+        blob.put("data", Blob.fromBytes(imageBytes));
+        blob.put("size", imageBytes.length);
+        blob.put("width", ref.getWidth());
+        blob.put("height", ref.getHeight());
+        blob.put("createdAt", System.currentTimeMillis());
+
+        // Writing an existing hash again rewrites identical content, so a lost race is harmless
+        blobs.document(ref.getHash())
+                .set(blob)
+                .addOnSuccessListener(aVoid -> {
+                    storedHashes.add(ref.getHash());
+                    recentBlobs.put(ref.getHash(), imageBytes);
+                    index.document(ref.getHash()).set(indexEntry(ref, imageBytes.length))
+                            .addOnFailureListener(e -> Log.w(TAG, "Failed to index image " + ref.getHash(), e));
+                    callback.onSuccess(ref);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to store image " + ref.getHash(), e);
+                    callback.onFailure("Failed to upload image: " + e.getMessage());
+                });
+    }
+
+    private static Map<String, Object> indexEntry(ImageRef ref, int size) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("size", size);
+        entry.put("width", ref.getWidth());
+        entry.put("height", ref.getHeight());
+        entry.put("perceptualHash", ref.getPerceptualHash());
+        entry.put("perceptualBands", PerceptualHash.bands(ref.getPerceptualHash()));
+        entry.put("createdAt", System.currentTimeMillis());
+        return entry;
+    }
+
+    @Override
+    public void get(String hash, GetCallback callback) {
+        if (hash == null || hash.isEmpty()) {
+            callback.onFailure("Invalid image reference");
+            return;
+        }
+
+        byte[] cached = recentBlobs.get(hash);
+        if (cached != null) {
+            callback.onSuccess(cached);
+            return;
+        }
+
+        blobs.document(hash)
+                .get()
+                .addOnSuccessListener(document -> {
+                    Blob data = document.exists() ? document.getBlob("data") : null;
+                    if (data == null) {
+                        callback.onFailure("Image not found");
+                        return;
+                    }
+
+                    byte[] imageBytes = data.toBytes();
+                    storedHashes.add(hash);
+                    recentBlobs.put(hash, imageBytes);
+                    callback.onSuccess(imageBytes);
+                })
+                .addOnFailureListener(e -> callback.onFailure("Failed to load image: " + e.getMessage()));
+    }
+
+    @Override
+    public void findSimilar(ImageRef ref, SimilarCallback callback) {
+        List<String> bands = PerceptualHash.bands(ref != null ? ref.getPerceptualHash() : null);
+        if (bands.isEmpty()) {
+            callback.onSuccess(new ArrayList<>());
+            return;
+        }
+
+        index.whereArrayContainsAny("perceptualBands", bands)
+                .limit(SIMILAR_CANDIDATE_LIMIT)
+                .get()
+                .addOnSuccessListener(snapshot -> {
+                    List<ImageRef> similar = new ArrayList<>();
+                    for (DocumentSnapshot entry : snapshot.getDocuments()) {
+                        String perceptualHash = entry.getString("perceptualHash");
+                        // Sharing a band only makes an entry a candidate
+                        if (entry.getId().equals(ref.getHash())
+                                || !PerceptualHash.isNearDuplicate(ref.getPerceptualHash(), perceptualHash)) {
+                            continue;
+                        }
+
+                        Long width = entry.getLong("width");
+                        Long height = entry.getLong("height");
+                        ImageRef match = new ImageRef(entry.getId(),
+                                width != null ? width.intValue() : 0, height != null ? height.intValue() : 0, null);
+                        match.setPerceptualHash(perceptualHash);
+                        similar.add(match);
+                    }
+                    callback.onSuccess(similar);
+                })
+                .addOnFailureListener(e -> callback.onFailure("Failed to look up similar images: " + e.getMessage()));
+    }
+}
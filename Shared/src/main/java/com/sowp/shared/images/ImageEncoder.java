@@ -0,0 +1,211 @@
+package com.sowp.shared.images;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Encodes images to fit a byte budget. For each format it binary-searches the highest quality
+ * whose output fits, keeps whichever format reached the higher quality, and only when neither
+ * fits at the lowest acceptable quality does it scale the image down and try again.
+ */
+public final class ImageEncoder {
+    private static final String TAG = "ImageEncoder";
+
+    private static final int MIN_QUALITY = 50;
+    private static final int MAX_QUALITY = 90;
+    // Below this the image is no longer useful, so the budget gives way instead
+    private static final int MIN_DIMENSION = 128;
+    private static final float DOWNSCALE_STEP = 0.75f;
+
+    private ImageEncoder() {
+    }
+
+    /** Encodes {@code source} for {@code role}: at most its size, in at most its byte budget. */
+    public static byte[] encode(Bitmap source, ImageRole role) {
+        return encode(source, role.maxDimension, role.byteBudget);
+    }
+
+    /** Slow on large images; call off the main thread. {@code source} is left untouched. */
+    public static byte[] encode(Bitmap source, int maxDimension, int byteBudget) {
+        Bitmap scaled = scale(source, maxDimension);
+        try {
+            while (true) {
+                Encoded best = null;
+                for (Bitmap.CompressFormat format : candidateFormats()) {
+                    Encoded encoded = highestQualityWithin(scaled, format, byteBudget);
+                    if (encoded != null && (best == null || encoded.isBetterThan(best))) {
+                        best = encoded;
+                    }
+                }
+                if (best != null) return best.bytes;
+
+                int longestSide = Math.max(scaled.getWidth(), scaled.getHeight());
+                if (longestSide * DOWNSCALE_STEP < MIN_DIMENSION) {
+                    Log.w(TAG, "Could not fit the image in " + byteBudget + " bytes");
+                    return compress(scaled, Bitmap.CompressFormat.JPEG, MIN_QUALITY);
+                }
+
+                Bitmap smaller = scale(scaled, Math.round(longestSide * DOWNSCALE_STEP));
+                if (scaled != source) scaled.recycle();
+                scaled = smaller;
+            }
+        } finally {
+            if (scaled != source) scaled.recycle();
+        }
+    }
+
+    /**
+     * Decodes a picked image upright (applying its EXIF orientation) and subsampled to no less
+     * than {@code maxDimension} on its longest side, so full camera resolution is never allocated.
+     */
+    public static Bitmap decodeUpright(ContentResolver contentResolver, Uri uri, int maxDimension) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        decode(contentResolver, uri, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IOException("Not a supported image");
+        }
+
+        options.inJustDecodeBounds = false;
+        int longestSide = Math.max(options.outWidth, options.outHeight);
+        options.inSampleSize = 1;
+        while (longestSide / (options.inSampleSize * 2) >= maxDimension) {
+            options.inSampleSize *= 2;
+        }
+        Bitmap bitmap = decode(contentResolver, uri, options);
+        if (bitmap == null) {
+            throw new IOException("Failed to decode image");
+        }
+
+        Matrix rotation = orientationMatrix(readOrientation(contentResolver, uri));
+        if (rotation == null) return bitmap;
+
+        Bitmap upright = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), rotation, true);
+        if (upright != bitmap) bitmap.recycle();
+        return upright;
+    }
+
+    private static Bitmap decode(ContentResolver contentResolver, Uri uri, BitmapFactory.Options options) throws IOException {
+        try (InputStream input = contentResolver.openInputStream(uri)) {
+            if (input == null) throw new IOException("Failed to open image");
+            return BitmapFactory.decodeStream(input, null, options);
+        }
+    }
+
+    private static int readOrientation(ContentResolver contentResolver, Uri uri) {
+        try (InputStream input = contentResolver.openInputStream(uri)) {
+            if (input == null) return ExifInterface.ORIENTATION_NORMAL;
+            return new ExifInterface(input).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        } catch (IOException e) {
+            // Formats without EXIF data are simply upright
+            return ExifInterface.ORIENTATION_NORMAL;
+        }
+    }
+
+    // Null when the image is already upright
+    static Matrix orientationMatrix(int orientation) {
+        Matrix matrix = new Matrix();
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.setScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.setRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.setScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.setRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.setRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.setRotate(-90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.setRotate(-90);
+                break;
+            default:
+                return null;
+        }
+        return matrix;
+    }
+
+    private static final class Encoded {
+        final byte[] bytes;
+        final int quality;
+
+        Encoded(byte[] bytes, int quality) {
+            this.bytes = bytes;
+            this.quality = quality;
+        }
+
+        boolean isBetterThan(Encoded other) {
+            if (quality != other.quality) return quality > other.quality;
+            return bytes.length < other.bytes.length;
+        }
+    }
+
+    // Binary search over quality; null when even the lowest quality is over budget
+    private static Encoded highestQualityWithin(Bitmap bitmap, Bitmap.CompressFormat format, int byteBudget) {
+        byte[] atMax = compress(bitmap, format, MAX_QUALITY);
+        if (atMax.length <= byteBudget) return new Encoded(atMax, MAX_QUALITY);
+
+        Encoded best = null;
+        int low = MIN_QUALITY;
+        int high = MAX_QUALITY - 1;
+        while (low <= high) {
+            // Steps of 5 are visually indistinguishable and save compress calls
+            int quality = ((low + high) / 2) / 5 * 5;
+            if (quality < low) quality = low;
+
+            byte[] bytes = compress(bitmap, format, quality);
+            if (bytes.length <= byteBudget) {
+                best = new Encoded(bytes, quality);
+                low = quality + 1;
+            } else {
+                high = quality - 1;
+            }
+        }
+        return best;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat[] candidateFormats() {
+        Bitmap.CompressFormat webp = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+        return new Bitmap.CompressFormat[]{webp, Bitmap.CompressFormat.JPEG};
+    }
+
+    private static byte[] compress(Bitmap bitmap, Bitmap.CompressFormat format, int quality) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(format, quality, out);
+        return out.toByteArray();
+    }
+
+    static Bitmap scale(Bitmap source, int maxDimension) {
+        int longestSide = Math.max(source.getWidth(), source.getHeight());
+        if (longestSide <= maxDimension) return source;
+
+        float scale = (float) maxDimension / longestSide;
+        int width = Math.max(1, Math.round(source.getWidth() * scale));
+        int height = Math.max(1, Math.round(source.getHeight() * scale));
+        return Bitmap.createScaledBitmap(source, width, height, true);
+    }
+}
@@ -0,0 +1,128 @@
+package com.sowp.shared.images;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
+
+import java.io.InputStream;
+
+/**
+ * The one way both apps put images into views. Requests go through Glide, which decodes off the
+ * main thread at the view's size, keeps recent images in a memory LRU and a disk cache keyed by
+ * content hash, and cancels a view's previous request when it is bound again (as recycled list
+ * items are). Sources are {@link ImageRef}s, inline Base64 images and URLs. References that carry
+ * a blurhash show it as their placeholder, so a card has its colours at once and crossfades to the
+ * image when it arrives.
+ */
+public final class ImageLoader {
+
+    // Longest side of a decoded blurhash preview; it is scaled up and blurry by design
+    private static final int PREVIEW_SIZE = 32;
+    private static final int PREVIEW_CACHE_ENTRIES = 100;
+
+    private static boolean registered;
+    // Main thread only; previews are ~4 KB each
+    private static final LruCache<String, Bitmap> previews = new LruCache<>(PREVIEW_CACHE_ENTRIES);
+
+    private ImageLoader() {
+    }
+
+    /** Shows an inline Base64 image (optionally a data URI), or the placeholder when there is none. */
+    public static void load(ImageView imageView, String base64Image, @DrawableRes int placeholderRes) {
+        load(imageView, null, base64Image, placeholderRes);
+    }
+
+    /** Shows the smallest stored variant of {@code ref} that covers the view. */
+    public static void load(ImageView imageView, ImageRef ref, @DrawableRes int placeholderRes) {
+        load(imageView, ref, null, placeholderRes);
+    }
+
+    /** Shows the referenced image, or the inline Base64 image of documents that were not migrated yet. */
+    public static void load(ImageView imageView, ImageRef ref, String base64Fallback, @DrawableRes int placeholderRes) {
+        RequestBuilder<Drawable> request = request(imageView, source(ref, base64Fallback), placeholderRes);
+        Drawable preview = blurHashPreview(imageView, ref);
+        if (preview != null) {
+            request = request.placeholder(preview);
+        }
+        request.transition(DrawableTransitionOptions.withCrossFade())
+                .into(imageView);
+    }
+
+    /** Like {@link #load(ImageView, String, int)} without the crossfade, which circular image views can't draw. */
+    public static void loadAvatar(ImageView imageView, String base64Photo, @DrawableRes int placeholderRes) {
+        request(imageView, source(null, base64Photo), placeholderRes)
+                .dontAnimate()
+                .into(imageView);
+    }
+
+    public static void loadUrl(ImageView imageView, String url, @DrawableRes int placeholderRes) {
+        request(imageView, url == null || url.isEmpty() ? null : url, placeholderRes)
+                .transition(DrawableTransitionOptions.withCrossFade())
+                .into(imageView);
+    }
+
+    /** Cancels the view's pending request, e.g. when a list item is recycled. */
+    public static void clear(ImageView imageView) {
+        Glide.with(imageView).clear(imageView);
+    }
+
+    private static Drawable blurHashPreview(ImageView imageView, ImageRef ref) {
+        if (!ImageRef.isValid(ref) || ref.getBlurHash() == null) return null;
+
+        Bitmap preview = previews.get(ref.getBlurHash());
+        if (preview == null) {
+            // Keep the image's aspect ratio so centerCrop frames the preview like the real image
+            int width = PREVIEW_SIZE;
+            int height = PREVIEW_SIZE;
+            if (ref.getWidth() > 0 && ref.getHeight() > 0) {
+                if (ref.getWidth() >= ref.getHeight()) {
+                    height = Math.max(1, PREVIEW_SIZE * ref.getHeight() / ref.getWidth());
+                } else {
+                    width = Math.max(1, PREVIEW_SIZE * ref.getWidth() / ref.getHeight());
+                }
+            }
+
+            int[] pixels = BlurHash.decode(ref.getBlurHash(), width, height);
+            if (pixels == null) return null;
+            preview = Bitmap.createBitmap(pixels, width, height, Bitmap.Config.ARGB_8888);
+            previews.put(ref.getBlurHash(), preview);
+        }
+        return new BitmapDrawable(imageView.getResources(), preview);
+    }
+
+    private static Object source(ImageRef ref, String base64Image) {
+        if (ImageRef.isValid(ref)) return ref;
+        if (base64Image != null && !base64Image.isEmpty()) return new Base64Image(base64Image);
+        return null;
+    }
+
+    private static RequestBuilder<Drawable> request(ImageView imageView, Object source, @DrawableRes int placeholderRes) {
+        register(imageView.getContext());
+        return Glide.with(imageView)
+                .load(source)
+                .placeholder(placeholderRes)
+                .error(placeholderRes)
+                .fallback(placeholderRes);
+    }
+
+    // Glide builds its registry lazily; our loaders are added to it the first time an image is requested
+    private static synchronized void register(Context context) {
+        if (registered) return;
+
+        Context appContext = context.getApplicationContext();
+        Registry registry = Glide.get(appContext).getRegistry();
+        registry.prepend(Base64Image.class, InputStream.class, new Base64ModelLoader.Factory());
+        registry.prepend(ImageRef.class, InputStream.class, new ImageRefModelLoader.Factory(ImageStores.get(appContext)));
+        registered = true;
+    }
+}
@@ -0,0 +1,147 @@
+package com.sowp.shared.images;
+
+import android.util.Base64;
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.List;
+
+/**
+ * One-off migration of an inline Base64 image field to an {@link ImageRef} field. Documents are
+ * read a page at a time in id order; each inline image is put in the {@link ImageStore}, then the
+ * reference is written next to it. The Base64 field is kept, because installed app versions that
+ * predate the image store read only that; deleting it is left to a later cleanup once those
+ * versions are gone. Documents that already have a reference are skipped, so an interrupted
+ * migration can simply be run again.
+ */
+public class ImageMigrator {
+    private static final String TAG = "ImageMigrator";
+    // Documents still hold their inline images, so pages are kept small
+    private static final int PAGE_SIZE = 10;
+
+    private final FirebaseFirestore firestore;
+    private final ImageStore imageStore;
+
+    public interface MigrationCallback {
+        void onComplete(int migratedCount, int failedCount);
+        void onFailure(String message);
+    }
+
+    public ImageMigrator(FirebaseFirestore firestore, ImageStore imageStore) {
+        this.firestore = firestore;
+        this.imageStore = imageStore;
+    }
+
+    public void migrateField(String collection, String base64Field, String refField, MigrationCallback callback) {
+        migratePage(new FieldMigration(collection, base64Field, refField, callback), null);
+    }
+
+    private static class FieldMigration {
+        final String collection;
+        final String base64Field;
+        final String refField;
+        final MigrationCallback callback;
+        int migratedCount;
+        int failedCount;
+
+        FieldMigration(String collection, String base64Field, String refField, MigrationCallback callback) {
+            this.collection = collection;
+            this.base64Field = base64Field;
+            this.refField = refField;
+            this.callback = callback;
+        }
+    }
+
+    private void migratePage(FieldMigration migration, DocumentSnapshot lastDocument) {
+        Query query = firestore.collection(migration.collection)
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+        if (lastDocument != null) {
+            query = query.startAfter(lastDocument);
+        }
+
+        query.get()
+                .addOnSuccessListener(snapshot -> {
+                    List<DocumentSnapshot> documents = snapshot.getDocuments();
+                    if (documents.isEmpty()) {
+                        finish(migration);
+                        return;
+                    }
+                    migrateDocuments(migration, documents, 0);
+                })
+                .addOnFailureListener(e -> migration.callback.onFailure(
+                        "Failed to read " + migration.collection + ": " + e.getMessage()));
+    }
+
+    // Documents are migrated one after another so only one decoded image is in memory at a time
+    private void migrateDocuments(FieldMigration migration, List<DocumentSnapshot> documents, int index) {
+        if (index == documents.size()) {
+            if (documents.size() < PAGE_SIZE) {
+                finish(migration);
+            } else {
+                migratePage(migration, documents.get(documents.size() - 1));
+            }
+            return;
+        }
+
+        DocumentSnapshot document = documents.get(index);
+        Runnable next = () -> migrateDocuments(migration, documents, index + 1);
+
+        String base64Image = document.getString(migration.base64Field);
+        if (base64Image == null || base64Image.isEmpty()
+                || ImageRef.fromMap(document.get(migration.refField)) != null) {
+            next.run();
+            return;
+        }
+
+        byte[] imageBytes;
+        try {
+            imageBytes = Base64.decode(stripDataUriPrefix(base64Image), Base64.DEFAULT);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Invalid Base64 image in " + document.getReference().getPath(), e);
+            migration.failedCount++;
+            next.run();
+            return;
+        }
+
+        imageStore.put(imageBytes, new ImageStore.PutCallback() {
+            @Override
+            public void onSuccess(ImageRef ref) {
+                document.getReference()
+                        .update(migration.refField, ref.toMap())
+                        .addOnSuccessListener(aVoid -> {
+                            migration.migratedCount++;
+                            next.run();
+                        })
+                        .addOnFailureListener(e -> {
+                            Log.e(TAG, "Failed to update " + document.getReference().getPath(), e);
+                            migration.failedCount++;
+                            next.run();
+                        });
+            }
+
+            @Override
+            public void onFailure(String message) {
+                Log.e(TAG, "Failed to store image of " + document.getReference().getPath() + ": " + message);
+                migration.failedCount++;
+                next.run();
+            }
+        });
+    }
+
+    private static void finish(FieldMigration migration) {
+        Log.d(TAG, "Migrated " + migration.migratedCount + " images in " + migration.collection
+                + ", " + migration.failedCount + " failed");
+        migration.callback.onComplete(migration.migratedCount, migration.failedCount);
+    }
+
+    static String stripDataUriPrefix(String base64Image) {
+        return base64Image.startsWith("data:image")
+                ? base64Image.substring(base64Image.indexOf(",") + 1)
+                : base64Image;
+    }
+}
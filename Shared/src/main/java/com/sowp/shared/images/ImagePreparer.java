@@ -0,0 +1,131 @@
+package com.sowp.shared.images;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Base64;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Turns picked images into Base64 payloads on a small worker pool, several at a time. Each image
+ * is decoded upright and no larger than its {@link ImageRole} needs, encoded within the role's
+ * byte budget and hashed, both exactly and perceptually; images whose content was already
+ * prepared are reported as duplicates. Results arrive on the main thread. Screens call
+ * {@link #cancel()} when they are destroyed, which stops work in progress and drops any result
+ * still on its way.
+ */
+public class ImagePreparer {
+    private static final String TAG = "ImagePreparer";
+    // Each worker holds a decoded photo, so parallelism is capped well below the core count
+    private static final int MAX_WORKERS = 3;
+
+    private final ContentResolver contentResolver;
+    private final ImageRole role;
+    private final Listener listener;
+    private final ExecutorService workers;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Main thread only
+    private final Set<String> preparedHashes = new HashSet<>();
+    private int batchTotal;
+    private int batchFinished;
+    private volatile boolean cancelled;
+
+    public interface Listener {
+        void onImagePrepared(PreparedImage image);
+        void onDuplicateImage(Uri uri);
+        void onImageFailed(Uri uri, String message);
+        /** Called after every image, with the counts of the images picked since the queue was last empty. */
+        void onProgress(int finished, int total);
+    }
+
+    public static class PreparedImage {
+        public final Uri uri;
+        public final String contentHash;
+        // See PerceptualHash; lets graders spot the same page submitted by someone else
+        public final String perceptualHash;
+        public final String base64;
+
+        PreparedImage(Uri uri, String contentHash, String perceptualHash, String base64) {
+            this.uri = uri;
+            this.contentHash = contentHash;
+            this.perceptualHash = perceptualHash;
+            this.base64 = base64;
+        }
+    }
+
+    public ImagePreparer(ContentResolver contentResolver, ImageRole role, Listener listener) {
+        this.contentResolver = contentResolver;
+        this.role = role;
+        this.listener = listener;
+        this.workers = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    /** Queues images for preparation. Call on the main thread. */
+    public void prepare(List<Uri> uris) {
+        if (cancelled || uris.isEmpty()) return;
+
+        batchTotal += uris.size();
+        for (Uri uri : uris) {
+            workers.execute(() -> {
+                if (cancelled) return;
+                try {
+                    Bitmap bitmap = ImageEncoder.decodeUpright(contentResolver, uri, role.maxDimension);
+                    byte[] encoded;
+                    String perceptualHash;
+                    try {
+                        perceptualHash = PerceptualHash.compute(bitmap);
+                        encoded = ImageEncoder.encode(bitmap, role);
+                    } finally {
+                        bitmap.recycle();
+                    }
+                    String hash = ContentHash.sha256Hex(encoded);
+                    String base64 = Base64.encodeToString(encoded, Base64.DEFAULT);
+                    deliver(() -> {
+                        if (preparedHashes.add(hash)) {
+                            listener.onImagePrepared(new PreparedImage(uri, hash, perceptualHash, base64));
+                        } else {
+                            listener.onDuplicateImage(uri);
+                        }
+                    });
+                } catch (IOException | OutOfMemoryError e) {
+                    Log.e(TAG, "Failed to prepare " + uri, e);
+                    deliver(() -> listener.onImageFailed(uri, e.getMessage()));
+                }
+            });
+        }
+    }
+
+    /** Forgets a removed image, so that picking it again adds it again. */
+    public void remove(String contentHash) {
+        preparedHashes.remove(contentHash);
+    }
+
+    public void cancel() {
+        cancelled = true;
+        workers.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    private void deliver(Runnable result) {
+        mainHandler.post(() -> {
+            if (cancelled) return;
+            result.run();
+            batchFinished++;
+            listener.onProgress(batchFinished, batchTotal);
+            if (batchFinished == batchTotal) {
+                batchFinished = 0;
+                batchTotal = 0;
+            }
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package com.sowp.shared.images;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * What a Firestore document stores in place of an inline Base64 image: the content hash under
+ * which the bytes live in an {@link ImageStore}, the pixel size, and a blurhash string that can be
+ * painted as a placeholder before the bytes arrive. A {@link PerceptualHash} lets near-duplicates be
+ * found across re-encodes. Images uploaded through {@link ImageVariants}
+ * also reference their smaller {@link ImageVariant}s; {@link #hash} is always the full image.
+ */
+public class ImageRef {
+    private String hash;
+    private int width;
+    private int height;
+    private String blurHash;
+    private String perceptualHash;
+    // Null when the image was too small to need that variant
+    private String thumbnailHash;
+    private String mediumHash;
+
+    // Default constructor required for Firestore
+    public ImageRef() {
+    }
+
+    public ImageRef(String hash, int width, int height, String blurHash) {
+        this.hash = hash;
+        this.width = width;
+        this.height = height;
+        this.blurHash = blurHash;
+    }
+
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+
+    public int getWidth() { return width; }
+    public void setWidth(int width) { this.width = width; }
+
+    public int getHeight() { return height; }
+    public void setHeight(int height) { this.height = height; }
+
+    public String getBlurHash() { return blurHash; }
+    public void setBlurHash(String blurHash) { this.blurHash = blurHash; }
+
+    public String getPerceptualHash() { return perceptualHash; }
+    public void setPerceptualHash(String perceptualHash) { this.perceptualHash = perceptualHash; }
+
+    public String getThumbnailHash() { return thumbnailHash; }
+    public void setThumbnailHash(String thumbnailHash) { this.thumbnailHash = thumbnailHash; }
+
+    public String getMediumHash() { return mediumHash; }
+    public void setMediumHash(String mediumHash) { this.mediumHash = mediumHash; }
+
+    /**
+     * Hash of the smallest stored variant that covers {@code reqWidth} x {@code reqHeight}
+     * pixels, falling back to the full image. A size of 0 means it is unknown.
+     */
+    public String hashForSize(int reqWidth, int reqHeight) {
+        if (reqWidth <= 0 || reqHeight <= 0 || width <= 0 || height <= 0) {
+            return mediumHash != null ? mediumHash : hash;
+        }
+        if (thumbnailHash != null && covers(ImageVariant.THUMBNAIL.maxDimension, reqWidth, reqHeight)) {
+            return thumbnailHash;
+        }
+        if (mediumHash != null && covers(ImageVariant.MEDIUM.maxDimension, reqWidth, reqHeight)) {
+            return mediumHash;
+        }
+        return hash;
+    }
+
+    // Whether a variant scaled to maxDimension on its longest side is at least the requested size
+    private boolean covers(int maxDimension, int reqWidth, int reqHeight) {
+        float scale = Math.min(1f, (float) maxDimension / Math.max(width, height));
+        return Math.round(width * scale) >= reqWidth && Math.round(height * scale) >= reqHeight;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("hash", hash);
+        map.put("width", width);
+        map.put("height", height);
+        map.put("blurHash", blurHash);
+        if (perceptualHash != null) map.put("perceptualHash", perceptualHash);
+        if (thumbnailHash != null) map.put("thumbnailHash", thumbnailHash);
+        if (mediumHash != null) map.put("mediumHash", mediumHash);
+        return map;
+    }
+
+    /** Reads a reference from a raw document field, or returns null when it is missing or malformed. */
+    public static ImageRef fromMap(Object value) {
+        if (!(value instanceof Map)) return null;
+
+        Map<?, ?> map = (Map<?, ?>) value;
+        Object hash = map.get("hash");
+        if (!(hash instanceof String) || ((String) hash).isEmpty()) return null;
+
+        ImageRef ref = new ImageRef((String) hash, toInt(map.get("width")), toInt(map.get("height")),
+                toString(map.get("blurHash")));
+        ref.setPerceptualHash(toString(map.get("perceptualHash")));
+        ref.setThumbnailHash(toString(map.get("thumbnailHash")));
+        ref.setMediumHash(toString(map.get("mediumHash")));
+        return ref;
+    }
+
+    // Two references to the same full image are the same image, which image caches rely on
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImageRef)) return false;
+        return Objects.equals(hash, ((ImageRef) o).hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(hash);
+    }
+
+    public static boolean isValid(ImageRef ref) {
+        return ref != null && ref.hash != null && !ref.hash.isEmpty();
+    }
+
+    private static String toString(Object value) {
+        return value instanceof String ? (String) value : null;
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+}
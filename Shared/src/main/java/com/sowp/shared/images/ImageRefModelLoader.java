@@ -0,0 +1,109 @@
+package com.sowp.shared.images;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.signature.ObjectKey;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Lets Glide load {@link ImageRef}s from the {@link ImageStore}, fetching the smallest variant
+ * that covers the target size. Variants are keyed by their content hash, so a cached image is
+ * never downloaded again.
+ */
+final class ImageRefModelLoader implements ModelLoader<ImageRef, InputStream> {
+    private final ImageStore imageStore;
+
+    ImageRefModelLoader(ImageStore imageStore) {
+        this.imageStore = imageStore;
+    }
+
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull ImageRef model, int width, int height,
+                                               @NonNull Options options) {
+        String hash = model.hashForSize(width, height);
+        return new LoadData<>(new ObjectKey(hash), new Fetcher(imageStore, hash));
+    }
+
+    @Override
+    public boolean handles(@NonNull ImageRef model) {
+        return ImageRef.isValid(model);
+    }
+
+    private static final class Fetcher implements DataFetcher<InputStream> {
+        private final ImageStore imageStore;
+        private final String hash;
+        private volatile boolean cancelled;
+
+        Fetcher(ImageStore imageStore, String hash) {
+            this.imageStore = imageStore;
+            this.hash = hash;
+        }
+
+        @Override
+        public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super InputStream> callback) {
+            imageStore.get(hash, new ImageStore.GetCallback() {
+                @Override
+                public void onSuccess(byte[] imageBytes) {
+                    if (cancelled) return;
+                    callback.onDataReady(new ByteArrayInputStream(imageBytes));
+                }
+
+                @Override
+                public void onFailure(String message) {
+                    if (cancelled) return;
+                    callback.onLoadFailed(new IOException(message));
+                }
+            });
+        }
+
+        @Override
+        public void cleanup() {
+        }
+
+        // The store request itself can't be aborted; its result is just dropped
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @NonNull
+        @Override
+        public Class<InputStream> getDataClass() {
+            return InputStream.class;
+        }
+
+        @NonNull
+        @Override
+        public DataSource getDataSource() {
+            return DataSource.REMOTE;
+        }
+    }
+
+    static final class Factory implements ModelLoaderFactory<ImageRef, InputStream> {
+        private final ImageStore imageStore;
+
+        Factory(ImageStore imageStore) {
+            this.imageStore = imageStore;
+        }
+
+        @NonNull
+        @Override
+        public ModelLoader<ImageRef, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new ImageRefModelLoader(imageStore);
+        }
+
+        @Override
+        public void teardown() {
+        }
+    }
+}
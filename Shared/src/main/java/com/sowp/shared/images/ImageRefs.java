@@ -0,0 +1,53 @@
+package com.sowp.shared.images;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+/** Builds the {@link ImageRef} that describes a set of encoded image bytes. */
+final class ImageRefs {
+
+    // Longest side of the thumbnail a blurhash is computed from
+    private static final int BLURHASH_SAMPLE_SIZE = 32;
+    private static final int BLURHASH_COMPONENTS_X = 4;
+    private static final int BLURHASH_COMPONENTS_Y = 3;
+
+    private ImageRefs() {
+    }
+
+    /** Returns null when the bytes are not an image Android can decode. */
+    static ImageRef describe(byte[] imageBytes) {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length, bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) return null;
+
+        ImageRef ref = new ImageRef(ContentHash.sha256Hex(imageBytes), bounds.outWidth, bounds.outHeight, null);
+
+        // Both the blurhash and the perceptual hash only need a tiny version of the image
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = 1;
+        while (Math.max(bounds.outWidth, bounds.outHeight) / (options.inSampleSize * 2) >= BLURHASH_SAMPLE_SIZE) {
+            options.inSampleSize *= 2;
+        }
+        Bitmap sampled = BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length, options);
+        if (sampled != null) {
+            ref.setBlurHash(computeBlurHash(sampled));
+            ref.setPerceptualHash(PerceptualHash.compute(sampled));
+            sampled.recycle();
+        }
+        return ref;
+    }
+
+    private static String computeBlurHash(Bitmap sampled) {
+        float scale = (float) BLURHASH_SAMPLE_SIZE / Math.max(sampled.getWidth(), sampled.getHeight());
+        int thumbWidth = Math.max(1, Math.round(sampled.getWidth() * scale));
+        int thumbHeight = Math.max(1, Math.round(sampled.getHeight() * scale));
+        Bitmap thumbnail = Bitmap.createScaledBitmap(sampled, thumbWidth, thumbHeight, true);
+
+        int[] pixels = new int[thumbWidth * thumbHeight];
+        thumbnail.getPixels(pixels, 0, thumbWidth, 0, 0, thumbWidth, thumbHeight);
+        if (thumbnail != sampled) thumbnail.recycle();
+
+        return BlurHash.encode(pixels, thumbWidth, thumbHeight, BLURHASH_COMPONENTS_X, BLURHASH_COMPONENTS_Y);
+    }
+}
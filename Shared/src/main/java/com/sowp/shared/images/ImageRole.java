@@ -0,0 +1,22 @@
+package com.sowp.shared.images;
+
+/**
+ * What an image is used for, which decides how large it may be. Images stored inline as Base64
+ * share their document's 1 MiB limit, so budgets leave room for the rest of the document and, for
+ * assignment pages, for several pages per submission. Course banners are uploaded through
+ * {@link ImageVariants}, whose variants carry their own budgets.
+ */
+public enum ImageRole {
+    // Shown at most ~120dp, as a circle
+    AVATAR(512, 60 * 1024),
+    // Photographed or scanned pages whose handwriting must stay legible when zoomed
+    ASSIGNMENT_PAGE(1600, 160 * 1024);
+
+    public final int maxDimension;
+    public final int byteBudget;
+
+    ImageRole(int maxDimension, int byteBudget) {
+        this.maxDimension = maxDimension;
+        this.byteBudget = byteBudget;
+    }
+}
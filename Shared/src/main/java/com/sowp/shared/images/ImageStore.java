@@ -0,0 +1,37 @@
+package com.sowp.shared.images;
+
+import java.util.List;
+
+/**
+ * Content-addressed storage for encoded images. Bytes are saved once under the SHA-256 of their
+ * content, so uploading the same picture twice, from either app, stores a single copy.
+ * Callbacks are delivered on the main thread.
+ */
+public interface ImageStore {
+
+    interface PutCallback {
+        void onSuccess(ImageRef ref);
+        void onFailure(String message);
+    }
+
+    interface GetCallback {
+        void onSuccess(byte[] imageBytes);
+        void onFailure(String message);
+    }
+
+    interface SimilarCallback {
+        void onSuccess(List<ImageRef> similar);
+        void onFailure(String message);
+    }
+
+    /**
+     * Stores encoded JPEG/PNG/WebP bytes and returns the reference a document should keep. Bytes
+     * that are already stored resolve to the existing copy without being uploaded again.
+     */
+    void put(byte[] imageBytes, PutCallback callback);
+
+    void get(String hash, GetCallback callback);
+
+    /** Finds stored images within {@link PerceptualHash#NEAR_DUPLICATE_DISTANCE} of {@code ref}, other than itself. */
+    void findSimilar(ImageRef ref, SimilarCallback callback);
+}
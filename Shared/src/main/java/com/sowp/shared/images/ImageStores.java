@@ -0,0 +1,57 @@
+package com.sowp.shared.images;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.sowp.shared.BuildConfig;
+
+/**
+ * Picks the {@link ImageStore} both apps share. Debug builds made with
+ * {@code -PimageStoreEmulatorHost=<host>} keep images in a local Firestore emulator, through a
+ * separate {@link FirebaseApp} so the rest of the app keeps talking to the real project.
+ */
+public final class ImageStores {
+    private static final String TAG = "ImageStores";
+    private static final String EMULATOR_APP_NAME = "image-store-emulator";
+
+    private static ImageStore instance;
+
+    private ImageStores() {
+    }
+
+    public static synchronized ImageStore get(Context context) {
+        if (instance == null) {
+            String emulatorHost = BuildConfig.IMAGE_STORE_EMULATOR_HOST;
+            if (emulatorHost.isEmpty()) {
+                instance = new FirestoreImageStore(FirebaseFirestore.getInstance());
+            } else {
+                instance = forEmulator(context, emulatorHost, BuildConfig.IMAGE_STORE_EMULATOR_PORT);
+            }
+        }
+        return instance;
+    }
+
+    /** An image store backed by a Firestore emulator, e.g. {@code 10.0.2.2:8080} from an Android emulator. */
+    public static ImageStore forEmulator(Context context, String host, int port) {
+        FirebaseApp emulatorApp;
+        try {
+            emulatorApp = FirebaseApp.getInstance(EMULATOR_APP_NAME);
+        } catch (IllegalStateException e) {
+            FirebaseApp defaultApp = FirebaseApp.getInstance();
+            emulatorApp = FirebaseApp.initializeApp(context.getApplicationContext(),
+                    defaultApp.getOptions(), EMULATOR_APP_NAME);
+        }
+
+        FirebaseFirestore firestore = FirebaseFirestore.getInstance(emulatorApp);
+        try {
+            firestore.useEmulator(host, port);
+        } catch (IllegalStateException e) {
+            // Already connected: the instance was used before, with the emulator it was given then
+            Log.w(TAG, "Image store emulator was already configured", e);
+        }
+        Log.d(TAG, "Using image store emulator at " + host + ":" + port);
+        return new FirestoreImageStore(firestore);
+    }
+}
@@ -0,0 +1,22 @@
+package com.sowp.shared.images;
+
+/**
+ * The resolutions an image is uploaded in. Each variant is scaled so its longest side is at most
+ * {@link #maxDimension}, then encoded by {@link ImageEncoder} to fit {@link #byteBudget}.
+ */
+public enum ImageVariant {
+    // List cards and avatars, which are at most ~70dp
+    THUMBNAIL(256, 24 * 1024),
+    // Detail headers and profile screens
+    MEDIUM(800, 120 * 1024),
+    // Full-screen viewing; well under what FirestoreImageStore accepts per image
+    FULL(1600, 600 * 1024);
+
+    public final int maxDimension;
+    public final int byteBudget;
+
+    ImageVariant(int maxDimension, int byteBudget) {
+        this.maxDimension = maxDimension;
+        this.byteBudget = byteBudget;
+    }
+}
@@ -0,0 +1,84 @@
+package com.sowp.shared.images;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The upload-time image pipeline: scales a picked image to each {@link ImageVariant}, encodes it
+ * within that variant's byte budget, and stores the results. Screens then bind the smallest
+ * variant that fits through {@link ImageRef#hashForSize}.
+ */
+public final class ImageVariants {
+
+    private static final ExecutorService encoder = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private ImageVariants() {
+    }
+
+    /** Encodes {@code source} as the given variant. Slow on large images; call off the main thread. */
+    public static byte[] encode(Bitmap source, ImageVariant variant) {
+        return ImageEncoder.encode(source, variant.maxDimension, variant.byteBudget);
+    }
+
+    /**
+     * Encodes and stores every variant of {@code source}, then reports the reference of the full
+     * image with the smaller variants' hashes filled in. Variants that would not be smaller than
+     * the next one up are skipped.
+     */
+    public static void upload(ImageStore imageStore, Bitmap source, ImageStore.PutCallback callback) {
+        encoder.execute(() -> {
+            int longestSide = Math.max(source.getWidth(), source.getHeight());
+            byte[] thumbnail = longestSide > ImageVariant.THUMBNAIL.maxDimension
+                    ? encode(source, ImageVariant.THUMBNAIL) : null;
+            byte[] medium = longestSide > ImageVariant.MEDIUM.maxDimension
+                    ? encode(source, ImageVariant.MEDIUM) : null;
+            byte[] full = encode(source, ImageVariant.FULL);
+
+            mainHandler.post(() -> putVariant(imageStore, thumbnail, thumbnailRef ->
+                    putVariant(imageStore, medium, mediumRef ->
+                            imageStore.put(full, new ImageStore.PutCallback() {
+                                @Override
+                                public void onSuccess(ImageRef ref) {
+                                    if (thumbnailRef != null) ref.setThumbnailHash(thumbnailRef.getHash());
+                                    if (mediumRef != null) ref.setMediumHash(mediumRef.getHash());
+                                    callback.onSuccess(ref);
+                                }
+
+                                @Override
+                                public void onFailure(String message) {
+                                    callback.onFailure(message);
+                                }
+                            }), callback), callback));
+        });
+    }
+
+    private interface VariantStored {
+        void onStored(ImageRef ref);
+    }
+
+    // Variants are put one after another; a skipped variant continues with a null reference
+    private static void putVariant(ImageStore imageStore, byte[] imageBytes, VariantStored next,
+                                   ImageStore.PutCallback callback) {
+        if (imageBytes == null) {
+            next.onStored(null);
+            return;
+        }
+
+        imageStore.put(imageBytes, new ImageStore.PutCallback() {
+            @Override
+            public void onSuccess(ImageRef ref) {
+                next.onStored(ref);
+            }
+
+            @Override
+            public void onFailure(String message) {
+                callback.onFailure(message);
+            }
+        });
+    }
+}
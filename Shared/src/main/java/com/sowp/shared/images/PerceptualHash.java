@@ -0,0 +1,94 @@
+package com.sowp.shared.images;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 64-bit difference hashes ("dHash") for spotting near-duplicate images. Unlike a
+ * {@link ContentHash}, the hash survives re-encoding, resizing and small edits: the image is
+ * reduced to 9x8 grey pixels and each bit records whether a pixel is brighter than its right
+ * neighbour. Hashes are 16 hex characters; similar images differ in few bits.
+ */
+public final class PerceptualHash {
+
+    private static final int WIDTH = 9;
+    private static final int HEIGHT = 8;
+    // Hashes at most this many bits apart are treated as the same picture
+    public static final int NEAR_DUPLICATE_DISTANCE = 6;
+    // 8 bands of 8 bits: two hashes within NEAR_DUPLICATE_DISTANCE bits share at least one band
+    private static final int BAND_COUNT = 8;
+
+    private PerceptualHash() {
+    }
+
+    /** Hashes a decoded image of any size. */
+    public static String compute(Bitmap bitmap) {
+        Bitmap reduced = Bitmap.createScaledBitmap(bitmap, WIDTH, HEIGHT, true);
+        int[] pixels = new int[WIDTH * HEIGHT];
+        reduced.getPixels(pixels, 0, WIDTH, 0, 0, WIDTH, HEIGHT);
+        if (reduced != bitmap) reduced.recycle();
+        return fromPixels(pixels);
+    }
+
+    /** Hashes 9x8 ARGB pixels, row by row. */
+    static String fromPixels(int[] pixels) {
+        if (pixels.length < WIDTH * HEIGHT) {
+            throw new IllegalArgumentException("Expected " + WIDTH + "x" + HEIGHT + " pixels");
+        }
+
+        long bits = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH - 1; x++) {
+                bits <<= 1;
+                if (luma(pixels[y * WIDTH + x]) > luma(pixels[y * WIDTH + x + 1])) {
+                    bits |= 1;
+                }
+            }
+        }
+        return String.format("%016x", bits);
+    }
+
+    /** Number of differing bits, or -1 when either hash is missing or malformed. */
+    public static int distance(String a, String b) {
+        if (!isValid(a) || !isValid(b)) return -1;
+        return Long.bitCount(Long.parseUnsignedLong(a, 16) ^ Long.parseUnsignedLong(b, 16));
+    }
+
+    public static boolean isNearDuplicate(String a, String b) {
+        int distance = distance(a, b);
+        return distance >= 0 && distance <= NEAR_DUPLICATE_DISTANCE;
+    }
+
+    /**
+     * Index keys for finding near-duplicates with an array-contains-any query: one key per band,
+     * tagged with its position. Candidates found this way still need a {@link #distance} check.
+     */
+    public static List<String> bands(String hash) {
+        List<String> bands = new ArrayList<>();
+        if (!isValid(hash)) return bands;
+
+        int bandLength = hash.length() / BAND_COUNT;
+        for (int i = 0; i < BAND_COUNT; i++) {
+            bands.add(i + ":" + hash.substring(i * bandLength, (i + 1) * bandLength));
+        }
+        return bands;
+    }
+
+    private static boolean isValid(String hash) {
+        if (hash == null || hash.length() != 16) return false;
+        for (int i = 0; i < hash.length(); i++) {
+            if (Character.digit(hash.charAt(i), 16) < 0) return false;
+        }
+        return true;
+    }
+
+    // Integer approximation of Rec. 601 luma
+    private static int luma(int argb) {
+        int r = (argb >> 16) & 0xFF;
+        int g = (argb >> 8) & 0xFF;
+        int b = argb & 0xFF;
+        return (r * 299 + g * 587 + b * 114) / 1000;
+    }
+}
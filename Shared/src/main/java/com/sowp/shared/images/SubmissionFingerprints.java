@@ -0,0 +1,42 @@
+package com.sowp.shared.images;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@code SubmissionFingerprints} documents graders search for copied pages. Each assignment
+ * attempt gets one next to it, at {@code User/{email}/SubmissionFingerprints/{attemptId}}, holding
+ * only the {@link PerceptualHash} of each page and their bands; the attempt itself carries every
+ * page inline and is far too large to read as a search candidate.
+ */
+public final class SubmissionFingerprints {
+
+    public static final String COLLECTION = "SubmissionFingerprints";
+    public static final String FIELD_FINGERPRINTS = "fingerprints";
+    public static final String FIELD_BANDS = "fingerprintBands";
+    public static final String FIELD_SUBMITTED_AT = "submittedAt";
+
+    private SubmissionFingerprints() {
+    }
+
+    public static Map<String, Object> document(List<String> fingerprints, long submittedAt) {
+        Map<String, Object> document = new HashMap<>();
+        document.put(FIELD_FINGERPRINTS, new ArrayList<>(fingerprints));
+        document.put(FIELD_BANDS, bands(fingerprints));
+        document.put(FIELD_SUBMITTED_AT, submittedAt);
+        return document;
+    }
+
+    /** Distinct bands of every page, so graders can query for submissions sharing any of them. */
+    public static List<String> bands(List<String> fingerprints) {
+        Set<String> bands = new LinkedHashSet<>();
+        for (String fingerprint : fingerprints) {
+            if (fingerprint != null) bands.addAll(PerceptualHash.bands(fingerprint));
+        }
+        return new ArrayList<>(bands);
+    }
+}
@@ -0,0 +1,146 @@
+package com.sowp.shared.search;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Filters a list screen's items off the main thread as the user types. Keystrokes are debounced,
+ * so a burst of typing runs the filter once, and each new run cancels the one before it: a result
+ * is only delivered if nothing newer was asked for in the meantime. Results arrive on the main
+ * thread. Screens call {@link #cancel()} when they are destroyed.
+ *
+ * <p>All methods are called on the main thread.
+ */
+public class SearchPipeline<T> {
+    private static final String TAG = "SearchPipeline";
+    public static final long DEFAULT_DEBOUNCE_MS = 250;
+
+    private final Filter<T> filter;
+    private final Listener<T> listener;
+    private final long debounceMs;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable debouncedRun = this::run;
+
+    private List<T> items = Collections.emptyList();
+    private String query = "";
+    private Future<?> pending;
+    // Bumped for every run; a result whose generation is not the latest is dropped
+    private int generation;
+    private boolean cancelled;
+
+    public interface Filter<T> {
+        /**
+         * Called on the main thread when a run starts. Read the screen's other filter settings
+         * here and capture them in the returned matcher, which then runs on a worker thread.
+         */
+        Matcher<T> forQuery(String query);
+    }
+
+    public interface Matcher<T> {
+        /**
+         * Returns the matching items in display order. Runs on a worker thread and must not touch
+         * views; long loops may stop early once {@link Thread#isInterrupted()} is set.
+         */
+        List<T> apply(List<T> items);
+    }
+
+    public interface Listener<T> {
+        void onResults(List<T> results);
+    }
+
+    public SearchPipeline(Filter<T> filter, Listener<T> listener) {
+        this(filter, listener, DEFAULT_DEBOUNCE_MS);
+    }
+
+    public SearchPipeline(Filter<T> filter, Listener<T> listener, long debounceMs) {
+        this.filter = filter;
+        this.listener = listener;
+        this.debounceMs = debounceMs;
+    }
+
+    /** Replaces the items being filtered and filters them right away. */
+    public void setItems(List<T> newItems) {
+        items = Collections.unmodifiableList(new ArrayList<>(newItems));
+        refresh();
+    }
+
+    /** Filters with {@code newQuery} once typing pauses. */
+    public void setQuery(String newQuery) {
+        String trimmed = newQuery == null ? "" : newQuery.trim();
+        if (trimmed.equals(query)) return;
+
+        query = trimmed;
+        mainHandler.removeCallbacks(debouncedRun);
+        mainHandler.postDelayed(debouncedRun, debounceMs);
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    /** Filters again now, e.g. after a spinner changed a setting the matcher reads. */
+    public void refresh() {
+        mainHandler.removeCallbacks(debouncedRun);
+        run();
+    }
+
+    /** A watcher that feeds an EditText's text into {@link #setQuery}. */
+    public TextWatcher textWatcher() {
+        return new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                setQuery(s.toString());
+            }
+        };
+    }
+
+    public void cancel() {
+        cancelled = true;
+        mainHandler.removeCallbacksAndMessages(null);
+        worker.shutdownNow();
+    }
+
+    private void run() {
+        if (cancelled) return;
+
+        int runGeneration = ++generation;
+        if (pending != null) {
+            pending.cancel(true);
+        }
+
+        List<T> snapshot = items;
+        Matcher<T> matcher = filter.forQuery(query);
+        pending = worker.submit(() -> {
+            List<T> results;
+            try {
+                results = matcher.apply(snapshot);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Search filter failed", e);
+                return;
+            }
+            if (Thread.currentThread().isInterrupted()) return;
+
+            mainHandler.post(() -> {
+                if (cancelled || runGeneration != generation) return;
+                listener.onResults(results);
+            });
+        });
+    }
+}
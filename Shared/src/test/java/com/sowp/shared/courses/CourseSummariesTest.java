@@ -0,0 +1,55 @@
+package com.sowp.shared.courses;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CourseSummariesTest {
+
+    @Test
+    public void project_keepsListFieldsOnly() {
+        Map<String, Object> course = new HashMap<>();
+        course.put("id", 7);
+        course.put("title", "Data Structures");
+        course.put("members", 120);
+        course.put("categoryArray", Arrays.asList("Programming"));
+        course.put("outline", "Week 1: arrays");
+        course.put("illustration", "iVBORw0KGgo");
+        course.put("illustrationRef", new HashMap<String, Object>());
+        course.put("preRequisite", Arrays.asList("Programming Fundamentals"));
+
+        Map<String, Object> summary = CourseSummaries.project(course);
+
+        assertEquals(5, summary.size());
+        assertEquals("Data Structures", summary.get("title"));
+        assertFalse(summary.containsKey("outline"));
+        assertFalse(summary.containsKey("illustration"));
+    }
+
+    @Test
+    public void project_keepsInlineIllustrationUntilMigrated() {
+        Map<String, Object> course = new HashMap<>();
+        course.put("title", "Data Structures");
+        course.put("illustration", "iVBORw0KGgo");
+
+        assertEquals("iVBORw0KGgo", CourseSummaries.project(course).get("illustration"));
+    }
+
+    @Test
+    public void project_cutsLongDescriptions() {
+        StringBuilder description = new StringBuilder();
+        while (description.length() < 1000) description.append("Trees and graphs. ");
+        Map<String, Object> course = new HashMap<>();
+        course.put("description", description.toString());
+
+        String excerpt = (String) CourseSummaries.project(course).get("description");
+
+        assertTrue(excerpt.length() <= CourseSummaries.DESCRIPTION_EXCERPT_LENGTH + 1);
+        assertTrue(excerpt.startsWith("Trees and graphs."));
+        assertEquals("Short", CourseSummaries.excerpt("Short"));
+    }
+}
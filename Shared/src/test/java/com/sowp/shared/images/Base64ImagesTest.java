@@ -0,0 +1,39 @@
+package com.sowp.shared.images;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class Base64ImagesTest {
+
+    @Test
+    public void sampleSize_keepsBothSidesAtLeastTheRequestedSize() {
+        // A 12 MP phone photo shown in an 80px thumbnail
+        assertEquals(32, Base64Images.sampleSize(4000, 3000, 80, 80));
+        assertEquals(2, Base64Images.sampleSize(1600, 1200, 800, 600));
+        assertEquals(1, Base64Images.sampleSize(1600, 1200, 801, 600));
+    }
+
+    @Test
+    public void sampleSize_unknownSizeDecodesInFull() {
+        assertEquals(1, Base64Images.sampleSize(4000, 3000, 0, 0));
+    }
+
+    @Test
+    public void asciiInputStream_readsFromTheStartOffset() throws Exception {
+        InputStream input = new AsciiInputStream("data:image/png;base64,iVBORw0KGgo=", 22);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[5];
+        int read;
+        while ((read = input.read(buffer, 0, buffer.length)) != -1) {
+            out.write(buffer, 0, read);
+        }
+
+        assertEquals("iVBORw0KGgo=", new String(out.toByteArray(), StandardCharsets.US_ASCII));
+        assertEquals(-1, input.read());
+    }
+}
@@ -0,0 +1,87 @@
+package com.sowp.shared.images;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class BlurHashTest {
+
+    @Test
+    public void encode_uniformImageKeepsTheAverageColor() {
+        int[] pixels = new int[16 * 12];
+        Arrays.fill(pixels, 0xFFFF0000);
+
+        String hash = BlurHash.encode(pixels, 16, 12, 4, 3);
+
+        // Size flag, maximum AC value, 4-digit DC, then eleven 2-digit AC components
+        assertEquals(4 + 2 + 2 * 11, hash.length());
+        assertEquals("L", hash.substring(0, 1));
+        assertEquals(encodeBase83(0xFF0000, 4), hash.substring(2, 6));
+    }
+
+    @Test
+    public void encode_gradientChangesTheFirstHorizontalComponent() {
+        int width = 32;
+        int height = 8;
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int gray = x * 255 / (width - 1);
+                pixels[y * width + x] = 0xFF000000 | (gray << 16) | (gray << 8) | gray;
+            }
+        }
+
+        String hash = BlurHash.encode(pixels, width, height, 4, 3);
+
+        int[] flat = new int[width * height];
+        Arrays.fill(flat, 0xFF808080);
+        String flatHash = BlurHash.encode(flat, width, height, 4, 3);
+
+        // The first horizontal component carries the gradient
+        assertNotEquals(flatHash.substring(6, 8), hash.substring(6, 8));
+    }
+
+    @Test
+    public void decode_uniformImageComesBackInItsColor() {
+        int[] pixels = new int[16 * 12];
+        Arrays.fill(pixels, 0xFF3366CC);
+
+        // A single component is just the average color
+        int[] decoded = BlurHash.decode(BlurHash.encode(pixels, 16, 12, 1, 1), 8, 6);
+
+        assertEquals(8 * 6, decoded.length);
+        for (int pixel : decoded) {
+            assertEquals(0xFF3366CC, pixel);
+        }
+    }
+
+    @Test
+    public void decode_keepsAGradientsDirectionAndRejectsMalformedHashes() {
+        int width = 32;
+        int[] pixels = new int[width * 8];
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < width; x++) {
+                int gray = x * 255 / (width - 1);
+                pixels[y * width + x] = 0xFF000000 | (gray << 16) | (gray << 8) | gray;
+            }
+        }
+        String hash = BlurHash.encode(pixels, width, 8, 4, 3);
+
+        int[] decoded = BlurHash.decode(hash, 16, 4);
+        assertTrue((decoded[0] & 0xFF) < (decoded[15] & 0xFF));
+
+        assertNull(BlurHash.decode(hash.substring(1), 16, 4));
+        assertNull(BlurHash.decode(null, 16, 4));
+    }
+
+    private static String encodeBase83(int value, int length) {
+        String digits = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+        StringBuilder out = new StringBuilder();
+        for (int i = 1; i <= length; i++) {
+            out.append(digits.charAt((value / (int) Math.pow(83, length - i)) % 83));
+        }
+        return out.toString();
+    }
+}
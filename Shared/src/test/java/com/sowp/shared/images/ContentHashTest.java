@@ -0,0 +1,27 @@
+package com.sowp.shared.images;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class ContentHashTest {
+
+    @Test
+    public void sha256Hex_matchesKnownDigest() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                ContentHash.sha256Hex("abc".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void sha256Hex_ofTextMatchesItsAsciiBytes() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            text.append((char) ('A' + i % 26));
+        }
+
+        assertEquals(ContentHash.sha256Hex(text.toString().getBytes(StandardCharsets.US_ASCII)),
+                ContentHash.sha256Hex(text));
+    }
+}
@@ -0,0 +1,43 @@
+package com.sowp.shared.images;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ImageRefTest {
+
+    private static ImageRef photo() {
+        ImageRef ref = new ImageRef("full", 3200, 2400, null);
+        ref.setThumbnailHash("thumb");
+        ref.setMediumHash("medium");
+        return ref;
+    }
+
+    @Test
+    public void hashForSize_picksTheSmallestVariantThatCovers() {
+        // Variants are 256x192 and 800x600
+        assertEquals("thumb", photo().hashForSize(200, 150));
+        assertEquals("medium", photo().hashForSize(300, 150));
+        assertEquals("full", photo().hashForSize(1200, 900));
+    }
+
+    @Test
+    public void hashForSize_unknownSizeUsesMedium() {
+        assertEquals("medium", photo().hashForSize(0, 0));
+    }
+
+    @Test
+    public void hashForSize_missingVariantsFallBackToFull() {
+        ImageRef small = new ImageRef("full", 200, 100, null);
+        assertEquals("full", small.hashForSize(100, 50));
+        assertEquals("full", small.hashForSize(0, 0));
+    }
+
+    @Test
+    public void fromMap_readsVariantHashes() {
+        ImageRef ref = ImageRef.fromMap(photo().toMap());
+        assertNotNull(ref);
+        assertEquals("thumb", ref.getThumbnailHash());
+        assertEquals("medium", ref.getMediumHash());
+    }
+}
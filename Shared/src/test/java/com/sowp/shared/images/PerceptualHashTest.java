@@ -0,0 +1,55 @@
+package com.sowp.shared.images;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PerceptualHashTest {
+
+    @Test
+    public void fromPixels_brightnessChangesDoNotChangeTheHash() {
+        String dark = PerceptualHash.fromPixels(gradient(0));
+        String light = PerceptualHash.fromPixels(gradient(60));
+
+        assertEquals(16, dark.length());
+        assertEquals(0, PerceptualHash.distance(dark, light));
+    }
+
+    @Test
+    public void distance_countsDifferingBits() {
+        assertEquals(0, PerceptualHash.distance("00000000000000ff", "00000000000000ff"));
+        assertEquals(8, PerceptualHash.distance("0000000000000000", "00000000000000ff"));
+        assertEquals(64, PerceptualHash.distance("0000000000000000", "ffffffffffffffff"));
+        assertEquals(-1, PerceptualHash.distance("not a hash", "0000000000000000"));
+        assertTrue(PerceptualHash.isNearDuplicate("0000000000000000", "0000000000000007"));
+        assertFalse(PerceptualHash.isNearDuplicate("0000000000000000", "00000000000000ff"));
+    }
+
+    @Test
+    public void bands_nearDuplicatesShareABand() {
+        // Seven differing bits, one in each of the first seven bands
+        String a = "0000000000000000";
+        String b = "0101010101010100";
+        List<String> bandsA = PerceptualHash.bands(a);
+        List<String> bandsB = PerceptualHash.bands(b);
+
+        assertEquals(8, bandsA.size());
+        assertEquals("0:00", bandsA.get(0));
+        bandsA.retainAll(bandsB);
+        assertEquals(1, bandsA.size());
+    }
+
+    // 9x8 pixels getting brighter to the left, so every comparison sets its bit
+    private static int[] gradient(int offset) {
+        int[] pixels = new int[9 * 8];
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 9; x++) {
+                int gray = offset + (8 - x) * 20;
+                pixels[y * 9 + x] = 0xFF000000 | (gray << 16) | (gray << 8) | gray;
+            }
+        }
+        return pixels;
+    }
+}